@@ -0,0 +1,83 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.Set;
+
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.MechFileParser;
+import megamek.common.loaders.EntityLoadingException;
+
+/**
+ * The units the benchmarks run against, read from benchmarks/corpus.txt. The unit files are kept
+ * under benchmarks/units. Every call loads a new copy of the unit so a benchmark that changes its
+ * unit does not affect the others.
+ */
+public final class Corpus {
+
+    public static final String CORPUS_FILE = "benchmarks/corpus.txt";
+
+    private static Properties entries = null;
+
+    private Corpus() {
+    }
+
+    /**
+     * Loads a unit from the corpus.
+     *
+     * @param key The key of the unit in the corpus file
+     * @return    A new copy of the unit
+     * @throws IOException            if the corpus file cannot be read
+     * @throws EntityLoadingException if the unit file cannot be parsed
+     * @throws IllegalArgumentException if the key is not in the corpus or the unit file does not
+     *                                  exist
+     */
+    public static Entity load(String key) throws IOException, EntityLoadingException {
+        final String unit = getEntries().getProperty(key);
+        if (null == unit) {
+            throw new IllegalArgumentException("No unit for " + key + " in " + CORPUS_FILE);
+        }
+        EquipmentType.initializeTypes();
+        File file = new File(unit);
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("Unit file " + unit + " for " + key + " not found");
+        }
+        return new MechFileParser(file).getEntity();
+    }
+
+    /**
+     * @return The keys of the units in the corpus
+     * @throws IOException if the corpus file cannot be read
+     */
+    public static Set<String> keys() throws IOException {
+        return getEntries().stringPropertyNames();
+    }
+
+    private static synchronized Properties getEntries() throws IOException {
+        if (null == entries) {
+            Properties p = new Properties();
+            try (InputStream in = new FileInputStream(CORPUS_FILE)) {
+                p.load(in);
+            }
+            entries = p;
+        }
+        return entries;
+    }
+}
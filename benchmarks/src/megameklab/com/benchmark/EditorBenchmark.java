@@ -0,0 +1,183 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.benchmark;
+
+import java.awt.event.ActionEvent;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import megamek.common.Entity;
+import megamek.common.ITechManager;
+import megameklab.com.ui.EntitySource;
+import megameklab.com.ui.Mek.MainUI;
+import megameklab.com.ui.Mek.tabs.BuildTab;
+import megameklab.com.ui.Mek.tabs.EquipmentTab;
+import megameklab.com.ui.Mek.tabs.StructureTab;
+import megameklab.com.util.RefreshListener;
+
+/**
+ * Measures the Mek editor operations that run on the event dispatch thread: filtering the
+ * equipment database, filling the critical slots and allocating armor. The tabs are created
+ * without a frame, the same way the Mek main window creates them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true", "-Xmx1g" })
+public class EditorBenchmark {
+
+    // The action commands of the build tab buttons
+    private static final String AUTOFILL_COMMAND = "autofillbuttoncommand";
+    private static final String RESET_COMMAND = "resetbuttoncommand";
+
+    @Param({ "biped", "quad", "lam" })
+    public String unit;
+
+    private Source source;
+    private StructureTab structureTab;
+    private EquipmentTab equipmentTab;
+    private BuildTab buildTab;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        source = new Source(Corpus.load(unit));
+        structureTab = new StructureTab(source);
+        source.techManager = structureTab.getTechManager();
+        equipmentTab = new EquipmentTab(source);
+        buildTab = new BuildTab(source, equipmentTab);
+        RefreshListener refresh = new Refresh();
+        structureTab.addRefreshedListener(refresh);
+        equipmentTab.addRefreshedListener(refresh);
+        buildTab.addRefreshedListener(refresh);
+    }
+
+    /**
+     * Moves all equipment back to the unallocated list before each call to
+     * {@link EditorBenchmark#autoFillCrits(UnallocatedCrits)}. This is a separate state so the
+     * other benchmarks run against the unit as loaded and are not timed with a per-call setup.
+     */
+    @State(Scope.Thread)
+    public static class UnallocatedCrits {
+        @Setup(Level.Invocation)
+        public void resetCrits(EditorBenchmark benchmark) {
+            benchmark.buildTab.actionPerformed(new ActionEvent(benchmark.buildTab,
+                    ActionEvent.ACTION_PERFORMED, RESET_COMMAND));
+        }
+    }
+
+    @Benchmark
+    public void filterEquipment() {
+        equipmentTab.refreshTable();
+    }
+
+    @Benchmark
+    public void autoFillCrits(UnallocatedCrits crits) {
+        buildTab.actionPerformed(new ActionEvent(buildTab, ActionEvent.ACTION_PERFORMED, AUTOFILL_COMMAND));
+    }
+
+    @Benchmark
+    public void autoAllocateArmor() {
+        structureTab.autoAllocateArmor();
+    }
+
+    private static class Source implements EntitySource {
+        private Entity entity;
+        private ITechManager techManager;
+
+        Source(Entity entity) {
+            this.entity = entity;
+        }
+
+        @Override
+        public Entity getEntity() {
+            return entity;
+        }
+
+        @Override
+        public void createNewUnit(long entitytype, boolean isPrimitive, boolean isIndustrial, Entity oldUnit) {
+            entity = MainUI.createMech(entitytype, isPrimitive, isIndustrial, oldUnit);
+        }
+
+        @Override
+        public ITechManager getTechManager() {
+            return techManager;
+        }
+    }
+
+    /**
+     * Keeps the build tab's list of unallocated equipment current, as the main window does.
+     * Nothing else needs refreshing without a frame.
+     */
+    private class Refresh implements RefreshListener {
+        @Override
+        public void refreshHeader() {
+        }
+
+        @Override
+        public void refreshStatus() {
+        }
+
+        @Override
+        public void refreshAll() {
+            buildTab.refresh();
+        }
+
+        @Override
+        public void refreshStructure() {
+        }
+
+        @Override
+        public void refreshArmor() {
+        }
+
+        @Override
+        public void refreshWeapons() {
+        }
+
+        @Override
+        public void refreshEquipment() {
+        }
+
+        @Override
+        public void refreshBuild() {
+            buildTab.refresh();
+        }
+
+        @Override
+        public void refreshPreview() {
+        }
+
+        @Override
+        public void refreshSummary() {
+        }
+
+        @Override
+        public void refreshEquipmentTable() {
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.printing;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.print.PageFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kitfox.svg.Rect;
+import com.kitfox.svg.SVGDiagram;
+import com.kitfox.svg.SVGElement;
+import com.kitfox.svg.SVGException;
+
+import megamek.common.Mech;
+import megameklab.com.benchmark.Corpus;
+
+/**
+ * Measures the Mek record sheet: laying out armor pips, measuring text, and filling in and
+ * rendering a whole sheet to an off-screen image. This is in the printing package so it can
+ * call the protected pip layout directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true", "-Xmx1g" })
+public class PrintBenchmark {
+
+    @Param({ "biped", "quad", "lam" })
+    public String unit;
+
+    private Mech mech;
+    private PrintMech sheet;
+    private PageFormat pageFormat;
+    private Graphics2D g2d;
+    private SVGElement canvas;
+    private SVGElement pipGroup;
+    private int pipCount;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        mech = (Mech) Corpus.load(unit);
+        sheet = new PrintMech(mech, 0);
+        pageFormat = new PageFormat();
+        BufferedImage image = new BufferedImage((int) pageFormat.getImageableWidth(),
+                (int) pageFormat.getImageableHeight(), BufferedImage.TYPE_INT_ARGB);
+        g2d = image.createGraphics();
+        SVGDiagram diagram = sheet.createDiagram(g2d, pageFormat, 0);
+        if (null == diagram) {
+            throw new IllegalStateException("Could not load the record sheet template for " + unit);
+        }
+        canvas = diagram.getRoot();
+        pipGroup = diagram.getElement("armorPips" + mech.getLocationAbbr(Mech.LOC_CT));
+        pipCount = mech.getOArmor(Mech.LOC_CT);
+        clearPips();
+    }
+
+    /**
+     * Removes the pips added to the center torso armor region, leaving the rows that define it.
+     */
+    @TearDown(Level.Invocation)
+    public void clearPips() throws SVGException {
+        for (int i = pipGroup.getNumChildren() - 1; i >= 0; i--) {
+            if (!(pipGroup.getChild(i) instanceof Rect)) {
+                pipGroup.removeChild(pipGroup.getChild(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public SVGElement addPips() throws SVGException {
+        sheet.addPips(pipGroup, pipCount, true, PrintRecordSheet.PipType.forAT(mech.getArmorType(Mech.LOC_CT)));
+        return pipGroup;
+    }
+
+    @Benchmark
+    public double getTextLength() throws SVGException {
+        return PrintRecordSheet.getTextLength("Medium Pulse Laser", 7.0, canvas);
+    }
+
+    /**
+     * Loads the template and fills in the sheet without rendering it.
+     */
+    @Benchmark
+    public SVGDiagram createDiagram() throws Exception {
+        return sheet.createDiagram(g2d, pageFormat, 0);
+    }
+
+    /**
+     * Fills in the sheet and renders it, as a print job does for each page.
+     */
+    @Benchmark
+    public int printImage() throws Exception {
+        sheet.clearPageCache();
+        return sheet.print(g2d, pageFormat, 0);
+    }
+}
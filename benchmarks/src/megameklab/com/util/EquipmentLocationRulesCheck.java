@@ -0,0 +1,137 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import megamek.common.Aero;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.Mech;
+import megameklab.com.benchmark.Corpus;
+
+/**
+ * Compares the {@link EquipmentLocationRules} tables with the placement rules they are compiled
+ * from. The units in the benchmark corpus are changed at random between checks, so a unit
+ * property that the rules read but the table configuration leaves out shows up as a table
+ * compiled for one unit being used for another that gets different answers.
+ *
+ * Run with ant check-location-rules. The optional arguments are the random seed and the number
+ * of trials; the seed is printed so a failure can be repeated. Exits with status 1 if any answer
+ * differs.
+ */
+public class EquipmentLocationRulesCheck {
+
+    // The cockpits that change the placement rules, along with the standard cockpit
+    private static final int[] COCKPITS = {
+            Mech.COCKPIT_STANDARD, Mech.COCKPIT_SMALL, Mech.COCKPIT_TORSO_MOUNTED,
+            Mech.COCKPIT_INDUSTRIAL, Mech.COCKPIT_PRIMITIVE_INDUSTRIAL
+    };
+    // The number of equipment types checked in each trial
+    private static final int TYPES_PER_TRIAL = 200;
+
+    private final Random random;
+    private int checks = 0;
+    private int mismatches = 0;
+
+    public static void main(String[] args) throws Exception {
+        final long seed = (args.length > 0) ? Long.parseLong(args[0]) : System.nanoTime();
+        final int trials = (args.length > 1) ? Integer.parseInt(args[1]) : 500;
+        System.out.println("Seed: " + seed);
+
+        final EquipmentLocationRulesCheck check = new EquipmentLocationRulesCheck(new Random(seed));
+        final List<String> keys = new ArrayList<>(Corpus.keys());
+        Collections.sort(keys);
+        final Map<String, Entity> units = new HashMap<>();
+        for (String key : keys) {
+            units.put(key, Corpus.load(key));
+        }
+        final List<EquipmentType> types = new ArrayList<>();
+        for (Enumeration<EquipmentType> e = EquipmentType.getAllTypes(); e.hasMoreElements(); ) {
+            types.add(e.nextElement());
+        }
+
+        for (int trial = 0; trial < trials; trial++) {
+            final String key = keys.get(check.random.nextInt(keys.size()));
+            final Entity unit = units.get(key);
+            check.change(unit);
+            for (int i = 0; i < TYPES_PER_TRIAL; i++) {
+                check.compare(key, unit, types.get(check.random.nextInt(types.size())));
+            }
+        }
+        System.out.println(check.checks + " checks, " + check.mismatches + " mismatches");
+        if (check.mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    private EquipmentLocationRulesCheck(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Changes the unit properties the placement rules read. The weight is not part of the table
+     * configuration, so it is changed too, in fractions of a ton for support vehicles.
+     */
+    private void change(Entity unit) {
+        if (unit instanceof Mech) {
+            unit.setWeight(10 + 5 * random.nextInt(39));
+            ((Mech) unit).setCockpitType(COCKPITS[random.nextInt(COCKPITS.length)]);
+        } else {
+            double weight = 1 + random.nextInt(Math.max(1, (int) unit.getWeight() * 2));
+            if (unit.isSupportVehicle()) {
+                weight += random.nextInt(1000) / 1000.0;
+            }
+            unit.setWeight(weight);
+        }
+    }
+
+    private void compare(String key, Entity unit, EquipmentType eq) {
+        for (int loc = 0; loc < unit.locations(); loc++) {
+            report(key, unit, eq, "location " + loc, UnitUtil.isValidLocation(unit, eq, loc),
+                    UnitUtil.computeValidLocation(unit, eq, loc));
+        }
+        if (unit instanceof Mech) {
+            report(key, unit, eq, "Mech weapon", UnitUtil.isMechWeapon(eq, unit),
+                    UnitUtil.computeMechWeapon(eq, unit));
+            report(key, unit, eq, "Mech equipment", UnitUtil.isMechEquipment(eq, (Mech) unit),
+                    UnitUtil.computeMechEquipment(eq, (Mech) unit));
+        }
+        if (unit instanceof Aero) {
+            report(key, unit, eq, "aero weapon", UnitUtil.isAeroWeapon(eq, (Aero) unit),
+                    UnitUtil.computeAeroWeapon(eq, (Aero) unit));
+        }
+        report(key, unit, eq, "tank weapon", UnitUtil.isTankWeapon(eq, unit),
+                UnitUtil.computeTankWeapon(eq, unit));
+        report(key, unit, eq, "battle armor weapon", UnitUtil.isBattleArmorWeapon(eq, unit),
+                UnitUtil.computeBattleArmorWeapon(eq, unit));
+    }
+
+    private void report(String key, Entity unit, EquipmentType eq, String rule, boolean cached,
+            boolean computed) {
+        checks++;
+        if (cached != computed) {
+            mismatches++;
+            System.out.println("Mismatch: " + key + " at " + unit.getWeight() + " tons, "
+                    + eq.getInternalName() + ", " + rule + ": table " + cached + ", rules "
+                    + computed);
+        }
+    }
+}
@@ -21,4 +21,11 @@ cd $(dirname "${BASH_SOURCE[0]}")
 JAVA=/usr/bin/java
 test -x "$JAVA_HOME/bin/java" && JAVA="$JAVA_HOME/bin/java"
 
-$JAVA -Xmx512m -jar MegaMekLab.jar
+# The JVM options, including the heap size, come from the launcher config shared with the
+# Windows launcher. Lines starting with # are comments.
+JAVA_OPTS="-Xmx512m"
+if test -f megameklab.l4j.ini; then
+    JAVA_OPTS=$(grep -v '^[[:space:]]*#' megameklab.l4j.ini | tr -d '\r' | tr '\n' ' ')
+fi
+
+$JAVA $JAVA_OPTS -jar MegaMekLab.jar "$@"
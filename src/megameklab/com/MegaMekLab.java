@@ -16,13 +16,14 @@
 
 package megameklab.com;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.Locale;
 
+import org.apache.log4j.LogManager;
+
 import megamek.MegaMek;
 import megamek.common.QuirksHandler;
 import megamek.common.logging.DefaultMmLogger;
@@ -30,12 +31,20 @@ import megamek.common.logging.LogConfig;
 import megamek.common.logging.LogLevel;
 import megamek.common.logging.MMLogger;
 import megameklab.com.ui.Mek.MainUI;
+import megameklab.com.util.AsyncLogStream;
+import megameklab.com.util.Diagnostics;
+import megameklab.com.util.LogPrintStream;
+import megameklab.com.util.MemoryPolicy;
+import megameklab.com.util.UnitService;
 
 public class MegaMekLab {
     public static final String VERSION = "0.43.5-git";
 
     private static MMLogger logger = null;
 
+    // The most log output to hold while the writer catches up
+    private static final long LOG_QUEUE_BYTES = 4 * 1024 * 1024;
+
     public static void main(String[] args) {
         final String METHOD_NAME = "main(String[])";
         
@@ -53,8 +62,11 @@ public class MegaMekLab {
         boolean logs = true;
         boolean vehicle = false;
         boolean battlearmor = false;
+        boolean service = false;
+        int servicePort = -1;
 
-        for (String arg : args) {
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
             if (arg.equalsIgnoreCase("-vehicle")) {
                 vehicle = true;
             }
@@ -66,82 +78,36 @@ public class MegaMekLab {
             if (arg.equalsIgnoreCase("-nolog")) {
                 logs = false;
             }
+
+            if (arg.equalsIgnoreCase("-service")) {
+                service = true;
+            }
+
+            if (arg.equalsIgnoreCase("-port")) {
+                servicePort = parsePort((i + 1 < args.length) ? args[++i] : null);
+            }
+        }
+
+        // The service answers on standard output, which logging redirects to the log file.
+        final PrintStream console = System.out;
+        if (service) {
+            System.setProperty("java.awt.headless", "true");
         }
 
         setupLogging(logs, logFileName);
+        MemoryPolicy.logMemory();
+
+        if (service) {
+            runService(servicePort, console);
+            return;
+        }
+        Diagnostics.installWatchdog();
         
         if (vehicle) {
-            Runtime runtime = Runtime.getRuntime();
-
-            getLogger().log(MegaMekLab.class, METHOD_NAME, LogLevel.INFO,
-                            "Memory Allocated [" +
-                            (runtime.maxMemory() / 1000) + "]");
-            // Need at least 200m to run MegaMekLab
-            if (runtime.maxMemory() < 200000000) {
-                try {
-                    String[] call =
-                        { "java", "-Xmx256m", "-splash:data/images/splash/megameklabsplashvehicle.jpg", "-jar", "MegaMekLab.jar", "-vehicle" };
-
-                    if (!logs) {
-                        call = new String[]
-                            { "java", "-Xmx256m", "-splash:data/images/splash/megameklabsplashvehicle.jpg", "-jar", "MegaMekLab.jar", "-vehicle", "-nolog" };
-                    }
-                    runtime.exec(call);
-                    System.exit(0);
-                } catch (Exception ex) {
-                    getLogger().log(MegaMekLab.class, METHOD_NAME, ex);
-                }
-            }
-
             new megameklab.com.ui.Vehicle.MainUI();
         } else if (battlearmor) {
-            Runtime runtime = Runtime.getRuntime();
-
-            getLogger().log(MegaMekLab.class, METHOD_NAME, LogLevel.INFO,
-                            "Memory Allocated [" +
-                            (runtime.maxMemory() / 1000) + "]");
-            // Need at least 200m to run MegaMekLab
-            if (runtime.maxMemory() < 200000000) {
-                try {
-                    String[] call =
-                        { "java", "-Xmx256m", "-splash:data/images/splash/megameklabsplashbattlearmor.jpg", "-jar", "MegaMekLab.jar", "-battlearmor" };
-
-                    if (!logs) {
-                        call = new String[]
-                            { "java", "-Xmx256m", "-splash:data/images/splash/megameklabsplashbattlearmor.jpg", "-jar", "MegaMekLab.jar", "-battlearmor", "-nolog" };
-                    }
-                    runtime.exec(call);
-                    System.exit(0);
-                } catch (Exception ex) {
-                    getLogger().log(MegaMekLab.class, METHOD_NAME, ex);
-                }
-            }
-
             new megameklab.com.ui.BattleArmor.MainUI();
         } else {
-
-            Runtime runtime = Runtime.getRuntime();
-
-            getLogger().log(MegaMekLab.class, METHOD_NAME, LogLevel.INFO,
-                            "Memory Allocated [" +
-                            (runtime.maxMemory() / 1000) + "]");
-            // Need at least 200m to run MegaMekLab
-            if (runtime.maxMemory() < 200000000) {
-                try {
-
-                    String[] call =
-                        { "java", "-Xmx256m", "-jar", "MegaMekLab.jar" };
-
-                    if (!logs) {
-                        call = new String[]
-                            { "java", "-Xmx256m", "-jar", "MegaMekLab.jar", "-nolog" };
-                    }
-                    runtime.exec(call);
-                    System.exit(0);
-                } catch (Exception ex) {
-                    getLogger().log(MegaMekLab.class, METHOD_NAME, ex);
-                }
-            }
             try {
                 // Needed for record sheet printing, and also displayed in unit preview.
                 QuirksHandler.initQuirksList();
@@ -154,6 +120,51 @@ public class MegaMekLab {
         }
     }
 
+    /**
+     * Parses the value of the -port option, exiting with a usage message if it is missing or is
+     * not a valid port number.
+     *
+     * @param value The argument following -port, or null if there is none
+     * @return      The port number
+     */
+    private static int parsePort(String value) {
+        try {
+            final int port = Integer.parseInt(value);
+            if ((port >= 0) && (port <= 65535)) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        System.err.println("Invalid port: " + value);
+        System.err.println("Usage: -service [-port <0-65535>]");
+        System.exit(2);
+        return -1;
+    }
+
+    /**
+     * Runs the headless unit service until it receives a shutdown request, then exits.
+     *
+     * @param port    The port to listen on, or -1 to read requests from standard input
+     * @param console Where to write responses to requests from standard input
+     */
+    private static void runService(int port, PrintStream console) {
+        final String METHOD_NAME = "runService(int,PrintStream)";
+
+        UnitService service = new UnitService(Runtime.getRuntime().availableProcessors());
+        try {
+            if (port >= 0) {
+                service.listen(port);
+            } else {
+                service.run(System.in, console);
+            }
+        } catch (IOException e) {
+            getLogger().log(MegaMekLab.class, METHOD_NAME, e);
+        }
+        service.shutdown();
+        System.exit(0);
+    }
+
     private static void setupLogging(final boolean logs,
                                      final String logFileName) {
         if (logs) {
@@ -163,14 +174,21 @@ public class MegaMekLab {
                     logPath.mkdir();
                 }
                 MegaMek.resetLogFile(logFileName);
-                PrintStream ps =
-                        new PrintStream(
-                                new BufferedOutputStream(
-                                        new FileOutputStream(logFileName,
-                                                             true),
-                                        64));
+                // Output is written to the file by a background thread so that logging does not
+                // wait on the disk. Set -Dmegameklab.log.overflow=drop to discard output rather
+                // than wait when the writer falls behind.
+                final AsyncLogStream logStream = new AsyncLogStream(
+                        new FileOutputStream(logFileName, true), LOG_QUEUE_BYTES,
+                        "drop".equalsIgnoreCase(System.getProperty("megameklab.log.overflow"))
+                                ? AsyncLogStream.Overflow.DROP : AsyncLogStream.Overflow.BLOCK);
+                PrintStream ps = new LogPrintStream(logStream);
                 System.setOut(ps);
                 System.setErr(ps);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    LogManager.shutdown();
+                    ps.flush();
+                    logStream.close();
+                }, "MegaMekLab log flush"));
             } catch (Exception ex) {
                 System.err.println("Unable to redirect output");
             }
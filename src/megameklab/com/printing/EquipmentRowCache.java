@@ -0,0 +1,336 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.printing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.kitfox.svg.SVGElement;
+import com.kitfox.svg.SVGException;
+
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.MiscType;
+import megamek.common.Mounted;
+import megameklab.com.util.MemoryPolicy;
+import megameklab.com.util.RecordSheetEquipmentLine;
+
+/**
+ * Formatted rows of the weapons and equipment inventory, shared by every sheet printed in the
+ * session. The same weapon in the same location looks the same on every sheet, so the line
+ * built for a mount is kept and reused for any other mount with the same equipment, location,
+ * linked equipment and tech base. The field text for each row is kept with the name and damage
+ * already broken into lines that fit the column, which saves measuring the text again.
+ */
+public class EquipmentRowCache {
+
+    // The number of inventory lines to keep
+    private static final int MAX_LINES = MemoryPolicy.choose(2048, 256);
+    // The number of laid out lines to keep
+    private static final int MAX_LAYOUTS = MemoryPolicy.choose(2048, 256);
+
+    private static final Map<LineKey, RecordSheetEquipmentLine> lines =
+            new LinkedHashMap<LineKey, RecordSheetEquipmentLine>(256, 0.75f, true) {
+        private static final long serialVersionUID = 4402178155374316040L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LineKey, RecordSheetEquipmentLine> eldest) {
+            if (size() > MAX_LINES) {
+                cachedLines.remove(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    // The lines held by the cache; guarded by the lock on lines
+    private static final Set<RecordSheetEquipmentLine> cachedLines =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private static final Map<LayoutKey, List<Row>> layouts = new LinkedHashMap<LayoutKey, List<Row>>(256, 0.75f, true) {
+        private static final long serialVersionUID = -3987126302437312466L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LayoutKey, List<Row>> eldest) {
+            return size() > MAX_LAYOUTS;
+        }
+    };
+
+    private EquipmentRowCache() {
+    }
+
+    /**
+     * One row of an inventory line. Lines for MMLs, ATMs and weapons with linked fire control
+     * have more than one row.
+     */
+    public static class Row {
+        private final List<String> nameLines;
+        private final List<String> damageLines;
+        private final String location;
+        private final String heat;
+        private final String min;
+        private final String shortRange;
+        private final String medium;
+        private final String longRange;
+
+        Row(List<String> nameLines, List<String> damageLines, String location, String heat, String min,
+                String shortRange, String medium, String longRange) {
+            this.nameLines = nameLines;
+            this.damageLines = damageLines;
+            this.location = location;
+            this.heat = heat;
+            this.min = min;
+            this.shortRange = shortRange;
+            this.medium = medium;
+            this.longRange = longRange;
+        }
+
+        /**
+         * @return The name, broken into lines that fit the name column
+         */
+        public List<String> getNameLines() {
+            return nameLines;
+        }
+
+        /**
+         * @return The damage, broken into lines that fit the damage column
+         */
+        public List<String> getDamageLines() {
+            return damageLines;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public String getHeat() {
+            return heat;
+        }
+
+        public String getMin() {
+            return min;
+        }
+
+        public String getShort() {
+            return shortRange;
+        }
+
+        public String getMedium() {
+            return medium;
+        }
+
+        public String getLong() {
+            return longRange;
+        }
+
+        /**
+         * @return The number of text lines taken up by the row
+         */
+        public int getLineCount() {
+            return Math.max(nameLines.size(), damageLines.size());
+        }
+    }
+
+    /**
+     * Finds the inventory line for a mount, creating it if no equivalent mount has been seen.
+     * Lines are compared by value when they are counted, so a shared instance groups the same
+     * way as a new one.
+     *
+     * @param m The mount
+     * @return  The line for the mount
+     */
+    public static RecordSheetEquipmentLine getLine(Mounted m) {
+        if (!isCacheable(m.getType())) {
+            return new RecordSheetEquipmentLine(m);
+        }
+        final LineKey key = new LineKey(m);
+        synchronized (lines) {
+            RecordSheetEquipmentLine line = lines.get(key);
+            if (null != line) {
+                return line;
+            }
+        }
+        RecordSheetEquipmentLine line = new RecordSheetEquipmentLine(m);
+        synchronized (lines) {
+            RecordSheetEquipmentLine existing = lines.putIfAbsent(key, line);
+            if (null != existing) {
+                return existing;
+            }
+            cachedLines.add(line);
+            return line;
+        }
+    }
+
+    /**
+     * Finds the formatted rows for an inventory line at the given column widths, measuring and
+     * breaking the name and damage text the first time.
+     *
+     * @param line         The inventory line
+     * @param mixedTech    Whether the unit is mixed tech, which keeps the tech base in the name
+     * @param nameWidth    The width of the name column
+     * @param damageWidth  The width of the damage column
+     * @param fontSize     The font size
+     * @param canvas       The element used to measure text. This should be the root of the
+     *                     diagram so the measurement does not depend on inherited styles.
+     * @return             The rows of the line
+     * @throws SVGException
+     */
+    public static List<Row> getRows(RecordSheetEquipmentLine line, boolean mixedTech, double nameWidth,
+            double damageWidth, double fontSize, SVGElement canvas) throws SVGException {
+        final LayoutKey key = new LayoutKey(line, mixedTech, nameWidth, damageWidth, fontSize);
+        synchronized (layouts) {
+            List<Row> rows = layouts.get(key);
+            if (null != rows) {
+                return rows;
+            }
+        }
+        List<Row> rows = new ArrayList<>(line.nRows());
+        for (int r = 0; r < line.nRows(); r++) {
+            rows.add(new Row(
+                    PrintRecordSheet.breakLines(line.getNameField(r, mixedTech), nameWidth, fontSize, canvas, ' '),
+                    PrintRecordSheet.breakLines(line.getDamageField(r), damageWidth, fontSize, canvas, ' '),
+                    line.getLocationField(r), line.getHeatField(r), line.getMinField(r),
+                    line.getShortField(r), line.getMediumField(r), line.getLongField(r)));
+        }
+        rows = Collections.unmodifiableList(rows);
+        final boolean cached;
+        synchronized (lines) {
+            cached = cachedLines.contains(line);
+        }
+        // Lines that were not shared are only used once, so their layout is not kept.
+        if (cached) {
+            synchronized (layouts) {
+                layouts.put(key, rows);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Releases all cached lines.
+     */
+    public static void clear() {
+        synchronized (lines) {
+            lines.clear();
+            cachedLines.clear();
+        }
+        synchronized (layouts) {
+            layouts.clear();
+        }
+    }
+
+    /**
+     * Melee weapons and talons have damage and heat values that depend on the unit's weight or
+     * the state of the mount, so they are always built fresh.
+     */
+    private static boolean isCacheable(EquipmentType type) {
+        return !((type instanceof MiscType) && (type.hasFlag(MiscType.F_CLUB)
+                || type.hasFlag(MiscType.F_HAND_WEAPON) || type.hasFlag(MiscType.F_TALON)));
+    }
+
+    /**
+     * The properties of a mount and its unit that the text of an inventory line depends on.
+     */
+    private static class LineKey {
+        private final EquipmentType type;
+        private final EquipmentType linkedBy;
+        private final Class<?> unitClass;
+        private final int location;
+        private final int secondLocation;
+        private final boolean rear;
+        private final boolean turret;
+        private final boolean mixedTech;
+        private final boolean clan;
+        private final int techYear;
+
+        LineKey(Mounted m) {
+            final Entity unit = m.getEntity();
+            type = m.getType();
+            linkedBy = (null == m.getLinkedBy()) ? null : m.getLinkedBy().getType();
+            unitClass = unit.getClass();
+            location = m.getLocation();
+            secondLocation = m.getSecondLocation();
+            rear = m.isRearMounted();
+            turret = m.isMechTurretMounted();
+            mixedTech = unit.isMixedTech();
+            clan = unit.isClan();
+            techYear = unit.getTechLevelYear();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LineKey)) {
+                return false;
+            }
+            LineKey other = (LineKey) o;
+            return (type == other.type) && (linkedBy == other.linkedBy) && (unitClass == other.unitClass)
+                    && (location == other.location) && (secondLocation == other.secondLocation)
+                    && (rear == other.rear) && (turret == other.turret) && (mixedTech == other.mixedTech)
+                    && (clan == other.clan) && (techYear == other.techYear);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(type), System.identityHashCode(linkedBy), unitClass,
+                    location, secondLocation, rear, turret, mixedTech, clan, techYear);
+        }
+    }
+
+    /**
+     * Identifies a cached line laid out at a particular size. Lines are compared by identity
+     * since lines that are equal by value may still differ in damage or range.
+     */
+    private static class LayoutKey {
+        private final RecordSheetEquipmentLine line;
+        private final boolean mixedTech;
+        private final double nameWidth;
+        private final double damageWidth;
+        private final double fontSize;
+
+        LayoutKey(RecordSheetEquipmentLine line, boolean mixedTech, double nameWidth, double damageWidth,
+                double fontSize) {
+            this.line = line;
+            this.mixedTech = mixedTech;
+            this.nameWidth = nameWidth;
+            this.damageWidth = damageWidth;
+            this.fontSize = fontSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LayoutKey)) {
+                return false;
+            }
+            LayoutKey other = (LayoutKey) o;
+            return (line == other.line) && (mixedTech == other.mixedTech) && (nameWidth == other.nameWidth)
+                    && (damageWidth == other.damageWidth) && (fontSize == other.fontSize);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(line), mixedTech, nameWidth, damageWidth, fontSize);
+        }
+    }
+}
@@ -0,0 +1,708 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.printing;
+
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes record sheets directly to a PDF file. Pages are drawn with a {@link PdfGraphics2D} and
+ * written to the output as soon as each one is finished, so the memory used does not depend on
+ * the number of pages.
+ *
+ * The drawing operations of each page are grouped into chunks at boundaries chosen from the
+ * content of the operations, so a run of identical operations produces identical chunks
+ * wherever it appears. The second time a chunk is seen it is written once as a form object and
+ * every later use only references it. This way the template geometry shared by sheets (tables,
+ * borders, logos) is stored once per file while the unit data is written inline. Text drawn
+ * with fonts is written with Type 3 fonts that contain only the glyphs that were used, and
+ * identical images are stored once.
+ */
+public class PdfDocument implements Closeable {
+
+    // Chunks smaller than this are always written inline
+    private static final int FORM_MIN_BYTES = 256;
+    // A chunk ends at an operation boundary once it is at least this long...
+    private static final int CHUNK_MIN_BYTES = 512;
+    // ...and is always ended once it reaches this size
+    private static final int CHUNK_MAX_BYTES = 64 * 1024;
+    // One operation in this many ends a chunk once it has reached the minimum size
+    private static final int CHUNK_BOUNDARY_MASK = 0x7;
+
+    private final CountingOutputStream out;
+    private final List<Long> offsets = new ArrayList<>();
+    private final int catalogRef;
+    private final int pagesRef;
+    private final int resourcesRef;
+    private final List<Integer> pageRefs = new ArrayList<>();
+
+    private final Map<String, Integer> xObjects = new LinkedHashMap<>();
+    private final Map<String, String> imageNames = new HashMap<>();
+    private final Map<String, String> formNames = new HashMap<>();
+    private final Set<String> seenChunks = new HashSet<>();
+    private final Map<Integer, String> alphaStates = new LinkedHashMap<>();
+    private final Map<String, List<Type3Font>> fonts = new LinkedHashMap<>();
+    private final List<Type3Font> allFonts = new ArrayList<>();
+
+    private Page currentPage = null;
+    private int formUses = 0;
+    private boolean closed = false;
+
+    /**
+     * Starts a new document.
+     *
+     * @param os The stream to write the file to. It is closed when the document is closed.
+     * @throws IOException if the header cannot be written
+     */
+    public PdfDocument(OutputStream os) throws IOException {
+        out = new CountingOutputStream(new BufferedOutputStream(os));
+        out.write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n".getBytes(StandardCharsets.ISO_8859_1));
+        catalogRef = reserve();
+        pagesRef = reserve();
+        resourcesRef = reserve();
+    }
+
+    /**
+     * Starts a new page. The graphics object uses Java2D page coordinates in points, with the
+     * origin at the top left.
+     *
+     * @param width  The page width in points
+     * @param height The page height in points
+     * @return       The graphics object to draw the page with
+     */
+    public PdfGraphics2D beginPage(double width, double height) {
+        if (null != currentPage) {
+            throw new IllegalStateException("The previous page has not been finished");
+        }
+        currentPage = new Page(width, height);
+        return new PdfGraphics2D(this);
+    }
+
+    /**
+     * Finishes the current page and writes it to the file.
+     *
+     * @throws IOException if the page cannot be written
+     */
+    public void endPage() throws IOException {
+        if (null == currentPage) {
+            throw new IllegalStateException("No page has been started");
+        }
+        Page page = currentPage;
+        page.closeChunk();
+        currentPage = null;
+        int contentRef = reserve();
+        writeStream(contentRef, "", page.content.toByteArray());
+        int pageRef = reserve();
+        beginObject(pageRef);
+        write("<< /Type /Page /Parent " + pagesRef + " 0 R /MediaBox [0 0 " + num(page.width, 2) + " "
+                + num(page.height, 2) + "] /Resources " + resourcesRef + " 0 R /Contents " + contentRef
+                + " 0 R >>\n");
+        endObject();
+        pageRefs.add(pageRef);
+    }
+
+    /**
+     * @return The number of pages written so far
+     */
+    public int getPageCount() {
+        return pageRefs.size();
+    }
+
+    /**
+     * @return The number of bytes written to the file so far
+     */
+    public long getBytesWritten() {
+        return out.count;
+    }
+
+    /**
+     * @return The number of shared form objects in the file
+     */
+    public int getFormCount() {
+        return formNames.size();
+    }
+
+    /**
+     * @return The number of times content was drawn by referencing a shared form
+     */
+    public int getFormUses() {
+        return formUses;
+    }
+
+    /**
+     * Writes the fonts, shared resources and cross reference table and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (null != currentPage) {
+            endPage();
+        }
+        StringBuilder fontDict = new StringBuilder();
+        for (Type3Font font : allFonts) {
+            writeFont(font);
+            fontDict.append('/').append(font.name).append(' ').append(font.ref).append(" 0 R ");
+        }
+        StringBuilder res = new StringBuilder("<< /ProcSet [/PDF /Text /ImageB /ImageC]");
+        if (fontDict.length() > 0) {
+            res.append(" /Font << ").append(fontDict).append(">>");
+        }
+        if (!xObjects.isEmpty()) {
+            res.append(" /XObject << ");
+            xObjects.forEach((name, ref) -> res.append('/').append(name).append(' ').append(ref).append(" 0 R "));
+            res.append(">>");
+        }
+        if (!alphaStates.isEmpty()) {
+            res.append(" /ExtGState << ");
+            alphaStates.forEach((alpha, name) -> {
+                String a = num(alpha / 255.0, 3);
+                res.append('/').append(name).append(" << /Type /ExtGState /ca ").append(a)
+                    .append(" /CA ").append(a).append(" >> ");
+            });
+            res.append(">>");
+        }
+        res.append(" >>\n");
+        beginObject(resourcesRef);
+        write(res.toString());
+        endObject();
+
+        StringBuilder kids = new StringBuilder();
+        for (Integer ref : pageRefs) {
+            kids.append(ref).append(" 0 R ");
+        }
+        beginObject(pagesRef);
+        write("<< /Type /Pages /Kids [" + kids + "] /Count " + pageRefs.size() + " >>\n");
+        endObject();
+        beginObject(catalogRef);
+        write("<< /Type /Catalog /Pages " + pagesRef + " 0 R >>\n");
+        endObject();
+        int infoRef = reserve();
+        beginObject(infoRef);
+        write("<< /Producer (MegaMekLab) >>\n");
+        endObject();
+
+        long xref = out.count;
+        StringBuilder sb = new StringBuilder();
+        sb.append("xref\n0 ").append(offsets.size() + 1).append("\n0000000000 65535 f \n");
+        for (Long offset : offsets) {
+            sb.append(String.format("%010d 00000 n \n", offset));
+        }
+        sb.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root ").append(catalogRef)
+            .append(" 0 R /Info ").append(infoRef).append(" 0 R >>\nstartxref\n").append(xref)
+            .append("\n%%EOF\n");
+        write(sb.toString());
+        out.close();
+    }
+
+    Page getCurrentPage() {
+        if (null == currentPage) {
+            throw new IllegalStateException("No page has been started");
+        }
+        return currentPage;
+    }
+
+    /**
+     * @param alpha The alpha value, 0-255
+     * @return      The name of the graphics state that sets the alpha
+     */
+    String getAlphaState(int alpha) {
+        return alphaStates.computeIfAbsent(alpha, a -> "GS" + alphaStates.size());
+    }
+
+    /**
+     * Finds the resource name for an image, writing the image to the file the first time it is used.
+     */
+    String getImageName(BufferedImage image) throws IOException {
+        final int w = image.getWidth();
+        final int h = image.getHeight();
+        byte[] rgb = new byte[w * h * 3];
+        byte[] alpha = new byte[w * h];
+        boolean hasAlpha = false;
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            image.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                final int argb = row[x];
+                final int i = y * w + x;
+                rgb[i * 3] = (byte) (argb >> 16);
+                rgb[i * 3 + 1] = (byte) (argb >> 8);
+                rgb[i * 3 + 2] = (byte) argb;
+                alpha[i] = (byte) (argb >>> 24);
+                hasAlpha |= (argb >>> 24) != 0xFF;
+            }
+        }
+        MessageDigest md = digest();
+        md.update((w + "x" + h).getBytes(StandardCharsets.ISO_8859_1));
+        md.update(rgb);
+        md.update(alpha);
+        final String key = toHex(md.digest());
+        String name = imageNames.get(key);
+        if (null == name) {
+            String smask = "";
+            if (hasAlpha) {
+                int maskRef = reserve();
+                writeStream(maskRef, "/Type /XObject /Subtype /Image /Width " + w + " /Height " + h
+                        + " /ColorSpace /DeviceGray /BitsPerComponent 8", alpha);
+                smask = " /SMask " + maskRef + " 0 R";
+            }
+            int ref = reserve();
+            writeStream(ref, "/Type /XObject /Subtype /Image /Width " + w + " /Height " + h
+                    + " /ColorSpace /DeviceRGB /BitsPerComponent 8" + smask, rgb);
+            name = "Im" + imageNames.size();
+            imageNames.put(key, name);
+            xObjects.put(name, ref);
+        }
+        return name;
+    }
+
+    /**
+     * Finds or creates the Type 3 font that holds a glyph of an AWT font.
+     *
+     * @param font    The font
+     * @param glyph   The glyph code in the AWT font
+     * @param unicode The character the glyph represents, or 0 if not known
+     * @return        The font, with the glyph's code in {@link Type3Font#lastCode}
+     */
+    Type3Font getFont(Font font, int glyph, char unicode) {
+        final String key = font.getFontName() + ":" + font.getStyle();
+        List<Type3Font> list = fonts.computeIfAbsent(key, k -> new ArrayList<>());
+        for (Type3Font t3 : list) {
+            Integer code = t3.codes.get(glyph);
+            if (null != code) {
+                t3.lastCode = code;
+                return t3;
+            }
+        }
+        Type3Font t3 = list.isEmpty() ? null : list.get(list.size() - 1);
+        if ((null == t3) || (t3.glyphs.size() >= 256)) {
+            t3 = new Type3Font("T" + allFonts.size(), font.deriveFont(1000f), reserve());
+            list.add(t3);
+            allFonts.add(t3);
+        }
+        t3.lastCode = t3.add(glyph, unicode);
+        return t3;
+    }
+
+    private void writeFont(Type3Font font) throws IOException {
+        final FontRenderContext frc = new FontRenderContext(null, true, true);
+        final AffineTransform flip = AffineTransform.getScaleInstance(1, -1);
+        StringBuilder procs = new StringBuilder();
+        StringBuilder diffs = new StringBuilder();
+        StringBuilder widths = new StringBuilder();
+        Rectangle2D bbox = null;
+        for (int code = 0; code < font.glyphs.size(); code++) {
+            GlyphVector gv = font.font.createGlyphVector(frc, new int[] { font.glyphs.get(code) });
+            Shape outline = flip.createTransformedShape(gv.getGlyphOutline(0));
+            double advance = font.getAdvance(code);
+            Rectangle2D bounds = outline.getBounds2D();
+            StringBuilder proc = new StringBuilder();
+            if (bounds.isEmpty()) {
+                proc.append(num(advance, 2)).append(" 0 0 0 0 0 d1\n");
+            } else {
+                proc.append(num(advance, 2)).append(" 0 ").append(num(bounds.getMinX(), 2)).append(' ')
+                    .append(num(bounds.getMinY(), 2)).append(' ').append(num(bounds.getMaxX(), 2)).append(' ')
+                    .append(num(bounds.getMaxY(), 2)).append(" d1\n");
+                appendPath(proc, outline.getPathIterator(null));
+                proc.append(outline.getPathIterator(null).getWindingRule() == PathIterator.WIND_EVEN_ODD
+                        ? "f*\n" : "f\n");
+                bbox = (null == bbox) ? bounds : bbox.createUnion(bounds);
+            }
+            int procRef = reserve();
+            writeStream(procRef, "", proc.toString().getBytes(StandardCharsets.ISO_8859_1));
+            procs.append("/g").append(code).append(' ').append(procRef).append(" 0 R ");
+            diffs.append("/g").append(code).append(' ');
+            widths.append(num(advance, 2)).append(' ');
+        }
+        if (null == bbox) {
+            bbox = new Rectangle2D.Double();
+        }
+        int toUnicodeRef = reserve();
+        writeStream(toUnicodeRef, "", font.toUnicode().getBytes(StandardCharsets.ISO_8859_1));
+        beginObject(font.ref);
+        write("<< /Type /Font /Subtype /Type3 /FontBBox [" + num(bbox.getMinX(), 2) + " " + num(bbox.getMinY(), 2)
+                + " " + num(bbox.getMaxX(), 2) + " " + num(bbox.getMaxY(), 2)
+                + "] /FontMatrix [0.001 0 0 0.001 0 0] /CharProcs << " + procs
+                + ">> /Encoding << /Type /Encoding /Differences [0 " + diffs + "] >> /FirstChar 0 /LastChar "
+                + (font.glyphs.size() - 1) + " /Widths [" + widths + "] /Resources << >> /ToUnicode "
+                + toUnicodeRef + " 0 R >>\n");
+        endObject();
+    }
+
+    private int reserve() {
+        offsets.add(-1L);
+        return offsets.size();
+    }
+
+    private void beginObject(int ref) throws IOException {
+        offsets.set(ref - 1, out.count);
+        write(ref + " 0 obj\n");
+    }
+
+    private void endObject() throws IOException {
+        write("endobj\n");
+    }
+
+    private void write(String s) throws IOException {
+        out.write(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Writes a compressed stream object.
+     *
+     * @param ref  The object number
+     * @param dict Additional dictionary entries
+     * @param data The uncompressed stream data
+     */
+    private void writeStream(int ref, String dict, byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2 + 16);
+        try (DeflaterOutputStream dos = new DeflaterOutputStream(compressed)) {
+            dos.write(data);
+        }
+        beginObject(ref);
+        write("<< " + dict + (dict.isEmpty() ? "" : " ") + "/Filter /FlateDecode /Length " + compressed.size()
+                + " >>\nstream\n");
+        compressed.writeTo(out);
+        write("\nendstream\n");
+        endObject();
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats a number for a content stream without exponents or locale specific separators.
+     *
+     * @param value  The number
+     * @param digits The maximum number of decimal places
+     * @return       The formatted number
+     */
+    static String num(double value, int digits) {
+        StringBuilder sb = new StringBuilder();
+        appendNum(sb, value, digits);
+        return sb.toString();
+    }
+
+    static void appendNum(StringBuilder sb, double value, int digits) {
+        long scale = 1;
+        for (int i = 0; i < digits; i++) {
+            scale *= 10;
+        }
+        long scaled = Math.round(value * scale);
+        if (scaled < 0) {
+            sb.append('-');
+            scaled = -scaled;
+        }
+        sb.append(scaled / scale);
+        long frac = scaled % scale;
+        if (frac != 0) {
+            sb.append('.');
+            for (long div = scale / 10; (div > 0) && (frac != 0); div /= 10) {
+                sb.append(frac / div);
+                frac %= div;
+            }
+        }
+    }
+
+    /**
+     * Appends the segments of a path to a content stream.
+     */
+    static void appendPath(StringBuilder sb, PathIterator iter) {
+        final double[] c = new double[6];
+        double lastX = 0;
+        double lastY = 0;
+        while (!iter.isDone()) {
+            switch (iter.currentSegment(c)) {
+                case PathIterator.SEG_MOVETO:
+                    appendNum(sb, c[0], 2);
+                    sb.append(' ');
+                    appendNum(sb, c[1], 2);
+                    sb.append(" m\n");
+                    lastX = c[0];
+                    lastY = c[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    appendNum(sb, c[0], 2);
+                    sb.append(' ');
+                    appendNum(sb, c[1], 2);
+                    sb.append(" l\n");
+                    lastX = c[0];
+                    lastY = c[1];
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    // PDF has no quadratic curves; raise the degree to cubic.
+                    appendCurve(sb, lastX + 2.0 / 3.0 * (c[0] - lastX), lastY + 2.0 / 3.0 * (c[1] - lastY),
+                            c[2] + 2.0 / 3.0 * (c[0] - c[2]), c[3] + 2.0 / 3.0 * (c[1] - c[3]), c[2], c[3]);
+                    lastX = c[2];
+                    lastY = c[3];
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    appendCurve(sb, c[0], c[1], c[2], c[3], c[4], c[5]);
+                    lastX = c[4];
+                    lastY = c[5];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    sb.append("h\n");
+                    break;
+            }
+            iter.next();
+        }
+    }
+
+    private static void appendCurve(StringBuilder sb, double... c) {
+        for (double v : c) {
+            appendNum(sb, v, 2);
+            sb.append(' ');
+        }
+        sb.append("c\n");
+    }
+
+    /**
+     * The content of the page being drawn. Drawing operations are collected into the current
+     * chunk, which is written to the page content either inline or as a reference to a form.
+     */
+    class Page {
+        final double width;
+        final double height;
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        StringBuilder chunk = null;
+        // The graphics state set in the current chunk; null when not yet set
+        Object clip = null;
+        String fillColor = null;
+        String strokeColor = null;
+        String strokeStyle = null;
+        String alphaState = null;
+        private int opStart = 0;
+
+        Page(double width, double height) {
+            this.width = width;
+            this.height = height;
+            // Flip the y axis so the content uses Java2D coordinates.
+            byte[] flip = ("1 0 0 -1 0 " + num(height, 2) + " cm\n").getBytes(StandardCharsets.ISO_8859_1);
+            content.write(flip, 0, flip.length);
+        }
+
+        /**
+         * Starts a drawing operation, opening a chunk and setting the clip if needed.
+         *
+         * @param clipKey   An object identifying the clip, used to detect changes
+         * @param clipShape The clip in page coordinates, or null for none
+         * @return          The buffer to append the operation to
+         */
+        StringBuilder beginOp(Object clipKey, Shape clipShape) {
+            if (null == chunk) {
+                chunk = new StringBuilder("q\n");
+                setClip(clipKey, clipShape);
+            } else if (!sameClip(clipKey, clip)) {
+                chunk.append("Q q\n");
+                setClip(clipKey, clipShape);
+            }
+            opStart = chunk.length();
+            return chunk;
+        }
+
+        /**
+         * Ends a drawing operation and ends the chunk if the operation is a boundary.
+         */
+        void endOp() throws IOException {
+            final int length = chunk.length();
+            if (length >= CHUNK_MAX_BYTES) {
+                closeChunk();
+            } else if (length >= CHUNK_MIN_BYTES) {
+                int hash = 0;
+                for (int i = opStart; i < length; i++) {
+                    hash = 31 * hash + chunk.charAt(i);
+                }
+                hash ^= (hash >>> 16);
+                if ((hash & CHUNK_BOUNDARY_MASK) == 0) {
+                    closeChunk();
+                }
+            }
+        }
+
+        private void setClip(Object clipKey, Shape clipShape) {
+            clip = clipKey;
+            fillColor = null;
+            strokeColor = null;
+            strokeStyle = null;
+            alphaState = null;
+            if (null != clipShape) {
+                PathIterator iter = clipShape.getPathIterator(null);
+                appendPath(chunk, iter);
+                chunk.append(iter.getWindingRule() == PathIterator.WIND_EVEN_ODD ? "W* n\n" : "W n\n");
+            }
+        }
+
+        private boolean sameClip(Object a, Object b) {
+            if (a == b) {
+                return true;
+            }
+            return (a instanceof Rectangle2D) && a.equals(b);
+        }
+
+        void closeChunk() throws IOException {
+            if (null == chunk) {
+                return;
+            }
+            chunk.append("Q\n");
+            final byte[] bytes = chunk.toString().getBytes(StandardCharsets.ISO_8859_1);
+            chunk = null;
+            clip = null;
+            if (bytes.length < FORM_MIN_BYTES) {
+                content.write(bytes);
+                return;
+            }
+            final String key = toHex(digest().digest(bytes));
+            String name = formNames.get(key);
+            if ((null == name) && seenChunks.remove(key)) {
+                int ref = reserve();
+                writeStream(ref, "/Type /XObject /Subtype /Form /BBox [0 0 " + num(width, 2) + " "
+                        + num(height, 2) + "] /Resources " + resourcesRef + " 0 R", bytes);
+                name = "Fm" + formNames.size();
+                formNames.put(key, name);
+                xObjects.put(name, ref);
+            }
+            if (null != name) {
+                content.write(("/" + name + " Do\n").getBytes(StandardCharsets.ISO_8859_1));
+                formUses++;
+            } else {
+                content.write(bytes);
+                seenChunks.add(key);
+            }
+        }
+    }
+
+    /**
+     * A Type 3 font holding up to 256 glyphs of an AWT font. Only glyphs that are used are added.
+     */
+    static class Type3Font {
+        final String name;
+        final Font font;
+        final int ref;
+        final Map<Integer, Integer> codes = new HashMap<>();
+        final List<Integer> glyphs = new ArrayList<>();
+        final List<Character> unicode = new ArrayList<>();
+        final List<Double> advances = new ArrayList<>();
+        int lastCode;
+
+        Type3Font(String name, Font font, int ref) {
+            this.name = name;
+            this.font = font;
+            this.ref = ref;
+        }
+
+        int add(int glyph, char ch) {
+            int code = glyphs.size();
+            glyphs.add(glyph);
+            unicode.add(ch);
+            GlyphVector gv = font.createGlyphVector(new FontRenderContext(null, true, true), new int[] { glyph });
+            advances.add((double) gv.getGlyphMetrics(0).getAdvanceX());
+            codes.put(glyph, code);
+            return code;
+        }
+
+        /**
+         * @return The glyph advance in text space units of 1/1000 em
+         */
+        double getAdvance(int code) {
+            return advances.get(code);
+        }
+
+        String toUnicode() {
+            StringBuilder sb = new StringBuilder("/CIDInit /ProcSet findresource begin\n12 dict begin\nbegincmap\n"
+                    + "/CIDSystemInfo << /Registry (Adobe) /Ordering (UCS) /Supplement 0 >> def\n"
+                    + "/CMapName /Adobe-Identity-UCS def\n/CMapType 2 def\n"
+                    + "1 begincodespacerange\n<00> <FF>\nendcodespacerange\n");
+            List<Integer> mapped = new ArrayList<>();
+            for (int code = 0; code < unicode.size(); code++) {
+                if (unicode.get(code) != 0) {
+                    mapped.add(code);
+                }
+            }
+            for (int start = 0; start < mapped.size(); start += 100) {
+                int end = Math.min(mapped.size(), start + 100);
+                sb.append(end - start).append(" beginbfchar\n");
+                for (int i = start; i < end; i++) {
+                    int code = mapped.get(i);
+                    sb.append(String.format("<%02X> <%04X>\n", code, (int) unicode.get(code)));
+                }
+                sb.append("endbfchar\n");
+            }
+            sb.append("endcmap\nCMapName currentdict /CMap defineresource pop\nend\nend\n");
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Tracks the file offset for the cross reference table.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
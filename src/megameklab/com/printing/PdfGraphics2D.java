@@ -0,0 +1,856 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.printing;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.MultipleGradientPaint;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import java.awt.image.renderable.RenderableImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+import javax.swing.ImageIcon;
+
+/**
+ * Graphics context that draws to a page of a {@link PdfDocument}. Shapes, strokes and images are
+ * written as PDF vector and image operators. Text drawn with {@link #drawString(String, float, float)}
+ * or {@link #drawGlyphVector(GlyphVector, float, float)} is written as text in subset fonts so it
+ * remains selectable and searchable.
+ *
+ * Errors writing to the file are thrown as {@link UncheckedIOException} since the drawing methods
+ * cannot declare checked exceptions.
+ */
+public class PdfGraphics2D extends Graphics2D {
+
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, true);
+
+    private final PdfDocument doc;
+    // Used for font metrics and the device configuration
+    private final Graphics2D metrics;
+
+    private AffineTransform transform;
+    // The clip in page coordinates, or null for none
+    private Shape clip;
+    private Paint paint;
+    private Color color;
+    private Color background;
+    private Stroke stroke;
+    private Font font;
+    private Composite composite;
+    private final RenderingHints hints;
+
+    PdfGraphics2D(PdfDocument doc) {
+        this.doc = doc;
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        metrics = scratch.createGraphics();
+        metrics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        metrics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        transform = new AffineTransform();
+        clip = null;
+        color = Color.BLACK;
+        paint = color;
+        background = Color.WHITE;
+        stroke = new BasicStroke();
+        font = new Font(Font.DIALOG, Font.PLAIN, 12);
+        composite = AlphaComposite.SrcOver;
+        hints = new RenderingHints(null);
+    }
+
+    private PdfGraphics2D(PdfGraphics2D g) {
+        doc = g.doc;
+        metrics = g.metrics;
+        transform = new AffineTransform(g.transform);
+        clip = g.clip;
+        paint = g.paint;
+        color = g.color;
+        background = g.background;
+        stroke = g.stroke;
+        font = g.font;
+        composite = g.composite;
+        hints = (RenderingHints) g.hints.clone();
+    }
+
+    @Override
+    public Graphics create() {
+        return new PdfGraphics2D(this);
+    }
+
+    @Override
+    public void dispose() {
+        // Nothing to release; the page content belongs to the document.
+    }
+
+    /*
+     * Drawing
+     */
+
+    @Override
+    public void draw(Shape s) {
+        if ((stroke instanceof BasicStroke) && isSimilarity(transform)) {
+            if (s.getPathIterator(null).isDone()) {
+                return;
+            }
+            PdfDocument.Page page = doc.getCurrentPage();
+            StringBuilder sb = page.beginOp(clip, clip);
+            applyStroke(page, sb, (BasicStroke) stroke, Math.sqrt(Math.abs(transform.getDeterminant())));
+            PdfDocument.appendPath(sb, s.getPathIterator(transform));
+            sb.append("S\n");
+            endOp(page);
+        } else {
+            // The stroke cannot be expressed in page coordinates, so fill its outline instead.
+            fill(stroke.createStrokedShape(s));
+        }
+    }
+
+    @Override
+    public void fill(Shape s) {
+        PathIterator iter = s.getPathIterator(transform);
+        if (iter.isDone()) {
+            return;
+        }
+        PdfDocument.Page page = doc.getCurrentPage();
+        StringBuilder sb = page.beginOp(clip, clip);
+        applyFill(page, sb);
+        PdfDocument.appendPath(sb, iter);
+        sb.append(iter.getWindingRule() == PathIterator.WIND_EVEN_ODD ? "f*\n" : "f\n");
+        endOp(page);
+    }
+
+    @Override
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        if (onStroke) {
+            s = stroke.createStrokedShape(s);
+        }
+        return transform.createTransformedShape(s).intersects(rect);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        draw(new Line2D.Float(x1, y1, x2, y2));
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        fill(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        Paint saved = paint;
+        setPaint(background);
+        fillRect(x, y, width, height);
+        setPaint(saved);
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        draw(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        fill(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        draw(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        fill(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        draw(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.OPEN));
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        fill(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.PIE));
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        if (nPoints < 2) {
+            return;
+        }
+        Path2D path = new Path2D.Float();
+        path.moveTo(xPoints[0], yPoints[0]);
+        for (int i = 1; i < nPoints; i++) {
+            path.lineTo(xPoints[i], yPoints[i]);
+        }
+        draw(path);
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        draw(new Polygon(xPoints, yPoints, nPoints));
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        fill(new Polygon(xPoints, yPoints, nPoints));
+    }
+
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+        // A PDF page cannot be read back.
+    }
+
+    /*
+     * Text
+     */
+
+    @Override
+    public void drawString(String str, int x, int y) {
+        drawString(str, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(String str, float x, float y) {
+        if ((null == str) || str.isEmpty()) {
+            return;
+        }
+        drawText(font.createGlyphVector(FRC, str), x, y, str);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        if (iterator.getBeginIndex() < iterator.getEndIndex()) {
+            new TextLayout(iterator, FRC).draw(this, x, y);
+        }
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector g, float x, float y) {
+        drawText(g, x, y, null);
+    }
+
+    /**
+     * Writes a run of glyphs as text. Each glyph is placed at the position given by the glyph
+     * vector, using the text adjustments of the TJ operator where the position differs from
+     * the advance in the font.
+     *
+     * @param gv   The glyphs
+     * @param x    The x coordinate of the origin
+     * @param y    The y coordinate of the origin
+     * @param text The characters, used to map the glyphs back to text when there is one glyph
+     *             per character; may be null
+     */
+    private void drawText(GlyphVector gv, float x, float y, String text) {
+        final Font f = gv.getFont();
+        final int n = gv.getNumGlyphs();
+        if (f.isTransformed() || ((gv.getLayoutFlags() & GlyphVector.FLAG_HAS_TRANSFORMS) != 0)) {
+            fill(gv.getOutline(x, y));
+            return;
+        }
+        if (n == 0) {
+            return;
+        }
+        final boolean mapText = (null != text) && (text.length() == n);
+        final float size = f.getSize2D();
+        PdfDocument.Page page = doc.getCurrentPage();
+        StringBuilder sb = page.beginOp(clip, clip);
+        applyFill(page, sb);
+        sb.append("BT\n");
+        PdfDocument.Type3Font current = null;
+        double penX = 0;
+        double runY = 0;
+        for (int i = 0; i < n; i++) {
+            final Point2D pos = gv.getGlyphPosition(i);
+            final double gx = x + pos.getX();
+            final double gy = y + pos.getY();
+            final PdfDocument.Type3Font t3 = doc.getFont(f, gv.getGlyphCode(i), mapText ? text.charAt(i) : 0);
+            final int code = t3.lastCode;
+            if ((t3 != current) || (gy != runY)) {
+                if (null != current) {
+                    sb.append("] TJ\n");
+                }
+                if (t3 != current) {
+                    // The size is part of the text matrix.
+                    sb.append('/').append(t3.name).append(" 1 Tf\n");
+                }
+                AffineTransform tm = new AffineTransform(transform);
+                tm.translate(gx, gy);
+                tm.scale(size, -size);
+                appendMatrix(sb, tm);
+                sb.append(" Tm\n[");
+                current = t3;
+                runY = gy;
+            } else {
+                final double adjust = (penX - gx) * 1000.0 / size;
+                if (Math.abs(adjust) >= 0.5) {
+                    sb.append(' ');
+                    PdfDocument.appendNum(sb, adjust, 1);
+                    sb.append(' ');
+                }
+            }
+            sb.append('<').append(Character.forDigit(code >> 4, 16)).append(Character.forDigit(code & 0xF, 16))
+                .append('>');
+            penX = gx + t3.getAdvance(code) * size / 1000.0;
+        }
+        sb.append("] TJ\nET\n");
+        endOp(page);
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return FRC;
+    }
+
+    @Override
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        if (null != font) {
+            this.font = font;
+        }
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font f) {
+        return metrics.getFontMetrics(f);
+    }
+
+    /*
+     * Images
+     */
+
+    @Override
+    public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+        BufferedImage image = toBufferedImage(img);
+        if (null == image) {
+            return true;
+        }
+        AffineTransform at = new AffineTransform(transform);
+        if (null != xform) {
+            at.concatenate(xform);
+        }
+        // Image space is the unit square with the first row at the top.
+        at.translate(0, image.getHeight());
+        at.scale(image.getWidth(), -image.getHeight());
+        PdfDocument.Page page = doc.getCurrentPage();
+        try {
+            final String name = doc.getImageName(image);
+            StringBuilder sb = page.beginOp(clip, clip);
+            applyAlpha(page, sb, 255);
+            sb.append("q ");
+            appendMatrix(sb, at);
+            sb.append(" cm /").append(name).append(" Do Q\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endOp(page);
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+        return drawImage(img, AffineTransform.getTranslateInstance(x, y), observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+        BufferedImage image = toBufferedImage(img);
+        if (null == image) {
+            return true;
+        }
+        AffineTransform at = AffineTransform.getTranslateInstance(x, y);
+        at.scale((double) width / image.getWidth(), (double) height / image.getHeight());
+        return drawImage(image, at, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+        BufferedImage image = toBufferedImage(img);
+        if (null == image) {
+            return true;
+        }
+        return drawImage(image, x, y, image.getWidth(), image.getHeight(), bgcolor, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor,
+            ImageObserver observer) {
+        fillBackground(bgcolor, x, y, width, height);
+        return drawImage(img, x, y, width, height, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+            ImageObserver observer) {
+        BufferedImage image = toBufferedImage(img);
+        if ((null == image) || (sx1 == sx2) || (sy1 == sy2)) {
+            return true;
+        }
+        final int sxMin = Math.max(0, Math.min(sx1, sx2));
+        final int syMin = Math.max(0, Math.min(sy1, sy2));
+        final int sxMax = Math.min(image.getWidth(), Math.max(sx1, sx2));
+        final int syMax = Math.min(image.getHeight(), Math.max(sy1, sy2));
+        if ((sxMax <= sxMin) || (syMax <= syMin)) {
+            return true;
+        }
+        final double scaleX = (double) (dx2 - dx1) / (sx2 - sx1);
+        final double scaleY = (double) (dy2 - dy1) / (sy2 - sy1);
+        AffineTransform at = new AffineTransform(scaleX, 0, 0, scaleY,
+                dx1 + (sxMin - sx1) * scaleX, dy1 + (syMin - sy1) * scaleY);
+        return drawImage(image.getSubimage(sxMin, syMin, sxMax - sxMin, syMax - syMin), at, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+            Color bgcolor, ImageObserver observer) {
+        fillBackground(bgcolor, Math.min(dx1, dx2), Math.min(dy1, dy2), Math.abs(dx2 - dx1),
+                Math.abs(dy2 - dy1));
+        return drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer);
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+        drawImage((null == op) ? img : op.filter(img, null), x, y, null);
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+        if (img instanceof BufferedImage) {
+            drawImage((BufferedImage) img, xform, null);
+        } else {
+            WritableRaster raster = img.getColorModel().createCompatibleWritableRaster(img.getWidth(),
+                    img.getHeight());
+            img.copyData(raster);
+            drawImage(new BufferedImage(img.getColorModel(), raster, img.getColorModel().isAlphaPremultiplied(),
+                    null), xform, null);
+        }
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+        drawRenderedImage(img.createDefaultRendering(), xform);
+    }
+
+    private void fillBackground(Color bgcolor, int x, int y, int width, int height) {
+        if (null != bgcolor) {
+            Paint saved = paint;
+            setPaint(bgcolor);
+            fillRect(x, y, width, height);
+            setPaint(saved);
+        }
+    }
+
+    private static BufferedImage toBufferedImage(Image img) {
+        if (img instanceof BufferedImage) {
+            return (BufferedImage) img;
+        }
+        if (null == img) {
+            return null;
+        }
+        if (img.getWidth(null) < 0) {
+            // Wait for a Toolkit image to finish loading.
+            new ImageIcon(img);
+        }
+        final int width = img.getWidth(null);
+        final int height = img.getHeight(null);
+        if ((width <= 0) || (height <= 0)) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return image;
+    }
+
+    /*
+     * Graphics state
+     */
+
+    private void applyFill(PdfDocument.Page page, StringBuilder sb) {
+        final Color c = getPaintColor();
+        final String fill = rgb(c) + " rg\n";
+        if (!fill.equals(page.fillColor)) {
+            sb.append(fill);
+            page.fillColor = fill;
+        }
+        applyAlpha(page, sb, c.getAlpha());
+    }
+
+    private void applyStroke(PdfDocument.Page page, StringBuilder sb, BasicStroke bs, double scale) {
+        final Color c = getPaintColor();
+        final String strokeColor = rgb(c) + " RG\n";
+        if (!strokeColor.equals(page.strokeColor)) {
+            sb.append(strokeColor);
+            page.strokeColor = strokeColor;
+        }
+        StringBuilder style = new StringBuilder();
+        PdfDocument.appendNum(style, bs.getLineWidth() * scale, 3);
+        style.append(" w ").append(bs.getEndCap()).append(" J ").append(bs.getLineJoin()).append(" j ");
+        PdfDocument.appendNum(style, Math.max(1, bs.getMiterLimit()), 2);
+        style.append(" M [");
+        if (null != bs.getDashArray()) {
+            for (float dash : bs.getDashArray()) {
+                PdfDocument.appendNum(style, dash * scale, 2);
+                style.append(' ');
+            }
+        }
+        style.append("] ");
+        PdfDocument.appendNum(style, bs.getDashPhase() * scale, 2);
+        style.append(" d\n");
+        final String s = style.toString();
+        if (!s.equals(page.strokeStyle)) {
+            sb.append(s);
+            page.strokeStyle = s;
+        }
+        applyAlpha(page, sb, c.getAlpha());
+    }
+
+    /**
+     * Sets the constant alpha for the paint alpha combined with the composite.
+     */
+    private void applyAlpha(PdfDocument.Page page, StringBuilder sb, int paintAlpha) {
+        float extraAlpha = (composite instanceof AlphaComposite) ? ((AlphaComposite) composite).getAlpha() : 1f;
+        final int alpha = Math.round(paintAlpha * extraAlpha);
+        if ((null == page.alphaState) && (alpha >= 255)) {
+            return;
+        }
+        final String name = doc.getAlphaState(Math.min(255, alpha));
+        if (!name.equals(page.alphaState)) {
+            sb.append('/').append(name).append(" gs\n");
+            page.alphaState = name;
+        }
+    }
+
+    /**
+     * PDF only has solid colors for paths, so gradients are drawn with their first color.
+     */
+    private Color getPaintColor() {
+        if (paint instanceof Color) {
+            return (Color) paint;
+        } else if (paint instanceof GradientPaint) {
+            return ((GradientPaint) paint).getColor1();
+        } else if ((paint instanceof MultipleGradientPaint)
+                && (((MultipleGradientPaint) paint).getColors().length > 0)) {
+            return ((MultipleGradientPaint) paint).getColors()[0];
+        }
+        return color;
+    }
+
+    private void endOp(PdfDocument.Page page) {
+        try {
+            page.endOp();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String rgb(Color c) {
+        StringBuilder sb = new StringBuilder();
+        PdfDocument.appendNum(sb, c.getRed() / 255.0, 3);
+        sb.append(' ');
+        PdfDocument.appendNum(sb, c.getGreen() / 255.0, 3);
+        sb.append(' ');
+        PdfDocument.appendNum(sb, c.getBlue() / 255.0, 3);
+        return sb.toString();
+    }
+
+    private static void appendMatrix(StringBuilder sb, AffineTransform at) {
+        PdfDocument.appendNum(sb, at.getScaleX(), 4);
+        sb.append(' ');
+        PdfDocument.appendNum(sb, at.getShearY(), 4);
+        sb.append(' ');
+        PdfDocument.appendNum(sb, at.getShearX(), 4);
+        sb.append(' ');
+        PdfDocument.appendNum(sb, at.getScaleY(), 4);
+        sb.append(' ');
+        PdfDocument.appendNum(sb, at.getTranslateX(), 2);
+        sb.append(' ');
+        PdfDocument.appendNum(sb, at.getTranslateY(), 2);
+    }
+
+    /**
+     * @return Whether the transform scales equally in all directions, so a stroke width can be
+     *         converted to page units
+     */
+    private static boolean isSimilarity(AffineTransform at) {
+        return (at.getType() & (AffineTransform.TYPE_GENERAL_SCALE | AffineTransform.TYPE_GENERAL_TRANSFORM)) == 0;
+    }
+
+    /**
+     * @return Whether rectangles remain axis aligned rectangles under the transform
+     */
+    private static boolean keepsRectangles(AffineTransform at) {
+        return (at.getType() & (AffineTransform.TYPE_GENERAL_ROTATION | AffineTransform.TYPE_GENERAL_TRANSFORM)) == 0;
+    }
+
+    private Shape toPage(Shape s) {
+        if ((s instanceof Rectangle2D) && keepsRectangles(transform)) {
+            // Keep rectangles as rectangles so equal clips can be recognized.
+            return transform.createTransformedShape(s).getBounds2D();
+        }
+        return transform.createTransformedShape(s);
+    }
+
+    @Override
+    public void setColor(Color c) {
+        if (null != c) {
+            color = c;
+            paint = c;
+        }
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setPaint(Paint paint) {
+        if (null != paint) {
+            this.paint = paint;
+            if (paint instanceof Color) {
+                color = (Color) paint;
+            }
+        }
+    }
+
+    @Override
+    public Paint getPaint() {
+        return paint;
+    }
+
+    @Override
+    public void setPaintMode() {
+        composite = AlphaComposite.SrcOver;
+    }
+
+    @Override
+    public void setXORMode(Color c1) {
+        // XOR drawing has no equivalent in PDF and is not used for printing.
+    }
+
+    @Override
+    public void setComposite(Composite comp) {
+        if (null != comp) {
+            composite = comp;
+        }
+    }
+
+    @Override
+    public Composite getComposite() {
+        return composite;
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        background = color;
+    }
+
+    @Override
+    public Color getBackground() {
+        return background;
+    }
+
+    @Override
+    public void setStroke(Stroke s) {
+        if (null != s) {
+            stroke = s;
+        }
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return stroke;
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+        hints.put(hintKey, hintValue);
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key hintKey) {
+        return hints.get(hintKey);
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        this.hints.clear();
+        this.hints.putAll(hints);
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        this.hints.putAll(hints);
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return (RenderingHints) hints.clone();
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return metrics.getDeviceConfiguration();
+    }
+
+    /*
+     * Transform
+     */
+
+    @Override
+    public void translate(int x, int y) {
+        transform.translate(x, y);
+    }
+
+    @Override
+    public void translate(double tx, double ty) {
+        transform.translate(tx, ty);
+    }
+
+    @Override
+    public void rotate(double theta) {
+        transform.rotate(theta);
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        transform.rotate(theta, x, y);
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        transform.scale(sx, sy);
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        transform.shear(shx, shy);
+    }
+
+    @Override
+    public void transform(AffineTransform tx) {
+        transform.concatenate(tx);
+    }
+
+    @Override
+    public void setTransform(AffineTransform tx) {
+        transform = new AffineTransform(tx);
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return new AffineTransform(transform);
+    }
+
+    /*
+     * Clip
+     */
+
+    @Override
+    public void clip(Shape s) {
+        if (null == s) {
+            setClip(null);
+            return;
+        }
+        Shape shape = toPage(s);
+        if (null == clip) {
+            clip = shape;
+        } else if ((clip instanceof Rectangle2D) && (shape instanceof Rectangle2D)) {
+            clip = ((Rectangle2D) clip).createIntersection((Rectangle2D) shape);
+        } else {
+            Area area = new Area(clip);
+            area.intersect(new Area(shape));
+            clip = area;
+        }
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        clip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        setClip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(Shape s) {
+        clip = (null == s) ? null : toPage(s);
+    }
+
+    @Override
+    public Shape getClip() {
+        if (null == clip) {
+            return null;
+        }
+        try {
+            return transform.createInverse().createTransformedShape(clip);
+        } catch (NoninvertibleTransformException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        Shape s = getClip();
+        return (null == s) ? null : s.getBounds();
+    }
+}
@@ -38,6 +38,7 @@ import megamek.common.UnitRoleHandler;
 import megamek.common.options.IOption;
 import megamek.common.options.IOptionGroup;
 import megamek.common.options.PilotOptions;
+import megameklab.com.util.DerivedDataCache;
 
 /**
  * Base class for printing Entity record sheets
@@ -97,7 +98,7 @@ public abstract class PrintEntity extends PrintRecordSheet {
         setTextField("rulesLevel", formatRulesLevel());
         setTextField("era", formatEra(getEntity().getYear()));
         setTextField("cost", formatCost());
-        setTextField("bv", Integer.toString(getEntity().calculateBattleValue()));
+        setTextField("bv", Integer.toString(DerivedDataCache.lookup(getEntity()).getBattleValue()));
         UnitRole role = UnitRoleHandler.getRoleFor(getEntity());
         if (role == UnitRole.UNDETERMINED) {
             hideElement("lblRole", true);
@@ -142,25 +143,13 @@ public abstract class PrintEntity extends PrintRecordSheet {
                 setTextField("gunnerySkill" + i, Integer.toString(getEntity().getCrew().getGunnery(i)), true);
                 setTextField("pilotingSkill" + i, Integer.toString(getEntity().getCrew().getPiloting(i)), true);
                 
-                StringJoiner spaList = new StringJoiner(", ");
-                PilotOptions spas = getEntity().getCrew().getOptions();
-                for (Enumeration<IOptionGroup> optionGroups = spas.getGroups(); optionGroups.hasMoreElements();) {
-                    IOptionGroup optiongroup = optionGroups.nextElement();
-                    if (spas.count(optiongroup.getKey()) > 0) {
-                        for (Enumeration<IOption> options = optiongroup.getOptions(); options.hasMoreElements();) {
-                            IOption option = options.nextElement();
-                            if (option != null && option.booleanValue()) {
-                                spaList.add(option.getDisplayableNameWithValue().replaceAll(" \\(.*?\\)", ""));
-                            }
-                        }
-                    }
-                }
+                String spaList = formatAbilities(getEntity());
                 if (spaList.length() > 0) {
                     Rect rect = (Rect) getSVGDiagram().getElement("spas" + getEntity().getCrew().getSlotCount());
                     if (null != rect) {
                         Rectangle2D bbox = rect.getBoundingBox();
                         SVGElement canvas = rect.getParent();
-                        String spaText = "Abilities: " + spaList.toString();
+                        String spaText = "Abilities: " + spaList;
                         double fontSize = FONT_SIZE_MEDIUM;
                         if (getTextLength(spaText, fontSize, canvas) > bbox.getWidth()) {
                             fontSize = bbox.getHeight() / 2.4;
@@ -188,6 +177,49 @@ public abstract class PrintEntity extends PrintRecordSheet {
         }
     }
     
+    /**
+     * Writes the values that differ between copies of the same unit with different crews: the
+     * crew names, the skills, and the battle value, which depends on the skills. This allows a
+     * populated sheet to be reused for another copy of the unit.
+     *
+     * @param unit The unit whose crew should be shown. It must have the same
+     *             {@link SheetFingerprint#layoutKey(Entity) layout key} as the unit the sheet
+     *             was populated for.
+     * @throws SVGException
+     */
+    void writeCrewValues(Entity unit) throws SVGException {
+        if (!unit.getCrew().getName().equalsIgnoreCase("unnamed")) {
+            for (int i = 0; i < unit.getCrew().getSlotCount(); i++) {
+                setTextField("pilotName" + i, unit.getCrew().getName(i), true);
+                setTextField("gunnerySkill" + i, Integer.toString(unit.getCrew().getGunnery(i)), true);
+                setTextField("pilotingSkill" + i, Integer.toString(unit.getCrew().getPiloting(i)), true);
+            }
+        }
+        setTextField("bv", Integer.toString(DerivedDataCache.lookup(unit).getBattleValue()));
+    }
+
+    /**
+     * @param unit The unit
+     * @return     A comma-separated list of the special pilot abilities of the unit's crew,
+     *             or an empty String if there are none
+     */
+    static String formatAbilities(Entity unit) {
+        StringJoiner spaList = new StringJoiner(", ");
+        PilotOptions spas = unit.getCrew().getOptions();
+        for (Enumeration<IOptionGroup> optionGroups = spas.getGroups(); optionGroups.hasMoreElements();) {
+            IOptionGroup optiongroup = optionGroups.nextElement();
+            if (spas.count(optiongroup.getKey()) > 0) {
+                for (Enumeration<IOption> options = optiongroup.getOptions(); options.hasMoreElements();) {
+                    IOption option = options.nextElement();
+                    if (option != null && option.booleanValue()) {
+                        spaList.add(option.getDisplayableNameWithValue().replaceAll(" \\(.*?\\)", ""));
+                    }
+                }
+            }
+        }
+        return spaList.toString();
+    }
+
     protected void drawArmor() throws SVGException {
         if (!getEntity().hasPatchworkArmor()) {
             if ((AT_SPECIAL & (1 << getEntity().getArmorType(1))) != 0) {
@@ -342,7 +374,7 @@ public abstract class PrintEntity extends PrintRecordSheet {
     
     protected String formatCost() {
         NumberFormat nf = NumberFormat.getNumberInstance(Locale.getDefault());
-        return nf.format(getEntity().getCost(true)) + " C-bills";
+        return nf.format(DerivedDataCache.lookup(getEntity()).getCost(true)) + " C-bills";
     }
     
 }
@@ -18,6 +18,7 @@ import java.awt.geom.Rectangle2D;
 import java.awt.print.PageFormat;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
 import java.util.TreeMap;
@@ -316,7 +317,7 @@ public class PrintMech extends PrintEntity {
                 continue;
             }
             eqMap.putIfAbsent(m.getLocation(), new HashMap<>());
-            RecordSheetEquipmentLine line = new RecordSheetEquipmentLine(m);
+            RecordSheetEquipmentLine line = EquipmentRowCache.getLine(m);
             eqMap.get(m.getLocation()).merge(line, 1, Integer::sum);
         }
         
@@ -357,26 +358,33 @@ public class PrintMech extends PrintEntity {
 
         for (Integer loc : eqMap.keySet()) {
             for (RecordSheetEquipmentLine line : eqMap.get(loc).keySet()) {
-                for (int row = 0; row < line.nRows(); row++) {
-                    int lines;
+                List<EquipmentRowCache.Row> rows = EquipmentRowCache.getRows(line, mech.isMixedTech(),
+                        locX - nameX - indent, minX - dmgX, fontSize, canvas);
+                for (int row = 0; row < rows.size(); row++) {
+                    EquipmentRowCache.Row fields = rows.get(row);
+                    int x = nameX;
                     if (row == 0) {
                         addTextElement(canvas, qtyX, currY, Integer.toString(eqMap.get(loc).get(line)), fontSize, "middle", "normal");
-                        lines = addMultilineTextElement(canvas, nameX, currY, locX - nameX - indent, lineHeight,
-                                line.getNameField(row, mech.isMixedTech()), fontSize, "start", "normal");
-
                     } else {
-                        lines = addMultilineTextElement(canvas, nameX + indent, currY, locX - nameX - indent, lineHeight,
-                                line.getNameField(row, mech.isMixedTech()), fontSize, "start", "normal");
+                        x += indent;
+                    }
+                    double y = currY;
+                    for (String text : fields.getNameLines()) {
+                        addTextElement(canvas, x, y, text, fontSize, "start", "normal");
+                        y += lineHeight;
                     }
-                    addTextElement(canvas, locX,  currY, line.getLocationField(row), fontSize, "middle", "normal");
-                    addTextElement(canvas, heatX, currY, line.getHeatField(row), fontSize, "middle", "normal");
-                    lines = Math.max(lines, addMultilineTextElement(canvas, dmgX, currY, minX - dmgX, lineHeight,
-                            line.getDamageField(row), fontSize, "start", "normal"));
-                    addTextElement(canvas, minX, currY, line.getMinField(row), fontSize, "middle", "normal");
-                    addTextElement(canvas, shortX, currY, line.getShortField(row), fontSize, "middle", "normal");
-                    addTextElement(canvas, medX, currY, line.getMediumField(row), fontSize, "middle", "normal");
-                    addTextElement(canvas, longX, currY, line.getLongField(row), fontSize, "middle", "normal");
-                    currY += lineHeight * lines;
+                    addTextElement(canvas, locX,  currY, fields.getLocation(), fontSize, "middle", "normal");
+                    addTextElement(canvas, heatX, currY, fields.getHeat(), fontSize, "middle", "normal");
+                    y = currY;
+                    for (String text : fields.getDamageLines()) {
+                        addTextElement(canvas, dmgX, y, text, fontSize, "start", "normal");
+                        y += lineHeight;
+                    }
+                    addTextElement(canvas, minX, currY, fields.getMin(), fontSize, "middle", "normal");
+                    addTextElement(canvas, shortX, currY, fields.getShort(), fontSize, "middle", "normal");
+                    addTextElement(canvas, medX, currY, fields.getMedium(), fontSize, "middle", "normal");
+                    addTextElement(canvas, longX, currY, fields.getLong(), fontSize, "middle", "normal");
+                    currY += lineHeight * fields.getLineCount();
                 }
             }
         }
@@ -547,6 +555,16 @@ public class PrintMech extends PrintEntity {
         }
     }
     
+    @Override
+    void writeCrewValues(Entity unit) throws SVGException {
+        super.writeCrewValues(unit);
+        if ((unit instanceof LandAirMech) && !unit.getCrew().getName().equalsIgnoreCase("unnamed")
+                && (unit.getCrew() instanceof LAMPilot)) {
+            setTextField("asfGunnerySkill", Integer.toString(((LAMPilot) unit.getCrew()).getGunneryAero()));
+            setTextField("asfPilotingSkill", Integer.toString(((LAMPilot) unit.getCrew()).getPilotingAero()));
+        }
+    }
+
     private void drawHeatSinkPips(Rect svgRect) throws SVGException {
         Rectangle2D bbox = svgRect.getBoundingBox();
         SVGElement canvas = svgRect.getRoot();
@@ -34,6 +34,7 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -78,8 +79,21 @@ public abstract class PrintRecordSheet implements Printable {
         }
     }
 
+    // The number of populated pages to keep for repeated calls to print
+    private final static int PAGE_CACHE_SIZE = 2;
+
     private SVGDiagram diagram;
     private final int firstPage;
+    // Populated diagrams for the most recently printed pages, keyed by page index. The print system
+    // may request the same page several times, and these only need to be rendered again.
+    private final Map<Integer, SVGDiagram> pageCache = new LinkedHashMap<Integer, SVGDiagram>(4, 0.75f, true) {
+        private static final long serialVersionUID = -1813268547395743478L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, SVGDiagram> eldest) {
+            return size() > PAGE_CACHE_SIZE;
+        }
+    };
     
     protected PrintRecordSheet(int firstPage) {
         this.firstPage = firstPage;
@@ -94,27 +108,67 @@ public abstract class PrintRecordSheet implements Printable {
         
         Graphics2D g2d = (Graphics2D) graphics;
         if (null != g2d) {
-            diagram = ImageHelper.loadSVGImage(new File("data/images/recordsheets/" + getSVGFileName()));
-            if (null == diagram) {
-                MegaMekLab.getLogger().log(PrintRecordSheet.class, METHOD_NAME,
-                        LogLevel.ERROR,
-                        "Failed to open Mech SVG file! Path: data/images/recordsheets/" + getSVGFileName());
-            } else {
-                diagram.setDeviceViewport(
-                        new Rectangle(0, 0, (int) pageFormat.getImageableWidth(), (int) pageFormat.getImageableHeight()));
-
+            Rectangle viewport = new Rectangle(0, 0, (int) pageFormat.getImageableWidth(),
+                    (int) pageFormat.getImageableHeight());
+            SVGDiagram cached = pageCache.get(pageIndex);
+            if ((null != cached) && viewport.equals(cached.getDeviceViewport())) {
                 try {
-                    printImage(g2d, pageFormat, pageIndex - firstPage);
-                    diagram.render(g2d);
+                    cached.render(g2d);
                 } catch (SVGException e) {
                     MegaMekLab.getLogger().log(PrintRecordSheet.class, METHOD_NAME, e);
-                    // TODO: report to user
                 }
+                return Printable.PAGE_EXISTS;
+            }
+            try {
+                if (null != createDiagram(g2d, pageFormat, pageIndex - firstPage)) {
+                    diagram.render(g2d);
+                    pageCache.put(pageIndex, diagram);
+                }
+            } catch (SVGException e) {
+                MegaMekLab.getLogger().log(PrintRecordSheet.class, METHOD_NAME, e);
+                // TODO: report to user
             }
         }
         return Printable.PAGE_EXISTS;
     }
 
+    /**
+     * Loads the template and fills in the unit data without rendering it. The returned diagram
+     * can be rendered again at any scale without repeating the layout, which makes it suitable
+     * for use as a display list for on-screen previews.
+     *
+     * @param g2d        The graphics object the sheet is being prepared for
+     * @param pageFormat The page format used to size the diagram
+     * @param pageNum    Indicates which page of multi-page sheets to prepare. The first page is 0.
+     * @return           The populated diagram, or null if the template could not be loaded
+     *
+     * @throws PrinterException
+     * @throws SVGException
+     */
+    public SVGDiagram createDiagram(Graphics2D g2d, PageFormat pageFormat, int pageNum)
+            throws PrinterException, SVGException {
+        final String METHOD_NAME = "createDiagram(Graphics2D,PageFormat,int)";
+
+        diagram = ImageHelper.loadSVGImage(new File("data/images/recordsheets/" + getSVGFileName()));
+        if (null == diagram) {
+            MegaMekLab.getLogger().log(PrintRecordSheet.class, METHOD_NAME,
+                    LogLevel.ERROR,
+                    "Failed to open Mech SVG file! Path: data/images/recordsheets/" + getSVGFileName());
+            return null;
+        }
+        diagram.setDeviceViewport(new Rectangle(0, 0, (int) pageFormat.getImageableWidth(),
+                (int) pageFormat.getImageableHeight()));
+        printImage(g2d, pageFormat, pageNum);
+        return diagram;
+    }
+
+    /**
+     * Discards any populated pages kept for repeated print calls.
+     */
+    public void clearPageCache() {
+        pageCache.clear();
+    }
+
     /**
      * @return The number of pages required to print this record sheet
      */
@@ -275,24 +329,42 @@ public abstract class PrintRecordSheet implements Printable {
     protected int addMultilineTextElement(SVGElement canvas, double x, double y, double width, double lineHeight,
             String text, double fontSize, String anchor, String weight, String fill, char delimiter)
                     throws SVGException {
-        int lines = 0;
+        List<String> lines = breakLines(text, width, fontSize, canvas, delimiter);
+        for (String line : lines) {
+            addTextElement(canvas, x, y, line, fontSize, anchor, weight, fill);
+            y += lineHeight;
+        }
+        return lines.size();
+    }
+
+    /**
+     * Breaks text into lines that fit a given width. A single word that is too long for the
+     * width is placed on a line by itself.
+     *
+     * @param text      The text to break
+     * @param width     The maximum width of a line
+     * @param fontSize  The font size
+     * @param canvas    The parent element used to measure the text
+     * @param delimiter The character to break lines on
+     * @return          The lines, which is empty if the text is empty
+     * @throws SVGException
+     */
+    static List<String> breakLines(String text, double width, double fontSize, SVGElement canvas,
+            char delimiter) throws SVGException {
+        List<String> lines = new ArrayList<>();
         int pos = 0;
         while (text.length() > 0) {
             if (getTextLength(text, fontSize, canvas) <= width) {
-                addTextElement(canvas, x, y, text, fontSize, anchor, weight, fill);
-                lines++;
+                lines.add(text);
                 return lines;
             }
             int index = text.substring(pos).indexOf(delimiter);
             if ((index < 0) && (pos == 0)) {
-                addTextElement(canvas, x, y, text, fontSize, anchor, weight, fill);
-                lines++;
+                lines.add(text);
                 return lines;
             }
             if ((index < 0) || (getTextLength(text.substring(0, pos + index), fontSize, canvas) > width)) {
-                addTextElement(canvas, x, y, text.substring(0, pos), fontSize, anchor, weight, fill);
-                lines++;
-                y += lineHeight;
+                lines.add(text.substring(0, pos));
                 text = text.substring(pos);
                 pos = 0;
             } else if (index > 0) {
@@ -0,0 +1,237 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.printing;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.print.PageFormat;
+import java.awt.print.Pageable;
+import java.awt.print.Printable;
+import java.awt.print.PrinterException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import com.kitfox.svg.SVGDiagram;
+import com.kitfox.svg.SVGException;
+
+import megamek.common.Entity;
+import megameklab.com.MegaMekLab;
+import megameklab.com.util.MemoryPolicy;
+
+/**
+ * A {@link Pageable} that only stores the plan for each page of a print job. The {@link Printable}
+ * for a page is created when the print system first asks for it. Only the sheets for the most
+ * recently requested pages are kept, so the number of live sheet objects does not grow with the
+ * size of the job while repeated requests for the same page (banding, PDF drivers) reuse the
+ * already populated sheet.
+ *
+ * Pages added with {@link #appendShared(Entity, String, IntFunction)} share a single populated
+ * sheet with every other page of the job that has the same layout key. The template is filled in
+ * once and only the crew values are rewritten when the next copy has a different crew.
+ */
+public class RecordSheetBook implements Pageable {
+
+    // The number of sheets to keep; enough for the current page and the one before it
+    private final static int PAGE_CACHE_SIZE = 2;
+    // The number of populated sheets to keep for units that appear more than once in the job
+    private final static int SHARED_CACHE_SIZE = MemoryPolicy.choose(4, 1);
+
+    private final PageFormat pageFormat;
+    private final List<IntFunction<Printable>> pages = new ArrayList<>();
+
+    private final Map<Integer, Printable> sheets = new LinkedHashMap<Integer, Printable>(4, 0.75f, true) {
+        private static final long serialVersionUID = 2410387209472283710L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Printable> eldest) {
+            if (size() > PAGE_CACHE_SIZE) {
+                if (eldest.getValue() instanceof PrintRecordSheet) {
+                    ((PrintRecordSheet) eldest.getValue()).clearPageCache();
+                }
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final Map<String, SharedLayout> sharedLayouts = new LinkedHashMap<String, SharedLayout>(8, 0.75f, true) {
+        private static final long serialVersionUID = -5113893394613442316L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SharedLayout> eldest) {
+            if (size() > SHARED_CACHE_SIZE) {
+                eldest.getValue().sheet.clearPageCache();
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Set<Integer> sharedPages = new HashSet<>();
+    private int sharedSheetsPopulated = 0;
+
+    public RecordSheetBook(PageFormat pageFormat) {
+        this.pageFormat = pageFormat;
+    }
+
+    /**
+     * Adds a page to the end of the plan.
+     *
+     * @param page A function that creates the sheet for the page. The argument is the
+     *             index of the page within the job.
+     */
+    public void append(IntFunction<Printable> page) {
+        pages.add(page);
+    }
+
+    /**
+     * Adds a page for a unit that may appear more than once in the job.
+     *
+     * @param unit      The unit printed on the page
+     * @param layoutKey The unit's {@link SheetFingerprint#layoutKey(Entity) layout key}
+     * @param sheet     A function that creates the sheet for the unit. It is only called if no
+     *                  populated sheet with the same layout key is available.
+     */
+    public void appendShared(Entity unit, String layoutKey, IntFunction<PrintEntity> sheet) {
+        final String crewKey = SheetFingerprint.crewKey(unit);
+        pages.add(page -> new SharedSheet(unit, layoutKey, crewKey, sheet));
+    }
+
+    /**
+     * @return The number of pages that were drawn using a sheet populated for another page
+     */
+    public synchronized int getRendersSaved() {
+        return Math.max(0, sharedPages.size() - sharedSheetsPopulated);
+    }
+
+    @Override
+    public int getNumberOfPages() {
+        return pages.size();
+    }
+
+    @Override
+    public PageFormat getPageFormat(int pageIndex) throws IndexOutOfBoundsException {
+        if ((pageIndex < 0) || (pageIndex >= pages.size())) {
+            throw new IndexOutOfBoundsException("Page " + pageIndex + " of " + pages.size());
+        }
+        return pageFormat;
+    }
+
+    @Override
+    public synchronized Printable getPrintable(int pageIndex) throws IndexOutOfBoundsException {
+        if ((pageIndex < 0) || (pageIndex >= pages.size())) {
+            throw new IndexOutOfBoundsException("Page " + pageIndex + " of " + pages.size());
+        }
+        return sheets.computeIfAbsent(pageIndex, i -> pages.get(i).apply(i));
+    }
+
+    /**
+     * Releases all sheets kept for the job. Called once the job has been spooled.
+     */
+    public synchronized void release() {
+        for (Printable sheet : sheets.values()) {
+            if (sheet instanceof PrintRecordSheet) {
+                ((PrintRecordSheet) sheet).clearPageCache();
+            }
+        }
+        sheets.clear();
+        for (SharedLayout layout : sharedLayouts.values()) {
+            layout.sheet.clearPageCache();
+        }
+        sharedLayouts.clear();
+    }
+
+    private synchronized SharedLayout getSharedLayout(String layoutKey, IntFunction<PrintEntity> sheet,
+            int pageIndex) {
+        return sharedLayouts.computeIfAbsent(layoutKey, k -> new SharedLayout(sheet.apply(pageIndex)));
+    }
+
+    private synchronized void recordSharedPage(int pageIndex, boolean populated) {
+        sharedPages.add(pageIndex);
+        if (populated) {
+            sharedSheetsPopulated++;
+        }
+    }
+
+    /**
+     * A populated sheet and the crew it currently shows.
+     */
+    private static class SharedLayout {
+        final PrintEntity sheet;
+        String crewKey = null;
+
+        SharedLayout(PrintEntity sheet) {
+            this.sheet = sheet;
+        }
+    }
+
+    /**
+     * A page that draws the populated sheet for its layout key, changing the crew values first
+     * if the sheet was last drawn for a different crew.
+     */
+    private class SharedSheet implements Printable {
+        private final Entity unit;
+        private final String layoutKey;
+        private final String crewKey;
+        private final IntFunction<PrintEntity> sheet;
+
+        SharedSheet(Entity unit, String layoutKey, String crewKey, IntFunction<PrintEntity> sheet) {
+            this.unit = unit;
+            this.layoutKey = layoutKey;
+            this.crewKey = crewKey;
+            this.sheet = sheet;
+        }
+
+        @Override
+        public int print(Graphics graphics, PageFormat pageFormat, int pageIndex) throws PrinterException {
+            final String METHOD_NAME = "print(Graphics,PageFormat,int)";
+
+            Graphics2D g2d = (Graphics2D) graphics;
+            if (null == g2d) {
+                return Printable.PAGE_EXISTS;
+            }
+            final SharedLayout layout = getSharedLayout(layoutKey, sheet, pageIndex);
+            final Rectangle viewport = new Rectangle(0, 0, (int) pageFormat.getImageableWidth(),
+                    (int) pageFormat.getImageableHeight());
+            synchronized (layout) {
+                try {
+                    SVGDiagram diagram = layout.sheet.getSVGDiagram();
+                    boolean populated = false;
+                    if ((null == diagram) || !viewport.equals(diagram.getDeviceViewport())) {
+                        diagram = layout.sheet.createDiagram(g2d, pageFormat, 0);
+                        if (null == diagram) {
+                            return Printable.PAGE_EXISTS;
+                        }
+                        layout.crewKey = SheetFingerprint.crewKey(layout.sheet.getEntity());
+                        populated = true;
+                    }
+                    if (!crewKey.equals(layout.crewKey)) {
+                        layout.sheet.writeCrewValues(unit);
+                        layout.crewKey = crewKey;
+                    }
+                    diagram.render(g2d);
+                    recordSharedPage(pageIndex, populated);
+                } catch (SVGException e) {
+                    MegaMekLab.getLogger().log(RecordSheetBook.class, METHOD_NAME, e);
+                }
+            }
+            return Printable.PAGE_EXISTS;
+        }
+    }
+}
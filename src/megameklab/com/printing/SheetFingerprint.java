@@ -0,0 +1,87 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.printing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import megamek.common.Crew;
+import megamek.common.Entity;
+import megamek.common.LAMPilot;
+import megamek.common.Mech;
+
+/**
+ * Identifies units that produce the same record sheet. A sheet is made up of the values derived
+ * from the unit design, which are identified by the unit file, and the crew values. Units with the
+ * same {@link #layoutKey(Entity) layout key} differ only in the crew names and skills, which
+ * can be changed on a populated sheet with {@link PrintEntity#writeCrewValues(Entity)}.
+ */
+public class SheetFingerprint {
+
+    private SheetFingerprint() {
+    }
+
+    /**
+     * @param unit The unit
+     * @return     A key identifying the unit design and the parts of the crew that affect the
+     *             layout of the sheet, or null if the unit's sheet cannot be shared
+     */
+    public static String layoutKey(Entity unit) {
+        if (!(unit instanceof Mech)) {
+            // Only the SVG Mek sheet keeps a populated diagram that can be reused.
+            return null;
+        }
+        final Crew crew = unit.getCrew();
+        StringBuilder sb = new StringBuilder(((Mech) unit).getMtf());
+        sb.append('\n').append(unit.getFluff().getMMLImagePath())
+            .append('\n').append(crew.getCrewType())
+            .append('\n').append(crew.getSlotCount())
+            .append('\n').append(!crew.getName().equalsIgnoreCase("unnamed"))
+            .append('\n').append(PrintEntity.formatAbilities(unit));
+        return digest(sb.toString());
+    }
+
+    /**
+     * @param unit The unit
+     * @return     A key identifying the crew names and skills shown on the unit's sheet
+     */
+    public static String crewKey(Entity unit) {
+        final Crew crew = unit.getCrew();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < crew.getSlotCount(); i++) {
+            sb.append(crew.getName(i)).append('\n')
+                .append(crew.getGunnery(i)).append('/').append(crew.getPiloting(i)).append('\n');
+        }
+        if (crew instanceof LAMPilot) {
+            sb.append(((LAMPilot) crew).getGunneryAero()).append('/')
+                .append(((LAMPilot) crew).getPilotingAero()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+}
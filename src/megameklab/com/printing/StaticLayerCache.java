@@ -0,0 +1,210 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.printing;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.kitfox.svg.SVGDiagram;
+import com.kitfox.svg.SVGException;
+
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+import megameklab.com.util.ImageHelper;
+import megameklab.com.util.MemoryPolicy;
+
+/**
+ * Renders the parts of a record sheet that are the same for every unit, such as hit tables,
+ * critical tables and copyright blocks. Each template file is parsed once and the parsed
+ * diagram is shared by every page that uses it.
+ *
+ * When drawing to a raster device the template is also rendered once per device scale into an
+ * image, which is then composited under the unit data on each page. Printers and PDF
+ * export receive the shared vector form instead, which keeps the output sharp and the spool size small for PDF
+ * and PostScript drivers.
+ */
+public class StaticLayerCache {
+
+    // The number of parsed templates to keep
+    private static final int MAX_DIAGRAMS = MemoryPolicy.choose(64, 16);
+    // The total size of the cached template images
+    private static final long MAX_RASTER_BYTES = MemoryPolicy.choose(32L, 8L) * 1024 * 1024;
+    // Templates that would produce a larger image than this are drawn as vectors
+    private static final long MAX_LAYER_BYTES = MAX_RASTER_BYTES / 4;
+
+    private static final Map<String, SVGDiagram> diagrams = new LinkedHashMap<String, SVGDiagram>(16, 0.75f, true) {
+        private static final long serialVersionUID = -2386071914318843372L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SVGDiagram> eldest) {
+            return size() > MAX_DIAGRAMS;
+        }
+    };
+
+    private static final Map<RasterKey, BufferedImage> rasters = new LinkedHashMap<>(16, 0.75f, true);
+    private static long rasterBytes = 0;
+
+    private StaticLayerCache() {
+    }
+
+    /**
+     * Draws a template file that does not depend on the unit.
+     *
+     * @param g2d  The graphics object for the page
+     * @param file The SVG template file
+     * @throws SVGException if the template cannot be rendered
+     */
+    public static void render(Graphics2D g2d, File file) throws SVGException {
+        final String METHOD_NAME = "render(Graphics2D,File)";
+
+        final SVGDiagram diagram = getDiagram(file);
+        if (null == diagram) {
+            MegaMekLab.getLogger().log(StaticLayerCache.class, METHOD_NAME, LogLevel.ERROR,
+                    "Could not load " + file);
+            return;
+        }
+        final AffineTransform transform = g2d.getTransform();
+        final double scaleX = Math.hypot(transform.getScaleX(), transform.getShearY());
+        final double scaleY = Math.hypot(transform.getShearX(), transform.getScaleY());
+        final GraphicsDevice device = g2d.getDeviceConfiguration().getDevice();
+        BufferedImage image = null;
+        if ((device.getType() != GraphicsDevice.TYPE_PRINTER) && !(g2d instanceof PdfGraphics2D)
+                && (scaleX > 0) && (scaleY > 0)) {
+            image = getRaster(file, diagram, scaleX, scaleY);
+        }
+        if (null == image) {
+            synchronized (diagram) {
+                diagram.render(g2d);
+            }
+        } else {
+            final Rectangle2D view = diagram.getViewRect();
+            AffineTransform place = AffineTransform.getTranslateInstance(view.getX(), view.getY());
+            place.scale(1.0 / scaleX, 1.0 / scaleY);
+            g2d.drawImage(image, place, null);
+        }
+    }
+
+    /**
+     * Releases all cached templates and images.
+     */
+    public static synchronized void clear() {
+        diagrams.clear();
+        rasters.clear();
+        rasterBytes = 0;
+    }
+
+    private static synchronized SVGDiagram getDiagram(File file) {
+        final String key = file.getAbsolutePath();
+        SVGDiagram diagram = diagrams.get(key);
+        if (null == diagram) {
+            diagram = ImageHelper.loadSVGImage(file);
+            if (null != diagram) {
+                diagrams.put(key, diagram);
+            }
+        }
+        return diagram;
+    }
+
+    /**
+     * Finds or creates the image of the template at the given device scale.
+     *
+     * @return The image, or null if it would exceed the size limit for a single layer
+     */
+    private static BufferedImage getRaster(File file, SVGDiagram diagram, double scaleX, double scaleY)
+            throws SVGException {
+        final RasterKey key = new RasterKey(file.getAbsolutePath(), scaleX, scaleY);
+        synchronized (StaticLayerCache.class) {
+            BufferedImage image = rasters.get(key);
+            if (null != image) {
+                return image;
+            }
+        }
+        final Rectangle2D view = diagram.getViewRect();
+        final int width = (int) Math.ceil(view.getWidth() * scaleX);
+        final int height = (int) Math.ceil(view.getHeight() * scaleY);
+        final long bytes = 4L * width * height;
+        if ((width <= 0) || (height <= 0) || (bytes > MAX_LAYER_BYTES)) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.scale(scaleX, scaleY);
+            g.translate(-view.getX(), -view.getY());
+            synchronized (diagram) {
+                diagram.render(g);
+            }
+        } finally {
+            g.dispose();
+        }
+        synchronized (StaticLayerCache.class) {
+            if (null == rasters.putIfAbsent(key, image)) {
+                rasterBytes += bytes;
+                for (Iterator<BufferedImage> iter = rasters.values().iterator();
+                        (rasterBytes > MAX_RASTER_BYTES) && iter.hasNext(); ) {
+                    BufferedImage eldest = iter.next();
+                    if (eldest != image) {
+                        rasterBytes -= 4L * eldest.getWidth() * eldest.getHeight();
+                        iter.remove();
+                    }
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Identifies an image of a template at a device scale. The scale is rounded so that
+     * transforms that differ only by floating point error share an image.
+     */
+    private static class RasterKey {
+        private final String file;
+        private final long scaleX;
+        private final long scaleY;
+
+        RasterKey(String file, double scaleX, double scaleY) {
+            this.file = file;
+            this.scaleX = Math.round(scaleX * 1000);
+            this.scaleY = Math.round(scaleY * 1000);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RasterKey)) {
+                return false;
+            }
+            RasterKey other = (RasterKey) o;
+            return file.equals(other.file) && (scaleX == other.scaleX) && (scaleY == other.scaleY);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, scaleX, scaleY);
+        }
+    }
+}
@@ -36,6 +36,7 @@ import megamek.common.SmallCraft;
 //TODO: uncomment when print issue is fixed and pilot data is ready to position
 //import megamek.common.Crew;
 import megamek.common.TechConstants;
+import megameklab.com.printing.StaticLayerCache;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.ImageHelperAero;
 import megameklab.com.util.UnitUtil;
@@ -69,7 +70,7 @@ public class PrintSmallCraftSpheroid implements Printable {
         // g2d.drawImage(ImageHelper.getRecordSheet(smallCraft), 18, 18, 558,
         // 738, Color.BLACK, null);
         try {
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/SpheroidSmallScraftTemplate.svg")).render(g2d);
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/SpheroidSmallScraftTemplate.svg"));
         } catch (SVGException e) {
             e.printStackTrace();
         }
@@ -284,6 +284,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
     @Override
     public void chassisChanged(String chassis) {
         getAero().setChassis(chassis);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -291,6 +292,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
     @Override
     public void modelChanged(String model) {
         getAero().setModel(model);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -372,6 +374,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         getAero().setPodHeatSinks(Math.max(0, count
                 - panHeat.getBaseCount()));
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -407,6 +410,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         getAero().setArmorTonnage(Math.round(tonnage * 2) / 2.0);
         panArmorAllocation.setFromEntity(getAero());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -421,6 +425,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         
         panArmorAllocation.setFromEntity(getAero());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -443,6 +448,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         
         panArmorAllocation.setFromEntity(getAero());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -456,6 +462,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         getAero().setEngine(panChassis.getEngine());
         setAeroStructuralIntegrity();
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
         panMovement.setFromEntity(getAero());
@@ -486,6 +493,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         panChassis.setFromEntity(getAero());
         getAero().autoSetInternal();
         refresh();
+        refresh.unitChanged();
         refresh.refreshPreview();
         refresh.refreshStatus();
     }
@@ -496,6 +504,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         getAero().getEngine().setBaseChassisHeatSinks(
                 omni? Math.max(0, panHeat.getBaseCount()) : -1);
         panHeat.setFromAero(getAero());
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
@@ -527,6 +536,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         getAero().setEngine(engine);
         panMovement.setFromEntity(getAero());
         refreshSummary();
+        refresh.unitChanged();
         refresh.refreshPreview();
         refresh.refreshStatus();
     }
@@ -535,6 +545,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
     public void cockpitChanged(int cockpitType) {
         getAero().setCockpitType(cockpitType);
         refreshSummary();
+        refresh.unitChanged();
         refresh.refreshPreview();
         refresh.refreshStatus();
     }
@@ -551,6 +562,7 @@ public class StructureTab extends ITab implements AeroBuildListener {
         getAero().setFuelTonnage(fuelTons);
         panFuel.setFromEntity(getAero());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -18,7 +18,10 @@ package megameklab.com.ui.Aero.views;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.util.Vector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -35,6 +38,8 @@ import megamek.common.WeaponType;
 import megamek.common.loaders.MtfFile;
 import megamek.common.verifier.TestAero;
 import megameklab.com.ui.EntitySource;
+import megameklab.com.util.CritListCellRenderer;
+import megameklab.com.util.CritSlotListModel;
 import megameklab.com.util.IView;
 import megameklab.com.util.RefreshListener;
 import megameklab.com.util.Mech.DropTargetCriticalList;
@@ -65,6 +70,13 @@ public class CriticalView extends IView {
 
     private boolean showEmpty = false;
 
+    private static final Font CRIT_FONT = new Font("Arial", Font.PLAIN, 10);
+
+    // The unit the location lists were created for, and the list and model for each location
+    private Aero builtFor = null;
+    private final Map<Integer, CritSlotListModel> models = new HashMap<>();
+    private final Map<Integer, DropTargetCriticalList<String>> lists = new HashMap<>();
+
     public CriticalView(EntitySource eSource, boolean showEmpty, RefreshListener refresh) {
         super(eSource);
         this.showEmpty = showEmpty;
@@ -118,11 +130,6 @@ public class CriticalView extends IView {
     }
 
     public void refresh() {
-        leftPanel.removeAll();
-        rightPanel.removeAll();
-        nosePanel.removeAll();
-        aftPanel.removeAll();                        
-        
         int[] availSpace = TestAero.availableSpace(getAero());
         
         if (availSpace == null){
@@ -135,124 +142,156 @@ public class CriticalView extends IView {
         synchronized (getAero()) {
             // Aeros have 5 locs, the 5th is "wings" which should be ignored
             int numLocs = getAero().locations() - 1;
+            if ((builtFor != getAero()) || (models.size() != numLocs)) {
+                rebuild(numLocs);
+            }
+            int[] numWeapons = new int[numLocs];
             for (int location = 0; location < numLocs; location++) {
-                Vector<String> critNames = new Vector<String>(1, 1);
-                int numWeapons = 0;
-                for (int slot = 0; slot < getAero().getNumberOfCriticals(location); 
-                        slot++) {
-                    CriticalSlot cs = getAero().getCritical(location, slot);
-                    if (cs == null) {
-                        continue;
-                    } else if (cs.getType() == CriticalSlot.TYPE_SYSTEM) {
-                        // Aeros shouldn't have system types
-                        continue;
-                    } else if (cs.getType() == CriticalSlot.TYPE_EQUIPMENT) {
-                        try {
-                            Mounted m = cs.getMount();
-                            // Critical didn't get removed. Remove it now.
-                            if (m == null) {
-
-                                m = cs.getMount();
-
-                                if (m == null) {
-                                    getAero().setCritical(location, slot, null);
-                                    continue;
-                                }
-                                cs.setMount(m);
-                            }
-                            // Ignore weapon groups
-                            if (m.isWeaponGroup()){
-                                continue;
-                            }
-                            if (m.getType() instanceof WeaponType){
-                                numWeapons++;
-                            }
-                            StringBuffer critName = 
-                                    new StringBuffer(m.getName());
-                            if (critName.length() > 25) {
-                                critName.setLength(25);
-                                critName.append("...");
-                            }
-                            if (m.isRearMounted()) {
-                                critName.append(" (R)");
-                            }
-                            if (m.isSponsonTurretMounted()) {
-                                critName.append(" (ST)");
-                            }
-                            if (m.isPintleTurretMounted()) {
-                                critName.append(" (PT)");
-                            }
-                            critName.append(":" + slot);
-                            critNames.add(critName.toString());
-
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
-                        }
-                    }
-                }
-
-                if (critNames.size() == 0) {
-                    critNames.add(MtfFile.EMPTY);
-                }
-                DropTargetCriticalList<String> criticalSlotList = null;                
-
-                DropTargetCriticalList<String> dropTargetCriticalList = new DropTargetCriticalList<String>(
-                        critNames, eSource, refresh, showEmpty);
-                criticalSlotList = dropTargetCriticalList;
-                criticalSlotList.setAlignmentX(JLabel.CENTER_ALIGNMENT);
-                criticalSlotList.setVisibleRowCount(critNames.size());
-                criticalSlotList.setSelectionMode(
-                        ListSelectionModel.SINGLE_SELECTION);
-                criticalSlotList.setFont(new Font("Arial", Font.PLAIN, 10));
-                criticalSlotList.setName(Integer.toString(location));
-                criticalSlotList.setBorder(BorderFactory.createEtchedBorder(
-                        Color.WHITE.brighter(), Color.BLACK.darker()));
-                
+                List<String> critNames = getCritNames(location, numWeapons);
+                models.get(location).setNames(critNames,
+                        CritListCellRenderer.getRowStates(getAero(), critNames, location));
+                lists.get(location).setVisibleRowCount(critNames.size());
+                String spaceText = "Weapons: " + numWeapons[location] + "/" + availSpace[location];
                 switch (location) {
                     case Aero.LOC_NOSE:
-                        nosePanel.add(criticalSlotList);
-                        noseSpace.setText("Weapons: " + 
-                                numWeapons + "/" + availSpace[location]);
+                        noseSpace.setText(spaceText);
                         break;
                     case Aero.LOC_LWING:
-                        leftPanel.add(criticalSlotList);
-                        leftSpace.setText("Weapons: " + 
-                                numWeapons + "/" + availSpace[location]);
+                        leftSpace.setText(spaceText);
                         break;
                     case Aero.LOC_RWING:
-                        rightPanel.add(criticalSlotList);
-                        rightSpace.setText("Weapons: " + 
-                                numWeapons + "/" + availSpace[location]);
+                        rightSpace.setText(spaceText);
                         break;
                     case Aero.LOC_AFT:
-                        aftPanel.add(criticalSlotList);
-                        aftSpace.setText("Weapons: " + 
-                                numWeapons + "/" + availSpace[location]);
+                        aftSpace.setText(spaceText);
                         break;
                 }
-                    
-                
             }
+        }
+    }
+
+    /**
+     * Creates the list component and model for each location. This only needs to be done when
+     * the unit is replaced, as the lists are otherwise updated in place.
+     *
+     * @param numLocs The number of locations that have slots
+     */
+    private void rebuild(int numLocs) {
+        leftPanel.removeAll();
+        rightPanel.removeAll();
+        nosePanel.removeAll();
+        aftPanel.removeAll();
+        models.clear();
+        lists.clear();
+        builtFor = getAero();
+
+        for (int location = 0; location < numLocs; location++) {
+            CritSlotListModel model = new CritSlotListModel();
+            DropTargetCriticalList<String> criticalSlotList = new DropTargetCriticalList<String>(
+                    model, eSource, refresh, showEmpty);
+            models.put(location, model);
+            lists.put(location, criticalSlotList);
+            criticalSlotList.setAlignmentX(JLabel.CENTER_ALIGNMENT);
+            criticalSlotList.setSelectionMode(
+                    ListSelectionModel.SINGLE_SELECTION);
+            criticalSlotList.setFont(CRIT_FONT);
+            criticalSlotList.setName(Integer.toString(location));
+            criticalSlotList.setBorder(BorderFactory.createEtchedBorder(
+                    Color.WHITE.brighter(), Color.BLACK.darker()));
             
-            leftPanel.add(leftSpace);
-            leftPanel.add(Box.createVerticalStrut(8));
-            rightPanel.add(rightSpace);
-            rightPanel.add(Box.createVerticalStrut(8));
-            nosePanel.add(noseSpace);
-            nosePanel.add(Box.createVerticalStrut(8));
-            aftPanel.add(aftSpace);
-            aftPanel.add(Box.createVerticalStrut(8));
-            
-            nosePanel.repaint();
-            leftPanel.repaint();
-            rightPanel.repaint();
-            aftPanel.repaint();
-            
-            nosePanel.invalidate();
-            leftPanel.invalidate();
-            rightPanel.invalidate();
-            aftPanel.invalidate();
+            switch (location) {
+                case Aero.LOC_NOSE:
+                    nosePanel.add(criticalSlotList);
+                    break;
+                case Aero.LOC_LWING:
+                    leftPanel.add(criticalSlotList);
+                    break;
+                case Aero.LOC_RWING:
+                    rightPanel.add(criticalSlotList);
+                    break;
+                case Aero.LOC_AFT:
+                    aftPanel.add(criticalSlotList);
+                    break;
+            }
+        }
+        
+        leftPanel.add(leftSpace);
+        leftPanel.add(Box.createVerticalStrut(8));
+        rightPanel.add(rightSpace);
+        rightPanel.add(Box.createVerticalStrut(8));
+        nosePanel.add(noseSpace);
+        nosePanel.add(Box.createVerticalStrut(8));
+        aftPanel.add(aftSpace);
+        aftPanel.add(Box.createVerticalStrut(8));
+        
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @param location   The location index
+     * @param numWeapons Array to receive the number of weapons in the location
+     * @return           The names to display for each slot in the location
+     */
+    private List<String> getCritNames(int location, int[] numWeapons) {
+        List<String> critNames = new ArrayList<String>();
+        for (int slot = 0; slot < getAero().getNumberOfCriticals(location); 
+                slot++) {
+            CriticalSlot cs = getAero().getCritical(location, slot);
+            if (cs == null) {
+                continue;
+            } else if (cs.getType() == CriticalSlot.TYPE_SYSTEM) {
+                // Aeros shouldn't have system types
+                continue;
+            } else if (cs.getType() == CriticalSlot.TYPE_EQUIPMENT) {
+                try {
+                    Mounted m = cs.getMount();
+                    // Critical didn't get removed. Remove it now.
+                    if (m == null) {
+
+                        m = cs.getMount();
+
+                        if (m == null) {
+                            getAero().setCritical(location, slot, null);
+                            continue;
+                        }
+                        cs.setMount(m);
+                    }
+                    // Ignore weapon groups
+                    if (m.isWeaponGroup()){
+                        continue;
+                    }
+                    if (m.getType() instanceof WeaponType){
+                        numWeapons[location]++;
+                    }
+                    StringBuffer critName = 
+                            new StringBuffer(m.getName());
+                    if (critName.length() > 25) {
+                        critName.setLength(25);
+                        critName.append("...");
+                    }
+                    if (m.isRearMounted()) {
+                        critName.append(" (R)");
+                    }
+                    if (m.isSponsonTurretMounted()) {
+                        critName.append(" (ST)");
+                    }
+                    if (m.isPintleTurretMounted()) {
+                        critName.append(" (PT)");
+                    }
+                    critName.append(":" + slot);
+                    critNames.add(critName.toString());
+
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+
+        if (critNames.size() == 0) {
+            critNames.add(MtfFile.EMPTY);
         }
+        return critNames;
     }
 
 }
\ No newline at end of file
@@ -36,8 +36,8 @@ import megameklab.com.ui.MegaMekLabMainUI;
 import megameklab.com.ui.BattleArmor.tabs.BuildTab;
 import megameklab.com.ui.BattleArmor.tabs.EquipmentTab;
 import megameklab.com.ui.BattleArmor.tabs.StructureTab;
+import megameklab.com.util.DerivedDataCache;
 import megameklab.com.util.MenuBarCreator;
-import megameklab.com.util.UnitUtil;
 
 public class MainUI extends MegaMekLabMainUI {
 
@@ -89,9 +89,9 @@ public class MainUI extends MegaMekLabMainUI {
 
         statusbar = new StatusBar(this);
         buildTab = new BuildTab(this);
-        structureTab.addRefreshedListener(this);
-        equipTab.addRefreshedListener(this);
-        buildTab.addRefreshedListener(this);
+        structureTab.addRefreshedListener(getRefreshListener());
+        equipTab.addRefreshedListener(getRefreshListener());
+        buildTab.addRefreshedListener(getRefreshListener());
 
         ConfigPane.addTab("Structure/Armor", structureTab);
         ConfigPane.addTab("Equipment", equipTab);
@@ -156,7 +156,7 @@ public class MainUI extends MegaMekLabMainUI {
 
         String title = getEntity().getChassis() + " " + getEntity().getModel() + ".blk";
 
-        if (UnitUtil.validateUnit(getEntity()).length() > 0) {
+        if (DerivedDataCache.lookupWindow(this).getValidation().length() > 0) {
             title += "  (Invalid)";
             setForeground(Color.red);
         } else {
@@ -31,6 +31,7 @@ import com.kitfox.svg.SVGException;
 import megamek.common.BattleArmor;
 import megamek.common.MiscType;
 import megamek.common.TechConstants;
+import megameklab.com.printing.StaticLayerCache;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.ImageHelperBattleArmor;
 import megameklab.com.util.UnitUtil;
@@ -72,7 +73,7 @@ public class PrintBattleArmor implements Printable {
         isAdvanced = false;
         currentMargin = 0;
         try {
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/BA/BATemplate.svg")).render(g2d);
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/BA/BATemplate.svg"));
         } catch (SVGException e) {
             e.printStackTrace();
         }
@@ -83,7 +84,7 @@ public class PrintBattleArmor implements Printable {
             battleArmor = battleArmorList.get(pos + currentPosition);
             int squadNumber = pos+1;
             try {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/BA/Squad"+squadNumber+"_"+battleArmor.getTroopers()+".svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/BA/Squad"+squadNumber+"_"+battleArmor.getTroopers()+".svg"));
             } catch (SVGException e) {
                 e.printStackTrace();
             }
@@ -91,7 +92,7 @@ public class PrintBattleArmor implements Printable {
             printBattleArmorData(g2d, squadNumber);
             if (battleArmor.getArmor(1) > 0) {
                 try {
-                    ImageHelper.loadSVGImage(new File("data/images/recordsheets/BA/Squad"+squadNumber+"_"+battleArmor.getTroopers()+"_"+battleArmor.getArmor(1)+".svg")).render(g2d);
+                    StaticLayerCache.render(g2d, new File("data/images/recordsheets/BA/Squad"+squadNumber+"_"+battleArmor.getTroopers()+"_"+battleArmor.getArmor(1)+".svg"));
                 } catch (SVGException e) {
                     e.printStackTrace();
                 }
@@ -253,7 +254,7 @@ public class PrintBattleArmor implements Printable {
         if (battleArmor.canDoMechanizedBA()) {
 
             try {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/BA/Mechanized"+squadNumber+".svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/BA/Mechanized"+squadNumber+".svg"));
             } catch (SVGException e) {
                 e.printStackTrace();
             }
@@ -261,7 +262,7 @@ public class PrintBattleArmor implements Printable {
 
         if (UnitUtil.canSwarm(battleArmor)) {
             try {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/BA/Swarm"+squadNumber+".svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/BA/Swarm"+squadNumber+".svg"));
             } catch (SVGException e) {
                 e.printStackTrace();
             }
@@ -269,7 +270,7 @@ public class PrintBattleArmor implements Printable {
 
         if (UnitUtil.canLegAttack(battleArmor)) {
             try {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/BA/Leg"+squadNumber+".svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/BA/Leg"+squadNumber+".svg"));
             } catch (SVGException e) {
                 e.printStackTrace();
             }
@@ -277,7 +278,7 @@ public class PrintBattleArmor implements Printable {
 
         if (battleArmor.countWorkingMisc(MiscType.F_AP_MOUNT) > 0) {
             try {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/BA/AP"+squadNumber+".svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/BA/AP"+squadNumber+".svg"));
             } catch (SVGException e) {
                 e.printStackTrace();
             }
@@ -33,6 +33,7 @@ import megamek.common.BattleArmor;
 import megamek.common.verifier.EntityVerifier;
 import megamek.common.verifier.TestBattleArmor;
 import megameklab.com.ui.MegaMekLabMainUI;
+import megameklab.com.util.DerivedDataCache;
 import megameklab.com.util.ITab;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.RefreshListener;
@@ -137,8 +138,9 @@ public class StatusBar extends ITab {
         int jump = getBattleArmor().getOriginalJumpMP();
         double maxKilos = getBattleArmor().getTrooperWeight();
         double currentKilos;
-        int bv = getBattleArmor().calculateBattleValue();
-        long currentCost = (long) Math.round(getBattleArmor().getCost(false));
+        DerivedDataCache.Entry derived = DerivedDataCache.lookupWindow(eSource);
+        int bv = derived.getBattleValue();
+        long currentCost = (long) Math.round(derived.getCost(false));
 
         testBA = new TestBattleArmor(getBattleArmor(), entityVerifier.baOption,
                 null);
@@ -185,6 +187,7 @@ public class StatusBar extends ITab {
                                     .toString()).getAbsolutePath().length() + 1);
             getAero().getFluff().setMMLImagePath(relativeFilePath);
         }
+        refresh.unitChanged();
         refresh.refreshPreview();
         return;
     }
@@ -66,6 +66,7 @@ import megamek.common.WeaponType;
 import megamek.common.weapons.artillery.ArtilleryWeapon;
 import megameklab.com.ui.EntitySource;
 import megameklab.com.util.CriticalTableModel;
+import megameklab.com.util.Diagnostics;
 import megameklab.com.util.EquipmentTableModel;
 import megameklab.com.util.ITab;
 import megameklab.com.util.RefreshListener;
@@ -543,6 +544,7 @@ public class EquipmentTab extends ITab implements ActionListener {
     }
 
     private void filterEquipment() {
+        final long start = System.nanoTime();
         RowFilter<EquipmentTableModel, Integer> equipmentTypeFilter = null;
         final int nType = choiceType.getSelectedIndex();
         equipmentTypeFilter = new RowFilter<EquipmentTableModel,Integer>() {
@@ -615,6 +617,7 @@ public class EquipmentTab extends ITab implements ActionListener {
             }
         };
         equipmentSorter.setRowFilter(equipmentTypeFilter);
+        Diagnostics.record("filterEquipment", start);
     }
 
     public void setEquipmentView() {
@@ -41,7 +41,6 @@ import megamek.common.EntityMovementMode;
 import megamek.common.EquipmentType;
 import megamek.common.ITechManager;
 import megamek.common.LocationFullException;
-import megamek.common.MechView;
 import megamek.common.MiscType;
 import megamek.common.Mounted;
 import megamek.common.SimpleTechLevel;
@@ -55,6 +54,7 @@ import megameklab.com.ui.view.BasicInfoView;
 import megameklab.com.ui.view.MovementView;
 import megameklab.com.ui.view.listeners.BABuildListener;
 import megameklab.com.util.ITab;
+import megameklab.com.util.ReadoutCache;
 import megameklab.com.util.RefreshListener;
 import megameklab.com.util.UnitUtil;
 
@@ -387,20 +387,13 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
     }
 
     public void refreshPreview(){
-        boolean populateTextFields = true;
-        MechView mechView = null;
-        try {
-            mechView = new MechView(getBattleArmor(), false);
-        } catch (Exception e) {
-            e.printStackTrace();
-            // error unit didn't load right. this is bad news.
-            populateTextFields = false;
-        }
-        if (populateTextFields && (mechView != null)) {
-            panelMekView.setMech(getBattleArmor());
-        } else {
-            panelMekView.reset();
-        }
+        ReadoutCache.getInstance(eSource).request(readout -> {
+            if (null != readout) {
+                panelMekView.setMech(readout.getEntity(), readout.getMechView());
+            } else {
+                panelMekView.reset();
+            }
+        });
     }
     
     @Override
@@ -411,6 +404,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
     @Override
     public void chassisChanged(String chassis) {
         getBattleArmor().setChassis(chassis);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -418,6 +412,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
     @Override
     public void modelChanged(String model) {
         getBattleArmor().setModel(model);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -478,6 +473,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
         getBattleArmor().setOriginalWalkMP(walkMP);
         panMovement.setFromEntity(getBattleArmor());
         refreshPreview();
+        refresh.unitChanged();
         refresh.refreshStatus();
     }
 
@@ -491,6 +487,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
         }
         panEnhancements.setFromEntity(getBattleArmor());
         refreshPreview();
+        refresh.unitChanged();
         refresh.refreshStatus();
     }
 
@@ -508,6 +505,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
         panMovement.setFromEntity(getBattleArmor());
         panEnhancements.setFromEntity(getBattleArmor());
         refreshPreview();
+        refresh.unitChanged();
         refresh.refreshStatus();
     }
 
@@ -532,6 +530,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
         panArmor.setFromEntity(getBattleArmor());
         panEnhancements.setFromEntity(getBattleArmor());
         refreshPreview();
+        refresh.unitChanged();
         refresh.refreshStatus();
     }
 
@@ -541,6 +540,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
         if (exoskeleton && !panBasicInfo.useClanTechBase()) {
             getBattleArmor().setClanExoWithoutHarjel(panChassis.hasHarjel());
         }
+        refresh.unitChanged();
         refresh.refreshStatus();
         refreshPreview();
     }
@@ -548,6 +548,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
     @Override
     public void harjelChanged(boolean harjel) {
         getBattleArmor().setClanExoWithoutHarjel(panChassis.isExoskeleton() && !harjel);
+        refresh.unitChanged();
         refresh.refreshStatus();
         refreshPreview();
     }
@@ -648,6 +649,7 @@ public class StructureTab extends ITab implements ActionListener, BABuildListene
         for(int i = 0; i < getBattleArmor().locations(); i++) {
             getBattleArmor().initializeArmor(points, i);
         }
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
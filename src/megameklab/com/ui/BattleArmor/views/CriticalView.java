@@ -22,7 +22,10 @@ import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.io.File;
-import java.util.Vector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -44,6 +47,8 @@ import megamek.common.verifier.TestBattleArmor;
 import megamek.common.weapons.infantry.InfantryWeapon;
 import megameklab.com.ui.EntitySource;
 import megameklab.com.ui.BattleArmor.CriticalSuit;
+import megameklab.com.util.CritListCellRenderer;
+import megameklab.com.util.CritSlotListModel;
 import megameklab.com.util.IView;
 import megameklab.com.util.RefreshListener;
 import megameklab.com.util.Mech.DropTargetCriticalList;
@@ -90,6 +95,15 @@ public class CriticalView extends IView {
     private CriticalSuit critSuit;
     
     private Dimension lblSz = new Dimension(100, 25);
+
+    private static final Font CRIT_FONT = new Font("Arial", Font.PLAIN, 10);
+
+    // The unit the location lists were created for, and the list and model for each location
+    private BattleArmor builtFor = null;
+    private final Map<Integer, CritSlotListModel> models = new HashMap<>();
+    private final Map<Integer, DropTargetCriticalList<String>> lists = new HashMap<>();
+    private final JLabel[] amLabels = new JLabel[BattleArmor.MOUNT_NUM_LOCS];
+    private final JLabel[] apLabels = new JLabel[BattleArmor.MOUNT_NUM_LOCS];
     
     /**
      * Keeps track of which trooper in the squad this <code>CriticalView</code>
@@ -171,10 +185,6 @@ public class CriticalView extends IView {
 
     public void refresh() {
         critSuit = new CriticalSuit(getBattleArmor());
-        leftPanel.removeAll();
-        rightPanel.removeAll();
-        bodyPanel.removeAll();
-        turretPanel.removeAll();
         
         int [] numAPWeapons = new int[BattleArmor.MOUNT_NUM_LOCS];
         int [] numAMWeapons = new int[BattleArmor.MOUNT_NUM_LOCS];
@@ -201,101 +211,35 @@ public class CriticalView extends IView {
         }
 
         synchronized (getBattleArmor()) {
+            if ((builtFor != getBattleArmor()) || (models.size() != critSuit.locations())) {
+                rebuild();
+            }
             for (int location = 0; location < critSuit.locations(); location++) {
-                Vector<String> critNames = new Vector<String>(1, 1);
-                for (int slot = 0; slot < critSuit.getNumCriticals(location); 
-                        slot++) {
-                    CriticalSlot cs = critSuit.getCritical(location, slot);
-                    if (cs == null) {
-                        if (showEmpty) {
-                            critNames.add(MtfFile.EMPTY);
-                        }
-                        continue;
-                    } else if (cs.getType() == CriticalSlot.TYPE_SYSTEM) {
-                        // BattleArmor shouldn't have system type crits
-                        continue;
-                    } else if (cs.getType() == CriticalSlot.TYPE_EQUIPMENT) {
-                        try {
-                            Mounted m = cs.getMount();
-                            // Critical didn't get removed. Remove it now.
-                            if (m == null) {
-                                if (showEmpty) {
-                                    critNames.add(MtfFile.EMPTY);
-                                }
-                                continue;
-                            }
-                            
-                            StringBuffer critName = 
-                                    new StringBuffer(m.getName());
-
-                            critName.append(":" + slot + ":"
-                                    + getBattleArmor().getEquipmentNum(m));
-                            critNames.add(critName.toString());
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
-                        }
-                    }
-                }
-
-                DropTargetCriticalList<String> criticalSlotList = null;                
-
-                criticalSlotList = new DropTargetCriticalList<String>(
-                        critNames, eSource, refresh, showEmpty);
-                criticalSlotList.setAlignmentX(JLabel.CENTER_ALIGNMENT);
-                criticalSlotList.setVisibleRowCount(critNames.size());
-                criticalSlotList.setSelectionMode(
-                        ListSelectionModel.SINGLE_SELECTION);
-                criticalSlotList.setFont(new Font("Arial", Font.PLAIN, 10));
-                criticalSlotList.setName(location + ":" + trooper);
-                criticalSlotList.setBorder(BorderFactory.createEtchedBorder(
-                        Color.WHITE.brighter(), Color.BLACK.darker()));
-                
-                switch (location) {
-                    case BattleArmor.MOUNT_LOC_LARM:
-                        leftPanel.add(criticalSlotList);
-                        break;
-                    case BattleArmor.MOUNT_LOC_RARM:
-                        rightPanel.add(criticalSlotList);
-                        break;
-                    case BattleArmor.MOUNT_LOC_BODY:
-                        bodyPanel.add(criticalSlotList);
-                        break;
-                    case BattleArmor.MOUNT_LOC_TURRET:
-                        turretPanel.add(criticalSlotList);
-                        break;
-                }
+                List<String> critNames = getCritNames(location);
+                models.get(location).setNames(critNames,
+                        CritListCellRenderer.getRowStates(getBattleArmor(), critNames, location));
+                lists.get(location).setVisibleRowCount(critNames.size());
             }
             
-            String amTxt[] = new String[BattleArmor.MOUNT_NUM_LOCS];
-            String apTxt[] = new String[BattleArmor.MOUNT_NUM_LOCS];
             for (int loc = 0; loc < BattleArmor.MOUNT_NUM_LOCS; loc++){
-                amTxt[loc] = "AM Wpn: " + numAMWeapons[loc] + "/"
+                String amTxt = "AM Wpn: " + numAMWeapons[loc] + "/"
                         + getBattleArmor().getNumAllowedAntiMechWeapons(loc);
-                apTxt[loc] = "AP Wpn: " + numAPWeapons[loc] + "/"
+                String apTxt = "AP Wpn: " + numAPWeapons[loc] + "/"
                         + getBattleArmor().getNumAllowedAntiPersonnelWeapons(
                                 loc, trooper);
                 if (numAMWeapons[loc] 
                         > getBattleArmor().getNumAllowedAntiMechWeapons(loc)){
-                    amTxt[loc] = "<html><font color='C00000'>" + amTxt[loc] 
+                    amTxt = "<html><font color='C00000'>" + amTxt 
                             + "</font></html>";  
                 }
                 if (numAPWeapons[loc]
                         > getBattleArmor().getNumAllowedAntiMechWeapons(loc)){
-                    apTxt[loc] = "<html><font color='C00000'>" + apTxt[loc] 
+                    apTxt = "<html><font color='C00000'>" + apTxt 
                             + "</font></html>";
                 }
+                amLabels[loc].setText(amTxt);
+                apLabels[loc].setText(apTxt);
             }
-                    
-
-            leftPanel.add(makeLabel(amTxt[BattleArmor.MOUNT_LOC_LARM], lblSz));
-            leftPanel.add(makeLabel(apTxt[BattleArmor.MOUNT_LOC_LARM], lblSz));
-            
-            rightPanel.add(makeLabel(amTxt[BattleArmor.MOUNT_LOC_RARM], lblSz));
-            rightPanel.add(makeLabel(apTxt[BattleArmor.MOUNT_LOC_RARM], lblSz));
-            
-            bodyPanel.add(makeLabel(amTxt[BattleArmor.MOUNT_LOC_BODY], lblSz));
-            bodyPanel.add(makeLabel(apTxt[BattleArmor.MOUNT_LOC_BODY], lblSz));
-
 
             // Hide the arm panels if we are a quad
             if (getBattleArmor().getChassisType() == 
@@ -324,22 +268,116 @@ public class CriticalView extends IView {
             }
                     
             weightLabel.setText(weightTxt);
-             
-            leftPanel.add(Box.createVerticalStrut(8));
-            rightPanel.add(Box.createVerticalStrut(8));
-            bodyPanel.add(Box.createVerticalStrut(8));
-            turretPanel.add(Box.createVerticalStrut(8));
-            
-            leftPanel.invalidate();
-            leftPanel.invalidate();
-            rightPanel.invalidate();
-            turretPanel.invalidate();
+        }
+    }
+
+    /**
+     * Creates the list component and model for each location and adds the weapon count
+     * labels. This only needs to be done when the unit is replaced, as the lists and labels
+     * are otherwise updated in place.
+     */
+    private void rebuild() {
+        leftPanel.removeAll();
+        rightPanel.removeAll();
+        bodyPanel.removeAll();
+        turretPanel.removeAll();
+        models.clear();
+        lists.clear();
+        builtFor = getBattleArmor();
+
+        for (int location = 0; location < critSuit.locations(); location++) {
+            CritSlotListModel model = new CritSlotListModel();
+            DropTargetCriticalList<String> criticalSlotList = new DropTargetCriticalList<String>(
+                    model, eSource, refresh, showEmpty);
+            models.put(location, model);
+            lists.put(location, criticalSlotList);
+            criticalSlotList.setAlignmentX(JLabel.CENTER_ALIGNMENT);
+            criticalSlotList.setSelectionMode(
+                    ListSelectionModel.SINGLE_SELECTION);
+            criticalSlotList.setFont(CRIT_FONT);
+            criticalSlotList.setName(location + ":" + trooper);
+            criticalSlotList.setBorder(BorderFactory.createEtchedBorder(
+                    Color.WHITE.brighter(), Color.BLACK.darker()));
             
-            bodyPanel.repaint();
-            leftPanel.repaint();
-            rightPanel.repaint();
-            turretPanel.repaint();
+            switch (location) {
+                case BattleArmor.MOUNT_LOC_LARM:
+                    leftPanel.add(criticalSlotList);
+                    break;
+                case BattleArmor.MOUNT_LOC_RARM:
+                    rightPanel.add(criticalSlotList);
+                    break;
+                case BattleArmor.MOUNT_LOC_BODY:
+                    bodyPanel.add(criticalSlotList);
+                    break;
+                case BattleArmor.MOUNT_LOC_TURRET:
+                    turretPanel.add(criticalSlotList);
+                    break;
+            }
+        }
+
+        for (int loc = 0; loc < BattleArmor.MOUNT_NUM_LOCS; loc++) {
+            amLabels[loc] = makeLabel("", lblSz);
+            apLabels[loc] = makeLabel("", lblSz);
+        }
+
+        leftPanel.add(amLabels[BattleArmor.MOUNT_LOC_LARM]);
+        leftPanel.add(apLabels[BattleArmor.MOUNT_LOC_LARM]);
+        
+        rightPanel.add(amLabels[BattleArmor.MOUNT_LOC_RARM]);
+        rightPanel.add(apLabels[BattleArmor.MOUNT_LOC_RARM]);
+        
+        bodyPanel.add(amLabels[BattleArmor.MOUNT_LOC_BODY]);
+        bodyPanel.add(apLabels[BattleArmor.MOUNT_LOC_BODY]);
+
+        leftPanel.add(Box.createVerticalStrut(8));
+        rightPanel.add(Box.createVerticalStrut(8));
+        bodyPanel.add(Box.createVerticalStrut(8));
+        turretPanel.add(Box.createVerticalStrut(8));
+        
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @param location The suit mount location
+     * @return         The names to display for each slot in the location
+     */
+    private List<String> getCritNames(int location) {
+        List<String> critNames = new ArrayList<String>();
+        for (int slot = 0; slot < critSuit.getNumCriticals(location); 
+                slot++) {
+            CriticalSlot cs = critSuit.getCritical(location, slot);
+            if (cs == null) {
+                if (showEmpty) {
+                    critNames.add(MtfFile.EMPTY);
+                }
+                continue;
+            } else if (cs.getType() == CriticalSlot.TYPE_SYSTEM) {
+                // BattleArmor shouldn't have system type crits
+                continue;
+            } else if (cs.getType() == CriticalSlot.TYPE_EQUIPMENT) {
+                try {
+                    Mounted m = cs.getMount();
+                    // Critical didn't get removed. Remove it now.
+                    if (m == null) {
+                        if (showEmpty) {
+                            critNames.add(MtfFile.EMPTY);
+                        }
+                        continue;
+                    }
+                    
+                    StringBuffer critName = 
+                            new StringBuffer(m.getName());
+
+                    critName.append(":" + slot + ":"
+                            + getBattleArmor().getEquipmentNum(m));
+                    critNames.add(critName.toString());
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
         }
+        return critNames;
     }
     
     private JLabel makeLabel(String text, Dimension maxSize) {
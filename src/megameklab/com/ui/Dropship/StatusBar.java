@@ -25,13 +25,11 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 
-import megamek.common.AmmoType;
 import megamek.common.Entity;
-import megamek.common.Mounted;
-import megamek.common.WeaponType;
 import megamek.common.verifier.EntityVerifier;
 import megamek.common.verifier.TestSmallCraft;
 import megameklab.com.ui.MegaMekLabMainUI;
+import megameklab.com.util.DerivedDataCache;
 import megameklab.com.util.ITab;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.RefreshListener;
@@ -101,12 +99,13 @@ public class StatusBar extends ITab {
         int heat = getSmallCraft().getHeatCapacity();
         double tonnage = getSmallCraft().getWeight();
         double currentTonnage;
-        int bv = getSmallCraft().calculateBattleValue();
-        long currentCost = (long) Math.round(getSmallCraft().getCost(false));
+        DerivedDataCache.Entry derived = DerivedDataCache.lookupWindow(eSource);
+        int bv = derived.getBattleValue();
+        long currentCost = (long) Math.round(derived.getCost(false));
 
         testSmallCraft = new TestSmallCraft(getSmallCraft(), entityVerifier.aeroOption, null);
 
-        currentTonnage = testSmallCraft.calculateWeight();
+        currentTonnage = derived.getWeight();
         currentTonnage += UnitUtil.getUnallocatedAmmoTonnage(getSmallCraft());
 
         double totalHeat = calculateTotalHeat();
@@ -135,44 +134,7 @@ public class StatusBar extends ITab {
     }
 
     public double calculateTotalHeat() {
-        double heat = 0;
-
-        for (Mounted mounted : getSmallCraft().getWeaponList()) {
-            WeaponType wtype = (WeaponType) mounted.getType();
-            double weaponHeat = wtype.getHeat();
-
-            // only count non-damaged equipment
-            if (mounted.isMissing() || mounted.isHit() || mounted.isDestroyed()
-                    || mounted.isBreached()) {
-                continue;
-            }
-
-            // one shot weapons count 1/4
-            if ((wtype.getAmmoType() == AmmoType.T_ROCKET_LAUNCHER)
-                    || wtype.hasFlag(WeaponType.F_ONESHOT)) {
-                weaponHeat *= 0.25;
-            }
-
-            // double heat for ultras
-            if ((wtype.getAmmoType() == AmmoType.T_AC_ULTRA)
-                    || (wtype.getAmmoType() == AmmoType.T_AC_ULTRA_THB)) {
-                weaponHeat *= 2;
-            }
-
-            // Six times heat for RAC
-            if (wtype.getAmmoType() == AmmoType.T_AC_ROTARY) {
-                weaponHeat *= 6;
-            }
-
-            // half heat for streaks
-            if ((wtype.getAmmoType() == AmmoType.T_SRM_STREAK)
-                    || (wtype.getAmmoType() == AmmoType.T_MRM_STREAK)
-                    || (wtype.getAmmoType() == AmmoType.T_LRM_STREAK)) {
-                weaponHeat *= 0.5;
-            }
-            heat += weaponHeat;
-        }
-        return heat;
+        return UnitUtil.calculateTotalHeat(getSmallCraft());
     }
 
     private void getFluffImage() {
@@ -196,6 +158,7 @@ public class StatusBar extends ITab {
                                     .toString()).getAbsolutePath().length() + 1);
             getSmallCraft().getFluff().setMMLImagePath(relativeFilePath);
         }
+        refresh.unitChanged();
         refresh.refreshPreview();
         return;
     }
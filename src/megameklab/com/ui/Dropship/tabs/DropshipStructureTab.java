@@ -232,6 +232,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
     @Override
     public void chassisChanged(String chassis) {
         getSmallCraft().setChassis(chassis);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -239,6 +240,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
     @Override
     public void modelChanged(String model) {
         getSmallCraft().setModel(model);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -298,6 +300,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         getSmallCraft().setHeatType(index);
         getSmallCraft().setHeatSinks(count);
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -324,6 +327,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         panArmorAllocation.setFromEntity(getSmallCraft());
         panCrew.setFromEntity(getSmallCraft());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -338,6 +342,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         
         panArmorAllocation.setFromEntity(getSmallCraft());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -360,6 +365,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         
         panArmorAllocation.setFromEntity(getSmallCraft());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -369,6 +375,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         getSmallCraft().setOriginalWalkMP(walkMP);
         panSummary.refresh();
         panChassis.setMaxThrust(getSmallCraft().getRunMP());
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
         panMovement.setFromEntity(getSmallCraft());
@@ -394,6 +401,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         panCrew.setFromEntity(getSmallCraft());
         getSmallCraft().autoSetInternal();
         refresh();
+        refresh.unitChanged();
         refresh.refreshPreview();
         refresh.refreshStatus();
     }
@@ -401,6 +409,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
     @Override
     public void militaryChanged(boolean military) {
         getSmallCraft().setDesignType(military? SmallCraft.MILITARY : SmallCraft.CIVILIAN);
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
@@ -466,6 +475,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         getSmallCraft().setFuelTonnage(fuelTons);
         panFuel.setFromEntity(getSmallCraft());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -528,6 +538,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         getSmallCraft().setNCrew(nCrew + getSmallCraft().getNGunners() + getSmallCraft().getBayPersonnel());
         // May need to adjust number of officers
         panCrew.setFromEntity(getSmallCraft());
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
@@ -535,6 +546,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
     public void officersChanged(int nOfficers) {
         getSmallCraft().setNOfficers(nOfficers);
         panCrew.setFromEntity(getSmallCraft());
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
@@ -543,24 +555,28 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         getSmallCraft().setNCrew(getSmallCraft().getNCrew() + nGunners - getSmallCraft().getNGunners());
         getSmallCraft().setNGunners(nGunners);
         panCrew.setFromEntity(getSmallCraft());
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
     @Override
     public void passengersChanged(int nPassengers) {
         getSmallCraft().setNPassenger(nPassengers);
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
     @Override
     public void marinesChanged(int nMarines) {
         getSmallCraft().setNMarines(nMarines);
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
     @Override
     public void baMarinesChanged(int nBAMarines) {
         getSmallCraft().setNBattleArmor(nBAMarines);
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
@@ -587,6 +603,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         }
         panCrew.setFromEntity(getSmallCraft());
         refreshSummary();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -617,6 +634,7 @@ public class DropshipStructureTab extends ITab implements DropshipBuildListener
         getSmallCraft().setLifeBoats(lifeBoats);
         getSmallCraft().setEscapePods(escapePods);
         refreshSummary();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -198,7 +198,6 @@ public class DropshipCriticalView extends IView {
         double[] extra = TestSmallCraft.extraSlotCost(getSmallCraft());
         for (int arc = 0; arc < extra.length; arc++) {
             arcTrees[arc].rebuild();
-            arcTrees[arc].repaint();
             lblSlotCount[arc].setText(String.valueOf(arcTrees[arc].getSlotCount()));
             lblExtraTonnage[arc].setText(String.valueOf(extra[arc]));
         }
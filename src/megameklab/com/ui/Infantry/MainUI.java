@@ -84,7 +84,7 @@ public class MainUI extends MegaMekLabMainUI {
         structureTab = new StructureTab(this);
         previewTab = new PreviewTab(this);
 
-        structureTab.addRefreshedListener(this);
+        structureTab.addRefreshedListener(getRefreshListener());
 
         ConfigPane.addTab("Build", structureTab);
         ConfigPane.addTab("Preview", previewTab);
@@ -28,6 +28,7 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 
 import megameklab.com.ui.MegaMekLabMainUI;
+import megameklab.com.util.DerivedDataCache;
 import megameklab.com.util.ITab;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.RefreshListener;
@@ -98,8 +99,9 @@ public class StatusBar extends ITab {
 
         DecimalFormat roundFormat = new DecimalFormat("#.##");
         double currentTonnage;
-        int bv = getInfantry().calculateBattleValue();
-        long currentCost = (long) Math.round(getInfantry().getCost(false));
+        DerivedDataCache.Entry derived = DerivedDataCache.lookupWindow(eSource);
+        int bv = derived.getBattleValue();
+        long currentCost = (long) Math.round(derived.getCost(false));
 
         currentTonnage = getInfantry().getWeight();
 
@@ -142,6 +144,7 @@ public class StatusBar extends ITab {
             relativeFilePath = "." + File.separatorChar + relativeFilePath.substring(new File(System.getProperty("user.dir").toString()).getAbsolutePath().length() + 1);
             getInfantry().getFluff().setMMLImagePath(relativeFilePath);
         }
+        refresh.unitChanged();
         refresh.refreshPreview();
         return;
     }
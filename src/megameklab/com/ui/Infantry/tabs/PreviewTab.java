@@ -20,11 +20,13 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 
 import megamek.client.ui.swing.MechViewPanel;
-import megamek.common.MechView;
 import megameklab.com.ui.EntitySource;
 import megameklab.com.util.ITab;
+import megameklab.com.util.ReadoutCache;
 
 public class PreviewTab extends ITab implements ActionListener {
 
@@ -41,24 +43,27 @@ public class PreviewTab extends ITab implements ActionListener {
         panelMekView = new MechViewPanel(350, 500);
         add(panelMekView, BorderLayout.CENTER);
         setBackground(Color.WHITE);
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                refresh();
+            }
+        });
         refresh();
     }
     
     public void refresh() {
-        boolean populateTextFields = true;
-        MechView mechView = null;
-        try {
-            mechView = new MechView(getInfantry(), false);
-        } catch (Exception e) {
-            e.printStackTrace();
-            // error unit didn't load right. this is bad news.
-            populateTextFields = false;
-        }
-        if (populateTextFields && (mechView != null)) {
-            panelMekView.setMech(getInfantry());
-        } else {
-            panelMekView.reset();
+        if (!isShowing()) {
+            // The readout is requested again when the tab is shown
+            return;
         }
+        ReadoutCache.getInstance(eSource).request(readout -> {
+            if (null != readout) {
+                panelMekView.setMech(readout.getEntity(), readout.getMechView());
+            } else {
+                panelMekView.reset();
+            }
+        });
     }
     
     @Override
@@ -340,12 +340,14 @@ public class StructureTab extends ITab implements InfantryBuildListener {
     @Override
     public void chassisChanged(String chassis) {
         getInfantry().setChassis(chassis);
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
     @Override
     public void modelChanged(String model) {
         getInfantry().setModel(model);
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
@@ -372,6 +374,7 @@ public class StructureTab extends ITab implements InfantryBuildListener {
     @Override
     public void sourceChanged(String source) {
         getInfantry().setSource(source);
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
@@ -424,6 +427,7 @@ public class StructureTab extends ITab implements InfantryBuildListener {
         updateSpecializations();
         panPlatoonType.setFromEntity(getInfantry());
         panWeapons.setFromEntity(getInfantry());
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -438,6 +442,7 @@ public class StructureTab extends ITab implements InfantryBuildListener {
         } else {
             getInfantry().setSecondaryN(count);
         }
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -450,6 +455,7 @@ public class StructureTab extends ITab implements InfantryBuildListener {
                 .findAny();
         UnitUtil.replaceFieldGun(getInfantry(), (WeaponType)fieldGun.orElse(null),
                 count);
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -457,6 +463,7 @@ public class StructureTab extends ITab implements InfantryBuildListener {
     @Override
     public void antiMekChanged(final boolean antiMek) {
         getInfantry().setAntiMekSkill(antiMek);
+        refresh.unitChanged();
         refresh.refreshStatus();
     }
 
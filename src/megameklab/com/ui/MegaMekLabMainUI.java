@@ -18,20 +18,18 @@ package megameklab.com.ui;
 
 import java.awt.Dimension;
 import java.awt.Frame;
+import java.awt.Toolkit;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.File;
 
 import javax.swing.JFrame;
-import javax.swing.JOptionPane;
-import javax.swing.UIManager;
 
 import megamek.common.Entity;
-import megamek.common.EquipmentType;
-import megamek.common.MechSummaryCache;
-import megameklab.com.MegaMekLab;
 import megameklab.com.util.CConfig;
 import megameklab.com.util.RefreshListener;
-import megameklab.com.util.UnitUtil;
+import megameklab.com.util.UndoHistory;
+import megameklab.com.util.UnitSnapshot;
 
 public abstract class MegaMekLabMainUI extends JFrame implements
         RefreshListener, EntitySource {
@@ -42,22 +40,15 @@ public abstract class MegaMekLabMainUI extends JFrame implements
     private static final long serialVersionUID = 3971760390511127766L;
 
     private Entity entity = null;
+    // The file the unit was loaded from or last saved to
+    private File unitFile = null;
+    private final UndoHistory history = new UndoHistory(this);
+    private final RefreshListener refreshListener = new WindowRefreshListener(this);
 
     public MegaMekLabMainUI() {
 
-        EquipmentType.initializeTypes();
-        MechSummaryCache.getInstance();
-        UnitUtil.loadFonts();
-        new CConfig();
-        System.out.println("Starting MegaMekLab version: " + MegaMekLab.VERSION);
-
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-            //UIManager.setLookAndFeel("javax.swing.plaf.metal.MetalLookAndFeel");
-        } catch (Exception e) {
-            System.out.println("Setting look and feel failed: ");
-            e.printStackTrace();
-        }
+        UnitWindows.initialize();
+        UnitWindows.register(this);
 
         setLocation(getLocation().x + 10, getLocation().y);
         setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
@@ -73,14 +64,7 @@ public abstract class MegaMekLabMainUI extends JFrame implements
                     CConfig.setParam("WINDOWTOP", Integer.toString(getY()));
                 }
                 CConfig.saveConfig();
-
-                String quitMsg = "Do you really want to quit MegaMekLab?"; 
-                int response = JOptionPane.showConfirmDialog(null, quitMsg,
-                        "Quit?", JOptionPane.YES_NO_OPTION,
-                        JOptionPane.QUESTION_MESSAGE); 
-                if (response == JOptionPane.YES_OPTION) {
-                    System.exit(0);
-                }
+                UnitWindows.close(MegaMekLabMainUI.this);
             }
         });
 
@@ -114,8 +98,81 @@ public abstract class MegaMekLabMainUI extends JFrame implements
 
     public abstract void refreshPreview();
 
+    @Override
+    public void dispose() {
+        UnitWindows.unregister(this);
+        super.dispose();
+    }
+
+    /**
+     * @return The listener the tabs should notify to refresh this window. It times each refresh
+     *         for the diagnostics report, and the refreshes that follow an edit mark the unit as
+     *         changed.
+     */
+    public RefreshListener getRefreshListener() {
+        return refreshListener;
+    }
+
+    /**
+     * Notes that the unit may have changed, so values calculated from it are not reused and the
+     * change is recorded for undo once the editor is idle.
+     */
+    @Override
+    public void unitChanged() {
+        UnitSnapshot.markChanged(this);
+        history.scheduleRecord();
+    }
+
     public void setEntity(Entity en) {
         entity = en;
+        UnitSnapshot.markChanged(this);
+        history.reset();
+    }
+
+    /**
+     * @return The file the unit in this window was loaded from or last saved to, or null if the
+     *         unit has not been saved
+     */
+    public File getUnitFile() {
+        return unitFile;
+    }
+
+    public void setUnitFile(File unitFile) {
+        this.unitFile = unitFile;
+    }
+
+    public UndoHistory getUndoHistory() {
+        return history;
+    }
+
+    /**
+     * Restores the unit to its state before the last change.
+     */
+    public void undo() {
+        restore(history.undo());
+    }
+
+    /**
+     * Reapplies the last change that was undone.
+     */
+    public void redo() {
+        restore(history.redo());
+    }
+
+    private void restore(Entity en) {
+        if (null == en) {
+            Toolkit.getDefaultToolkit().beep();
+            return;
+        }
+        history.setRestoring(true);
+        try {
+            entity = en;
+            UnitSnapshot.markChanged(this);
+            reloadTabs();
+            refreshAll();
+        } finally {
+            history.setRestoring(false);
+        }
     }
 
     public Entity getEntity() {
@@ -41,6 +41,7 @@ import megameklab.com.ui.MegaMekLabMainUI;
 import megameklab.com.ui.Mek.tabs.BuildTab;
 import megameklab.com.ui.Mek.tabs.EquipmentTab;
 import megameklab.com.ui.Mek.tabs.PreviewTab;
+import megameklab.com.ui.Mek.tabs.RecordSheetTab;
 import megameklab.com.ui.Mek.tabs.StructureTab;
 import megameklab.com.util.MenuBarCreator;
 import megameklab.com.util.UnitUtil;
@@ -57,6 +58,7 @@ public class MainUI extends MegaMekLabMainUI {
     private StructureTab structureTab;
     private EquipmentTab equipmentTab;
     private PreviewTab previewTab;
+    private RecordSheetTab recordSheetTab;
     private BuildTab buildTab;
     private StatusBar statusbar;
     JPanel masterPanel = new JPanel();
@@ -96,14 +98,15 @@ public class MainUI extends MegaMekLabMainUI {
         structureTab = new StructureTab(this);
 
         previewTab = new PreviewTab(this);
+        recordSheetTab = new RecordSheetTab(this);
 
         statusbar = new StatusBar(this);
         equipmentTab = new EquipmentTab(this);
         buildTab = new BuildTab(this, equipmentTab);
-        structureTab.addRefreshedListener(this);
-        equipmentTab.addRefreshedListener(this);
-        buildTab.addRefreshedListener(this);
-        statusbar.addRefreshedListener(this);
+        structureTab.addRefreshedListener(getRefreshListener());
+        equipmentTab.addRefreshedListener(getRefreshListener());
+        buildTab.addRefreshedListener(getRefreshListener());
+        statusbar.addRefreshedListener(getRefreshListener());
 
         configPane.addTab("Structure/Armor", structureTab);
         //ConfigPane.addTab("Armor", armorTab);
@@ -111,6 +114,7 @@ public class MainUI extends MegaMekLabMainUI {
         //ConfigPane.addTab("Weapons", weaponTab);
         configPane.addTab("Assign Criticals", buildTab);
         configPane.addTab("Preview", previewTab);
+        configPane.addTab("Record Sheet", recordSheetTab);
 
         //masterPanel.add(header);
         masterPanel.add(configPane, BorderLayout.CENTER);
@@ -122,7 +126,17 @@ public class MainUI extends MegaMekLabMainUI {
 
     @Override
     public void createNewUnit(long entityType, boolean isPrimitive, boolean isIndustrial, Entity oldEntity) {
-        
+        setEntity(createMech(entityType, isPrimitive, isIndustrial, oldEntity));
+    }
+
+    /**
+     * Creates an empty Mek with the standard starting equipment, as for a new unit in the editor.
+     * The arguments are the same as for {@link #createNewUnit(long, boolean, boolean, Entity)}.
+     *
+     * @return The new Mek
+     */
+    public static Mech createMech(long entityType, boolean isPrimitive, boolean isIndustrial, Entity oldEntity) {
+        final Mech mech;
         int cockpit = Mech.COCKPIT_STANDARD;
         int at = EquipmentType.T_ARMOR_STANDARD;
         int st = EquipmentType.T_STRUCTURE_STANDARD;
@@ -140,35 +154,34 @@ public class MainUI extends MegaMekLabMainUI {
         }
 
         if (entityType == Entity.ETYPE_TRIPOD_MECH) {
-            setEntity(new TripodMech(Mech.GYRO_STANDARD, Mech.COCKPIT_TRIPOD));
-            getEntity().setTechLevel(TechConstants.T_IS_TW_NON_BOX);
+            mech = new TripodMech(Mech.GYRO_STANDARD, Mech.COCKPIT_TRIPOD);
+            mech.setTechLevel(TechConstants.T_IS_TW_NON_BOX);
         } else if (entityType == Entity.ETYPE_QUAD_MECH) {
-            setEntity(new QuadMech(Mech.GYRO_STANDARD, cockpit));
-            getEntity().setTechLevel(TechConstants.T_IS_TW_NON_BOX);
+            mech = new QuadMech(Mech.GYRO_STANDARD, cockpit);
+            mech.setTechLevel(TechConstants.T_IS_TW_NON_BOX);
         } else if (entityType == Entity.ETYPE_LAND_AIR_MECH) {
-            setEntity(new LandAirMech(Mech.GYRO_STANDARD, Mech.COCKPIT_STANDARD, LandAirMech.LAM_STANDARD));
-            getEntity().setTechLevel(TechConstants.T_IS_ADVANCED);
-            getEntity().setManualBV(-1);
+            mech = new LandAirMech(Mech.GYRO_STANDARD, Mech.COCKPIT_STANDARD, LandAirMech.LAM_STANDARD);
+            mech.setTechLevel(TechConstants.T_IS_ADVANCED);
+            mech.setManualBV(-1);
         } else if (entityType == Entity.ETYPE_QUADVEE) {
-            setEntity(new QuadVee(Mech.GYRO_STANDARD, QuadVee.MOTIVE_TRACK));
-            getEntity().setTechLevel(TechConstants.T_CLAN_ADVANCED);
-            UnitUtil.createSpreadMounts((Mech)getEntity(), EquipmentType.get("Tracks"));
-            getEntity().setManualBV(-1);
+            mech = new QuadVee(Mech.GYRO_STANDARD, QuadVee.MOTIVE_TRACK);
+            mech.setTechLevel(TechConstants.T_CLAN_ADVANCED);
+            UnitUtil.createSpreadMounts(mech, EquipmentType.get("Tracks"));
+            mech.setManualBV(-1);
         } else { // type == 0
-            setEntity(new BipedMech(Mech.GYRO_STANDARD, cockpit));
-            getEntity().setTechLevel(TechConstants.T_IS_TW_NON_BOX);
+            mech = new BipedMech(Mech.GYRO_STANDARD, cockpit);
+            mech.setTechLevel(TechConstants.T_IS_TW_NON_BOX);
         }
-        Mech mech = (Mech) getEntity();
-        getEntity().setWeight(25);
+        mech.setWeight(25);
         if (entityType == Entity.ETYPE_LAND_AIR_MECH) {
             mech.setEngine(new Engine(75, Engine.NORMAL_ENGINE, 0));
-            UnitUtil.updateJumpJets(((Mech)getEntity()), 3, Mech.JUMP_STANDARD);
+            UnitUtil.updateJumpJets(mech, 3, Mech.JUMP_STANDARD);
         } else {
             mech.setEngine(new Engine(25, Engine.NORMAL_ENGINE, 0));
         }
-        getEntity().setArmorType(at);
-        getEntity().setArmorTechLevel(getEntity().getTechLevel());
-        getEntity().setStructureType(st);
+        mech.setArmorType(at);
+        mech.setArmorTechLevel(mech.getTechLevel());
+        mech.setStructureType(st);
 
         mech.addGyro();
         mech.addEngineCrits();
@@ -183,8 +196,8 @@ public class MainUI extends MegaMekLabMainUI {
         }
         UnitUtil.updateHeatSinks(mech, 10, "Single");
 
-        getEntity().autoSetInternal();
-        for (int loc = 0; loc < getEntity().locations(); loc++) {
+        mech.autoSetInternal();
+        for (int loc = 0; loc < mech.locations(); loc++) {
             mech.initializeArmor(0, loc);
             mech.initializeRearArmor(0, loc);
         }
@@ -215,6 +228,7 @@ public class MainUI extends MegaMekLabMainUI {
         equipmentTab.refresh();
         buildTab.refresh();
         previewTab.refresh();
+        recordSheetTab.refresh();
     }
 
     @Override
@@ -235,6 +249,7 @@ public class MainUI extends MegaMekLabMainUI {
     @Override
     public void refreshPreview() {
         previewTab.refresh();
+        recordSheetTab.refresh();
 
     }
 
@@ -284,4 +299,4 @@ public class MainUI extends MegaMekLabMainUI {
         return structureTab.getTechManager();
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
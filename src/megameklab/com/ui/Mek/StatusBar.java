@@ -28,16 +28,12 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 
-import megamek.common.AmmoType;
-import megamek.common.Engine;
-import megamek.common.Mech;
-import megamek.common.Mounted;
 import megamek.common.QuadMech;
 import megamek.common.TripodMech;
-import megamek.common.WeaponType;
 import megamek.common.verifier.EntityVerifier;
 import megamek.common.verifier.TestMech;
 import megameklab.com.ui.MegaMekLabMainUI;
+import megameklab.com.util.DerivedDataCache;
 import megameklab.com.util.ITab;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.RefreshListener;
@@ -112,7 +108,8 @@ public class StatusBar extends ITab {
         int heat = getMech().getHeatCapacity();
         double tonnage = getMech().getWeight();
         double currentTonnage;
-        int bv = getMech().calculateBattleValue();
+        DerivedDataCache.Entry derived = DerivedDataCache.lookupWindow(eSource);
+        int bv = derived.getBattleValue();
         int maxCrits;
         if (getMech() instanceof TripodMech) {
             maxCrits = 84;
@@ -122,11 +119,11 @@ public class StatusBar extends ITab {
             maxCrits = 78;
         }
         int currentCrits = UnitUtil.countUsedCriticals(getMech());
-        long currentCost = (long) Math.round(getMech().getCost(false));
+        long currentCost = (long) Math.round(derived.getCost(false));
 
         testEntity = new TestMech(getMech(), entityVerifier.mechOption, null);
 
-        currentTonnage = testEntity.calculateWeight();
+        currentTonnage = derived.getWeight();
         currentTonnage += UnitUtil.getUnallocatedAmmoTonnage(getMech());
 
         double totalHeat = calculateTotalHeat();
@@ -162,62 +159,7 @@ public class StatusBar extends ITab {
     }
 
     public double calculateTotalHeat() {
-        double heat = 0;
-
-        if (getMech().getOriginalJumpMP() > 0) {
-            if (getMech().getJumpType() == Mech.JUMP_IMPROVED) {
-                heat += Math.max(3, Math.ceil(getMech().getOriginalJumpMP() / 2.0f));
-            } else if (getMech().getJumpType() != Mech.JUMP_BOOSTER) {
-                heat += Math.max(3, getMech().getOriginalJumpMP());
-            }
-            if (getMech().getEngine().getEngineType() == Engine.XXL_ENGINE) {
-                heat *= 2;
-            }
-        } else if (getMech().getEngine().getEngineType() == Engine.XXL_ENGINE) {
-            heat += 6;
-        } else {
-            heat += 2;
-        }
-
-        if (getMech().hasNullSig()) {
-            heat += 10;
-        }
-
-        if (getMech().hasChameleonShield()) {
-            heat += 6;
-        }
-
-        for (Mounted mounted : getMech().getWeaponList()) {
-            WeaponType wtype = (WeaponType) mounted.getType();
-            double weaponHeat = wtype.getHeat();
-
-            // only count non-damaged equipment
-            if (mounted.isMissing() || mounted.isHit() || mounted.isDestroyed() || mounted.isBreached()) {
-                continue;
-            }
-
-            // one shot weapons count 1/4
-            if ((wtype.getAmmoType() == AmmoType.T_ROCKET_LAUNCHER) || wtype.hasFlag(WeaponType.F_ONESHOT)) {
-                weaponHeat *= 0.25;
-            }
-
-            // double heat for ultras
-            if ((wtype.getAmmoType() == AmmoType.T_AC_ULTRA) || (wtype.getAmmoType() == AmmoType.T_AC_ULTRA_THB)) {
-                weaponHeat *= 2;
-            }
-
-            // Six times heat for RAC
-            if (wtype.getAmmoType() == AmmoType.T_AC_ROTARY) {
-                weaponHeat *= 6;
-            }
-
-            // half heat for streaks
-            if ((wtype.getAmmoType() == AmmoType.T_SRM_STREAK) || (wtype.getAmmoType() == AmmoType.T_MRM_STREAK) || (wtype.getAmmoType() == AmmoType.T_LRM_STREAK)) {
-                weaponHeat *= 0.5;
-            }
-            heat += weaponHeat;
-        }
-        return heat;
+        return UnitUtil.calculateTotalHeat(getMech());
     }
 
     private void getFluffImage() {
@@ -246,6 +188,7 @@ public class StatusBar extends ITab {
             relativeFilePath = "." + File.separatorChar + relativeFilePath.substring(new File(System.getProperty("user.dir").toString()).getAbsolutePath().length() + 1);
             getMech().getFluff().setMMLImagePath(relativeFilePath);
         }
+        refresh.unitChanged();
         refresh.refreshPreview();
         return;
     }
@@ -51,6 +51,7 @@ import javax.swing.ListSelectionModel;
 import javax.swing.RowFilter;
 import javax.swing.RowSorter;
 import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.TableColumn;
@@ -67,9 +68,12 @@ import megamek.common.QuadVee;
 import megamek.common.WeaponType;
 import megamek.common.weapons.artillery.ArtilleryWeapon;
 import megameklab.com.ui.EntitySource;
+import megameklab.com.ui.dialog.LoadoutOptimizerDialog;
 import megameklab.com.util.CriticalTableModel;
+import megameklab.com.util.Diagnostics;
 import megameklab.com.util.EquipmentTableModel;
 import megameklab.com.util.ITab;
+import megameklab.com.util.LoadoutOptimizer;
 import megameklab.com.util.RefreshListener;
 import megameklab.com.util.UnitUtil;
 import megameklab.com.util.XTableColumnModel;
@@ -97,6 +101,7 @@ public class EquipmentTab extends ITab implements ActionListener {
     private JButton addButton = new JButton("Add");
     private JButton removeButton = new JButton("Remove");
     private JButton removeAllButton = new JButton("Remove All");
+    private JButton optimizeButton = new JButton("Optimize...");
     private JComboBox<String> choiceType = new JComboBox<String>();
     private JTextField txtFilter = new JTextField();
 
@@ -116,6 +121,7 @@ public class EquipmentTab extends ITab implements ActionListener {
     private String ADD_COMMAND = "ADD";
     private String REMOVE_COMMAND = "REMOVE";
     private String REMOVEALL_COMMAND = "REMOVEALL";
+    private String OPTIMIZE_COMMAND = "OPTIMIZE";
 
     public static String getTypeName(int type) {
         switch(type) {
@@ -331,6 +337,9 @@ public class EquipmentTab extends ITab implements ActionListener {
         gbc.anchor = java.awt.GridBagConstraints.WEST;
         loadoutPanel.add(removeAllButton, gbc);
 
+        gbc.gridx = 2;
+        loadoutPanel.add(optimizeButton, gbc);
+
         gbc.insets = new Insets(2,0,0,0);
         gbc.gridx = 0;
         gbc.gridy = 1;
@@ -342,7 +351,7 @@ public class EquipmentTab extends ITab implements ActionListener {
 
         gbc.gridx = 0;
         gbc.gridy = 1;
-        gbc.gridwidth = 2;
+        gbc.gridwidth = 3;
         gbc.fill = java.awt.GridBagConstraints.BOTH;
         gbc.weightx = 1.0;
         gbc.weighty = 1.0;
@@ -440,15 +449,18 @@ public class EquipmentTab extends ITab implements ActionListener {
         addButton.removeActionListener(this);
         removeButton.removeActionListener(this);
         removeAllButton.removeActionListener(this);
+        optimizeButton.removeActionListener(this);
     }
 
     private void addAllListeners() {
         addButton.addActionListener(this);
         removeButton.addActionListener(this);
         removeAllButton.addActionListener(this);
+        optimizeButton.addActionListener(this);
         addButton.setActionCommand(ADD_COMMAND);
         removeButton.setActionCommand(REMOVE_COMMAND);
         removeAllButton.setActionCommand(REMOVEALL_COMMAND);
+        optimizeButton.setActionCommand(OPTIMIZE_COMMAND);
         addButton.setMnemonic('A');
         removeButton.setMnemonic('R');
         removeAllButton.setMnemonic('L');
@@ -480,6 +492,19 @@ public class EquipmentTab extends ITab implements ActionListener {
         }
     }
 
+    private void optimizeLoadout() {
+        LoadoutOptimizerDialog dialog = new LoadoutOptimizerDialog(SwingUtilities.getWindowAncestor(this),
+                getMech(), eSource.getTechManager());
+        dialog.setVisible(true);
+        LoadoutOptimizer.Loadout loadout = dialog.getChosenLoadout();
+        dialog.dispose();
+        if (null != loadout) {
+            for (Mounted mount : LoadoutOptimizer.apply(getMech(), loadout)) {
+                equipmentList.addCrit(mount);
+            }
+        }
+    }
+
     public void actionPerformed(ActionEvent e) {
 
         if (e.getActionCommand().equals(ADD_COMMAND)) {
@@ -499,6 +524,8 @@ public class EquipmentTab extends ITab implements ActionListener {
             equipmentList.removeCrits(selectedRows);
         } else if (e.getActionCommand().equals(REMOVEALL_COMMAND)) {
             removeAllEquipment();
+        } else if (e.getActionCommand().equals(OPTIMIZE_COMMAND)) {
+            optimizeLoadout();
         } else {
             return;
         }
@@ -535,6 +562,7 @@ public class EquipmentTab extends ITab implements ActionListener {
     }
 
     private void filterEquipment() {
+        final long start = System.nanoTime();
         RowFilter<EquipmentTableModel, Integer> equipmentTypeFilter = null;
         final int nType = choiceType.getSelectedIndex();
         equipmentTypeFilter = new RowFilter<EquipmentTableModel,Integer>() {
@@ -596,6 +624,7 @@ public class EquipmentTab extends ITab implements ActionListener {
             }
         };
         equipmentSorter.setRowFilter(equipmentTypeFilter);
+        Diagnostics.record("filterEquipment", start);
     }
 
     public void setEquipmentView() {
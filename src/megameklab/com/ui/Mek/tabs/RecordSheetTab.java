@@ -0,0 +1,215 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.ui.Mek.tabs;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.awt.print.PageFormat;
+import java.awt.print.Paper;
+
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingWorker;
+
+import com.kitfox.svg.SVGDiagram;
+import com.kitfox.svg.SVGException;
+
+import megamek.common.Entity;
+import megamek.common.Mech;
+import megameklab.com.MegaMekLab;
+import megameklab.com.printing.PrintMech;
+import megameklab.com.ui.EntitySource;
+import megameklab.com.util.ITab;
+import megameklab.com.util.UnitSnapshot;
+import megameklab.com.util.UnitUtil;
+
+/**
+ * Shows the record sheet for the current unit. The sheet is populated on a background thread
+ * from a {@link UnitSnapshot} copy of the unit, prepared the same way as for printing, and the
+ * previous sheet stays on screen until it is done. The populated sheet is kept as a display list
+ * and only rebuilt when the snapshot revision changes, so changing the zoom level only renders
+ * the existing diagram at a new scale.
+ */
+public class RecordSheetTab extends ITab {
+
+    private static final long serialVersionUID = -4195768424418592302L;
+
+    private static final String[] ZOOM_NAMES = { "50%", "75%", "100%", "125%", "150%", "200%" };
+    private static final double[] ZOOM_LEVELS = { 0.5, 0.75, 1.0, 1.25, 1.5, 2.0 };
+
+    private final JComboBox<String> cbZoom = new JComboBox<>(ZOOM_NAMES);
+    private final SheetPanel sheetPanel = new SheetPanel();
+    private final PageFormat pageFormat;
+
+    private SVGDiagram diagram = null;
+    // The snapshot revision of the current or pending diagram; zero if it needs to be rebuilt
+    private long revision = 0;
+    private SwingWorker<SVGDiagram, Void> worker = null;
+
+    public RecordSheetTab(EntitySource eSource) {
+        super(eSource);
+        pageFormat = new PageFormat();
+        Paper paper = pageFormat.getPaper();
+        paper.setImageableArea(0, 0, paper.getWidth(), paper.getHeight());
+        pageFormat.setPaper(paper);
+
+        setLayout(new BorderLayout());
+        JPanel panZoom = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        panZoom.add(new JLabel("Zoom:"));
+        cbZoom.setSelectedIndex(2);
+        cbZoom.addActionListener(e -> sheetPanel.updateSize());
+        panZoom.add(cbZoom);
+        add(panZoom, BorderLayout.NORTH);
+        add(new JScrollPane(sheetPanel), BorderLayout.CENTER);
+
+        // Building the sheet is skipped while the tab is hidden, so catch up when it is shown.
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                refresh();
+            }
+        });
+        sheetPanel.updateSize();
+    }
+
+    public void refresh() {
+        if (!isShowing()) {
+            return;
+        }
+        final UnitSnapshot snapshot = UnitSnapshot.take(eSource);
+        if ((null == snapshot) || (snapshot.getRevision() == revision)) {
+            return;
+        }
+        if (null != worker) {
+            worker.cancel(true);
+        }
+        revision = snapshot.getRevision();
+        worker = new SheetWorker(snapshot);
+        worker.execute();
+    }
+
+    /**
+     * Populates the sheet for a copy of the unit, removing one-shot ammo and expanding the mounts
+     * as the print manager does.
+     */
+    private static SVGDiagram createDiagram(UnitSnapshot snapshot, PageFormat pageFormat) {
+        final String METHOD_NAME = "createDiagram(UnitSnapshot,PageFormat)";
+
+        final Entity copy = snapshot.toEntity();
+        if (!(copy instanceof Mech)) {
+            return null;
+        }
+        final Mech mech = (Mech) copy;
+        UnitUtil.removeOneShotAmmo(mech);
+        UnitUtil.expandUnitMounts(mech);
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = scratch.createGraphics();
+        try {
+            return new PrintMech(mech, 0).createDiagram(g2d, pageFormat, 0);
+        } catch (Exception e) {
+            MegaMekLab.getLogger().log(RecordSheetTab.class, METHOD_NAME, e);
+            return null;
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    private class SheetWorker extends SwingWorker<SVGDiagram, Void> {
+        private final UnitSnapshot snapshot;
+
+        SheetWorker(UnitSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected SVGDiagram doInBackground() {
+            return createDiagram(snapshot, pageFormat);
+        }
+
+        @Override
+        protected void done() {
+            final String METHOD_NAME = "done()";
+
+            if (isCancelled() || (worker != this)) {
+                return;
+            }
+            worker = null;
+            if (!snapshot.isCurrent(eSource)) {
+                // The unit changed while the sheet was populated; build it again on the next refresh
+                revision = 0;
+                return;
+            }
+            try {
+                diagram = get();
+            } catch (Exception e) {
+                MegaMekLab.getLogger().log(RecordSheetTab.class, METHOD_NAME, e);
+                diagram = null;
+            }
+            sheetPanel.updateSize();
+        }
+    }
+
+    private double getZoom() {
+        return ZOOM_LEVELS[Math.max(0, cbZoom.getSelectedIndex())];
+    }
+
+    private class SheetPanel extends JPanel {
+
+        private static final long serialVersionUID = 8386924003151744245L;
+
+        SheetPanel() {
+            setBackground(Color.WHITE);
+        }
+
+        void updateSize() {
+            double zoom = getZoom();
+            setPreferredSize(new Dimension((int) (pageFormat.getWidth() * zoom),
+                    (int) (pageFormat.getHeight() * zoom)));
+            revalidate();
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            final String METHOD_NAME = "paintComponent(Graphics)";
+
+            super.paintComponent(g);
+            if (null == diagram) {
+                return;
+            }
+            Graphics2D g2d = (Graphics2D) g.create();
+            try {
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g2d.scale(getZoom(), getZoom());
+                diagram.render(g2d);
+            } catch (SVGException e) {
+                MegaMekLab.getLogger().log(RecordSheetTab.class, METHOD_NAME, e);
+            } finally {
+                g2d.dispose();
+            }
+        }
+    }
+}
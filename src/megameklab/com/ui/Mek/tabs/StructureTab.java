@@ -542,6 +542,7 @@ public class StructureTab extends ITab implements MekBuildListener {
     @Override
     public void chassisChanged(String chassis) {
         getMech().setChassis(chassis);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -549,6 +550,7 @@ public class StructureTab extends ITab implements MekBuildListener {
     @Override
     public void modelChanged(String model) {
         getMech().setModel(model);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -653,6 +655,7 @@ public class StructureTab extends ITab implements MekBuildListener {
             panMovement.setFromEntity(getMech());
         }
         refresh();
+        refresh.unitChanged();
         refresh.refreshPreview();
         refresh.refreshStatus();
     }
@@ -664,6 +667,7 @@ public class StructureTab extends ITab implements MekBuildListener {
                 omni? Math.max(0, panHeat.getBaseCount()) : -1);
         panHeat.setFromMech(getMech());
         UnitUtil.updateAutoSinks(getMech(), getMech().hasCompactHeatSinks());
+        refresh.unitChanged();
         refresh.refreshPreview();
     }
 
@@ -759,6 +763,7 @@ public class StructureTab extends ITab implements MekBuildListener {
             UnitUtil.updateAutoSinks(getMech(), getMech().hasCompactHeatSinks());
             panMovement.setFromEntity(getMech());
             refreshSummary();
+            refresh.unitChanged();
             refresh.refreshPreview();
             refresh.refreshStatus();
         }
@@ -778,6 +783,7 @@ public class StructureTab extends ITab implements MekBuildListener {
             resetSystemCrits();
         }
         refreshSummary();
+        refresh.unitChanged();
         refresh.refreshPreview();
         refresh.refreshStatus();
     }
@@ -795,6 +801,7 @@ public class StructureTab extends ITab implements MekBuildListener {
             getMech().setCockpitType(cockpitType);
             resetSystemCrits();
             refreshSummary();
+            refresh.unitChanged();
             refresh.refreshPreview();
             refresh.refreshStatus();
         }
@@ -893,6 +900,7 @@ public class StructureTab extends ITab implements MekBuildListener {
         getMech().setArmorTonnage(Math.round(tonnage * 2) / 2.0);
         panArmorAllocation.setFromEntity(getMech());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -907,6 +915,7 @@ public class StructureTab extends ITab implements MekBuildListener {
 
         panArmorAllocation.setFromEntity(getMech());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -929,6 +938,7 @@ public class StructureTab extends ITab implements MekBuildListener {
 
         panArmorAllocation.setFromEntity(getMech());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -941,6 +951,7 @@ public class StructureTab extends ITab implements MekBuildListener {
         }
         getMech().setOriginalWalkMP(walkMP);
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
         panMovement.setFromEntity(getMech());
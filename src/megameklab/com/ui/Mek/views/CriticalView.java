@@ -19,7 +19,10 @@ package megameklab.com.ui.Mek.views;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.util.Vector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -34,6 +37,8 @@ import megamek.common.Mounted;
 import megamek.common.QuadMech;
 import megamek.common.loaders.MtfFile;
 import megameklab.com.ui.EntitySource;
+import megameklab.com.util.CritListCellRenderer;
+import megameklab.com.util.CritSlotListModel;
 import megameklab.com.util.IView;
 import megameklab.com.util.RefreshListener;
 import megameklab.com.util.Mech.DropTargetCriticalList;
@@ -58,6 +63,13 @@ public class CriticalView extends IView {
 
     private boolean showEmpty = false;
 
+    private static final Font CRIT_FONT = new Font("Arial", Font.PLAIN, 10);
+
+    // The unit the location lists were created for, and the list and model for each location
+    private Mech builtFor = null;
+    private final Map<Integer, CritSlotListModel> models = new HashMap<>();
+    private final Map<Integer, DropTargetCriticalList<String>> lists = new HashMap<>();
+
     public CriticalView(EntitySource eSource, boolean showEmpty, RefreshListener refresh) {
         super(eSource);
         this.showEmpty = showEmpty;
@@ -144,6 +156,24 @@ public class CriticalView extends IView {
     }
 
     public void refresh() {
+        synchronized (getMech()) {
+            if ((builtFor != getMech()) || (models.size() != getMech().locations())) {
+                rebuild();
+            }
+            for (int location = 0; location < getMech().locations(); location++) {
+                List<String> critNames = getCritNames(location);
+                models.get(location).setNames(critNames,
+                        CritListCellRenderer.getRowStates(getMech(), critNames, location));
+                lists.get(location).setVisibleRowCount(critNames.size());
+            }
+        }
+    }
+
+    /**
+     * Creates the list component and model for each location. This only needs to be done when
+     * the unit is replaced, as the lists are otherwise updated in place.
+     */
+    private void rebuild() {
         laPanel.removeAll();
         raPanel.removeAll();
         llPanel.removeAll();
@@ -153,6 +183,9 @@ public class CriticalView extends IView {
         rtPanel.removeAll();
         ctPanel.removeAll();
         headPanel.removeAll();
+        models.clear();
+        lists.clear();
+        builtFor = getMech();
         clPanel.setBorder(BorderFactory.createTitledBorder(
                 BorderFactory.createEmptyBorder(),
                 "", TitledBorder.TOP,
@@ -164,201 +197,190 @@ public class CriticalView extends IView {
         Dimension size = new Dimension(112, 182);
         Dimension legSize = new Dimension(112, 92);
 
-        synchronized (getMech()) {
-            for (int location = 0; location < getMech().locations(); location++) {
-                // JPanel locationPanel = new JPanel();
-                Vector<String> critNames = new Vector<String>(1, 1);
-
-                for (int slot = 0; slot < getMech().getNumberOfCriticals(location); slot++) {
-                    CriticalSlot cs = getMech().getCritical(location, slot);
-                    if (cs == null) {
-                        if (showEmpty) {
-                            critNames.add(MtfFile.EMPTY);
-                        }
-                    } else if (cs.getType() == CriticalSlot.TYPE_SYSTEM) {
-                        critNames.add(getMech().getSystemName(cs.getIndex()));
-                    } else if (cs.getType() == CriticalSlot.TYPE_EQUIPMENT) {
-                        try {
-                            Mounted m = cs.getMount();
-                            // Critical didn't get removed. Remove it now.
-                            if (m == null) {
-
-                                m = cs.getMount();
-
-                                if (m == null) {
-                                    getMech().setCritical(location, slot, null);
-                                    if (showEmpty) {
-                                        critNames.add(MtfFile.EMPTY);
-                                    }
-                                    continue;
-                                }
-                                cs.setMount(m);
-                            }
-                            StringBuffer critName = new StringBuffer(
-                                    m.getName());
-                            if (critName.length() > 25) {
-                                critName.setLength(25);
-                                critName.append("...");
-                            }
-                            if (m.isRearMounted()) {
-                                critName.append(" (R)");
-                            }
-                            if (m.isMechTurretMounted()) {
-                                critName.append(" (T)");
-                            }
-
-                            critNames.add(critName.toString());
-
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
-                        }
-                    }
-                }
-                if (critNames.size() == 0) {
-                    critNames.add(MtfFile.EMPTY);
-                }
-                DropTargetCriticalList<String> criticalSlotList = new DropTargetCriticalList<String>(
-                        critNames, eSource, refresh, showEmpty);
-                criticalSlotList.setVisibleRowCount(critNames.size());
-                criticalSlotList
-                        .setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-                criticalSlotList.setFont(new Font("Arial", Font.PLAIN, 10));
-                criticalSlotList.setName(Integer.toString(location));
-                criticalSlotList.setBorder(BorderFactory.createLineBorder(
-                        Color.BLACK, 1));
-                switch (location) {
-                    case Mech.LOC_HEAD:
+        for (int location = 0; location < getMech().locations(); location++) {
+            CritSlotListModel model = new CritSlotListModel();
+            DropTargetCriticalList<String> criticalSlotList = new DropTargetCriticalList<String>(
+                    model, eSource, refresh, showEmpty);
+            models.put(location, model);
+            lists.put(location, criticalSlotList);
+            criticalSlotList
+                    .setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            criticalSlotList.setFont(CRIT_FONT);
+            criticalSlotList.setName(Integer.toString(location));
+            criticalSlotList.setBorder(BorderFactory.createLineBorder(
+                    Color.BLACK, 1));
+            switch (location) {
+                case Mech.LOC_HEAD:
+                    criticalSlotList.setSize(legSize);
+                    criticalSlotList.setPreferredSize(legSize);
+                    criticalSlotList.setMaximumSize(legSize);
+                    headPanel.add(criticalSlotList);
+                    break;
+                case Mech.LOC_LARM:
+                    if (getMech() instanceof QuadMech) {
+                        laPanel.setBorder(BorderFactory.createTitledBorder(
+                                BorderFactory.createEmptyBorder(),
+                                "Front Left Leg", TitledBorder.TOP,
+                                TitledBorder.DEFAULT_POSITION));
                         criticalSlotList.setSize(legSize);
                         criticalSlotList.setPreferredSize(legSize);
                         criticalSlotList.setMaximumSize(legSize);
-                        headPanel.add(criticalSlotList);
-                        break;
-                    case Mech.LOC_LARM:
-                        if (getMech() instanceof QuadMech) {
-                            laPanel.setBorder(BorderFactory.createTitledBorder(
-                                    BorderFactory.createEmptyBorder(),
-                                    "Front Left Leg", TitledBorder.TOP,
-                                    TitledBorder.DEFAULT_POSITION));
-                            criticalSlotList.setSize(legSize);
-                            criticalSlotList.setPreferredSize(legSize);
-                            criticalSlotList.setMaximumSize(legSize);
-                        } else {
-                            laPanel.setBorder(BorderFactory.createTitledBorder(
-                                    BorderFactory.createEmptyBorder(),
-                                    "Left Arm", TitledBorder.TOP,
-                                    TitledBorder.DEFAULT_POSITION));
-                            criticalSlotList.setSize(size);
-                            criticalSlotList.setPreferredSize(size);
-                            criticalSlotList.setMaximumSize(size);
-                        }
-                        laPanel.add(criticalSlotList);
-                        break;
-                    case Mech.LOC_RARM:
-                        if (getMech() instanceof QuadMech) {
-                            raPanel.setBorder(BorderFactory.createTitledBorder(
-                                    BorderFactory.createEmptyBorder(),
-                                    "Front Right Leg", TitledBorder.TOP,
-                                    TitledBorder.DEFAULT_POSITION));
-                            criticalSlotList.setSize(legSize);
-                            criticalSlotList.setPreferredSize(legSize);
-                            criticalSlotList.setMaximumSize(legSize);
-                        } else {
-                            raPanel.setBorder(BorderFactory.createTitledBorder(
-                                    BorderFactory.createEmptyBorder(),
-                                    "Right Arm", TitledBorder.TOP,
-                                    TitledBorder.DEFAULT_POSITION));
-                            criticalSlotList.setSize(size);
-                            criticalSlotList.setPreferredSize(size);
-                            criticalSlotList.setMaximumSize(size);
-                        }
-                        
-                        raPanel.add(criticalSlotList);
-                        break;
-                    case Mech.LOC_CT:
-                        criticalSlotList.setSize(size);
-                        criticalSlotList.setPreferredSize(size);
-                        criticalSlotList.setMaximumSize(size);
-                        ctPanel.add(criticalSlotList);
-                        break;
-                    case Mech.LOC_LT:
-                        criticalSlotList.setSize(size);
-                        criticalSlotList.setPreferredSize(size);
-                        criticalSlotList.setMaximumSize(size);
-                        ltPanel.add(criticalSlotList);
-                        break;
-                    case Mech.LOC_RT:
+                    } else {
+                        laPanel.setBorder(BorderFactory.createTitledBorder(
+                                BorderFactory.createEmptyBorder(),
+                                "Left Arm", TitledBorder.TOP,
+                                TitledBorder.DEFAULT_POSITION));
                         criticalSlotList.setSize(size);
                         criticalSlotList.setPreferredSize(size);
                         criticalSlotList.setMaximumSize(size);
-                        rtPanel.add(criticalSlotList);
-                        break;
-                    case Mech.LOC_LLEG:
-                        if (getMech() instanceof QuadMech) {
-                            llPanel.setBorder(BorderFactory.createTitledBorder(
-                                    BorderFactory.createEmptyBorder(),
-                                    "Rear Left Leg", TitledBorder.TOP,
-                                    TitledBorder.DEFAULT_POSITION));
-                        } else {
-                            llPanel.setBorder(BorderFactory.createTitledBorder(
-                                    BorderFactory.createEmptyBorder(),
-                                    "Left Leg", TitledBorder.TOP,
-                                    TitledBorder.DEFAULT_POSITION));
-                        }
-                        criticalSlotList.setSize(legSize);
-                        criticalSlotList.setPreferredSize(legSize);
-                        criticalSlotList.setMaximumSize(legSize);
-                        llPanel.add(criticalSlotList);
-                        break;
-                    case Mech.LOC_RLEG:
-                        if (getMech() instanceof QuadMech) {
-                            rlPanel.setBorder(BorderFactory.createTitledBorder(
-                                    BorderFactory.createEmptyBorder(),
-                                    "Rear Right Leg", TitledBorder.TOP,
-                                    TitledBorder.DEFAULT_POSITION));
-                        } else {
-                            rlPanel.setBorder(BorderFactory.createTitledBorder(
-                                    BorderFactory.createEmptyBorder(),
-                                    "Right Leg", TitledBorder.TOP,
-                                    TitledBorder.DEFAULT_POSITION));
-                        }
-                        criticalSlotList.setSize(legSize);
-                        criticalSlotList.setPreferredSize(legSize);
-                        criticalSlotList.setMaximumSize(legSize);
-                        rlPanel.add(criticalSlotList);
-                        break;
-                    case Mech.LOC_CLEG:
-                        clPanel.setBorder(BorderFactory.createTitledBorder(
+                    }
+                    laPanel.add(criticalSlotList);
+                    break;
+                case Mech.LOC_RARM:
+                    if (getMech() instanceof QuadMech) {
+                        raPanel.setBorder(BorderFactory.createTitledBorder(
                                 BorderFactory.createEmptyBorder(),
-                                "Center Leg", TitledBorder.TOP,
+                                "Front Right Leg", TitledBorder.TOP,
                                 TitledBorder.DEFAULT_POSITION));
                         criticalSlotList.setSize(legSize);
                         criticalSlotList.setPreferredSize(legSize);
                         criticalSlotList.setMaximumSize(legSize);
-                        clPanel.add(criticalSlotList);
-                        break;
+                    } else {
+                        raPanel.setBorder(BorderFactory.createTitledBorder(
+                                BorderFactory.createEmptyBorder(),
+                                "Right Arm", TitledBorder.TOP,
+                                TitledBorder.DEFAULT_POSITION));
+                        criticalSlotList.setSize(size);
+                        criticalSlotList.setPreferredSize(size);
+                        criticalSlotList.setMaximumSize(size);
+                    }
+                    
+                    raPanel.add(criticalSlotList);
+                    break;
+                case Mech.LOC_CT:
+                    criticalSlotList.setSize(size);
+                    criticalSlotList.setPreferredSize(size);
+                    criticalSlotList.setMaximumSize(size);
+                    ctPanel.add(criticalSlotList);
+                    break;
+                case Mech.LOC_LT:
+                    criticalSlotList.setSize(size);
+                    criticalSlotList.setPreferredSize(size);
+                    criticalSlotList.setMaximumSize(size);
+                    ltPanel.add(criticalSlotList);
+                    break;
+                case Mech.LOC_RT:
+                    criticalSlotList.setSize(size);
+                    criticalSlotList.setPreferredSize(size);
+                    criticalSlotList.setMaximumSize(size);
+                    rtPanel.add(criticalSlotList);
+                    break;
+                case Mech.LOC_LLEG:
+                    if (getMech() instanceof QuadMech) {
+                        llPanel.setBorder(BorderFactory.createTitledBorder(
+                                BorderFactory.createEmptyBorder(),
+                                "Rear Left Leg", TitledBorder.TOP,
+                                TitledBorder.DEFAULT_POSITION));
+                    } else {
+                        llPanel.setBorder(BorderFactory.createTitledBorder(
+                                BorderFactory.createEmptyBorder(),
+                                "Left Leg", TitledBorder.TOP,
+                                TitledBorder.DEFAULT_POSITION));
+                    }
+                    criticalSlotList.setSize(legSize);
+                    criticalSlotList.setPreferredSize(legSize);
+                    criticalSlotList.setMaximumSize(legSize);
+                    llPanel.add(criticalSlotList);
+                    break;
+                case Mech.LOC_RLEG:
+                    if (getMech() instanceof QuadMech) {
+                        rlPanel.setBorder(BorderFactory.createTitledBorder(
+                                BorderFactory.createEmptyBorder(),
+                                "Rear Right Leg", TitledBorder.TOP,
+                                TitledBorder.DEFAULT_POSITION));
+                    } else {
+                        rlPanel.setBorder(BorderFactory.createTitledBorder(
+                                BorderFactory.createEmptyBorder(),
+                                "Right Leg", TitledBorder.TOP,
+                                TitledBorder.DEFAULT_POSITION));
+                    }
+                    criticalSlotList.setSize(legSize);
+                    criticalSlotList.setPreferredSize(legSize);
+                    criticalSlotList.setMaximumSize(legSize);
+                    rlPanel.add(criticalSlotList);
+                    break;
+                case Mech.LOC_CLEG:
+                    clPanel.setBorder(BorderFactory.createTitledBorder(
+                            BorderFactory.createEmptyBorder(),
+                            "Center Leg", TitledBorder.TOP,
+                            TitledBorder.DEFAULT_POSITION));
+                    criticalSlotList.setSize(legSize);
+                    criticalSlotList.setPreferredSize(legSize);
+                    criticalSlotList.setMaximumSize(legSize);
+                    clPanel.add(criticalSlotList);
+                    break;
+            }
+        }
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @param location The location index
+     * @return         The names to display for each slot in the location
+     */
+    private List<String> getCritNames(int location) {
+        List<String> critNames = new ArrayList<String>();
+
+        for (int slot = 0; slot < getMech().getNumberOfCriticals(location); slot++) {
+            CriticalSlot cs = getMech().getCritical(location, slot);
+            if (cs == null) {
+                if (showEmpty) {
+                    critNames.add(MtfFile.EMPTY);
+                }
+            } else if (cs.getType() == CriticalSlot.TYPE_SYSTEM) {
+                critNames.add(getMech().getSystemName(cs.getIndex()));
+            } else if (cs.getType() == CriticalSlot.TYPE_EQUIPMENT) {
+                try {
+                    Mounted m = cs.getMount();
+                    // Critical didn't get removed. Remove it now.
+                    if (m == null) {
+
+                        m = cs.getMount();
+
+                        if (m == null) {
+                            getMech().setCritical(location, slot, null);
+                            if (showEmpty) {
+                                critNames.add(MtfFile.EMPTY);
+                            }
+                            continue;
+                        }
+                        cs.setMount(m);
+                    }
+                    StringBuffer critName = new StringBuffer(
+                            m.getName());
+                    if (critName.length() > 25) {
+                        critName.setLength(25);
+                        critName.append("...");
+                    }
+                    if (m.isRearMounted()) {
+                        critName.append(" (R)");
+                    }
+                    if (m.isMechTurretMounted()) {
+                        critName.append(" (T)");
+                    }
+
+                    critNames.add(critName.toString());
+
+                } catch (Exception ex) {
+                    ex.printStackTrace();
                 }
             }
-            
-            ctPanel.invalidate();
-            raPanel.invalidate();
-            headPanel.invalidate();
-            laPanel.invalidate();
-            ltPanel.invalidate();
-            rtPanel.invalidate();
-            llPanel.invalidate();
-            rlPanel.invalidate();
-            clPanel.invalidate();
-            
-            ctPanel.repaint();
-            raPanel.repaint();
-            headPanel.repaint();
-            laPanel.repaint();
-            ltPanel.repaint();
-            rtPanel.repaint();
-            llPanel.repaint();
-            rlPanel.repaint();
-            clPanel.invalidate();
         }
+        if (critNames.size() == 0) {
+            critNames.add(MtfFile.EMPTY);
+        }
+        return critNames;
     }
 
 }
\ No newline at end of file
@@ -31,6 +31,7 @@ import com.kitfox.svg.SVGException;
 
 import megamek.common.Protomech;
 import megamek.common.TechConstants;
+import megameklab.com.printing.StaticLayerCache;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.ImageHelperBattleArmor;
 import megameklab.com.util.ImageHelperProto;
@@ -82,7 +83,7 @@ public class PrintProtomech implements Printable {
             protoMech = protoMechList.get((pos + currentPosition) - 1);
 
             try {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/ProtomechTemplate"+pos+".svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/ProtomechTemplate"+pos+".svg"));
             } catch (SVGException e) {
                 e.printStackTrace();
             }
@@ -0,0 +1,167 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.ui;
+
+import java.awt.Frame;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JOptionPane;
+import javax.swing.UIManager;
+
+import megamek.common.Aero;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.MechSummaryCache;
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+import megameklab.com.util.CConfig;
+import megameklab.com.util.UnitUtil;
+
+/**
+ * Tracks the unit editor windows open in this JVM. Each window edits one unit with its own
+ * tabs, while the equipment database, the unit cache, fonts, configuration and the image and
+ * record sheet caches are loaded once and shared by all of them.
+ */
+public final class UnitWindows {
+
+    // How far a new window is moved from the window it was opened from
+    private static final int CASCADE_OFFSET = 30;
+
+    private static final List<MegaMekLabMainUI> windows = new ArrayList<>();
+    private static boolean initialized = false;
+
+    private UnitWindows() {
+    }
+
+    /**
+     * Loads the data shared by all windows the first time a window is created.
+     */
+    static void initialize() {
+        final String METHOD_NAME = "initialize()";
+
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        EquipmentType.initializeTypes();
+        MechSummaryCache.getInstance();
+        UnitUtil.loadFonts();
+        new CConfig();
+        System.out.println("Starting MegaMekLab version: " + MegaMekLab.VERSION);
+
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            MegaMekLab.getLogger().log(UnitWindows.class, METHOD_NAME, LogLevel.ERROR,
+                    "Setting look and feel failed");
+            MegaMekLab.getLogger().log(UnitWindows.class, METHOD_NAME, e);
+        }
+    }
+
+    static void register(MegaMekLabMainUI window) {
+        if (!windows.contains(window)) {
+            windows.add(window);
+        }
+    }
+
+    static void unregister(MegaMekLabMainUI window) {
+        windows.remove(window);
+    }
+
+    /**
+     * @return The open unit windows, in the order they were opened
+     */
+    public static List<MegaMekLabMainUI> getWindows() {
+        return new ArrayList<>(windows);
+    }
+
+    /**
+     * Creates a window of the right type for a unit. The window starts with a new unit of that
+     * type; the caller sets the unit.
+     *
+     * @param unit The unit to edit
+     * @return     The window, or null if MegaMekLab cannot edit this type of unit
+     */
+    public static MegaMekLabMainUI createUI(Entity unit) {
+        if (unit.hasETypeFlag(Entity.ETYPE_SMALL_CRAFT)) {
+            return new megameklab.com.ui.Dropship.MainUI(((Aero) unit).isPrimitive());
+        } else if (unit.hasETypeFlag(Entity.ETYPE_AERO)
+                && !(unit.hasETypeFlag(Entity.ETYPE_JUMPSHIP)
+                || unit.hasETypeFlag(Entity.ETYPE_FIXED_WING_SUPPORT))) {
+            return new megameklab.com.ui.Aero.MainUI(((Aero) unit).isPrimitive());
+        } else if (unit.hasETypeFlag(Entity.ETYPE_BATTLEARMOR)) {
+            return new megameklab.com.ui.BattleArmor.MainUI();
+        } else if (unit.hasETypeFlag(Entity.ETYPE_INFANTRY)) {
+            return new megameklab.com.ui.Infantry.MainUI();
+        } else if (unit.hasETypeFlag(Entity.ETYPE_MECH)) {
+            return new megameklab.com.ui.Mek.MainUI();
+        } else if (unit.hasETypeFlag(Entity.ETYPE_TANK)
+                && !unit.hasETypeFlag(Entity.ETYPE_GUN_EMPLACEMENT)) {
+            return new megameklab.com.ui.Vehicle.MainUI();
+        }
+        return null;
+    }
+
+    /**
+     * Opens a unit in a new window, leaving the other windows open.
+     *
+     * @param unit     The unit to edit
+     * @param unitFile The file the unit was loaded from, which Save writes to, or null
+     * @param owner    The window the unit was opened from, used to place the new window
+     * @return         The new window, or null if MegaMekLab cannot edit this type of unit
+     */
+    public static MegaMekLabMainUI open(Entity unit, File unitFile, Frame owner) {
+        MegaMekLabMainUI window = createUI(unit);
+        if (null == window) {
+            return null;
+        }
+        UnitUtil.updateLoadedUnit(unit);
+        window.setEntity(unit);
+        window.setUnitFile(unitFile);
+        window.reloadTabs();
+        if ((null != owner) && (owner.getExtendedState() == Frame.NORMAL)) {
+            window.setBounds(owner.getX() + CASCADE_OFFSET, owner.getY() + CASCADE_OFFSET,
+                    owner.getWidth(), owner.getHeight());
+        }
+        window.repaint();
+        window.refreshAll();
+        return window;
+    }
+
+    /**
+     * Closes a window. Closing the last window asks whether to quit MegaMekLab.
+     *
+     * @param window The window to close
+     */
+    static void close(MegaMekLabMainUI window) {
+        if ((windows.size() > 1) && windows.contains(window)) {
+            int response = JOptionPane.showConfirmDialog(window,
+                    "Close " + window.getEntity().getShortName() + "? Unsaved changes will be lost.",
+                    "Close?", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+            if (response == JOptionPane.YES_OPTION) {
+                window.dispose();
+            }
+            return;
+        }
+        String quitMsg = "Do you really want to quit MegaMekLab?";
+        int response = JOptionPane.showConfirmDialog(null, quitMsg,
+                "Quit?", JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE);
+        if (response == JOptionPane.YES_OPTION) {
+            System.exit(0);
+        }
+    }
+}
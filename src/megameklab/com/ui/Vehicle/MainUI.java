@@ -42,8 +42,8 @@ import megameklab.com.ui.Vehicle.tabs.BuildTab;
 import megameklab.com.ui.Vehicle.tabs.EquipmentTab;
 import megameklab.com.ui.Vehicle.tabs.PreviewTab;
 import megameklab.com.ui.Vehicle.tabs.StructureTab;
+import megameklab.com.util.DerivedDataCache;
 import megameklab.com.util.MenuBarCreator;
-import megameklab.com.util.UnitUtil;
 
 public class MainUI extends MegaMekLabMainUI {
 
@@ -95,9 +95,9 @@ public class MainUI extends MegaMekLabMainUI {
         structureTab = new StructureTab(this);
         equipmentTab = new EquipmentTab(this);
         buildTab = new BuildTab(this, equipmentTab);
-        structureTab.addRefreshedListener(this);
-        equipmentTab.addRefreshedListener(this);
-        buildTab.addRefreshedListener(this);
+        structureTab.addRefreshedListener(getRefreshListener());
+        equipmentTab.addRefreshedListener(getRefreshListener());
+        buildTab.addRefreshedListener(getRefreshListener());
         
         previewTab = new PreviewTab(this);
 
@@ -145,7 +145,7 @@ public class MainUI extends MegaMekLabMainUI {
         String title = getEntity().getChassis() + " " + getEntity().getModel()
                 + ".blk";
 
-        if (UnitUtil.validateUnit(getEntity()).length() > 0) {
+        if (DerivedDataCache.lookupWindow(this).getValidation().length() > 0) {
             title += "  (Invalid)";
             setForeground(Color.red);
         } else {
@@ -37,6 +37,7 @@ import megamek.common.MiscType;
 import megamek.common.SuperHeavyTank;
 import megamek.common.Tank;
 import megamek.common.TechConstants;
+import megameklab.com.printing.StaticLayerCache;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.ImageHelperVehicle;
 import megameklab.com.util.UnitUtil;
@@ -76,26 +77,26 @@ public class PrintLargeSupportVehicle implements Printable {
         try {
             if (largesupporttank instanceof SuperHeavyTank) {
                 try {
-                    ImageHelper.loadSVGImage(new File("data/images/recordsheets/SuperHeavyTankCritTable.svg")).render(g2d);
+                    StaticLayerCache.render(g2d, new File("data/images/recordsheets/SuperHeavyTankCritTable.svg"));
                 } catch (SVGException e) {
                     e.printStackTrace();
                 }
             } else {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/LargeSupportTankCritTable.svg")).render(g2d);
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/LargeSupportTankHitTable.svg")).render(g2d);            }
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/TankMotiveDmgTable.svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/TankSheetCopyrightInfo.svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/LargeSupportTankCritTable.svg"));
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/LargeSupportTankHitTable.svg"));            }
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/TankMotiveDmgTable.svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/TankSheetCopyrightInfo.svg"));
 
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/SuperHeavyBaseTemplate.svg")).render(g2d);
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/SuperHeavyBaseTemplate.svg"));
 
 
 
             if (largesupporttank.hasNoTurret()) {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/SuperHeavyNoTurretTemplate.svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/SuperHeavyNoTurretTemplate.svg"));
             } else if (largesupporttank.hasNoDualTurret()) {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/SuperHeavySingleTurretTemplate.svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/SuperHeavySingleTurretTemplate.svg"));
             } else {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/SuperHeavyDualTurretTemplate.svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/SuperHeavyDualTurretTemplate.svg"));
             }
 
         } catch (SVGException e) {
@@ -34,6 +34,7 @@ import megamek.common.Engine;
 import megamek.common.MiscType;
 import megamek.common.Tank;
 import megamek.common.TechConstants;
+import megameklab.com.printing.StaticLayerCache;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.ImageHelperVehicle;
 import megameklab.com.util.UnitUtil;
@@ -65,12 +66,12 @@ public class PrintNavalVehicle implements Printable {
 
         //g2d.drawImage(ImageHelper.getRecordSheet(sub, false), 18, 18, 558, 736, null);
         try {
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/NavalArmorDiagram.svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/NavalCritTable.svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/NavalData.svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/NavalHitTable.svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/NavalMotiveDmgTable.svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/TankSheetCopyrightInfo.svg")).render(g2d);
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/NavalArmorDiagram.svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/NavalCritTable.svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/NavalData.svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/NavalHitTable.svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/NavalMotiveDmgTable.svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/TankSheetCopyrightInfo.svg"));
         } catch (SVGException e) {
             e.printStackTrace();
         }
@@ -82,17 +83,17 @@ public class PrintNavalVehicle implements Printable {
 
         // Armor/IS Pips
         try {
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/Naval_Left_Armor_"+sub.getArmor(Tank.LOC_LEFT)+".svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/Naval_Rear_Armor_"+sub.getArmor(Tank.LOC_REAR)+".svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/Naval_Front_Armor_"+sub.getArmor(Tank.LOC_FRONT)+".svg")).render(g2d);
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/Naval_Right_Armor_"+sub.getArmor(Tank.LOC_RIGHT)+".svg")).render(g2d);
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/Naval_Left_Armor_"+sub.getArmor(Tank.LOC_LEFT)+".svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/Naval_Rear_Armor_"+sub.getArmor(Tank.LOC_REAR)+".svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/Naval_Front_Armor_"+sub.getArmor(Tank.LOC_FRONT)+".svg"));
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/Naval_Right_Armor_"+sub.getArmor(Tank.LOC_RIGHT)+".svg"));
             if (!sub.hasNoTurret()) {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/Naval_Turret_Armor_"+sub.getArmor(Tank.LOC_TURRET)+".svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/Naval_Turret_Armor_"+sub.getArmor(Tank.LOC_TURRET)+".svg"));
             }
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/Naval_IS_"+sub.getInternal(Tank.LOC_LEFT)+".svg")).render(g2d);
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/Naval_IS_"+sub.getInternal(Tank.LOC_LEFT)+".svg"));
 
             if (!sub.hasNoTurret()) {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/Naval_TURRET_IS_"+sub.getInternal(Tank.LOC_TURRET)+".svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/Naval_TURRET_IS_"+sub.getInternal(Tank.LOC_TURRET)+".svg"));
             }
 
         } catch (SVGException e) {
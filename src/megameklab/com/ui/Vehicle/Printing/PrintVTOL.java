@@ -38,6 +38,7 @@ import megamek.common.SupportVTOL;
 import megamek.common.Tank;
 import megamek.common.TechConstants;
 import megamek.common.VTOL;
+import megameklab.com.printing.StaticLayerCache;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.ImageHelperVehicle;
 import megameklab.com.util.UnitUtil;
@@ -65,13 +66,13 @@ public class PrintVTOL implements Printable {
         System.gc();
 
         try {
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/VTOLCommonTemplate.svg")).render(g2d);
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/VTOLCommonTemplate.svg"));
             if (vtol.hasNoTurret()) {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/VTOLNoTurretTemplate.svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/VTOLNoTurretTemplate.svg"));
             } else {
-                ImageHelper.loadSVGImage(new File("data/images/recordsheets/VTOLTurretTemplate.svg")).render(g2d);
+                StaticLayerCache.render(g2d, new File("data/images/recordsheets/VTOLTurretTemplate.svg"));
             }
-            ImageHelper.loadSVGImage(new File("data/images/recordsheets/VTOLCatalystLogo.svg")).render(g2d);
+            StaticLayerCache.render(g2d, new File("data/images/recordsheets/VTOLCatalystLogo.svg"));
         } catch (SVGException e) {
             e.printStackTrace();
         }
@@ -34,6 +34,7 @@ import megamek.common.verifier.EntityVerifier;
 import megamek.common.verifier.TestSupportVehicle;
 import megamek.common.verifier.TestTank;
 import megameklab.com.ui.MegaMekLabMainUI;
+import megameklab.com.util.DerivedDataCache;
 import megameklab.com.util.ITab;
 import megameklab.com.util.ImageHelper;
 import megameklab.com.util.RefreshListener;
@@ -154,7 +155,8 @@ public class StatusBar extends ITab {
         int jump = getTank().getOriginalJumpMP();
         double tonnage = getTank().getWeight();
         double currentTonnage;
-        int bv = getTank().calculateBattleValue();
+        DerivedDataCache.Entry derived = DerivedDataCache.lookupWindow(eSource);
+        int bv = derived.getBattleValue();
 
         if (getTank().isSupportVehicle()) {
             testEntity = new TestSupportVehicle(getTank(),
@@ -164,10 +166,12 @@ public class StatusBar extends ITab {
                     null);
         }
 
+        // The support vehicle rules apply by isSupportVehicle(), which the cached weight's
+        // verifier does not check, so weigh the unit with the verifier chosen above
         currentTonnage = testEntity.calculateWeight();
 
         currentTonnage += UnitUtil.getUnallocatedAmmoTonnage(getTank());
-        long currentCost = (long) Math.round(getTank().getCost(false));
+        long currentCost = (long) Math.round(derived.getCost(false));
 
         tons.setText("Tonnage: " + currentTonnage + "/" + tonnage);
         tons.setToolTipText("Current Tonnage/Max Tonnage");
@@ -221,6 +225,7 @@ public class StatusBar extends ITab {
             relativeFilePath = "." + File.separatorChar + relativeFilePath.substring(new File(System.getProperty("user.dir").toString()).getAbsolutePath().length() + 1);
             getTank().getFluff().setMMLImagePath(relativeFilePath);
         }
+        refresh.unitChanged();
         refresh.refreshPreview();
         return;
     }
@@ -51,6 +51,7 @@ import javax.swing.ListSelectionModel;
 import javax.swing.RowFilter;
 import javax.swing.RowSorter;
 import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.TableColumn;
@@ -69,9 +70,12 @@ import megamek.common.VTOL;
 import megamek.common.WeaponType;
 import megamek.common.weapons.artillery.ArtilleryWeapon;
 import megameklab.com.ui.EntitySource;
+import megameklab.com.ui.dialog.LoadoutOptimizerDialog;
 import megameklab.com.util.CriticalTableModel;
+import megameklab.com.util.Diagnostics;
 import megameklab.com.util.EquipmentTableModel;
 import megameklab.com.util.ITab;
+import megameklab.com.util.LoadoutOptimizer;
 import megameklab.com.util.RefreshListener;
 import megameklab.com.util.UnitUtil;
 import megameklab.com.util.XTableColumnModel;
@@ -98,6 +102,7 @@ public class EquipmentTab extends ITab implements ActionListener {
     private JButton addButton = new JButton("Add");
     private JButton removeButton = new JButton("Remove");
     private JButton removeAllButton = new JButton("Remove All");
+    private JButton optimizeButton = new JButton("Optimize...");
     private JComboBox<String> choiceType = new JComboBox<String>();
     private JTextField txtFilter = new JTextField();
 
@@ -117,6 +122,7 @@ public class EquipmentTab extends ITab implements ActionListener {
     private String ADD_COMMAND = "ADD";
     private String REMOVE_COMMAND = "REMOVE";
     private String REMOVEALL_COMMAND = "REMOVEALL";
+    private String OPTIMIZE_COMMAND = "OPTIMIZE";
 
     public static String getTypeName(int type) {
         switch(type) {
@@ -330,6 +336,9 @@ public class EquipmentTab extends ITab implements ActionListener {
         gbc.anchor = java.awt.GridBagConstraints.WEST;
         loadoutPanel.add(removeAllButton, gbc);
 
+        gbc.gridx = 2;
+        loadoutPanel.add(optimizeButton, gbc);
+
         gbc.insets = new Insets(2,0,0,0);
         gbc.gridx = 0;
         gbc.gridy = 1;
@@ -341,7 +350,7 @@ public class EquipmentTab extends ITab implements ActionListener {
 
         gbc.gridx = 0;
         gbc.gridy = 1;
-        gbc.gridwidth = 2;
+        gbc.gridwidth = 3;
         gbc.fill = java.awt.GridBagConstraints.BOTH;
         gbc.weightx = 1.0;
         gbc.weighty = 1.0;
@@ -431,15 +440,18 @@ public class EquipmentTab extends ITab implements ActionListener {
         addButton.removeActionListener(this);
         removeButton.removeActionListener(this);
         removeAllButton.removeActionListener(this);
+        optimizeButton.removeActionListener(this);
     }
 
     private void addAllListeners() {
         addButton.addActionListener(this);
         removeButton.addActionListener(this);
         removeAllButton.addActionListener(this);
+        optimizeButton.addActionListener(this);
         addButton.setActionCommand(ADD_COMMAND);
         removeButton.setActionCommand(REMOVE_COMMAND);
         removeAllButton.setActionCommand(REMOVEALL_COMMAND);
+        optimizeButton.setActionCommand(OPTIMIZE_COMMAND);
         addButton.setMnemonic('A');
         removeButton.setMnemonic('R');
         removeAllButton.setMnemonic('L');
@@ -472,6 +484,19 @@ public class EquipmentTab extends ITab implements ActionListener {
         }
     }
 
+    private void optimizeLoadout() {
+        LoadoutOptimizerDialog dialog = new LoadoutOptimizerDialog(SwingUtilities.getWindowAncestor(this),
+                getTank(), eSource.getTechManager());
+        dialog.setVisible(true);
+        LoadoutOptimizer.Loadout loadout = dialog.getChosenLoadout();
+        dialog.dispose();
+        if (null != loadout) {
+            for (Mounted mount : LoadoutOptimizer.apply(getTank(), loadout)) {
+                equipmentList.addCrit(mount);
+            }
+        }
+    }
+
     public void actionPerformed(ActionEvent e) {
 
         if (e.getActionCommand().equals(ADD_COMMAND)) {
@@ -491,6 +516,8 @@ public class EquipmentTab extends ITab implements ActionListener {
             equipmentList.removeCrits(selectedRows);
         } else if (e.getActionCommand().equals(REMOVEALL_COMMAND)) {
             removeAllEquipment();
+        } else if (e.getActionCommand().equals(OPTIMIZE_COMMAND)) {
+            optimizeLoadout();
         } else {
             return;
         }
@@ -528,6 +555,7 @@ public class EquipmentTab extends ITab implements ActionListener {
     }
 
     private void filterEquipment() {
+        final long start = System.nanoTime();
         RowFilter<EquipmentTableModel, Integer> equipmentTypeFilter = null;
         final int nType = choiceType.getSelectedIndex();
         equipmentTypeFilter = new RowFilter<EquipmentTableModel,Integer>() {
@@ -591,6 +619,7 @@ public class EquipmentTab extends ITab implements ActionListener {
             }
         };
         equipmentSorter.setRowFilter(equipmentTypeFilter);
+        Diagnostics.record("filterEquipment", start);
     }
 
     public void setEquipmentView() {
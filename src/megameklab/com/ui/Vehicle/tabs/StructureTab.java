@@ -250,6 +250,7 @@ public class StructureTab extends ITab implements CVBuildListener {
     @Override
     public void chassisChanged(String chassis) {
         getTank().setChassis(chassis);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -257,6 +258,7 @@ public class StructureTab extends ITab implements CVBuildListener {
     @Override
     public void modelChanged(String model) {
         getTank().setModel(model);
+        refresh.unitChanged();
         refresh.refreshHeader();
         refresh.refreshPreview();
     }
@@ -335,6 +337,7 @@ public class StructureTab extends ITab implements CVBuildListener {
         getTank().setOriginalWalkMP((getTank().getEngine().getRating() + getTank().getSuspensionFactor())
                 / (int)getTank().getWeight());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
         panMovement.removeListener(this);
@@ -395,6 +398,7 @@ public class StructureTab extends ITab implements CVBuildListener {
         getTank().setArmorTonnage(Math.round(tonnage * 2) / 2.0);
         panArmorAllocation.setFromEntity(getTank());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -409,6 +413,7 @@ public class StructureTab extends ITab implements CVBuildListener {
         
         panArmorAllocation.setFromEntity(getTank());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -431,6 +436,7 @@ public class StructureTab extends ITab implements CVBuildListener {
         
         panArmorAllocation.setFromEntity(getTank());
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
         refresh.refreshPreview();
     }
@@ -447,6 +453,7 @@ public class StructureTab extends ITab implements CVBuildListener {
         getTank().setOriginalWalkMP((getTank().getEngine().getRating() + getTank().getSuspensionFactor())
                 / (int)getTank().getWeight());
         refresh();
+        refresh.unitChanged();
         refresh.refreshPreview();
         refresh.refreshStatus();
     }
@@ -528,6 +535,7 @@ public class StructureTab extends ITab implements CVBuildListener {
         panMovement.setFromEntity(getTank());
         panMovement.addListener(this);
         refreshSummary();
+        refresh.unitChanged();
         refresh.refreshPreview();
         refresh.refreshStatus();
     }
@@ -569,6 +577,7 @@ public class StructureTab extends ITab implements CVBuildListener {
         getTank().setBaseChassisTurretWeight(turret1);
         getTank().setBaseChassisTurret2Weight(turret2);
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
     }
 
@@ -585,6 +594,7 @@ public class StructureTab extends ITab implements CVBuildListener {
             }
         }
         panSummary.refresh();
+        refresh.unitChanged();
         refresh.refreshStatus();
     }
 
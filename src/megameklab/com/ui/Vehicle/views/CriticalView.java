@@ -18,7 +18,10 @@ package megameklab.com.ui.Vehicle.views;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.util.Vector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -33,6 +36,8 @@ import megamek.common.Tank;
 import megamek.common.VTOL;
 import megamek.common.loaders.MtfFile;
 import megameklab.com.ui.EntitySource;
+import megameklab.com.util.CritListCellRenderer;
+import megameklab.com.util.CritSlotListModel;
 import megameklab.com.util.DropTargetCriticalList;
 import megameklab.com.util.IView;
 import megameklab.com.util.RefreshListener;
@@ -64,6 +69,15 @@ public class CriticalView extends IView {
 
     private boolean showEmpty = false;
 
+    private static final Font CRIT_FONT = new Font("Arial", Font.PLAIN, 10);
+
+    // The unit and turret configuration the location lists were created for, and the list
+    // and model for each location
+    private Tank builtFor = null;
+    private int builtConfig = 0;
+    private final Map<Integer, CritSlotListModel> models = new HashMap<>();
+    private final Map<Integer, DropTargetCriticalList<String>> lists = new HashMap<>();
+
     public CriticalView(EntitySource eSource, boolean showEmpty, RefreshListener refresh) {
         super(eSource);
         this.showEmpty = showEmpty;
@@ -127,6 +141,25 @@ public class CriticalView extends IView {
     }
 
     public void refresh() {
+        synchronized (getTank()) {
+            if ((builtFor != getTank()) || (builtConfig != getTurretConfig())
+                    || (models.size() != getTank().locations())) {
+                rebuild();
+            }
+            for (int location = 0; location < getTank().locations(); location++) {
+                List<String> critNames = getCritNames(location);
+                models.get(location).setNames(critNames,
+                        CritListCellRenderer.getRowStates(getTank(), critNames, location));
+                lists.get(location).setVisibleRowCount(critNames.size());
+            }
+        }
+    }
+
+    /**
+     * Creates the list component and model for each location. This only needs to be done when
+     * the unit or its turret configuration changes, as the lists are otherwise updated in place.
+     */
+    private void rebuild() {
         leftPanel.removeAll();
         rightPanel.removeAll();
         bodyPanel.removeAll();
@@ -138,6 +171,10 @@ public class CriticalView extends IView {
         rearLeftPanel.removeAll();
         rearRightPanel.removeAll();
         this.remove(fullTurretPanel);
+        models.clear();
+        lists.clear();
+        builtFor = getTank();
+        builtConfig = getTurretConfig();
 
         if (getTank() instanceof VTOL) {
             if (getTank().hasNoTurret()){
@@ -175,153 +212,157 @@ public class CriticalView extends IView {
             this.add(fullTurretPanel);
         }
 
-        synchronized (getTank()) {
-            for (int location = 0; location < getTank().locations(); location++) {
-                // JPanel locationPanel = new JPanel();
-                Vector<String> critNames = new Vector<String>(1, 1);
-
-                for (int slot = 0; slot < getTank().getNumberOfCriticals(location); slot++) {
-                    CriticalSlot cs = getTank().getCritical(location, slot);
-                    if (cs == null) {
-                        continue;
-                    } else if (cs.getType() == CriticalSlot.TYPE_SYSTEM) {
-                        critNames.add(getMech().getSystemName(cs.getIndex()));
-                    } else if (cs.getType() == CriticalSlot.TYPE_EQUIPMENT) {
-                        try {
-                            Mounted m = cs.getMount();
-                            // Critical didn't get removed. Remove it now.
-                            if (m == null) {
-
-                                m = cs.getMount();
-
-                                if (m == null) {
-                                    getTank().setCritical(location, slot, null);
-                                    continue;
-                                }
-                                cs.setMount(m);
-                            }
-                            StringBuffer critName = new StringBuffer(m.getName());
-                            if (critName.length() > 25) {
-                                critName.setLength(25);
-                                critName.append("...");
-                            }
-                            if (m.isRearMounted()) {
-                                critName.append(" (R)");
-                            }
-                            if (m.isSponsonTurretMounted()) {
-                                critName.append(" (ST)");
-                            }
-                            if (m.isPintleTurretMounted()) {
-                                critName.append(" (PT)");
-                            }
-                            critNames.add(critName.toString());
-
-                        } catch (Exception ex) {
-                            ex.printStackTrace();
-                        }
-                    }
+        for (int location = 0; location < getTank().locations(); location++) {
+            CritSlotListModel model = new CritSlotListModel();
+            DropTargetCriticalList<String> criticalSlotList = new DropTargetCriticalList<String>(model, eSource, refresh, showEmpty);
+            models.put(location, model);
+            lists.put(location, criticalSlotList);
+            criticalSlotList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            criticalSlotList.setFont(CRIT_FONT);
+            criticalSlotList.setName(Integer.toString(location));
+            criticalSlotList.setBorder(BorderFactory.createEtchedBorder(Color.WHITE.brighter(), Color.BLACK.darker()));
+            if (!(getTank()).isSuperHeavy()) {
+                switch (location) {
+                    case Tank.LOC_FRONT:
+                        frontPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_LEFT:
+                        leftPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_RIGHT:
+                        rightPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_BODY:
+                        bodyPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_REAR:
+                        rearPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_TURRET:
+                        turretPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_TURRET_2:
+                        dualTurretPanel.add(criticalSlotList);
+                        break;
                 }
-
-                if (critNames.size() == 0) {
-                    critNames.add(MtfFile.EMPTY);
+            } else if (getTank() instanceof VTOL) {
+                switch (location) {
+                    case Tank.LOC_FRONT:
+                        frontPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_LEFT:
+                        leftPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_RIGHT:
+                        rightPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_BODY:
+                        bodyPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_REAR:
+                        rearPanel.add(criticalSlotList);
+                        break;
+                    case VTOL.LOC_ROTOR:
+                        turretPanel.add(criticalSlotList);
+                        break;
+                }
+            } else {
+                switch (location) {
+                    case Tank.LOC_FRONT:
+                        frontPanel.add(criticalSlotList);
+                        break;
+                    case SuperHeavyTank.LOC_FRONTLEFT:
+                        leftPanel.add(criticalSlotList);
+                        break;
+                    case SuperHeavyTank.LOC_FRONTRIGHT:
+                        rightPanel.add(criticalSlotList);
+                        break;
+                    case SuperHeavyTank.LOC_REARLEFT:
+                        rearLeftPanel.add(criticalSlotList);
+                        break;
+                    case SuperHeavyTank.LOC_REARRIGHT:
+                        rearRightPanel.add(criticalSlotList);
+                        break;
+                    case Tank.LOC_BODY:
+                        bodyPanel.add(criticalSlotList);
+                        break;
+                    case SuperHeavyTank.LOC_REAR:
+                        rearPanel.add(criticalSlotList);
+                        break;
+                    case SuperHeavyTank.LOC_TURRET:
+                        turretPanel.add(criticalSlotList);
+                        break;
+                    case SuperHeavyTank.LOC_TURRET_2:
+                        dualTurretPanel.add(criticalSlotList);
+                        break;
                 }
-                DropTargetCriticalList<String> criticalSlotList = null;
-
-                DropTargetCriticalList<String> dropTargetCriticalList = new DropTargetCriticalList<String>(critNames, eSource, refresh, showEmpty);
-                criticalSlotList = dropTargetCriticalList;
-                criticalSlotList.setVisibleRowCount(critNames.size());
-                criticalSlotList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-                criticalSlotList.setFont(new Font("Arial", Font.PLAIN, 10));
-                criticalSlotList.setName(Integer.toString(location));
-                criticalSlotList.setBorder(BorderFactory.createEtchedBorder(Color.WHITE.brighter(), Color.BLACK.darker()));
-                if (!(getTank()).isSuperHeavy()) {
-                    switch (location) {
-                        case Tank.LOC_FRONT:
-                            frontPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_LEFT:
-                            leftPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_RIGHT:
-                            rightPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_BODY:
-                            bodyPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_REAR:
-                            rearPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_TURRET:
-                            turretPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_TURRET_2:
-                            dualTurretPanel.add(criticalSlotList);
-                            break;
+            }
+        }
+        middlePanel2.setVisible(getTank().isSuperHeavy() && !(getTank() instanceof VTOL));
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @return A value that changes whenever turrets are added or removed
+     */
+    private int getTurretConfig() {
+        return (getTank().hasNoTurret() ? 1 : 0) | (getTank().hasNoDualTurret() ? 2 : 0);
+    }
+
+    /**
+     * @param location The location index
+     * @return         The names to display for each slot in the location
+     */
+    private List<String> getCritNames(int location) {
+        List<String> critNames = new ArrayList<String>();
+
+        for (int slot = 0; slot < getTank().getNumberOfCriticals(location); slot++) {
+            CriticalSlot cs = getTank().getCritical(location, slot);
+            if (cs == null) {
+                continue;
+            } else if (cs.getType() == CriticalSlot.TYPE_SYSTEM) {
+                critNames.add(getMech().getSystemName(cs.getIndex()));
+            } else if (cs.getType() == CriticalSlot.TYPE_EQUIPMENT) {
+                try {
+                    Mounted m = cs.getMount();
+                    // Critical didn't get removed. Remove it now.
+                    if (m == null) {
+
+                        m = cs.getMount();
+
+                        if (m == null) {
+                            getTank().setCritical(location, slot, null);
+                            continue;
+                        }
+                        cs.setMount(m);
+                    }
+                    StringBuffer critName = new StringBuffer(m.getName());
+                    if (critName.length() > 25) {
+                        critName.setLength(25);
+                        critName.append("...");
                     }
-                } else if (getTank() instanceof VTOL) {
-                    switch (location) {
-                        case Tank.LOC_FRONT:
-                            frontPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_LEFT:
-                            leftPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_RIGHT:
-                            rightPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_BODY:
-                            bodyPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_REAR:
-                            rearPanel.add(criticalSlotList);
-                            break;
-                        case VTOL.LOC_ROTOR:
-                            turretPanel.add(criticalSlotList);
-                            break;
+                    if (m.isRearMounted()) {
+                        critName.append(" (R)");
                     }
-                } else {
-                    switch (location) {
-                        case Tank.LOC_FRONT:
-                            frontPanel.add(criticalSlotList);
-                            break;
-                        case SuperHeavyTank.LOC_FRONTLEFT:
-                            leftPanel.add(criticalSlotList);
-                            break;
-                        case SuperHeavyTank.LOC_FRONTRIGHT:
-                            rightPanel.add(criticalSlotList);
-                            break;
-                        case SuperHeavyTank.LOC_REARLEFT:
-                            rearLeftPanel.add(criticalSlotList);
-                            break;
-                        case SuperHeavyTank.LOC_REARRIGHT:
-                            rearRightPanel.add(criticalSlotList);
-                            break;
-                        case Tank.LOC_BODY:
-                            bodyPanel.add(criticalSlotList);
-                            break;
-                        case SuperHeavyTank.LOC_REAR:
-                            rearPanel.add(criticalSlotList);
-                            break;
-                        case SuperHeavyTank.LOC_TURRET:
-                            turretPanel.add(criticalSlotList);
-                            break;
-                        case SuperHeavyTank.LOC_TURRET_2:
-                            dualTurretPanel.add(criticalSlotList);
-                            break;
+                    if (m.isSponsonTurretMounted()) {
+                        critName.append(" (ST)");
                     }
+                    if (m.isPintleTurretMounted()) {
+                        critName.append(" (PT)");
+                    }
+                    critNames.add(critName.toString());
+
+                } catch (Exception ex) {
+                    ex.printStackTrace();
                 }
             }
-            middlePanel2.setVisible(getTank().isSuperHeavy() && !(getTank() instanceof VTOL));
-            frontPanel.repaint();
-            bodyPanel.repaint();
-            leftPanel.repaint();
-            rightPanel.repaint();
-            rearLeftPanel.repaint();
-            rearRightPanel.repaint();
-            rearPanel.repaint();
-            turretPanel.repaint();
-            dualTurretPanel.repaint();
+        }
 
+        if (critNames.size() == 0) {
+            critNames.add(MtfFile.EMPTY);
         }
+        return critNames;
     }
+
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.ui;
+
+import megameklab.com.util.Diagnostics;
+import megameklab.com.util.RefreshListener;
+
+/**
+ * The refresh listener a window gives to its tabs. Each refresh is passed on to the window and
+ * timed for the diagnostics report under the name of the method, for example "refreshAll".
+ *
+ * The refreshes that follow a change to the unit also mark the unit as changed, so values
+ * calculated from it are not reused and the change is recorded for undo. Refreshing the preview,
+ * the status bar or the header does not; a tab that changes the unit and only refreshes those
+ * calls {@link #unitChanged()} first.
+ */
+class WindowRefreshListener implements RefreshListener {
+
+    private final MegaMekLabMainUI window;
+
+    WindowRefreshListener(MegaMekLabMainUI window) {
+        this.window = window;
+    }
+
+    private static void timed(String name, Runnable refresh) {
+        final long start = System.nanoTime();
+        try {
+            refresh.run();
+        } finally {
+            Diagnostics.record(name, start);
+        }
+    }
+
+    private void changed(String name, Runnable refresh) {
+        window.unitChanged();
+        timed(name, refresh);
+    }
+
+    @Override
+    public void unitChanged() {
+        window.unitChanged();
+    }
+
+    @Override
+    public void refreshHeader() {
+        timed("refreshHeader", window::refreshHeader);
+    }
+
+    @Override
+    public void refreshStatus() {
+        timed("refreshStatus", window::refreshStatus);
+    }
+
+    @Override
+    public void refreshPreview() {
+        timed("refreshPreview", window::refreshPreview);
+    }
+
+    @Override
+    public void refreshAll() {
+        changed("refreshAll", window::refreshAll);
+    }
+
+    @Override
+    public void refreshStructure() {
+        changed("refreshStructure", window::refreshStructure);
+    }
+
+    @Override
+    public void refreshArmor() {
+        changed("refreshArmor", window::refreshArmor);
+    }
+
+    @Override
+    public void refreshWeapons() {
+        changed("refreshWeapons", window::refreshWeapons);
+    }
+
+    @Override
+    public void refreshEquipment() {
+        changed("refreshEquipment", window::refreshEquipment);
+    }
+
+    @Override
+    public void refreshBuild() {
+        changed("refreshBuild", window::refreshBuild);
+    }
+
+    @Override
+    public void refreshSummary() {
+        changed("refreshSummary", window::refreshSummary);
+    }
+
+    @Override
+    public void refreshEquipmentTable() {
+        changed("refreshEquipmentTable", window::refreshEquipmentTable);
+    }
+
+    @Override
+    public void refreshAllocation() {
+        changed("refreshAllocation", window::refreshAllocation);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.ui.dialog;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Window;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.ListSelectionModel;
+import javax.swing.WindowConstants;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
+
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+import megameklab.com.util.Diagnostics;
+
+/**
+ * Shows how often the timed editor operations have run and how long they took, and the events
+ * that held up the event dispatch thread. The report can be saved as JSON to attach to a bug
+ * report.
+ */
+public class DiagnosticsDialog extends JDialog {
+
+    private static final long serialVersionUID = 2318810528384129441L;
+
+    private final TimerModel timers = new TimerModel();
+    private final JTable timerTable = new JTable(timers);
+    private final StallModel stalls = new StallModel();
+    private final JTable stallTable = new JTable(stalls);
+    private final JTextArea txtStack = new JTextArea();
+
+    public DiagnosticsDialog(Window owner) {
+        super(owner, "Diagnostics", ModalityType.MODELESS);
+
+        timerTable.setAutoCreateRowSorter(true);
+        timerTable.getColumnModel().getColumn(TimerModel.COL_NAME).setPreferredWidth(200);
+        stallTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        stallTable.getColumnModel().getColumn(StallModel.COL_EVENT).setPreferredWidth(500);
+        stallTable.getSelectionModel().addListSelectionListener(e -> showStack());
+        txtStack.setEditable(false);
+        txtStack.setRows(10);
+
+        JSplitPane stallPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(stallTable), new JScrollPane(txtStack));
+        stallPane.setResizeWeight(0.4);
+        JSplitPane mainPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(timerTable), stallPane);
+        mainPane.setResizeWeight(0.4);
+
+        JButton btnRefresh = new JButton("Refresh");
+        btnRefresh.addActionListener(e -> refresh());
+        JButton btnReset = new JButton("Reset");
+        btnReset.addActionListener(e -> {
+            Diagnostics.reset();
+            refresh();
+        });
+        JButton btnSave = new JButton("Save Report...");
+        btnSave.addActionListener(e -> save());
+        JButton btnClose = new JButton("Close");
+        btnClose.addActionListener(e -> setVisible(false));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(btnRefresh);
+        buttons.add(btnReset);
+        buttons.add(btnSave);
+        buttons.add(btnClose);
+
+        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(mainPane, BorderLayout.CENTER);
+        getContentPane().add(buttons, BorderLayout.SOUTH);
+
+        refresh();
+        setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        setSize(900, 650);
+        setLocationRelativeTo(owner);
+    }
+
+    private void refresh() {
+        timers.setData(Diagnostics.getTimers());
+        stalls.setData(Diagnostics.getStalls());
+        txtStack.setText("");
+    }
+
+    private void showStack() {
+        final int row = stallTable.getSelectedRow();
+        if (row < 0) {
+            txtStack.setText("");
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement frame : stalls.getStall(row).getStack()) {
+            sb.append("at ").append(frame).append(System.lineSeparator());
+        }
+        txtStack.setText(sb.toString());
+        txtStack.setCaretPosition(0);
+    }
+
+    private void save() {
+        final String METHOD_NAME = "save()";
+
+        JFileChooser f = new JFileChooser(System.getProperty("user.dir"));
+        f.setDialogTitle("Save Diagnostics Report");
+        f.setFileFilter(new FileNameExtensionFilter("JSON Files", "json"));
+        f.setSelectedFile(new File("megameklab-diagnostics.json"));
+        if ((f.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) || (null == f.getSelectedFile())) {
+            return;
+        }
+        File file = f.getSelectedFile();
+        if (!file.getName().toLowerCase().endsWith(".json")) {
+            file = new File(file.getParentFile(), file.getName() + ".json");
+        }
+        try {
+            Files.write(file.toPath(), Diagnostics.toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            MegaMekLab.getLogger().log(DiagnosticsDialog.class, METHOD_NAME, LogLevel.ERROR,
+                    "Could not save " + file);
+            MegaMekLab.getLogger().log(DiagnosticsDialog.class, METHOD_NAME, ex);
+            JOptionPane.showMessageDialog(this, "Could not save " + file + ":\n" + ex.getMessage());
+        }
+    }
+
+    private static class TimerModel extends AbstractTableModel {
+        private static final long serialVersionUID = -2755826120405574512L;
+
+        static final int COL_NAME = 0;
+        static final int COL_COUNT = 1;
+        static final int COL_TOTAL = 2;
+        static final int COL_MEAN = 3;
+        static final int COL_MAX = 4;
+        static final int NUM_COLS = 5;
+
+        private List<Diagnostics.TimerStats> data = new ArrayList<>();
+
+        void setData(List<Diagnostics.TimerStats> data) {
+            this.data = data;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return data.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return NUM_COLS;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            switch (column) {
+                case COL_NAME:
+                    return "Operation";
+                case COL_COUNT:
+                    return "Count";
+                case COL_TOTAL:
+                    return "Total (ms)";
+                case COL_MEAN:
+                    return "Mean (ms)";
+                case COL_MAX:
+                    return "Max (ms)";
+                default:
+                    return "";
+            }
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case COL_NAME:
+                    return String.class;
+                case COL_COUNT:
+                    return Long.class;
+                default:
+                    return Double.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            final Diagnostics.TimerStats stats = data.get(row);
+            switch (column) {
+                case COL_NAME:
+                    return stats.getName();
+                case COL_COUNT:
+                    return stats.getCount();
+                case COL_TOTAL:
+                    return round(stats.getTotalMillis());
+                case COL_MEAN:
+                    return round(stats.getMeanMillis());
+                case COL_MAX:
+                    return round(stats.getMaxMillis());
+                default:
+                    return "";
+            }
+        }
+
+        private static double round(double millis) {
+            return Math.round(millis * 1000) / 1000.0;
+        }
+    }
+
+    private static class StallModel extends AbstractTableModel {
+        private static final long serialVersionUID = 7105626806102417935L;
+
+        static final int COL_TIME = 0;
+        static final int COL_DURATION = 1;
+        static final int COL_EVENT = 2;
+        static final int NUM_COLS = 3;
+
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+        private List<Diagnostics.Stall> data = new ArrayList<>();
+
+        void setData(List<Diagnostics.Stall> data) {
+            this.data = data;
+            fireTableDataChanged();
+        }
+
+        Diagnostics.Stall getStall(int row) {
+            return data.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return data.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return NUM_COLS;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            switch (column) {
+                case COL_TIME:
+                    return "Time";
+                case COL_DURATION:
+                    return "Duration (ms)";
+                case COL_EVENT:
+                    return "Event";
+                default:
+                    return "";
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            final Diagnostics.Stall stall = data.get(row);
+            switch (column) {
+                case COL_TIME:
+                    return timeFormat.format(new Date(stall.getTime()));
+                case COL_DURATION:
+                    return Math.round(stall.getDurationMillis());
+                case COL_EVENT:
+                    return stall.getEvent();
+                default:
+                    return "";
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.ui.dialog;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.awt.Window;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingWorker;
+import javax.swing.WindowConstants;
+import javax.swing.table.AbstractTableModel;
+
+import megamek.common.Entity;
+import megamek.common.ITechManager;
+import megameklab.com.MegaMekLab;
+import megameklab.com.util.LoadoutOptimizer;
+
+/**
+ * Searches for the weapon loadouts that best fill the tonnage, slots and heat left on the unit
+ * for a chosen objective and lists them. The caller adds the chosen loadout to the unit.
+ */
+public class LoadoutOptimizerDialog extends JDialog {
+
+    private static final long serialVersionUID = -4308716525137290188L;
+
+    private final LoadoutOptimizer optimizer;
+
+    private final JComboBox<LoadoutOptimizer.Objective> cbObjective = new JComboBox<>(
+            LoadoutOptimizer.Objective.values());
+    private final SpinnerNumberModel range = new SpinnerNumberModel(6, 1, 30, 1);
+    private final SpinnerNumberModel count = new SpinnerNumberModel(10, 1, 100, 1);
+    private final SpinnerNumberModel seconds = new SpinnerNumberModel(5, 1, 120, 1);
+    private final JSpinner spnRange = new JSpinner(range);
+    private final JButton btnOptimize = new JButton("Optimize");
+    private final JButton btnApply = new JButton("Apply");
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JLabel lblStatus = new JLabel(" ");
+
+    private final ResultModel results = new ResultModel();
+    private final JTable table = new JTable(results);
+
+    private SwingWorker<List<LoadoutOptimizer.Loadout>, Void> worker = null;
+    private LoadoutOptimizer.Loadout chosen = null;
+
+    public LoadoutOptimizerDialog(Window owner, Entity unit, ITechManager techManager) {
+        super(owner, "Loadout Optimizer", ModalityType.APPLICATION_MODAL);
+        optimizer = new LoadoutOptimizer(unit, techManager);
+
+        JPanel options = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(2, 4, 2, 4);
+        gbc.anchor = GridBagConstraints.NORTHWEST;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        addRow(options, gbc, 0, "Objective:", cbObjective);
+        addRow(options, gbc, 1, "Range (hexes):", spnRange);
+        addRow(options, gbc, 2, "Loadouts:", new JSpinner(count));
+        addRow(options, gbc, 3, "Time Limit (s):", new JSpinner(seconds));
+        addRow(options, gbc, 4, "Free Tonnage:", new JLabel(String.format("%.1f", optimizer.getFreeTonnage())));
+        addRow(options, gbc, 5, "Free Slots:", new JLabel((optimizer.getFreeSlots() == Integer.MAX_VALUE)
+                ? "-" : String.valueOf(optimizer.getFreeSlots())));
+        addRow(options, gbc, 6, "Free Heat:", new JLabel(Double.isInfinite(optimizer.getFreeHeat())
+                ? "-" : String.format("%.1f", optimizer.getFreeHeat())));
+        cbObjective.addActionListener(e -> spnRange.setEnabled(
+                cbObjective.getSelectedItem() != LoadoutOptimizer.Objective.BATTLE_VALUE));
+        spnRange.setEnabled(false);
+
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getColumnModel().getColumn(ResultModel.COL_DESCRIPTION).setPreferredWidth(500);
+
+        btnOptimize.addActionListener(e -> optimize());
+        btnApply.addActionListener(e -> apply());
+        btnApply.setEnabled(false);
+        JButton btnClose = new JButton("Close");
+        btnClose.addActionListener(e -> setVisible(false));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(btnOptimize);
+        buttons.add(btnApply);
+        buttons.add(btnClose);
+
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(lblStatus, BorderLayout.WEST);
+        south.add(progressBar, BorderLayout.CENTER);
+        south.add(buttons, BorderLayout.EAST);
+
+        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(options, BorderLayout.WEST);
+        getContentPane().add(new JScrollPane(table), BorderLayout.CENTER);
+        getContentPane().add(south, BorderLayout.SOUTH);
+
+        lblStatus.setText(String.format("  %d weapons available  ", optimizer.getCatalogSize()));
+        setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        setSize(1100, 450);
+        setLocationRelativeTo(owner);
+    }
+
+    /**
+     * @return The loadout the user chose to apply, or null if the dialog was closed
+     */
+    public LoadoutOptimizer.Loadout getChosenLoadout() {
+        return chosen;
+    }
+
+    private static void addRow(JPanel panel, GridBagConstraints gbc, int row, String label,
+            Component field) {
+        gbc.gridy = row;
+        gbc.gridx = 0;
+        panel.add(new JLabel(label), gbc);
+        gbc.gridx = 1;
+        panel.add(field, gbc);
+    }
+
+    private void optimize() {
+        if (null != worker) {
+            return;
+        }
+        final LoadoutOptimizer.Objective objective = (LoadoutOptimizer.Objective) cbObjective.getSelectedItem();
+        final int hexes = range.getNumber().intValue();
+        final int n = count.getNumber().intValue();
+        final long budget = seconds.getNumber().longValue() * 1000L;
+        btnOptimize.setEnabled(false);
+        btnApply.setEnabled(false);
+        progressBar.setIndeterminate(true);
+        lblStatus.setText("  Searching...  ");
+        final long start = System.currentTimeMillis();
+        worker = new SwingWorker<List<LoadoutOptimizer.Loadout>, Void>() {
+            @Override
+            protected List<LoadoutOptimizer.Loadout> doInBackground() throws Exception {
+                return optimizer.optimize(objective, hexes, n, budget);
+            }
+
+            @Override
+            protected void done() {
+                final String METHOD_NAME = "done()";
+
+                worker = null;
+                btnOptimize.setEnabled(true);
+                progressBar.setIndeterminate(false);
+                try {
+                    List<LoadoutOptimizer.Loadout> loadouts = get();
+                    results.setLoadouts(loadouts);
+                    btnApply.setEnabled(!loadouts.isEmpty());
+                    lblStatus.setText(String.format("  %d loadouts (%.1f s)  ", loadouts.size(),
+                            (System.currentTimeMillis() - start) / 1000.0));
+                } catch (Exception ex) {
+                    MegaMekLab.getLogger().log(LoadoutOptimizerDialog.class, METHOD_NAME, ex);
+                    lblStatus.setText("  The search failed.  ");
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void apply() {
+        final int row = table.getSelectedRow();
+        if (row < 0) {
+            return;
+        }
+        chosen = results.getLoadout(table.convertRowIndexToModel(row));
+        setVisible(false);
+    }
+
+    private static class ResultModel extends AbstractTableModel {
+        private static final long serialVersionUID = 3904176624419018531L;
+
+        static final int COL_DESCRIPTION = 0;
+
+        private static final String[] COLUMNS = { "Loadout", "Score", "Tons", "Slots", "Heat", "Damage", "BV" };
+
+        private List<LoadoutOptimizer.Loadout> loadouts = new ArrayList<>();
+
+        void setLoadouts(List<LoadoutOptimizer.Loadout> loadouts) {
+            this.loadouts = Collections.unmodifiableList(loadouts);
+            fireTableDataChanged();
+        }
+
+        LoadoutOptimizer.Loadout getLoadout(int row) {
+            return loadouts.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return loadouts.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            final LoadoutOptimizer.Loadout loadout = loadouts.get(row);
+            switch (column) {
+                case 0:
+                    return loadout.getDescription();
+                case 1:
+                    return String.format("%.2f", loadout.getScore());
+                case 2:
+                    return String.format("%.1f", loadout.getTonnage());
+                case 3:
+                    return loadout.getSlots();
+                case 4:
+                    return String.format("%.1f", loadout.getHeat());
+                case 5:
+                    return String.format("%.1f", loadout.getDamage());
+                default:
+                    return loadout.getBattleValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.ui.dialog;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.WindowConstants;
+import javax.swing.table.AbstractTableModel;
+
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+import megameklab.com.ui.util.IntRangeTextField;
+import megameklab.com.util.UnitLibraryIndex;
+
+/**
+ * Searches the unit files in the library directories by the values kept in the
+ * {@link UnitLibraryIndex}. The index from the last session is searched right away and brought
+ * up to date in the background.
+ */
+public class UnitLibraryDialog extends JDialog {
+
+    private static final long serialVersionUID = -5243416590412317794L;
+
+    private static final String ANY = "Any";
+
+    private final UnitLibraryIndex index = UnitLibraryIndex.getInstance();
+    private final Runnable indexListener = () -> SwingUtilities.invokeLater(this::indexChanged);
+
+    private final JTextField txtName = new JTextField(16);
+    private final JComboBox<String> cbUnitType = new JComboBox<>();
+    private final JComboBox<Object> cbTechBase = new JComboBox<>();
+    private final JComboBox<String> cbRole = new JComboBox<>();
+    private final IntRangeTextField txtMinTons = new IntRangeTextField(4);
+    private final IntRangeTextField txtMaxTons = new IntRangeTextField(4);
+    private final IntRangeTextField txtMinBV = new IntRangeTextField(5);
+    private final IntRangeTextField txtMaxBV = new IntRangeTextField(5);
+    private final IntRangeTextField txtMinYear = new IntRangeTextField(4);
+    private final IntRangeTextField txtMaxYear = new IntRangeTextField(4);
+    private final JTextField txtEquipment = new JTextField(16);
+    private final JLabel lblStatus = new JLabel(" ");
+
+    private final ResultModel results = new ResultModel();
+    private final JTable table = new JTable(results);
+
+    private File chosenFile = null;
+
+    public UnitLibraryDialog(JFrame frame) {
+        super(frame, "Unit Library", true);
+
+        JPanel filters = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(2, 4, 2, 4);
+        gbc.anchor = GridBagConstraints.WEST;
+        addRow(filters, gbc, 0, "Name:", txtName);
+        addRow(filters, gbc, 1, "Unit Type:", cbUnitType);
+        addRow(filters, gbc, 2, "Tech Base:", cbTechBase);
+        addRow(filters, gbc, 3, "Role:", cbRole);
+        addRow(filters, gbc, 4, "Tonnage:", range(txtMinTons, txtMaxTons));
+        addRow(filters, gbc, 5, "BV:", range(txtMinBV, txtMaxBV));
+        addRow(filters, gbc, 6, "Year:", range(txtMinYear, txtMaxYear));
+        addRow(filters, gbc, 7, "Equipment:", txtEquipment);
+        txtEquipment.setToolTipText("Equipment names separated by commas; units must mount all of them");
+
+        JButton btnSearch = new JButton("Search");
+        btnSearch.addActionListener(e -> search());
+        gbc.gridx = 1;
+        gbc.gridy = 8;
+        filters.add(btnSearch, gbc);
+        getRootPane().setDefaultButton(btnSearch);
+
+        cbTechBase.addItem(ANY);
+        for (UnitLibraryIndex.TechBase techBase : UnitLibraryIndex.TechBase.values()) {
+            cbTechBase.addItem(techBase);
+        }
+        loadChoices();
+
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setAutoCreateRowSorter(true);
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    choose();
+                }
+            }
+        });
+
+        JButton btnAddFolder = new JButton("Add Folder...");
+        btnAddFolder.addActionListener(e -> addFolder());
+        JButton btnRescan = new JButton("Rescan");
+        btnRescan.addActionListener(e -> refreshIndex());
+        JButton btnLoad = new JButton("Load");
+        btnLoad.addActionListener(e -> choose());
+        JButton btnCancel = new JButton("Cancel");
+        btnCancel.addActionListener(e -> setVisible(false));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(btnAddFolder);
+        buttons.add(btnRescan);
+        buttons.add(btnLoad);
+        buttons.add(btnCancel);
+
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(lblStatus, BorderLayout.WEST);
+        south.add(buttons, BorderLayout.EAST);
+
+        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(filters, BorderLayout.WEST);
+        getContentPane().add(new JScrollPane(table), BorderLayout.CENTER);
+        getContentPane().add(south, BorderLayout.SOUTH);
+
+        setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        setSize(1000, 500);
+        setLocationRelativeTo(frame);
+
+        index.addChangeListener(indexListener);
+        index.startWatching();
+        search();
+        refreshIndex();
+    }
+
+    @Override
+    public void dispose() {
+        index.removeChangeListener(indexListener);
+        super.dispose();
+    }
+
+    /**
+     * @return The unit file chosen by the user, or null if the dialog was cancelled
+     */
+    public File getChosenFile() {
+        return chosenFile;
+    }
+
+    private static void addRow(JPanel panel, GridBagConstraints gbc, int row, String label,
+            Component field) {
+        gbc.gridy = row;
+        gbc.gridx = 0;
+        panel.add(new JLabel(label), gbc);
+        gbc.gridx = 1;
+        panel.add(field, gbc);
+    }
+
+    private static JPanel range(IntRangeTextField min, IntRangeTextField max) {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        panel.add(min);
+        panel.add(new JLabel(" to "));
+        panel.add(max);
+        return panel;
+    }
+
+    private void loadChoices() {
+        setChoices(cbUnitType, index.getUnitTypes());
+        setChoices(cbRole, index.getRoles());
+    }
+
+    private static void setChoices(JComboBox<String> combo, Iterable<String> values) {
+        final Object selected = combo.getSelectedItem();
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        model.addElement(ANY);
+        for (String value : values) {
+            model.addElement(value);
+        }
+        combo.setModel(model);
+        if (null != selected) {
+            combo.setSelectedItem(selected);
+        }
+    }
+
+    private void search() {
+        UnitLibraryIndex.Query query = new UnitLibraryIndex.Query()
+                .setNameContains(txtName.getText())
+                .setTonnage(getValue(txtMinTons, 0), getValue(txtMaxTons, Integer.MAX_VALUE))
+                .setBattleValue(getValue(txtMinBV, 0), getValue(txtMaxBV, Integer.MAX_VALUE))
+                .setYear(getValue(txtMinYear, Integer.MIN_VALUE), getValue(txtMaxYear, Integer.MAX_VALUE));
+        if (!ANY.equals(cbUnitType.getSelectedItem())) {
+            query.setUnitType((String) cbUnitType.getSelectedItem());
+        }
+        if (!ANY.equals(cbRole.getSelectedItem())) {
+            query.setRole((String) cbRole.getSelectedItem());
+        }
+        if (cbTechBase.getSelectedItem() instanceof UnitLibraryIndex.TechBase) {
+            query.setTechBase((UnitLibraryIndex.TechBase) cbTechBase.getSelectedItem());
+        }
+        for (String equipment : txtEquipment.getText().split(",")) {
+            query.addEquipment(equipment);
+        }
+        final long start = System.nanoTime();
+        List<UnitLibraryIndex.Summary> found = index.search(query);
+        final double millis = (System.nanoTime() - start) / 1000000.0;
+        results.setUnits(found);
+        lblStatus.setText(String.format("  %d of %d units (%.1f ms)", found.size(), index.size(), millis));
+    }
+
+    private static int getValue(IntRangeTextField field, int ifEmpty) {
+        return field.getText().trim().isEmpty() ? ifEmpty : field.getIntVal();
+    }
+
+    private void indexChanged() {
+        loadChoices();
+        search();
+    }
+
+    private void refreshIndex() {
+        final String METHOD_NAME = "refreshIndex()";
+
+        lblStatus.setText("  Scanning library...");
+        new SwingWorker<UnitLibraryIndex.RefreshResult, Void>() {
+            @Override
+            protected UnitLibraryIndex.RefreshResult doInBackground() throws Exception {
+                return index.refresh();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (Exception ex) {
+                    MegaMekLab.getLogger().log(UnitLibraryDialog.class, METHOD_NAME, ex);
+                    JOptionPane.showMessageDialog(UnitLibraryDialog.this,
+                            "The unit library could not be indexed:\n" + ex.getMessage());
+                }
+                // An unchanged library does not notify the listeners
+                indexChanged();
+            }
+        }.execute();
+    }
+
+    private void addFolder() {
+        JFileChooser f = new JFileChooser(System.getProperty("user.dir"));
+        f.setDialogTitle("Add Folder to Library");
+        f.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if ((f.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) && (null != f.getSelectedFile())) {
+            UnitLibraryIndex.addLibraryDirectory(f.getSelectedFile());
+            // Start watching the new folder as well
+            index.stopWatching();
+            index.startWatching();
+            refreshIndex();
+        }
+    }
+
+    private void choose() {
+        final String METHOD_NAME = "choose()";
+
+        final int row = table.getSelectedRow();
+        if (row < 0) {
+            return;
+        }
+        chosenFile = results.getUnit(table.convertRowIndexToModel(row)).getFile();
+        MegaMekLab.getLogger().log(UnitLibraryDialog.class, METHOD_NAME, LogLevel.DEBUG,
+                "Chose " + chosenFile);
+        setVisible(false);
+    }
+
+    private static class ResultModel extends AbstractTableModel {
+        private static final long serialVersionUID = 2757418426601839917L;
+
+        private static final String[] COLUMNS = { "Name", "Type", "Tons", "BV", "Cost", "Year", "Tech Base",
+                "Role", "File" };
+
+        private List<UnitLibraryIndex.Summary> units = new ArrayList<>();
+
+        void setUnits(List<UnitLibraryIndex.Summary> units) {
+            this.units = Collections.unmodifiableList(units);
+            fireTableDataChanged();
+        }
+
+        UnitLibraryIndex.Summary getUnit(int row) {
+            return units.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return units.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case 2:
+                    return Double.class;
+                case 3:
+                case 5:
+                    return Integer.class;
+                case 4:
+                    return Long.class;
+                default:
+                    return String.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            final UnitLibraryIndex.Summary unit = units.get(row);
+            switch (column) {
+                case 0:
+                    return unit.getName();
+                case 1:
+                    return unit.getUnitType();
+                case 2:
+                    return unit.getTonnage();
+                case 3:
+                    return unit.getBattleValue();
+                case 4:
+                    return unit.getCost();
+                case 5:
+                    return unit.getYear();
+                case 6:
+                    return String.valueOf(unit.getTechBase());
+                case 7:
+                    return unit.getRole();
+                default:
+                    return unit.getFile().getPath();
+            }
+        }
+    }
+}
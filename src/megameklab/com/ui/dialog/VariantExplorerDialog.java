@@ -0,0 +1,414 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.ui.dialog;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.RowFilter;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.WindowConstants;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableRowSorter;
+
+import megamek.common.Engine;
+import megamek.common.EquipmentType;
+import megamek.common.Mech;
+import megamek.common.TechConstants;
+import megameklab.com.MegaMekLab;
+import megameklab.com.ui.MegaMekLabMainUI;
+import megameklab.com.util.UnitUtil;
+import megameklab.com.util.VariantExplorer;
+
+/**
+ * Lets the user choose ranges of tonnage and walk MP and sets of engines, structure, armor and
+ * heat sinks for the current Mek, then lists every variant that fits with its free tonnage, free
+ * critical slots, BV and cost. Variants on the Pareto front are marked, and the selected variant
+ * can replace the current unit.
+ */
+public class VariantExplorerDialog extends JDialog {
+
+    private static final long serialVersionUID = 7718402645128867734L;
+
+    private final MegaMekLabMainUI parent;
+    private final VariantExplorer explorer;
+
+    private final SpinnerNumberModel minTons;
+    private final SpinnerNumberModel maxTons;
+    private final SpinnerNumberModel minWalk;
+    private final SpinnerNumberModel maxWalk;
+    private final SpinnerNumberModel minSinks;
+    private final SpinnerNumberModel maxSinks;
+    private final JList<Engine> lstEngines;
+    private final JList<EquipmentType> lstStructures;
+    private final JList<EquipmentType> lstArmors;
+    private final JList<EquipmentType> lstHeatSinks;
+    private final JCheckBox chkPareto = new JCheckBox("Pareto front only");
+    private final JButton btnRun = new JButton("Explore");
+    private final JButton btnApply = new JButton("Apply");
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JLabel lblStatus = new JLabel(" ");
+
+    private final ResultModel results = new ResultModel();
+    private final JTable table = new JTable(results);
+    private final TableRowSorter<ResultModel> sorter = new TableRowSorter<>(results);
+
+    private SwingWorker<List<VariantExplorer.Variant>, Integer> worker = null;
+    private volatile boolean cancelled = false;
+
+    public VariantExplorerDialog(MegaMekLabMainUI parent) {
+        super(parent, "Variant Explorer", true);
+        this.parent = parent;
+        final Mech mech = (Mech) parent.getEntity();
+        explorer = new VariantExplorer(mech, parent.getTechManager());
+
+        final int tons = (int) mech.getWeight();
+        final int minTonnage = mech.isSuperHeavy() ? 105 : 20;
+        final int maxTonnage = mech.isSuperHeavy() ? 200 : 100;
+        minTons = new SpinnerNumberModel(tons, minTonnage, maxTonnage, 5);
+        maxTons = new SpinnerNumberModel(tons, minTonnage, maxTonnage, 5);
+        final int walk = Math.max(1, mech.getOriginalWalkMP());
+        minWalk = new SpinnerNumberModel(walk, 1, 25, 1);
+        maxWalk = new SpinnerNumberModel(walk, 1, 25, 1);
+        final int sinks = UnitUtil.countActualHeatSinks(mech);
+        minSinks = new SpinnerNumberModel(sinks, 0, 100, 1);
+        maxSinks = new SpinnerNumberModel(sinks, 0, 100, 1);
+
+        lstEngines = createList(explorer.getAvailableEngines(),
+                e -> e.getEngineName().replaceAll("^\\d+ ", ""),
+                e -> (e.getEngineType() == mech.getEngine().getEngineType())
+                        && (e.hasFlag(Engine.CLAN_ENGINE) == mech.getEngine().hasFlag(Engine.CLAN_ENGINE)));
+        lstStructures = createList(explorer.getAvailableStructures(), EquipmentType::getName,
+                s -> EquipmentType.getStructureType(s) == mech.getStructureType());
+        lstArmors = createList(explorer.getAvailableArmors(), EquipmentType::getName,
+                a -> (EquipmentType.getArmorType(a) == mech.getArmorType(0))
+                        && (a.isClan() == TechConstants.isClan(mech.getArmorTechLevel(0))));
+        lstHeatSinks = createList(explorer.getAvailableHeatSinks(), EquipmentType::getName,
+                hs -> mech.hasWorkingMisc(hs.getInternalName()));
+
+        JPanel options = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(2, 4, 2, 4);
+        gbc.anchor = GridBagConstraints.NORTHWEST;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        addRow(options, gbc, 0, "Tonnage:", range(minTons, maxTons));
+        addRow(options, gbc, 1, "Walk MP:", range(minWalk, maxWalk));
+        addRow(options, gbc, 2, "Engine:", new JScrollPane(lstEngines));
+        addRow(options, gbc, 3, "Structure:", new JScrollPane(lstStructures));
+        addRow(options, gbc, 4, "Armor:", new JScrollPane(lstArmors));
+        addRow(options, gbc, 5, "Heat Sinks:", new JScrollPane(lstHeatSinks));
+        addRow(options, gbc, 6, "Heat Sink Count:", range(minSinks, maxSinks));
+        gbc.gridx = 1;
+        gbc.gridy = 7;
+        options.add(chkPareto, gbc);
+        chkPareto.addActionListener(e -> filter());
+
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setRowSorter(sorter);
+        sorter.setSortKeys(Collections.singletonList(
+                new RowSorter.SortKey(ResultModel.COL_BV, SortOrder.DESCENDING)));
+
+        btnRun.addActionListener(e -> runOrCancel());
+        btnApply.addActionListener(e -> apply());
+        JButton btnClose = new JButton("Close");
+        btnClose.addActionListener(e -> setVisible(false));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(btnRun);
+        buttons.add(btnApply);
+        buttons.add(btnClose);
+
+        JPanel south = new JPanel(new BorderLayout());
+        progressBar.setStringPainted(true);
+        south.add(lblStatus, BorderLayout.WEST);
+        south.add(progressBar, BorderLayout.CENTER);
+        south.add(buttons, BorderLayout.EAST);
+
+        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(options, BorderLayout.WEST);
+        getContentPane().add(new JScrollPane(table), BorderLayout.CENTER);
+        getContentPane().add(south, BorderLayout.SOUTH);
+
+        setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        setSize(1200, 600);
+        setLocationRelativeTo(parent);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        if (!visible) {
+            cancelled = true;
+        }
+        super.setVisible(visible);
+    }
+
+    private static <T> JList<T> createList(List<T> values, Function<T, String> names, Predicate<T> selected) {
+        @SuppressWarnings("unchecked")
+        JList<T> list = new JList<>((T[]) values.toArray());
+        list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        list.setVisibleRowCount(Math.min(values.size(), 5));
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            private static final long serialVersionUID = 2367240932917006581L;
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, names.apply((T) value), index,
+                        isSelected, cellHasFocus);
+            }
+        });
+        for (int i = 0; i < values.size(); i++) {
+            if (selected.test(values.get(i))) {
+                list.addSelectionInterval(i, i);
+            }
+        }
+        return list;
+    }
+
+    private static void addRow(JPanel panel, GridBagConstraints gbc, int row, String label,
+            Component field) {
+        gbc.gridy = row;
+        gbc.gridx = 0;
+        panel.add(new JLabel(label), gbc);
+        gbc.gridx = 1;
+        panel.add(field, gbc);
+    }
+
+    private static JPanel range(SpinnerNumberModel min, SpinnerNumberModel max) {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        panel.add(new JSpinner(min));
+        panel.add(new JLabel(" to "));
+        panel.add(new JSpinner(max));
+        return panel;
+    }
+
+    private VariantExplorer.Options getOptions() {
+        VariantExplorer.Options options = new VariantExplorer.Options();
+        final int step = minTons.getStepSize().intValue();
+        for (int tons = minTons.getNumber().intValue(); tons <= maxTons.getNumber().intValue(); tons += step) {
+            options.addTonnage(tons);
+        }
+        for (int walk = minWalk.getNumber().intValue(); walk <= maxWalk.getNumber().intValue(); walk++) {
+            options.addWalkMP(walk);
+        }
+        lstEngines.getSelectedValuesList().forEach(options::addEngine);
+        lstStructures.getSelectedValuesList().forEach(options::addStructure);
+        lstArmors.getSelectedValuesList().forEach(options::addArmor);
+        lstHeatSinks.getSelectedValuesList().forEach(options::addHeatSink);
+        options.setHeatSinkCount(minSinks.getNumber().intValue(), maxSinks.getNumber().intValue());
+        return options;
+    }
+
+    private void runOrCancel() {
+        if (null != worker) {
+            cancelled = true;
+            return;
+        }
+        final VariantExplorer.Plan plan = explorer.plan(getOptions());
+        if (plan.getCombinations() == 0) {
+            JOptionPane.showMessageDialog(this, String.format(
+                    "None of the chosen combinations can be built (%d rejected for the engine).",
+                    plan.getPruned()));
+            return;
+        }
+        cancelled = false;
+        btnRun.setText("Cancel");
+        btnApply.setEnabled(false);
+        progressBar.setMaximum(plan.size());
+        progressBar.setValue(0);
+        lblStatus.setText(String.format("  Exploring up to %,d variants...  ", plan.getCombinations()));
+        final long start = System.currentTimeMillis();
+        worker = new SwingWorker<List<VariantExplorer.Variant>, Integer>() {
+            @Override
+            protected List<VariantExplorer.Variant> doInBackground() throws Exception {
+                return explorer.run(plan, this::publish, () -> cancelled || isCancelled());
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                progressBar.setValue(chunks.get(chunks.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                final String METHOD_NAME = "done()";
+
+                worker = null;
+                btnRun.setText("Explore");
+                btnApply.setEnabled(true);
+                try {
+                    List<VariantExplorer.Variant> variants = get();
+                    results.setVariants(variants);
+                    filter();
+                    long front = variants.stream().filter(VariantExplorer.Variant::isPareto).count();
+                    lblStatus.setText(String.format("  %,d variants, %,d on the Pareto front, %d rejected"
+                            + " for the engine (%.1f s)%s  ", variants.size(), front, plan.getPruned(),
+                            (System.currentTimeMillis() - start) / 1000.0,
+                            variants.size() >= VariantExplorer.MAX_VARIANTS ? ", stopped at the limit"
+                                    : (cancelled ? ", cancelled" : "")));
+                } catch (Exception ex) {
+                    MegaMekLab.getLogger().log(VariantExplorerDialog.class, METHOD_NAME, ex);
+                    lblStatus.setText("  The variants could not be explored.  ");
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void filter() {
+        if (chkPareto.isSelected()) {
+            sorter.setRowFilter(new RowFilter<ResultModel, Integer>() {
+                @Override
+                public boolean include(Entry<? extends ResultModel, ? extends Integer> entry) {
+                    return entry.getModel().getVariant(entry.getIdentifier()).isPareto();
+                }
+            });
+        } else {
+            sorter.setRowFilter(null);
+        }
+    }
+
+    private void apply() {
+        final int row = table.getSelectedRow();
+        if (row < 0) {
+            return;
+        }
+        final Mech unit = explorer.build(results.getVariant(table.convertRowIndexToModel(row)));
+        if (null == unit) {
+            JOptionPane.showMessageDialog(this, "The variant could not be built.");
+            return;
+        }
+        setVisible(false);
+        SwingUtilities.invokeLater(() -> {
+            parent.setEntity(unit);
+            parent.reloadTabs();
+            parent.refreshAll();
+        });
+    }
+
+    private static class ResultModel extends AbstractTableModel {
+        private static final long serialVersionUID = -1862318560245393312L;
+
+        static final int COL_BV = 11;
+
+        private static final String[] COLUMNS = { "Pareto", "Tons", "Walk", "Engine", "Structure", "Armor",
+                "Armor Tons", "Heat Sinks", "Sinks", "Free Tons", "Free Crits", "BV", "Cost" };
+
+        private List<VariantExplorer.Variant> variants = new ArrayList<>();
+
+        void setVariants(List<VariantExplorer.Variant> variants) {
+            this.variants = Collections.unmodifiableList(variants);
+            fireTableDataChanged();
+        }
+
+        VariantExplorer.Variant getVariant(int row) {
+            return variants.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return variants.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case 0:
+                    return Boolean.class;
+                case 1:
+                case 6:
+                case 9:
+                    return Double.class;
+                case 2:
+                case 8:
+                case 10:
+                case 11:
+                    return Integer.class;
+                case 12:
+                    return Long.class;
+                default:
+                    return String.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            final VariantExplorer.Variant variant = variants.get(row);
+            switch (column) {
+                case 0:
+                    return variant.isPareto();
+                case 1:
+                    return variant.getTonnage();
+                case 2:
+                    return variant.getWalkMP();
+                case 3:
+                    return variant.getEngine().getEngineName();
+                case 4:
+                    return variant.getStructure().getName();
+                case 5:
+                    return variant.getArmor().getName();
+                case 6:
+                    return variant.getArmorTonnage();
+                case 7:
+                    return variant.getHeatSink().getName();
+                case 8:
+                    return variant.getHeatSinks();
+                case 9:
+                    return variant.getFreeTonnage();
+                case 10:
+                    return variant.getFreeCrits();
+                case 11:
+                    return variant.getBattleValue();
+                default:
+                    return variant.getCost();
+            }
+        }
+    }
+}
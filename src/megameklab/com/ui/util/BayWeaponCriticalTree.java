@@ -26,7 +26,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -92,6 +94,12 @@ public class BayWeaponCriticalTree extends JTree {
     private final EntitySource eSource;
     private final DefaultTreeModel model;
     private RefreshListener refresh;
+
+    // The node displaying each mount currently in the tree. Mounted does not define equality,
+    // so this is keyed on identity to keep separate mounts of the same equipment apart.
+    private final Map<Mounted, EquipmentNode> nodeIndex = new IdentityHashMap<>();
+    // The number of weapon slots used by the arc, updated each time the tree is synchronized
+    private int slotCount = 0;
     
     public BayWeaponCriticalTree(int location, EntitySource eSource, RefreshListener refresh) {
         this(location, eSource, refresh, FORWARD);
@@ -104,10 +112,9 @@ public class BayWeaponCriticalTree extends JTree {
         this.refresh = refresh;
         
         setMinimumSize(new Dimension(110,15));
-        TreeNode root = initRoot();
-        setRootVisible(root.getChildCount() == 0);
-        model = new DefaultTreeModel(root);
+        model = new DefaultTreeModel(new DefaultMutableTreeNode());
         setModel(model);
+        rebuild();
         setCellRenderer(renderer);
         addMouseListener(mouseListener);
         getSelectionModel().setSelectionMode(TreeSelectionModel.SINGLE_TREE_SELECTION);
@@ -130,9 +137,41 @@ public class BayWeaponCriticalTree extends JTree {
         this.refresh = refresh;
     }
     
+    /**
+     * Brings the tree up to date with the equipment mounted on the vessel. Nodes are kept for
+     * equipment that has not moved, and only the nodes that were added, removed or whose
+     * text changed are reported to the tree, which preserves the expansion state and keeps
+     * the repaint limited to the affected rows.
+     */
     public void rebuild() {
-        TreeNode root = initRoot();
-        model.setRoot(root);
+        final Entity entity = eSource.getEntity();
+        final MutableTreeNode root = (MutableTreeNode)model.getRoot();
+        List<Mounted> topLevel = new ArrayList<>();
+        Set<Integer> eqSet = new HashSet<>();
+        int slots = 0;
+        for (Mounted bay : entity.getWeaponBayList()) {
+            if (isInArc(bay)) {
+                topLevel.add(bay);
+                eqSet.add(entity.getEquipmentNum(bay));
+                eqSet.addAll(bay.getBayWeapons());
+                eqSet.addAll(bay.getBayAmmo());
+                slots += bay.getBayWeapons().size();
+            }
+        }
+        for (int eqIndex = 0; eqIndex < entity.getEquipment().size(); eqIndex++) {
+            final Mounted eq = entity.getEquipment(eqIndex);
+            if ((eq.getLinked() != null) && (eq.getLinked().getType() instanceof WeaponType)) {
+                continue;
+            }
+            if (!eqSet.contains(eqIndex) && isInArc(eq)) {
+                topLevel.add(eq);
+                if (TestAero.usesWeaponSlot(entity, eq.getType())) {
+                    slots++;
+                }
+            }
+        }
+        syncChildren(root, topLevel);
+        slotCount = slots;
         setRootVisible(root.getChildCount() == 0);
     }
     
@@ -140,67 +179,109 @@ public class BayWeaponCriticalTree extends JTree {
      * @return The number of weapon slots required by equipment allocated to this arc.
      */
     public int getSlotCount() {
-        int count = 0;
-        for (Enumeration<?> e = ((MutableTreeNode)model.getRoot()).children(); e.hasMoreElements(); ) {
-            final Object node = e.nextElement();
-            if (node instanceof BayNode) {
-                count += ((BayNode)node).getMounted().getBayWeapons().size();
-            } else if ((node instanceof EquipmentNode)
-                    && (TestAero.usesWeaponSlot(eSource.getEntity(),
-                            ((EquipmentNode)node).getMounted().getType()))) {
-                count++;
-            }
+        return slotCount;
+    }
+    
+    private boolean isInArc(Mounted eq) {
+        return (eq.getLocation() == location)
+                && ((facing == BOTH) || (eq.isRearMounted() == (facing == AFT)));
+    }
+    
+    private static boolean isBay(Mounted eq) {
+        return eq.getType() instanceof BayWeapon;
+    }
+    
+    /**
+     * @param bay A weapon bay
+     * @return    The weapons in the bay followed by the ammo
+     */
+    private List<Mounted> bayContents(Mounted bay) {
+        List<Mounted> contents = new ArrayList<>();
+        for (Integer wNum : bay.getBayWeapons()) {
+            contents.add(eSource.getEntity().getEquipment(wNum));
         }
-        return count;
+        for (Integer aNum : bay.getBayAmmo()) {
+            contents.add(eSource.getEntity().getEquipment(aNum));
+        }
+        return contents;
     }
     
     /**
-     * Runs through all equipment mounted on the vessel and adds nodes for the ones that match this
-     * tree's location and facing.
+     * Updates the children of a node to show the given mounts in order, reusing existing nodes
+     * where possible.
      * 
-     * @return A new root node
+     * @param parent The node to update
+     * @param mounts The equipment that should be shown under the node
      */
-    private TreeNode initRoot() {
-        MutableTreeNode root = new DefaultMutableTreeNode();
-        Set<Integer> eqSet = new HashSet<>();
-        for (Mounted bay : eSource.getEntity().getWeaponBayList()) {
-            if ((bay.getLocation() == location)
-                    && ((facing == BOTH)
-                            || (bay.isRearMounted() == (facing == AFT)))) {
-                eqSet.add(eSource.getEntity().getEquipmentNum(bay));
-                EquipmentNode bayNode = new BayNode(bay);
-                root.insert(bayNode, root.getChildCount());
-                bayNode.setParent(root);
-                for (Integer wNum : bay.getBayWeapons()) {
-                    final Mounted weapon = eSource.getEntity().getEquipment(wNum);
-                    EquipmentNode node = new EquipmentNode(weapon);
-                    bayNode.insert(node, bayNode.getChildCount());
-                    node.setParent(bayNode);
-                    eqSet.add(wNum);
-                }
-                for (Integer aNum : bay.getBayAmmo()) {
-                    final Mounted ammo = eSource.getEntity().getEquipment(aNum);
-                    EquipmentNode node = new EquipmentNode(ammo);
-                    bayNode.insert(node, bayNode.getChildCount());
-                    node.setParent(bayNode);
-                    eqSet.add(aNum);
-                }
+    private void syncChildren(MutableTreeNode parent, List<Mounted> mounts) {
+        Set<Mounted> wanted = Collections.newSetFromMap(new IdentityHashMap<>());
+        wanted.addAll(mounts);
+        for (int i = parent.getChildCount() - 1; i >= 0; i--) {
+            final EquipmentNode node = (EquipmentNode)parent.getChildAt(i);
+            if (!wanted.contains(node.getMounted())
+                    || ((node instanceof BayNode) != isBay(node.getMounted()))) {
+                detach(node);
             }
         }
-        for (int eqIndex = 0; eqIndex < eSource.getEntity().getEquipment().size(); eqIndex++) {
-            final Mounted eq = eSource.getEntity().getEquipment(eqIndex);
-            if ((eq.getLinked() != null) && (eq.getLinked().getType() instanceof WeaponType)) {
-                continue;
+        for (int i = 0; i < mounts.size(); i++) {
+            final Mounted eq = mounts.get(i);
+            EquipmentNode node = (i < parent.getChildCount()) ? (EquipmentNode)parent.getChildAt(i) : null;
+            if ((null == node) || (node.getMounted() != eq)) {
+                // Reuse the node if it is shown elsewhere in the tree; otherwise create it with its
+                // contents before adding it so a new bay is reported with a single event.
+                node = nodeIndex.get(eq);
+                if (null != node) {
+                    detach(node);
+                } else if (isBay(eq)) {
+                    node = new BayNode(eq);
+                    for (Mounted m : bayContents(eq)) {
+                        EquipmentNode child = new EquipmentNode(m);
+                        node.insert(child, node.getChildCount());
+                        child.setParent(node);
+                    }
+                } else {
+                    node = new EquipmentNode(eq);
+                }
+                attach(node, parent, i);
             }
-            if (!eqSet.contains(eqIndex) && (eq.getLocation() == location)
-                    && ((facing == BOTH)
-                            || (eq.isRearMounted() == (facing == AFT)))) {
-                EquipmentNode node = new EquipmentNode(eq);
-                root.insert(node, root.getChildCount());
-                node.setParent(root);
+            if (node instanceof BayNode) {
+                syncChildren(node, bayContents(eq));
+            }
+            if (node.updateLabel()) {
+                model.nodeChanged(node);
             }
         }
-        return root;
+        while (parent.getChildCount() > mounts.size()) {
+            detach((EquipmentNode)parent.getChildAt(parent.getChildCount() - 1));
+        }
+    }
+    
+    /**
+     * Inserts a node into the tree and records it and its children in the node index.
+     */
+    private void attach(EquipmentNode node, MutableTreeNode parent, int index) {
+        model.insertNodeInto(node, parent, index);
+        node.setParent(parent);
+        node.updateLabel();
+        nodeIndex.put(node.getMounted(), node);
+        for (Enumeration<MutableTreeNode> e = node.children(); e.hasMoreElements(); ) {
+            final EquipmentNode child = (EquipmentNode)e.nextElement();
+            child.updateLabel();
+            nodeIndex.put(child.getMounted(), child);
+        }
+    }
+    
+    /**
+     * Removes a node from the tree and drops it and its children from the node index. The node keeps
+     * its reference to the parent, which the removal methods use to find the bay.
+     */
+    private void detach(EquipmentNode node) {
+        model.removeNodeFromParent(node);
+        nodeIndex.remove(node.getMounted(), node);
+        for (Enumeration<MutableTreeNode> e = node.children(); e.hasMoreElements(); ) {
+            final EquipmentNode child = (EquipmentNode)e.nextElement();
+            nodeIndex.remove(child.getMounted(), child);
+        }
     }
     
     /**
@@ -221,7 +302,7 @@ public class BayWeaponCriticalTree extends JTree {
      * @param updateMount If true, will remove all equipment in the bay from the location and delete the bay itself
      */
     private void removeBay(final EquipmentNode bayNode, boolean shouldRefresh, boolean updateMount) {
-        model.removeNodeFromParent(bayNode);
+        detach(bayNode);
         setRootVisible(((TreeNode)model.getRoot()).getChildCount() == 0);
         List<EquipmentNode> children = new ArrayList<>();
         for (Enumeration<MutableTreeNode> e = bayNode.children(); e.hasMoreElements(); ) {
@@ -233,11 +314,7 @@ public class BayWeaponCriticalTree extends JTree {
             UnitUtil.removeMounted(eSource.getEntity(), bayNode.getMounted());
         }
         if (shouldRefresh) {
-            refresh.refreshEquipment();
-            refresh.refreshBuild();
-            refresh.refreshPreview();
-            refresh.refreshStatus();
-            refresh.refreshSummary();
+            refresh.refreshAllocation();
         }
     }
     
@@ -260,7 +337,7 @@ public class BayWeaponCriticalTree extends JTree {
      *                      has been transferred to another bay.
      */
     private void removeEquipment(final EquipmentNode node, boolean shouldRefresh, boolean updateMount) {
-        model.removeNodeFromParent(node);
+        detach(node);
         setRootVisible(((TreeNode)model.getRoot()).getChildCount() == 0);
         final Mounted mounted = node.getMounted();
         // If the parent node is a bay, we need to remove the weapon or ammo from the bay. Unless
@@ -301,11 +378,7 @@ public class BayWeaponCriticalTree extends JTree {
             UnitUtil.compactCriticals(eSource.getEntity());
         }
         if (shouldRefresh) {
-            refresh.refreshEquipment();
-            refresh.refreshBuild();
-            refresh.refreshPreview();
-            refresh.refreshStatus();
-            refresh.refreshSummary();
+            refresh.refreshAllocation();
         }
     }
     
@@ -339,11 +412,7 @@ public class BayWeaponCriticalTree extends JTree {
             } catch (LocationFullException e) {
             }
         }
-        refresh.refreshEquipment();
-        refresh.refreshBuild();
-        refresh.refreshPreview();
-        refresh.refreshStatus();
-        refresh.refreshSummary();
+        refresh.refreshAllocation();
     }
     
     /**
@@ -356,11 +425,7 @@ public class BayWeaponCriticalTree extends JTree {
      */
     private void deleteAmmo(final Mounted ammo, int shots) {
         ammo.setShotsLeft(ammo.getBaseShotsLeft());
-        refresh.refreshEquipment();
-        refresh.refreshBuild();
-        refresh.refreshPreview();
-        refresh.refreshStatus();
-        refresh.refreshSummary();
+        refresh.refreshAllocation();
     }
     
     /**
@@ -384,11 +449,7 @@ public class BayWeaponCriticalTree extends JTree {
         }
         UnitUtil.changeMountStatus(eSource.getEntity(), node.getMounted(),
                 location, Entity.LOC_NONE, rear);
-        refresh.refreshBuild();
-        refresh.refreshPreview();
-        refresh.refreshStatus();
-        refresh.refreshStatus();
-        refresh.refreshSummary();
+        refresh.refreshAllocation();
     }
     
     /**
@@ -396,7 +457,7 @@ public class BayWeaponCriticalTree extends JTree {
      * @param node
      */
     private void deleteEquipment(final EquipmentNode node) {
-        model.removeNodeFromParent(node);
+        detach(node);
         setRootVisible(((TreeNode)model.getRoot()).getChildCount() == 0);
         final Mounted mounted = node.getMounted();
 
@@ -405,11 +466,7 @@ public class BayWeaponCriticalTree extends JTree {
             UnitUtil.removeMounted(eSource.getEntity(), mounted.getLinkedBy());
         }
         UnitUtil.compactCriticals(eSource.getEntity());
-        refresh.refreshEquipment();
-        refresh.refreshBuild();
-        refresh.refreshPreview();
-        refresh.refreshStatus();
-        refresh.refreshSummary();
+        refresh.refreshAllocation();
     }
     
     /**
@@ -456,11 +513,25 @@ public class BayWeaponCriticalTree extends JTree {
         private Object object;
         private MutableTreeNode parent;
         private final Vector<MutableTreeNode> children = new Vector<>();
+        // The text last reported to the tree, used to detect when the node needs to be redrawn
+        private String label = null;
         
         EquipmentNode(Object object) {
             this.object = object;
         }
         
+        /**
+         * @return Whether the display text has changed since the last call
+         */
+        boolean updateLabel() {
+            final String current = toString();
+            if (current.equals(label)) {
+                return false;
+            }
+            label = current;
+            return true;
+        }
+        
         Mounted getMounted() {
             return (Mounted)object;
         }
@@ -906,8 +977,7 @@ public class BayWeaponCriticalTree extends JTree {
         try {
             Mounted bay = eSource.getEntity().addEquipment(bayType, location, facing == AFT);
             BayNode bayNode = new BayNode(bay);
-            model.insertNodeInto(bayNode, (MutableTreeNode)model.getRoot(), ((TreeNode)model.getRoot()).getChildCount());
-            bayNode.setParent((MutableTreeNode)model.getRoot());
+            attach(bayNode, (MutableTreeNode)model.getRoot(), ((TreeNode)model.getRoot()).getChildCount());
             if (isRootVisible()) {
                 expandRow(0);
                 setRootVisible(false);
@@ -916,11 +986,7 @@ public class BayWeaponCriticalTree extends JTree {
         } catch (LocationFullException ex) {
             //should not happen
         }
-        refresh.refreshEquipment();
-        refresh.refreshBuild();
-        refresh.refreshPreview();
-        refresh.refreshStatus();
-        refresh.refreshSummary();
+        refresh.refreshAllocation();
     }
 
     /**
@@ -977,11 +1043,7 @@ public class BayWeaponCriticalTree extends JTree {
                 if (addMount.isPresent()) {
                     addMount.get().setShotsLeft(addMount.get().getBaseShotsLeft() + eq.getBaseShotsLeft());
                     UnitUtil.removeMounted(eSource.getEntity(), eq);
-                    refresh.refreshEquipment();
-                    refresh.refreshBuild();
-                    refresh.refreshPreview();
-                    refresh.refreshStatus();
-                    refresh.refreshSummary();
+                    refresh.refreshAllocation();
                     return;
                 }
             }
@@ -996,8 +1058,7 @@ public class BayWeaponCriticalTree extends JTree {
             if (null != bayNode) {
                 moveToArc(eq);
                 EquipmentNode eqNode = new EquipmentNode(eq);
-                model.insertNodeInto(eqNode, bayNode, bayNode.getChildCount());
-                eqNode.setParent(bayNode);
+                attach(eqNode, bayNode, bayNode.getChildCount());
                 
                 if (eq.getType() instanceof WeaponType) {
                     bay.addWeaponToBay(eSource.getEntity().getEquipmentNum(eq));
@@ -1013,11 +1074,7 @@ public class BayWeaponCriticalTree extends JTree {
                         + "] not found in " + getLocationName());                                       //$NON-NLS-1$
             }
         }
-        refresh.refreshEquipment();
-        refresh.refreshBuild();
-        refresh.refreshPreview();
-        refresh.refreshStatus();
-        refresh.refreshSummary();
+        refresh.refreshAllocation();
     }
     
     public void addAmmoToBay(Mounted bay, Mounted eq, int shots) {
@@ -1030,11 +1087,7 @@ public class BayWeaponCriticalTree extends JTree {
                 .filter(m -> m.getType() == at).findFirst();
         if (addMount.isPresent()) {
             addMount.get().setShotsLeft(addMount.get().getBaseShotsLeft() + shots);
-            refresh.refreshEquipment();
-            refresh.refreshBuild();
-            refresh.refreshPreview();
-            refresh.refreshStatus();
-            refresh.refreshSummary();
+            refresh.refreshAllocation();
         } else {
             try {
                 Mounted m = eSource.getEntity().addEquipment(at, bay.getLocation());
@@ -1052,17 +1105,12 @@ public class BayWeaponCriticalTree extends JTree {
     public void addToLocation(Mounted eq) {
         moveToArc(eq);
         EquipmentNode node = new EquipmentNode(eq);
-        model.insertNodeInto(node, (MutableTreeNode)model.getRoot(), ((TreeNode)model.getRoot()).getChildCount());
-        node.setParent((MutableTreeNode)model.getRoot());
+        attach(node, (MutableTreeNode)model.getRoot(), ((TreeNode)model.getRoot()).getChildCount());
         if (isRootVisible()) {
             expandRow(0);
             setRootVisible(false);
         }
-        refresh.refreshEquipment();
-        refresh.refreshBuild();
-        refresh.refreshPreview();
-        refresh.refreshStatus();
-        refresh.refreshSummary();
+        refresh.refreshAllocation();
     }
     
     /**
@@ -1119,11 +1167,7 @@ public class BayWeaponCriticalTree extends JTree {
                 && (node.getMounted().getLinkedBy() == null)) {
             moveToArc(eq);
             eq.setLinked(node.getMounted());
-            refresh.refreshEquipment();
-            refresh.refreshBuild();
-            refresh.refreshPreview();
-            refresh.refreshStatus();
-            refresh.refreshSummary();
+            refresh.refreshAllocation();
         } else {
             addToBay(getBayFromPath(path), eq);
         }
@@ -1154,9 +1198,8 @@ public class BayWeaponCriticalTree extends JTree {
         // First move the bay here
         moveToArc(bay);
         BayNode bayNode = new BayNode(bay);
-        model.insertNodeInto(bayNode, (MutableTreeNode)model.getRoot(),
+        attach(bayNode, (MutableTreeNode)model.getRoot(),
                 ((TreeNode)model.getRoot()).getChildCount());
-        bayNode.setParent((MutableTreeNode)model.getRoot());
         if (isRootVisible()) {
             expandRow(0);
             setRootVisible(false);
@@ -1166,8 +1209,7 @@ public class BayWeaponCriticalTree extends JTree {
             final Mounted weapon = eSource.getEntity().getEquipment(eqNum);
             moveToArc(weapon);
             EquipmentNode node = new EquipmentNode(weapon);
-            model.insertNodeInto(node, bayNode, bayNode.getChildCount());
-            node.setParent(bayNode);
+            attach(node, bayNode, bayNode.getChildCount());
             if (weapon.getLinkedBy() != null) {
                 moveToArc(weapon.getLinkedBy());
             }
@@ -1176,8 +1218,7 @@ public class BayWeaponCriticalTree extends JTree {
             final Mounted ammo = eSource.getEntity().getEquipment(eqNum);
             moveToArc(ammo);
             EquipmentNode node = new EquipmentNode(ammo);
-            model.insertNodeInto(node, bayNode, bayNode.getChildCount());
-            node.setParent(bayNode);
+            attach(node, bayNode, bayNode.getChildCount());
         }
     }
     
@@ -1390,15 +1431,11 @@ public class BayWeaponCriticalTree extends JTree {
                     .getChildAt(Integer.parseInt(sources[1]));
             // If we're moving an entire bay we only need to get rid of the bay node.
             if (node instanceof BayNode) {
-                model.removeNodeFromParent(node);
+                detach(node);
             } else {
                 removeEquipment(node, false, false);
             }
         }
-        refresh.refreshEquipment();
-        refresh.refreshBuild();
-        refresh.refreshPreview();
-        refresh.refreshStatus();
-        refresh.refreshSummary();
+        refresh.refreshAllocation();
     }
 }
@@ -0,0 +1,197 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An output stream that hands each write to a background thread, which writes them to the
+ * underlying stream in large batches. Writing costs the caller a copy and a queue insertion, so
+ * logging from the event dispatch thread or a print job does not wait on the disk.
+ *
+ * The queue is bounded by the number of bytes waiting to be written. When it is full the
+ * {@link Overflow} policy decides whether the caller waits for room or the output is dropped.
+ * Dropped output is counted and noted in the log once the writer catches up.
+ */
+public class AsyncLogStream extends OutputStream {
+
+    /** What to do with a write when the queue is full */
+    public enum Overflow {
+        /** Wait until the writer has made room */
+        BLOCK,
+        /** Discard the write and count it */
+        DROP
+    }
+
+    // How long flush() waits for the writer before giving up
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    // How long the writer sleeps when there is nothing to write and nobody wakes it
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final int BATCH_BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final long capacity;
+    private final Overflow overflow;
+    private final Thread writer;
+
+    private final ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    // Bytes in the queue
+    private final AtomicLong pending = new AtomicLong();
+    // Number of writes queued and number written, used by flush() to wait for earlier writes
+    private final AtomicLong queued = new AtomicLong();
+    private volatile long written;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    /**
+     * Creates the stream and starts its writer thread.
+     *
+     * @param out      The stream to write to. Only the writer thread uses it.
+     * @param capacity The most bytes to hold waiting to be written
+     * @param overflow What to do when the queue is full
+     */
+    public AsyncLogStream(OutputStream out, long capacity, Overflow overflow) {
+        this.out = new BufferedOutputStream(out, BATCH_BUFFER_SIZE);
+        this.capacity = capacity;
+        this.overflow = overflow;
+        writer = new Thread(this::drain, "MegaMekLab log writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void write(int b) {
+        enqueue(new byte[] { (byte) b });
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (len > 0) {
+            enqueue(Arrays.copyOfRange(b, off, off + len));
+        }
+    }
+
+    private void enqueue(byte[] bytes) {
+        if (closed) {
+            return;
+        }
+        while (pending.get() + bytes.length > capacity) {
+            if ((overflow == Overflow.DROP) || (Thread.currentThread() == writer)) {
+                dropped.addAndGet(bytes.length);
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            if (closed) {
+                return;
+            }
+        }
+        pending.addAndGet(bytes.length);
+        queue.offer(bytes);
+        queued.incrementAndGet();
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Waits until everything written before this call has reached the underlying stream, or
+     * for a few seconds if the writer cannot keep up.
+     */
+    @Override
+    public void flush() {
+        final long target = queued.get();
+        final long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while ((written < target) && writer.isAlive() && (System.nanoTime() < deadline)) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Writes everything still queued, then stops the writer and closes the underlying stream.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.NANOSECONDS.toMillis(FLUSH_TIMEOUT_NANOS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return The number of bytes discarded because the queue was full
+     */
+    public long getDroppedBytes() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        long reportedDrops = 0;
+        while (true) {
+            long count = 0;
+            byte[] bytes;
+            try {
+                while (null != (bytes = queue.poll())) {
+                    out.write(bytes);
+                    pending.addAndGet(-bytes.length);
+                    count++;
+                }
+                final long drops = dropped.get();
+                if (drops > reportedDrops) {
+                    out.write(String.format("%n[%d bytes of log output were dropped]%n", drops - reportedDrops)
+                            .getBytes(StandardCharsets.UTF_8));
+                    reportedDrops = drops;
+                }
+                out.flush();
+            } catch (IOException e) {
+                // There is nowhere left to report this, so discard what is queued and keep going.
+                while (null != (bytes = queue.poll())) {
+                    pending.addAndGet(-bytes.length);
+                    count++;
+                }
+            }
+            written += count;
+            if (closed && queue.isEmpty()) {
+                break;
+            }
+            idle = true;
+            if (queue.isEmpty() && !closed) {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+            }
+            idle = false;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            // Already shutting down
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import megamek.common.Entity;
+import megamek.common.EntityListFile;
+import megamek.common.Mech;
+import megamek.common.MechFileParser;
+import megamek.common.MechSummary;
+import megamek.common.MechSummaryCache;
+import megamek.common.MechTextView;
+import megamek.common.MechView;
+import megamek.common.loaders.BLKFile;
+
+/**
+ * Writes the readout or unit file for every unit in a collection. Units are loaded and
+ * written on a pool of worker threads fed through a bounded queue, so when exporting a
+ * directory or the unit cache only a few units are in memory at a time regardless of the
+ * size of the library. A MUL file is read as a whole, so all of its units are held in memory
+ * for the duration of the export.
+ */
+public class BatchExporter {
+
+    public enum Format {
+        /** The HTML readout used by the preview tab */
+        HTML,
+        /** The plain text readout */
+        TEXT,
+        /** The unit file, re-encoded as MTF for Meks and BLK for everything else */
+        UNIT_FILE;
+
+        @Override
+        public String toString() {
+            switch (this) {
+                case HTML:
+                    return "HTML";
+                case TEXT:
+                    return "Text";
+                default:
+                    return "MTF/BLK";
+            }
+        }
+    }
+
+    /**
+     * Supplies one unit to export. Loading happens on the worker thread.
+     */
+    private static class UnitSource {
+        // Identifies the unit in the failure report, such as the file it is loaded from
+        private final String description;
+        private final Callable<Entity> loader;
+
+        UnitSource(String description, Callable<Entity> loader) {
+            this.description = description;
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * The outcome of a batch export.
+     */
+    public static class Result {
+        private final int exported;
+        private final List<String> failures;
+        private final long elapsedMillis;
+
+        Result(int exported, List<String> failures, long elapsedMillis) {
+            this.exported = exported;
+            this.failures = failures;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getExported() {
+            return exported;
+        }
+
+        /**
+         * @return A description of each unit that could not be exported
+         */
+        public List<String> getFailures() {
+            return failures;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return The number of units exported per second
+         */
+        public double getThroughput() {
+            return exported * 1000.0 / Math.max(1, elapsedMillis);
+        }
+
+        /**
+         * @return A summary suitable for display to the user
+         */
+        public String getSummary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Exported %d units in %.1f seconds (%.1f units/s).",
+                    exported, elapsedMillis / 1000.0, getThroughput()));
+            if (!failures.isEmpty()) {
+                sb.append("\n\n").append(failures.size()).append(" units failed:");
+                for (String failure : failures) {
+                    sb.append("\n").append(failure);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    // The number of pending units per worker before the producer waits
+    private static final int QUEUE_PER_WORKER = 4;
+
+    private final Format format;
+    private final Path outputDir;
+    private final Set<String> usedNames = ConcurrentHashMap.newKeySet();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger exported = new AtomicInteger();
+
+    /**
+     * @param format    The type of file to write for each unit
+     * @param outputDir The directory to write the files to
+     */
+    public BatchExporter(Format format, File outputDir) {
+        this.format = format;
+        this.outputDir = outputDir.toPath();
+    }
+
+    /**
+     * Exports every unit file under a directory, including subdirectories.
+     *
+     * @param dir The root of the directory tree
+     * @return    The outcome of the export
+     * @throws IOException if the directory tree cannot be read
+     */
+    public Result exportDirectory(File dir) throws IOException {
+        List<UnitSource> sources;
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            sources = paths.filter(p -> Files.isRegularFile(p) && isUnitFile(p.toString()))
+                    .map(p -> new UnitSource(p.toString(),
+                            () -> new MechFileParser(p.toFile()).getEntity()))
+                    .collect(Collectors.toList());
+        }
+        return export(sources);
+    }
+
+    /**
+     * Exports every unit in a MUL file. The file is parsed before the export starts, so all of
+     * its units are held in memory until it finishes.
+     *
+     * @param mulFile The MUL file
+     * @return        The outcome of the export
+     * @throws Exception if the MUL file cannot be parsed
+     */
+    public Result exportMul(File mulFile) throws Exception {
+        Vector<Entity> entities = EntityListFile.loadFrom(mulFile);
+        List<UnitSource> sources = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            final Entity en = entities.get(i);
+            sources.add(new UnitSource(mulFile.getPath() + ", unit " + (i + 1), () -> en));
+        }
+        return export(sources);
+    }
+
+    /**
+     * Exports every unit in the unit cache.
+     *
+     * @return The outcome of the export
+     */
+    public Result exportUnitCache() {
+        List<UnitSource> sources = new ArrayList<>();
+        for (MechSummary ms : MechSummaryCache.getInstance().getAllMechs()) {
+            String description = ms.getSourceFile().getPath();
+            if (null != ms.getEntryName()) {
+                description += ", " + ms.getEntryName();
+            }
+            sources.add(new UnitSource(description,
+                    () -> new MechFileParser(ms.getSourceFile(), ms.getEntryName()).getEntity()));
+        }
+        return export(sources);
+    }
+
+    private Result export(List<UnitSource> sources) {
+        final long start = System.currentTimeMillis();
+        final int workers = Runtime.getRuntime().availableProcessors();
+        // CallerRunsPolicy makes the submitting thread do the work when the queue is full,
+        // which keeps the number of units in memory bounded.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workers * QUEUE_PER_WORKER), new ThreadPoolExecutor.CallerRunsPolicy());
+        for (UnitSource source : sources) {
+            executor.execute(() -> exportUnit(source));
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        List<String> failed;
+        synchronized (failures) {
+            failed = new ArrayList<>(failures);
+        }
+        return new Result(exported.get(), failed, System.currentTimeMillis() - start);
+    }
+
+    private void exportUnit(UnitSource source) {
+        Entity entity = null;
+        try {
+            entity = source.loader.call();
+            String ext;
+            if (format == Format.HTML) {
+                ext = ".html";
+            } else if (format == Format.TEXT) {
+                ext = ".txt";
+            } else if (entity instanceof Mech) {
+                ext = ".mtf";
+            } else {
+                ext = ".blk";
+            }
+            Path file = outputDir.resolve(uniqueName(entity, ext));
+            if ((format == Format.UNIT_FILE) && !(entity instanceof Mech)) {
+                BLKFile.encode(file.toString(), entity);
+            } else {
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    if (format == Format.HTML) {
+                        writer.write(new MechView(entity, false).getMechReadout());
+                    } else if (format == Format.TEXT) {
+                        writer.write(new MechTextView(entity, false).getMechReadout());
+                    } else {
+                        writer.write(((Mech) entity).getMtf());
+                    }
+                    writer.newLine();
+                }
+            }
+            exported.incrementAndGet();
+        } catch (Exception ex) {
+            String name = (null == entity) ? source.description
+                    : entity.getShortNameRaw() + " (" + source.description + ")";
+            failures.add(name + ": " + ex);
+        }
+    }
+
+    private String uniqueName(Entity entity, String ext) {
+        String base = (entity.getChassis() + " " + entity.getModel()).trim()
+                .replaceAll("[\\\\/:*?\"<>|]", "_");
+        String name = base + ext;
+        int index = 2;
+        while (!usedNames.add(name)) {
+            name = base + " (" + index++ + ")" + ext;
+        }
+        return name;
+    }
+
+    private static boolean isUnitFile(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".mtf") || lower.endsWith(".blk") || lower.endsWith(".hmp");
+    }
+}
@@ -68,6 +68,7 @@ public class CConfig {
     public static final String TECH_UNOFFICAL_NO_YEAR = "techUnofficialNoYear";
     
     public static final String CONFIG_SAVE_LOC = "Save-Location-Default";
+    public static final String LIBRARY_DIRECTORIES = "libraryDirectories";
 
     private static Properties config;// config. player values.
 
@@ -105,6 +106,9 @@ public class CConfig {
         defaults.setProperty(CONFIG_SAVE_LOC,
                 new File(System.getProperty("user.dir").toString()
                         + "/data/mechfiles/").getAbsolutePath());
+        defaults.setProperty(LIBRARY_DIRECTORIES,
+                new File(System.getProperty("user.dir").toString()
+                        + "/data/mechfiles/").getAbsolutePath());
 
         return defaults;
     }
@@ -20,6 +20,9 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListCellRenderer;
@@ -62,17 +65,7 @@ public class CritListCellRenderer extends DefaultListCellRenderer {
         String[] split = ((String)value).split(":");
         label.setText(split[0]);
 
-        CriticalSlot cs;
-        if (split.length > 2){
-            int eqId = Integer.parseInt(split[2]);
-            cs = new CriticalSlot(unit.getEquipment(eqId));
-        } else if (split.length > 1){
-            cs = getCrit(Integer.parseInt(split[1]));
-        } else if (((String)value).equals("-Empty-")){
-            cs = null;
-        } else {
-            cs = getCrit(index);
-        }
+        CriticalSlot cs = resolveCrit(unit, (String) value, index, getCritLocation());
 
         if (cs != null) {
 
@@ -172,8 +165,28 @@ public class CritListCellRenderer extends DefaultListCellRenderer {
         return label;
     }
 
-    private CriticalSlot getCrit(int slot) {
-        int location = getCritLocation();
+    /**
+     * Finds the slot a row of the list shows.
+     *
+     * @param unit     The unit
+     * @param value    The row's entry in the list model
+     * @param index    The row
+     * @param location The location the list shows
+     * @return         The slot, or null for an empty slot
+     */
+    private static CriticalSlot resolveCrit(Entity unit, String value, int index, int location) {
+        String[] split = value.split(":");
+        if (split.length > 2) {
+            return new CriticalSlot(unit.getEquipment(Integer.parseInt(split[2])));
+        } else if (split.length > 1) {
+            return getCrit(unit, location, Integer.parseInt(split[1]));
+        } else if (value.equals("-Empty-")) {
+            return null;
+        }
+        return getCrit(unit, location, index);
+    }
+
+    private static CriticalSlot getCrit(Entity unit, int location, int slot) {
         CriticalSlot crit = null;
         if ((slot >= 0) && (slot < unit.getNumberOfCriticals(location))) {
             crit = unit.getCritical(location, slot);
@@ -182,6 +195,48 @@ public class CritListCellRenderer extends DefaultListCellRenderer {
         return crit;
     }
 
+    /**
+     * Describes everything the renderer draws for each row apart from the selection and focus:
+     * the text, the mount flags shown as suffixes, the tooltip, the colors and the borders that
+     * depend on the neighboring slots. {@link CritSlotListModel} compares these to find the rows
+     * that have to be repainted, since toggling a flag such as armored or pod mounted does not
+     * change the row's entry in the model.
+     *
+     * @param unit     The unit
+     * @param names    The entries in the list model
+     * @param location The location the list shows
+     * @return         A value for each row that is equal for rows that render the same
+     */
+    public static List<Object> getRowStates(Entity unit, List<String> names, int location) {
+        List<Object> states = new ArrayList<>(names.size());
+        for (int index = 0; index < names.size(); index++) {
+            final String value = names.get(index);
+            final CriticalSlot cs = resolveCrit(unit, value, index, location);
+            if (null == cs) {
+                states.add(value);
+                continue;
+            }
+            final List<Object> state = new ArrayList<>(Arrays.asList(value, cs.getType(),
+                    cs.isArmored(), UnitUtil.isLastCrit(unit, cs, index, location),
+                    UnitUtil.isPreviousCritEmpty(unit, cs, index, location)));
+            final Mounted mount = cs.getMount();
+            if ((cs.getType() != CriticalSlot.TYPE_SYSTEM) && (null != mount)) {
+                state.addAll(Arrays.asList(mount.getType().getInternalName(),
+                        UnitUtil.getCritName(unit, mount.getType()),
+                        mount.isRearMounted(), mount.isArmored(), mount.isMechTurretMounted(),
+                        mount.isSponsonTurretMounted(), mount.isPintleTurretMounted(),
+                        mount.isDWPMounted(), unit.isOmni(), mount.isOmniPodMounted(),
+                        (null == mount.getLinked()) ? null : mount.getLinked().getName(),
+                        (unit instanceof BattleArmor) ? mount.getBaseShotsLeft() : 0,
+                        (null == cs.getMount2()) ? null
+                                : UnitUtil.getCritName(unit, cs.getMount2().getType()),
+                        UnitUtil.getToolTipInfo(unit, mount)));
+            }
+            states.add(state);
+        }
+        return states;
+    }
+
     private int getCritLocation() {
         if (unit instanceof BattleArmor){
             String[] split = list.getName().split(":");
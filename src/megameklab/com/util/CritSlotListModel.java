@@ -0,0 +1,83 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * List model for the slots in one location of a critical view. The model is kept for the life
+ * of the view and updated by diffing against the new rows, so only the rows that actually
+ * changed are reported to the list and repainted. A row is compared by its slot name and by the
+ * state the renderer draws for it, as given by {@link CritListCellRenderer#getRowStates}, so
+ * changes such as armoring a slot repaint the row even though its name is unchanged.
+ */
+public class CritSlotListModel extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = -3301860787935268514L;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Object> states = new ArrayList<>();
+
+    @Override
+    public int getSize() {
+        return names.size();
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return names.get(index);
+    }
+
+    /**
+     * Replaces the contents of the model, firing events only for the slots that differ.
+     *
+     * @param newNames  The slot names for the location
+     * @param newStates The rendered state of each slot, in the same order as the names
+     */
+    public void setNames(List<String> newNames, List<Object> newStates) {
+        int common = Math.min(names.size(), newNames.size());
+        int runStart = -1;
+        for (int i = 0; i < common; i++) {
+            if (names.get(i).equals(newNames.get(i)) && Objects.equals(states.get(i), newStates.get(i))) {
+                if (runStart >= 0) {
+                    fireContentsChanged(this, runStart, i - 1);
+                    runStart = -1;
+                }
+            } else {
+                names.set(i, newNames.get(i));
+                states.set(i, newStates.get(i));
+                if (runStart < 0) {
+                    runStart = i;
+                }
+            }
+        }
+        if (runStart >= 0) {
+            fireContentsChanged(this, runStart, common - 1);
+        }
+        if (newNames.size() > common) {
+            names.addAll(newNames.subList(common, newNames.size()));
+            states.addAll(newStates.subList(common, newStates.size()));
+            fireIntervalAdded(this, common, newNames.size() - 1);
+        } else if (names.size() > common) {
+            int oldSize = names.size();
+            names.subList(common, oldSize).clear();
+            states.subList(common, oldSize).clear();
+            fireIntervalRemoved(this, common, oldSize - 1);
+        }
+    }
+}
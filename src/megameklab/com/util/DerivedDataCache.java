@@ -0,0 +1,503 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import megamek.MegaMek;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.Mech;
+import megamek.common.Mounted;
+import megamek.common.loaders.BLKFile;
+import megamek.common.logging.LogLevel;
+import megamek.common.verifier.TestEntity;
+import megameklab.com.MegaMekLab;
+import megameklab.com.printing.SheetFingerprint;
+import megameklab.com.ui.EntitySource;
+
+/**
+ * Keeps the values derived from a unit design, such as the battle value, cost, weight and
+ * validation report, in files under the configuration directory so they do not have to be
+ * calculated again in a later session. Entries are identified by a hash of the unit
+ * file, the mounted equipment and the crew, together with a stamp of the equipment data and
+ * verifier options they were calculated with, so an entry is never used for a unit or data set
+ * that differs from the one it was made from. Entries that are no longer used are removed
+ * oldest first once the cache grows past its size limit.
+ *
+ * Values are calculated the first time they are asked for and written to disk on a background
+ * thread.
+ *
+ * Looking up a unit by its content means encoding the whole unit, which is too slow for the
+ * editor to do on every refresh. The editor windows use {@link #lookupWindow(EntitySource)} instead,
+ * which keeps the values in memory until the window's unit is next marked as changed, and
+ * {@link #calculate(Entity)} for units that are only looked at once. The content-addressed store
+ * is used by the unit library, printing and the service mode.
+ */
+public class DerivedDataCache {
+
+    private static final File CACHE_DIR = new File(CConfig.CONFIG_DIR, "derived");
+    private static final String EXTENSION = ".properties";
+    private static final String VERIFIER_OPTIONS = "data/mechfiles/UnitVerifierOptions.xml";
+
+    // The total size of the entries on disk
+    private static final long MAX_DISK_BYTES = 16L * 1024 * 1024;
+    // The number of entries to keep in memory
+    private static final int MAX_ENTRIES = MemoryPolicy.choose(64, 16);
+
+    private static final String BV = "bv";
+    private static final String BV_IGNORE_C3 = "bv.ignoreC3";
+    private static final String BV_IGNORE_PILOT = "bv.ignorePilot";
+    private static final String BV_IGNORE_BOTH = "bv.ignoreC3.ignorePilot";
+    private static final String COST = "cost";
+    private static final String COST_IGNORE_AMMO = "cost.ignoreAmmo";
+    private static final String WEIGHT = "weight";
+    private static final String VALIDATION = "validation";
+
+    private static final Map<String, Properties> entries = new LinkedHashMap<String, Properties>(16, 0.75f, true) {
+        private static final long serialVersionUID = 2093817448560284151L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Properties> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // Entries with values that have not been written yet; guarded by the lock on entries
+    private static final Set<String> pendingWrites = new HashSet<>();
+    // The values for the current revision of the unit in each editor window
+    private static final Map<EntitySource, Entry> windowEntries = new WeakHashMap<>();
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Derived data writer");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private static String dataVersion = null;
+    // The size of the entries on disk, or -1 if the directory has not been scanned yet. Only
+    // accessed on the writer thread.
+    private static long diskBytes = -1;
+
+    private DerivedDataCache() {
+    }
+
+    /**
+     * The derived values for one state of a unit. Values not found in the cache are calculated
+     * from the unit on the calling thread when they are first asked for, so the entry should be
+     * used right away and not kept after the unit changes.
+     */
+    public static class Entry {
+        private final Entity unit;
+        private final String key;
+        private final Properties values;
+        // The revision of the window's unit, for entries made by lookup(EntitySource)
+        private final long revision;
+
+        Entry(Entity unit, String key, Properties values) {
+            this(unit, key, values, 0);
+        }
+
+        Entry(Entity unit, String key, Properties values, long revision) {
+            this.unit = unit;
+            this.key = key;
+            this.values = values;
+            this.revision = revision;
+        }
+
+        /**
+         * @return The battle value, including the crew skills and C3 network
+         */
+        public int getBattleValue() {
+            return Integer.parseInt(get(BV, () -> Diagnostics.time("calculateBattleValue",
+                    () -> Integer.toString(unit.calculateBattleValue()))));
+        }
+
+        /**
+         * @param ignoreC3    Whether to leave out the effect of the C3 network
+         * @param ignorePilot Whether to leave out the effect of the crew skills
+         * @return            The battle value
+         */
+        public int getBattleValue(boolean ignoreC3, boolean ignorePilot) {
+            final String name;
+            if (ignoreC3) {
+                name = ignorePilot ? BV_IGNORE_BOTH : BV_IGNORE_C3;
+            } else {
+                name = ignorePilot ? BV_IGNORE_PILOT : BV;
+            }
+            return Integer.parseInt(get(name, () -> Diagnostics.time("calculateBattleValue",
+                    () -> Integer.toString(unit.calculateBattleValue(ignoreC3, ignorePilot)))));
+        }
+
+        /**
+         * @param ignoreAmmo Whether to leave out the cost of ammunition
+         * @return           The cost in C-bills
+         */
+        public double getCost(boolean ignoreAmmo) {
+            return Double.parseDouble(get(ignoreAmmo ? COST_IGNORE_AMMO : COST,
+                    () -> Double.toString(unit.getCost(ignoreAmmo))));
+        }
+
+        /**
+         * @return The weight of the unit's components as calculated by the unit verifier, or zero
+         *         if there is no verifier for the unit type
+         */
+        public double getWeight() {
+            return Double.parseDouble(get(WEIGHT, () -> {
+                TestEntity testEntity = UnitUtil.getEntityVerifier(unit);
+                return Double.toString((null == testEntity) ? 0.0 : testEntity.calculateWeight());
+            }));
+        }
+
+        /**
+         * @return The validation report, which is empty if the unit is valid
+         * @see UnitUtil#validateUnit(Entity)
+         */
+        public String getValidation() {
+            return get(VALIDATION, () -> UnitUtil.validateUnit(unit));
+        }
+
+        private String get(String name, Supplier<String> calculation) {
+            synchronized (values) {
+                String value = values.getProperty(name);
+                if (null != value) {
+                    Diagnostics.count("DerivedDataCache hit");
+                    return value;
+                }
+            }
+            Diagnostics.count("DerivedDataCache miss");
+            final String value = calculation.get();
+            synchronized (values) {
+                values.setProperty(name, value);
+            }
+            if (null != key) {
+                scheduleWrite(key, values);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Finds the values for the unit in an editor window. The values are kept in memory and
+     * reused until the unit is marked as changed, without encoding the unit or writing to disk.
+     *
+     * @param source The window
+     * @return       The values for the window's unit
+     * @see UnitSnapshot#getRevision(EntitySource)
+     */
+    public static Entry lookupWindow(EntitySource source) {
+        final long revision = UnitSnapshot.getRevision(source);
+        final Entity unit = source.getEntity();
+        synchronized (windowEntries) {
+            Entry entry = windowEntries.get(source);
+            if ((null == entry) || (entry.revision != revision) || (entry.unit != unit)) {
+                entry = new Entry(unit, null, new Properties(), revision);
+                windowEntries.put(source, entry);
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Makes an entry for a unit that is not kept in the cache. Each value is calculated once
+     * for the entry, so the entry should be used right away and not kept after the unit changes.
+     *
+     * @param unit The unit
+     * @return     The values for the unit
+     */
+    public static Entry calculate(Entity unit) {
+        return new Entry(unit, null, new Properties());
+    }
+
+    /**
+     * Finds the cached values for the current state of a unit. This encodes the unit to
+     * identify it, so the editor should use {@link #lookupWindow(EntitySource)} for its own unit.
+     *
+     * @param unit The unit
+     * @return     The values for the unit
+     */
+    public static Entry lookup(Entity unit) {
+        final String key = contentKey(unit);
+        if (null == key) {
+            // The unit could not be encoded, so the values are calculated without being kept.
+            return new Entry(unit, null, new Properties());
+        }
+        Properties values;
+        synchronized (entries) {
+            values = entries.get(key);
+        }
+        if (null == values) {
+            values = read(key);
+            synchronized (entries) {
+                Properties existing = entries.putIfAbsent(key, values);
+                if (null != existing) {
+                    values = existing;
+                }
+            }
+        }
+        return new Entry(unit, key, values);
+    }
+
+    /**
+     * Removes all entries from memory and disk.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        writer.submit(() -> {
+            File[] files = CACHE_DIR.listFiles((dir, name) -> name.endsWith(EXTENSION));
+            if (null != files) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            diskBytes = 0;
+        });
+    }
+
+    /**
+     * Builds the key for a unit from the unit file, which covers the design, along with the
+     * mounted equipment, which covers equipment that the unit file leaves out because it has not
+     * been allocated, and the crew and manual BV, which are part of the battle value.
+     *
+     * @return The key, or null if the unit could not be encoded
+     */
+    static String contentKey(Entity unit) {
+        final String METHOD_NAME = "contentKey(Entity)";
+
+        StringBuilder sb = new StringBuilder(getDataVersion()).append('\n');
+        try {
+            sb.append(encode(unit));
+        } catch (Exception ex) {
+            MegaMekLab.getLogger().log(DerivedDataCache.class, METHOD_NAME, LogLevel.DEBUG,
+                    "Could not encode " + unit.getShortName() + ": " + ex);
+            return null;
+        }
+        sb.append('\n');
+        for (Mounted m : unit.getEquipment()) {
+            sb.append(m.getType().getInternalName()).append(',')
+                .append(m.getLocation()).append(',')
+                .append(m.getSecondLocation()).append(',')
+                .append(m.isRearMounted()).append(',')
+                .append(m.isMechTurretMounted()).append(',')
+                .append(m.isOmniPodMounted()).append(',')
+                .append(m.getUsableShotsLeft()).append(',')
+                .append((null == m.getLinked()) ? -1 : unit.getEquipmentNum(m.getLinked())).append('\n');
+        }
+        sb.append(unit.getManualBV()).append('\n')
+            .append(SheetFingerprint.crewKey(unit));
+        return digest(sb.toString());
+    }
+
+    private static String encode(Entity unit) throws Exception {
+        if (unit instanceof Mech) {
+            return ((Mech) unit).getMtf();
+        }
+        File temp = File.createTempFile("mml", ".blk");
+        try {
+            BLKFile.encode(temp.getAbsolutePath(), unit);
+            return new String(Files.readAllBytes(temp.toPath()), StandardCharsets.UTF_8);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Identifies the data the values are calculated from apart from the unit: the program
+     * versions, the equipment list and the unit verifier options. The equipment is identified
+     * by the names of all equipment types and the date of the library they are loaded from,
+     * which changes with any build of MegaMek.
+     */
+    private static synchronized String getDataVersion() {
+        final String METHOD_NAME = "getDataVersion()";
+
+        if (null == dataVersion) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(MegaMek.VERSION).append('\n').append(MegaMekLab.VERSION).append('\n');
+            Set<String> names = new TreeSet<>();
+            for (Enumeration<EquipmentType> e = EquipmentType.getAllTypes(); e.hasMoreElements(); ) {
+                EquipmentType eq = e.nextElement();
+                names.add(eq.getInternalName() + '=' + eq.getName());
+            }
+            for (String name : names) {
+                sb.append(name).append('\n');
+            }
+            try {
+                File library = new File(EquipmentType.class.getProtectionDomain().getCodeSource()
+                        .getLocation().toURI());
+                sb.append(library.lastModified()).append('\n');
+            } catch (Exception ex) {
+                // Without the library date the equipment names and version still identify the data
+                MegaMekLab.getLogger().log(DerivedDataCache.class, METHOD_NAME, LogLevel.DEBUG,
+                        "Could not find the equipment library: " + ex);
+            }
+            File options = new File(VERIFIER_OPTIONS);
+            if (options.exists()) {
+                try {
+                    sb.append(digest(new String(Files.readAllBytes(options.toPath()), StandardCharsets.UTF_8)));
+                } catch (IOException ex) {
+                    MegaMekLab.getLogger().log(DerivedDataCache.class, METHOD_NAME, ex);
+                }
+            }
+            dataVersion = digest(sb.toString());
+        }
+        return dataVersion;
+    }
+
+    private static Properties read(String key) {
+        final String METHOD_NAME = "read(String)";
+
+        Properties values = new Properties();
+        final File file = new File(CACHE_DIR, key + EXTENSION);
+        if (file.exists()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                values.load(in);
+                // Mark the entry as recently used so it is evicted last
+                writer.submit(() -> file.setLastModified(System.currentTimeMillis()));
+            } catch (IOException | IllegalArgumentException ex) {
+                MegaMekLab.getLogger().log(DerivedDataCache.class, METHOD_NAME, LogLevel.WARNING,
+                        "Discarding unreadable cache entry " + file + ": " + ex);
+                values = new Properties();
+            }
+        }
+        return values;
+    }
+
+    private static void scheduleWrite(String key, Properties values) {
+        synchronized (entries) {
+            if (!pendingWrites.add(key)) {
+                // The queued write will pick up the new value
+                return;
+            }
+        }
+        writer.submit(() -> {
+            synchronized (entries) {
+                pendingWrites.remove(key);
+            }
+            write(key, values);
+        });
+    }
+
+    /**
+     * Writes an entry and removes the least recently used entries if the cache is over its
+     * size limit. Runs on the writer thread.
+     */
+    private static void write(String key, Properties values) {
+        final String METHOD_NAME = "write(String,Properties)";
+
+        if (!CACHE_DIR.exists() && !CACHE_DIR.mkdirs()) {
+            MegaMekLab.getLogger().log(DerivedDataCache.class, METHOD_NAME, LogLevel.WARNING,
+                    "Could not create " + CACHE_DIR);
+            return;
+        }
+        if (diskBytes < 0) {
+            diskBytes = 0;
+            for (File file : listEntries()) {
+                diskBytes += file.length();
+            }
+        }
+        final File file = new File(CACHE_DIR, key + EXTENSION);
+        final long oldSize = file.exists() ? file.length() : 0;
+        try {
+            File temp = File.createTempFile(key, ".tmp", CACHE_DIR);
+            try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+                synchronized (values) {
+                    values.store(out, null);
+                }
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            MegaMekLab.getLogger().log(DerivedDataCache.class, METHOD_NAME, ex);
+            return;
+        }
+        diskBytes += file.length() - oldSize;
+        if (diskBytes > MAX_DISK_BYTES) {
+            evict(file);
+        }
+    }
+
+    /**
+     * Removes entries, least recently used first, until the cache is down to three quarters of
+     * its size limit so that eviction does not run on every write.
+     */
+    private static void evict(File keep) {
+        final String METHOD_NAME = "evict(File)";
+
+        File[] files = listEntries();
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        int removed = 0;
+        for (File file : files) {
+            if (diskBytes <= MAX_DISK_BYTES * 3 / 4) {
+                break;
+            }
+            if (file.equals(keep)) {
+                continue;
+            }
+            final long size = file.length();
+            if (file.delete()) {
+                diskBytes -= size;
+                removed++;
+            }
+        }
+        MegaMekLab.getLogger().log(DerivedDataCache.class, METHOD_NAME, LogLevel.DEBUG,
+                "Removed " + removed + " cache entries; " + diskBytes + " bytes remain");
+    }
+
+    private static File[] listEntries() {
+        File[] files = CACHE_DIR.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        return (null == files) ? new File[0] : files;
+    }
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
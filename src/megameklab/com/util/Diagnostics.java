@@ -0,0 +1,379 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+
+/**
+ * Counts and times the expensive editor operations, and watches the event dispatch thread for
+ * events that take long enough to make the editor unresponsive. When an event runs longer than
+ * the stall threshold, the stack of the event dispatch thread is sampled so the report shows
+ * what it was doing. The results are shown in the diagnostics dialog and can be saved as JSON to
+ * attach to a bug report.
+ *
+ * The threshold is 500 ms and can be set with the system property {@code megameklab.stall.ms}.
+ */
+public final class Diagnostics {
+
+    /** The timer for events dispatched on the event dispatch thread */
+    public static final String EDT_EVENT = "EDT event";
+
+    private static final long STALL_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("megameklab.stall.ms", 500));
+    // The number of stalls to keep
+    private static final int MAX_STALLS = 50;
+    // The number of stack frames logged for a stall; the dialog and dump show the whole stack
+    private static final int LOGGED_FRAMES = 12;
+
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private static final Deque<Stall> stalls = new ArrayDeque<>();
+    private static final long startTime = System.currentTimeMillis();
+
+    // The event being dispatched, read by the watchdog thread
+    private static volatile Dispatch current;
+    private static boolean watchdogInstalled = false;
+
+    private Diagnostics() {
+    }
+
+    private static class Timer {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+    }
+
+    /**
+     * The count and times of one operation at the time it was read.
+     */
+    public static class TimerStats {
+        private final String name;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        TimerStats(String name, long count, long totalNanos, long maxNanos) {
+            this.name = name;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getTotalMillis() {
+            return totalNanos / 1e6;
+        }
+
+        public double getMeanMillis() {
+            return (count == 0) ? 0 : totalNanos / 1e6 / count;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1e6;
+        }
+    }
+
+    /**
+     * An event that held up the event dispatch thread, with the stack sampled when it passed the
+     * threshold.
+     */
+    public static class Stall {
+        private final long time;
+        private final String event;
+        private final StackTraceElement[] stack;
+        private volatile long durationNanos;
+
+        Stall(long time, String event, StackTraceElement[] stack, long durationNanos) {
+            this.time = time;
+            this.event = event;
+            this.stack = stack;
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * @return When the event started, in milliseconds since the epoch
+         */
+        public long getTime() {
+            return time;
+        }
+
+        public String getEvent() {
+            return event;
+        }
+
+        public StackTraceElement[] getStack() {
+            return stack.clone();
+        }
+
+        /**
+         * @return How long the event took, or how long it had run so far if it has not finished
+         */
+        public double getDurationMillis() {
+            return durationNanos / 1e6;
+        }
+    }
+
+    private static class Dispatch {
+        final Thread thread;
+        final AWTEvent event;
+        final long wallStart = System.currentTimeMillis();
+        volatile long start;
+        volatile boolean nested;
+        volatile Stall stall;
+
+        Dispatch(Thread thread, AWTEvent event, long start) {
+            this.thread = thread;
+            this.event = event;
+            this.start = start;
+        }
+    }
+
+    /**
+     * Records one run of an operation.
+     *
+     * @param name       The operation
+     * @param startNanos The value of {@link System#nanoTime()} when the operation started
+     */
+    public static void record(String name, long startNanos) {
+        final long elapsed = System.nanoTime() - startNanos;
+        final Timer timer = timers.computeIfAbsent(name, n -> new Timer());
+        timer.count.increment();
+        timer.totalNanos.add(elapsed);
+        timer.maxNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    /**
+     * Counts an occurrence of something that is not timed, such as a cache hit.
+     *
+     * @param name The counter
+     */
+    public static void count(String name) {
+        timers.computeIfAbsent(name, n -> new Timer()).count.increment();
+    }
+
+    /**
+     * Runs and times an operation.
+     *
+     * @param name The operation
+     * @param task The operation
+     * @return     The result of the operation
+     */
+    public static <T> T time(String name, Supplier<T> task) {
+        final long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            record(name, start);
+        }
+    }
+
+    /**
+     * Times every event dispatched on the event dispatch thread and starts the thread that checks
+     * for stalls. Does nothing if called again.
+     */
+    public static synchronized void installWatchdog() {
+        if (watchdogInstalled) {
+            return;
+        }
+        watchdogInstalled = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimedEventQueue());
+        Thread watchdog = new Thread(Diagnostics::watch, "MegaMekLab EDT watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    private static class TimedEventQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            final long start = System.nanoTime();
+            final Dispatch outer = current;
+            if (null != outer) {
+                // A modal dialog or other secondary loop is dispatching events inside this one
+                outer.nested = true;
+            }
+            final Dispatch dispatch = new Dispatch(Thread.currentThread(), event, start);
+            current = dispatch;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                final long end = System.nanoTime();
+                if (null != dispatch.stall) {
+                    dispatch.stall.durationNanos = end - start;
+                }
+                if (!dispatch.nested) {
+                    record(EDT_EVENT, start);
+                }
+                if (null != outer) {
+                    outer.start = end;
+                }
+                current = outer;
+            }
+        }
+    }
+
+    private static void watch() {
+        final long interval = Math.max(TimeUnit.MILLISECONDS.toNanos(10), STALL_NANOS / 5);
+        while (true) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            final Dispatch dispatch = current;
+            if ((null == dispatch) || (null != dispatch.stall)) {
+                continue;
+            }
+            final long elapsed = System.nanoTime() - dispatch.start;
+            if (elapsed < STALL_NANOS) {
+                continue;
+            }
+            final StackTraceElement[] stack = dispatch.thread.getStackTrace();
+            if ((current != dispatch) || isWaitingForEvent(stack)) {
+                // The event finished, or a secondary loop is waiting for input
+                dispatch.start = System.nanoTime();
+                continue;
+            }
+            dispatch.stall = addStall(dispatch, stack, elapsed);
+        }
+    }
+
+    private static boolean isWaitingForEvent(StackTraceElement[] stack) {
+        for (int i = 0; i < Math.min(stack.length, 8); i++) {
+            if (stack[i].getClassName().equals(EventQueue.class.getName())
+                    && stack[i].getMethodName().equals("getNextEvent")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Stall addStall(Dispatch dispatch, StackTraceElement[] stack, long elapsed) {
+        final String METHOD_NAME = "addStall(Dispatch,StackTraceElement[],long)";
+
+        final AWTEvent event = dispatch.event;
+        final String description = event.getClass().getSimpleName() + " " + event.paramString()
+                + " on " + event.getSource().getClass().getName();
+        final Stall stall = new Stall(dispatch.wallStart, description, stack, elapsed);
+        synchronized (stalls) {
+            stalls.addLast(stall);
+            while (stalls.size() > MAX_STALLS) {
+                stalls.removeFirst();
+            }
+        }
+        StringBuilder sb = new StringBuilder("The event dispatch thread has been busy for ")
+                .append(elapsed / 1000000).append(" ms with ").append(description);
+        for (int i = 0; i < Math.min(stack.length, LOGGED_FRAMES); i++) {
+            sb.append(System.lineSeparator()).append("\tat ").append(stack[i]);
+        }
+        MegaMekLab.getLogger().log(Diagnostics.class, METHOD_NAME, LogLevel.WARNING, sb.toString());
+        return stall;
+    }
+
+    /**
+     * @return The counters and timers, sorted by total time
+     */
+    public static List<TimerStats> getTimers() {
+        List<TimerStats> retVal = new ArrayList<>();
+        for (Map.Entry<String, Timer> e : timers.entrySet()) {
+            final Timer timer = e.getValue();
+            retVal.add(new TimerStats(e.getKey(), timer.count.sum(), timer.totalNanos.sum(),
+                    timer.maxNanos.get()));
+        }
+        retVal.sort(Comparator.comparingDouble(TimerStats::getTotalMillis).reversed()
+                .thenComparing(TimerStats::getName));
+        return retVal;
+    }
+
+    /**
+     * @return The most recent stalls, oldest first
+     */
+    public static List<Stall> getStalls() {
+        synchronized (stalls) {
+            return new ArrayList<>(stalls);
+        }
+    }
+
+    /**
+     * Clears the timers and the list of stalls.
+     */
+    public static void reset() {
+        timers.clear();
+        synchronized (stalls) {
+            stalls.clear();
+        }
+    }
+
+    /**
+     * @return The timers and stalls as a JSON object
+     */
+    public static String toJson() {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("version", MegaMekLab.VERSION);
+        root.put("javaVersion", System.getProperty("java.version"));
+        root.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        root.put("maxMemory", Runtime.getRuntime().maxMemory());
+        root.put("started", startTime);
+        root.put("time", System.currentTimeMillis());
+        root.put("stallThresholdMillis", STALL_NANOS / 1e6);
+        List<Object> timerList = new ArrayList<>();
+        for (TimerStats stats : getTimers()) {
+            Map<String, Object> timer = new LinkedHashMap<>();
+            timer.put("name", stats.getName());
+            timer.put("count", stats.getCount());
+            timer.put("totalMillis", stats.getTotalMillis());
+            timer.put("meanMillis", stats.getMeanMillis());
+            timer.put("maxMillis", stats.getMaxMillis());
+            timerList.add(timer);
+        }
+        root.put("timers", timerList);
+        List<Object> stallList = new ArrayList<>();
+        for (Stall stall : getStalls()) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("time", stall.getTime());
+            s.put("durationMillis", stall.getDurationMillis());
+            s.put("event", stall.getEvent());
+            List<Object> frames = new ArrayList<>();
+            for (StackTraceElement frame : stall.stack) {
+                frames.add(frame.toString());
+            }
+            s.put("stack", frames);
+            stallList.add(s);
+        }
+        root.put("stalls", stallList);
+        return Json.write(root);
+    }
+}
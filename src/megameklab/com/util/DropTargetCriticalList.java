@@ -28,6 +28,7 @@ import java.util.Vector;
 import javax.swing.JList;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
+import javax.swing.ListModel;
 
 import megamek.common.CriticalSlot;
 import megamek.common.Entity;
@@ -60,6 +61,17 @@ public class DropTargetCriticalList<E> extends JList<E> implements MouseListener
         setTransferHandler(new CriticalTransferHandler(eSource, refresh));
     }
 
+    public DropTargetCriticalList(ListModel<E> model, EntitySource eSource,
+            RefreshListener refresh, boolean buildView) {
+        super(model);
+        this.eSource = eSource;
+        this.refresh = refresh;
+        this.buildView = buildView;
+        setCellRenderer(new CritListCellRenderer(eSource.getEntity(), buildView));
+        addMouseListener(this);
+        setTransferHandler(new CriticalTransferHandler(eSource, refresh));
+    }
+
     public void dragEnter(DropTargetDragEvent dtde) {
     }
 
@@ -0,0 +1,257 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import megamek.common.Aero;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.Mech;
+
+/**
+ * Lookup table for the equipment placement rules in {@link UnitUtil}. For each unit configuration
+ * (unit class and type flags, support vehicle status, and the Mech cockpit type, industrial and
+ * superheavy status) the rules are evaluated once for every equipment type, giving a bitmask of
+ * the locations the equipment may be mounted in and a word of category flags. Later checks for a
+ * unit with the same configuration are array lookups.
+ *
+ * Equipment types that were not present when the table was compiled and locations beyond the
+ * range of the mask fall back to evaluating the rules directly.
+ *
+ * The configuration has to cover everything the rules read from the unit. The weight is left out
+ * so that changing the tonnage does not compile a new table. The only rules that read it are the
+ * weapon category checks of {@link EquipmentType#getTonnage(Entity)}, which depends on the unit
+ * only for variable weight equipment, so the categories of those few types are always evaluated
+ * directly. Any change to the rules that reads something else from the unit must add it to
+ * {@link Configuration}; EquipmentLocationRulesCheck under benchmarks compares the tables with
+ * the rules on randomly changed units.
+ */
+public class EquipmentLocationRules {
+
+    /** Category flag for {@link UnitUtil#isMechWeapon(EquipmentType, Entity)} */
+    public static final int MECH_WEAPON    = 1;
+    /** Category flag for {@link UnitUtil#isMechEquipment(EquipmentType, Mech)} */
+    public static final int MECH_EQUIPMENT = 1 << 1;
+    /** Category flag for {@link UnitUtil#isAeroWeapon(EquipmentType, Aero)} */
+    public static final int AERO_WEAPON    = 1 << 2;
+    /** Category flag for {@link UnitUtil#isTankWeapon(EquipmentType, Entity)} */
+    public static final int TANK_WEAPON    = 1 << 3;
+    /** Category flag for {@link UnitUtil#isBattleArmorWeapon(EquipmentType, Entity)} */
+    public static final int BA_WEAPON      = 1 << 4;
+
+    // The number of locations covered by the location mask
+    private static final int MAX_LOCATIONS = Integer.SIZE;
+
+    private static final Map<Configuration, EquipmentLocationRules> tables = new ConcurrentHashMap<>();
+
+    // Assigns each equipment type a position in the table arrays
+    private static Map<EquipmentType, Integer> typeIndex = null;
+
+    private final Map<EquipmentType, Integer> index;
+    private final int[] locationMasks;
+    private final int[] categories;
+    // Types whose tonnage depends on the unit, for which the categories are not compiled
+    private final boolean[] variableTonnage;
+    // The category flags that were evaluated for this configuration
+    private final int compiledCategories;
+
+    /**
+     * @param unit The unit
+     * @return     The rule table for the unit's configuration, compiling it if this is the first
+     *             unit seen with that configuration
+     */
+    public static EquipmentLocationRules forUnit(Entity unit) {
+        final Configuration config = new Configuration(unit);
+        EquipmentLocationRules rules = tables.get(config);
+        if (null == rules) {
+            rules = new EquipmentLocationRules(unit);
+            // A table compiled before the equipment was loaded is empty and is not kept.
+            if (!rules.index.isEmpty()) {
+                EquipmentLocationRules existing = tables.putIfAbsent(config, rules);
+                if (null != existing) {
+                    rules = existing;
+                }
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Determines whether equipment may be mounted in a location on a unit.
+     *
+     * @param unit     The unit
+     * @param eq       The equipment type
+     * @param location The location index
+     * @return         Whether the equipment may be mounted in the location
+     */
+    public static boolean isValidLocation(Entity unit, EquipmentType eq, int location) {
+        final EquipmentLocationRules rules = forUnit(unit);
+        final Integer i = rules.index.get(eq);
+        if ((null == i) || (location < 0) || (location >= MAX_LOCATIONS)) {
+            return UnitUtil.computeValidLocation(unit, eq, location);
+        }
+        return (rules.locationMasks[i] & (1 << location)) != 0;
+    }
+
+    /**
+     * Checks one of the equipment category rules for a unit.
+     *
+     * @param unit     The unit
+     * @param eq       The equipment type
+     * @param category One of the category flags defined in this class
+     * @return         Whether the equipment belongs to the category for the unit
+     */
+    public static boolean hasCategory(Entity unit, EquipmentType eq, int category) {
+        final EquipmentLocationRules rules = forUnit(unit);
+        final Integer i = rules.index.get(eq);
+        if ((null == i) || ((rules.compiledCategories & category) == 0)
+                || rules.variableTonnage[i]) {
+            return computeCategory(unit, eq, category);
+        }
+        return (rules.categories[i] & category) != 0;
+    }
+
+    private EquipmentLocationRules(Entity unit) {
+        index = getTypeIndex();
+        locationMasks = new int[index.size()];
+        categories = new int[index.size()];
+        variableTonnage = new boolean[index.size()];
+
+        int compiled = TANK_WEAPON | BA_WEAPON;
+        if (unit instanceof Mech) {
+            compiled |= MECH_WEAPON | MECH_EQUIPMENT;
+        }
+        if (unit instanceof Aero) {
+            compiled |= AERO_WEAPON;
+        }
+        compiledCategories = compiled;
+
+        for (Map.Entry<EquipmentType, Integer> entry : index.entrySet()) {
+            final EquipmentType eq = entry.getKey();
+            final int i = entry.getValue();
+            int mask = 0;
+            for (int loc = 0; loc < MAX_LOCATIONS; loc++) {
+                if (UnitUtil.computeValidLocation(unit, eq, loc)) {
+                    mask |= 1 << loc;
+                }
+            }
+            locationMasks[i] = mask;
+            if (eq.getTonnage(null) == EquipmentType.TONNAGE_VARIABLE) {
+                variableTonnage[i] = true;
+                continue;
+            }
+            int flags = 0;
+            for (int category = 1; category <= BA_WEAPON; category <<= 1) {
+                if (((compiledCategories & category) != 0) && computeCategory(unit, eq, category)) {
+                    flags |= category;
+                }
+            }
+            categories[i] = flags;
+        }
+    }
+
+    private static boolean computeCategory(Entity unit, EquipmentType eq, int category) {
+        switch (category) {
+            case MECH_WEAPON:
+                return UnitUtil.computeMechWeapon(eq, unit);
+            case MECH_EQUIPMENT:
+                return UnitUtil.computeMechEquipment(eq, (Mech) unit);
+            case AERO_WEAPON:
+                return UnitUtil.computeAeroWeapon(eq, (Aero) unit);
+            case TANK_WEAPON:
+                return UnitUtil.computeTankWeapon(eq, unit);
+            case BA_WEAPON:
+                return UnitUtil.computeBattleArmorWeapon(eq, unit);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Numbers the equipment types the first time a table is compiled after the equipment has
+     * been loaded.
+     */
+    private static synchronized Map<EquipmentType, Integer> getTypeIndex() {
+        if (null == typeIndex) {
+            List<EquipmentType> list = new ArrayList<>();
+            for (Enumeration<EquipmentType> e = EquipmentType.getAllTypes(); e.hasMoreElements(); ) {
+                list.add(e.nextElement());
+            }
+            if (list.isEmpty()) {
+                // Equipment has not been initialized yet; check back on the next table.
+                return new IdentityHashMap<>();
+            }
+            Map<EquipmentType, Integer> map = new IdentityHashMap<>();
+            for (int i = 0; i < list.size(); i++) {
+                map.put(list.get(i), i);
+            }
+            typeIndex = map;
+        }
+        return typeIndex;
+    }
+
+    /**
+     * The properties of a unit that the placement rules depend on.
+     */
+    private static class Configuration {
+        private final Class<?> unitClass;
+        private final long entityType;
+        private final boolean supportVehicle;
+        private final int cockpitType;
+        private final boolean industrial;
+        private final boolean superHeavy;
+
+        Configuration(Entity unit) {
+            unitClass = unit.getClass();
+            entityType = unit.getEntityType();
+            supportVehicle = unit.isSupportVehicle();
+            if (unit instanceof Mech) {
+                cockpitType = ((Mech) unit).getCockpitType();
+                industrial = ((Mech) unit).isIndustrial();
+                superHeavy = unit.isSuperHeavy();
+            } else {
+                cockpitType = -1;
+                industrial = false;
+                superHeavy = false;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Configuration)) {
+                return false;
+            }
+            Configuration other = (Configuration) o;
+            return (unitClass == other.unitClass) && (entityType == other.entityType)
+                    && (supportVehicle == other.supportVehicle) && (cockpitType == other.cockpitType)
+                    && (industrial == other.industrial) && (superHeavy == other.superHeavy);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(unitClass, entityType, supportVehicle, cockpitType, industrial,
+                    superHeavy);
+        }
+    }
+}
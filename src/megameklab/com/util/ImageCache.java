@@ -0,0 +1,203 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.ImageIcon;
+
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+
+/**
+ * Loads the bitmap record sheet backgrounds and fluff images. Images are decoded with ImageIO
+ * and the most recently used are kept up to a total size. Images pushed out of that budget are
+ * held by soft references, so they can be reused until the garbage collector needs the memory.
+ *
+ * The budget defaults to a size chosen by {@link MemoryPolicy} and can be set in megabytes with
+ * the system property {@code megameklab.imagecache.mb}.
+ */
+public final class ImageCache {
+
+    private static final long MAX_BYTES = Long.getLong("megameklab.imagecache.mb",
+            MemoryPolicy.choose(64L, 16L)) * 1024 * 1024;
+    // The number of evicted images to track by soft reference
+    private static final int MAX_SOFT_ENTRIES = 256;
+
+    private static class Entry {
+        final BufferedImage image;
+        final long lastModified;
+        final long bytes;
+
+        Entry(BufferedImage image, long lastModified) {
+            this.image = image;
+            this.lastModified = lastModified;
+            final DataBuffer data = image.getRaster().getDataBuffer();
+            bytes = (long) data.getSize() * data.getNumBanks()
+                    * DataBuffer.getDataTypeSize(data.getDataType()) / 8;
+        }
+    }
+
+    private static final Map<String, Entry> images = new LinkedHashMap<>(16, 0.75f, true);
+    private static long totalBytes = 0;
+
+    private static final Map<String, SoftReference<Entry>> evicted = new LinkedHashMap<String, SoftReference<Entry>>(
+            16, 0.75f, true) {
+        private static final long serialVersionUID = 5370263532738452171L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SoftReference<Entry>> eldest) {
+            return size() > MAX_SOFT_ENTRIES;
+        }
+    };
+
+    private ImageCache() {
+    }
+
+    /**
+     * Loads an image at full resolution.
+     *
+     * @param file The image file
+     * @return     The image. If the file cannot be decoded, this is an image with a width and
+     *             height of -1, as {@link ImageIcon} returns.
+     */
+    public static Image getImage(File file) {
+        return getImage(file, 0, 0);
+    }
+
+    /**
+     * Loads an image, decoding only every nth pixel in each direction when the image is at least
+     * twice the size needed. The result is never smaller than the given size in either dimension
+     * and keeps the aspect ratio of the file.
+     *
+     * @param file      The image file
+     * @param minWidth  The smallest width the image will be drawn at in device pixels, or 0 for
+     *                  full resolution
+     * @param minHeight The smallest height the image will be drawn at in device pixels, or 0 for
+     *                  full resolution
+     * @return          The image. If the file cannot be decoded, this is an image with a width
+     *                  and height of -1, as {@link ImageIcon} returns.
+     */
+    public static Image getImage(File file, int minWidth, int minHeight) {
+        final String METHOD_NAME = "getImage(File,int,int)";
+
+        final String key = file.getAbsolutePath() + "|" + minWidth + "x" + minHeight;
+        final long lastModified = file.lastModified();
+        Entry entry = lookup(key, lastModified);
+        if (null != entry) {
+            return entry.image;
+        }
+        BufferedImage image = null;
+        if (lastModified > 0) {
+            try {
+                image = decode(file, minWidth, minHeight);
+            } catch (IOException | RuntimeException e) {
+                MegaMekLab.getLogger().log(ImageCache.class, METHOD_NAME, LogLevel.WARNING,
+                        "Could not decode " + file + ": " + e.getMessage());
+            }
+        }
+        if (null == image) {
+            // Keeps the behavior callers expect from ImageIcon for missing or unreadable files,
+            // without leaving the file in the toolkit image cache.
+            return new ImageIcon(Toolkit.getDefaultToolkit().createImage(file.getAbsolutePath())).getImage();
+        }
+        store(key, new Entry(image, lastModified));
+        return image;
+    }
+
+    /**
+     * Releases all cached images.
+     */
+    public static synchronized void clear() {
+        images.clear();
+        evicted.clear();
+        totalBytes = 0;
+    }
+
+    private static synchronized Entry lookup(String key, long lastModified) {
+        Entry entry = images.get(key);
+        if (null == entry) {
+            final SoftReference<Entry> ref = evicted.remove(key);
+            entry = (null == ref) ? null : ref.get();
+            if ((null != entry) && (entry.lastModified == lastModified)) {
+                store(key, entry);
+                return entry;
+            }
+            // A stale evicted image was never counted in totalBytes, so just drop it
+            return null;
+        }
+        if (entry.lastModified != lastModified) {
+            totalBytes -= entry.bytes;
+            images.remove(key);
+            entry = null;
+        }
+        return entry;
+    }
+
+    private static synchronized void store(String key, Entry entry) {
+        final Entry old = images.put(key, entry);
+        if (null != old) {
+            totalBytes -= old.bytes;
+        }
+        totalBytes += entry.bytes;
+        for (Iterator<Map.Entry<String, Entry>> iter = images.entrySet().iterator();
+                (totalBytes > MAX_BYTES) && iter.hasNext(); ) {
+            Map.Entry<String, Entry> eldest = iter.next();
+            if (eldest.getValue() != entry) {
+                totalBytes -= eldest.getValue().bytes;
+                evicted.put(eldest.getKey(), new SoftReference<>(eldest.getValue()));
+                iter.remove();
+            }
+        }
+    }
+
+    private static BufferedImage decode(File file, int minWidth, int minHeight) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            if (null == in) {
+                return null;
+            }
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            final ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                final ImageReadParam param = reader.getDefaultReadParam();
+                if ((minWidth > 0) && (minHeight > 0)) {
+                    final int step = Math.min(reader.getWidth(0) / minWidth, reader.getHeight(0) / minHeight);
+                    if (step > 1) {
+                        param.setSourceSubsampling(step, step, 0, 0);
+                    }
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
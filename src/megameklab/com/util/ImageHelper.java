@@ -37,7 +37,6 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Vector;
 
-import javax.swing.ImageIcon;
 
 import com.kitfox.svg.SVGDiagram;
 import com.kitfox.svg.SVGUniverse;
@@ -78,6 +77,10 @@ public class ImageHelper {
 
     public static Image armorPip = null;
 
+    // Fluff images are drawn at most about two inches across. Larger files are decoded at reduced
+    // resolution, keeping at least this many pixels in each direction, enough for 600 dpi.
+    private static final int FLUFF_MIN_SIZE = 1200;
+
     public static Image getRecordSheet(Entity unit) {
         return ImageHelper.getRecordSheet(unit, false);
     }
@@ -90,77 +93,68 @@ public class ImageHelper {
                 + File.separatorChar;
         if (unit instanceof BipedMech) {
             if (advanced) {
-                recordSheet = new ImageIcon(path + "tobiped.png").getImage();
+                recordSheet = ImageCache.getImage(new File(path + "tobiped.png"));
             } else {
-                recordSheet = new ImageIcon(path + "twbiped.png").getImage();
+                recordSheet = ImageCache.getImage(new File(path + "twbiped.png"));
             }
         } else if (unit instanceof QuadMech) {
             if (advanced) {
-                recordSheet = new ImageIcon(path + "toquad.png").getImage();
+                recordSheet = ImageCache.getImage(new File(path + "toquad.png"));
             } else {
-                recordSheet = new ImageIcon(path + "twquad.png").getImage();
+                recordSheet = ImageCache.getImage(new File(path + "twquad.png"));
             }
         } else if (unit instanceof VTOL) {
-            recordSheet = new ImageIcon(path + "twvee-vtol.png").getImage();
+            recordSheet = ImageCache.getImage(new File(path + "twvee-vtol.png"));
         } else if ((unit instanceof LargeSupportTank)
                 || ((unit instanceof Tank) && ((Tank) unit).isSuperHeavy())) {
             if (unit.getOInternal(LargeSupportTank.LOC_TURRET) > 0) {
-                recordSheet = new ImageIcon(path
-                        + "twvee-lgsupground-turret.png").getImage();
+                recordSheet = ImageCache.getImage(new File(path + "twvee-lgsupground-turret.png"));
             } else {
-                recordSheet = new ImageIcon(path + "twvee-lgsupground.png")
-                        .getImage();
+                recordSheet = ImageCache.getImage(new File(path + "twvee-lgsupground.png"));
             }
         } else if (unit instanceof Tank) {
             if ((unit.getMovementMode() == EntityMovementMode.NAVAL)
                     || (unit.getMovementMode() == EntityMovementMode.SUBMARINE)
                     || (unit.getMovementMode() == EntityMovementMode.HYDROFOIL)) {
                 if (unit.getOInternal(((Tank) unit).getLocTurret()) > 0) {
-                    recordSheet = new ImageIcon(path + "twnaval-turret.png")
-                            .getImage();
+                    recordSheet = ImageCache.getImage(new File(path + "twnaval-turret.png"));
                 } else {
-                    recordSheet = new ImageIcon(path + "twnaval.png")
-                            .getImage();
+                    recordSheet = ImageCache.getImage(new File(path + "twnaval.png"));
                 }
             } else if (advanced) {
                 String imageName = "twvee-"
                         + unit.getMovementModeAsString().toLowerCase().trim()
                         + "-dualturret.png";
-                recordSheet = new ImageIcon(path + imageName).getImage();
+                recordSheet = ImageCache.getImage(new File(path + imageName));
             } else {
                 String imageName = "twvee-"
                         + unit.getMovementModeAsString().toLowerCase().trim()
                         + ".png";
-                recordSheet = new ImageIcon(path + imageName).getImage();
+                recordSheet = ImageCache.getImage(new File(path + imageName));
             }
         } else if (unit instanceof Aero) {
             if (unit instanceof Dropship) {
                 if (unit.getMovementMode() == EntityMovementMode.AERODYNE) {
-                    recordSheet = new ImageIcon(path + "twaerodyneds.png")
-                            .getImage();
+                    recordSheet = ImageCache.getImage(new File(path + "twaerodyneds.png"));
                 } else {
-                    recordSheet = new ImageIcon(path + "twspheroidds.png")
-                            .getImage();
+                    recordSheet = ImageCache.getImage(new File(path + "twspheroidds.png"));
                 }
             } else if (unit instanceof ConvFighter) {
-                recordSheet = new ImageIcon(path + "twconventionalfighter.png")
-                        .getImage();
+                recordSheet = ImageCache.getImage(new File(path + "twconventionalfighter.png"));
             } else if (unit instanceof SmallCraft) {
                 if (unit.getMovementMode() == EntityMovementMode.AERODYNE) {
-                    recordSheet = new ImageIcon(path + "twaero-smallcraft.png")
-                            .getImage();
+                    recordSheet = ImageCache.getImage(new File(path + "twaero-smallcraft.png"));
                 } else {
-                    recordSheet = new ImageIcon(path
-                            + "twspheroid-smallcraft.png").getImage();
+                    recordSheet = ImageCache.getImage(new File(path + "twspheroid-smallcraft.png"));
                 }
 
             } else {
-                recordSheet = new ImageIcon(path + "twaero.png").getImage();
+                recordSheet = ImageCache.getImage(new File(path + "twaero.png"));
             }
         } else if (unit instanceof BattleArmor) {
-            recordSheet = new ImageIcon(path + "twba.png").getImage();
+            recordSheet = ImageCache.getImage(new File(path + "twba.png"));
         } else if (unit instanceof Protomech) {
-            recordSheet = new ImageIcon(path + "twproto.png").getImage();
+            recordSheet = ImageCache.getImage(new File(path + "twproto.png"));
         }
 
         return recordSheet;
@@ -169,37 +163,35 @@ public class ImageHelper {
     public static Image getGyroPipImage() {
         String path = new File(recordSheetPath).getAbsolutePath()
                 + File.separatorChar;
-        Image image = new ImageIcon(path + "gyropip.png").getImage();
+        Image image = ImageCache.getImage(new File(path + "gyropip.png"));
         return image;
     }
 
     public static Image getUMImage() {
         String path = new File(recordSheetPath).getAbsolutePath()
                 + File.separatorChar;
-        Image image = new ImageIcon(path + "UM.png").getImage();
+        Image image = ImageCache.getImage(new File(path + "UM.png"));
         return image;
     }
 
     public static Image getShieldImage() {
         String path = new File(recordSheetPath).getAbsolutePath()
                 + File.separatorChar;
-        Image image = new ImageIcon(path + "twbiped-shields.png").getImage();
+        Image image = ImageCache.getImage(new File(path + "twbiped-shields.png"));
         return image;
     }
 
     public static Image getRightShieldImage() {
         String path = new File(recordSheetPath).getAbsolutePath()
                 + File.separatorChar;
-        Image image = new ImageIcon(path + "twbiped-shield-right.png")
-                .getImage();
+        Image image = ImageCache.getImage(new File(path + "twbiped-shield-right.png"));
         return image;
     }
 
     public static Image getLeftShieldImage() {
         String path = new File(recordSheetPath).getAbsolutePath()
                 + File.separatorChar;
-        Image image = new ImageIcon(path + "twbiped-shield-left.png")
-                .getImage();
+        Image image = ImageCache.getImage(new File(path + "twbiped-shield-left.png"));
         return image;
     }
     
@@ -265,7 +257,7 @@ public class ImageHelper {
                 return null;
             }
         }
-        fluff = new ImageIcon(path).getImage();
+        fluff = ImageCache.getImage(new File(path), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
         return fluff;
     }
 
@@ -290,7 +282,7 @@ public class ImageHelper {
         }
 
         if (fluff == null) {
-            fluff = new ImageIcon(path + "hud.png").getImage();
+            fluff = ImageCache.getImage(new File(path + "hud.png"), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
         }
         return fluff;
     }
@@ -301,20 +293,20 @@ public class ImageHelper {
         String fluffFile = path + unit.getChassis() + " " + unit.getModel()
                 + ".png";
         if (new File(fluffFile.toLowerCase()).exists()) {
-            fluff = new ImageIcon(fluffFile).getImage();
+            fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
         }
 
         if (fluff == null) {
             fluffFile = path + unit.getModel() + ".png";
             if (new File(fluffFile.toLowerCase()).exists()) {
-                fluff = new ImageIcon(fluffFile).getImage();
+                fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
             }
         }
 
         if (fluff == null) {
             fluffFile = path + unit.getChassis() + ".png";
             if (new File(fluffFile.toLowerCase()).exists()) {
-                fluff = new ImageIcon(fluffFile).getImage();
+                fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
             }
         }
 
@@ -327,20 +319,20 @@ public class ImageHelper {
         String fluffFile = path + unit.getChassis() + " " + unit.getModel()
                 + ".jpg";
         if (new File(fluffFile.toLowerCase()).exists()) {
-            fluff = new ImageIcon(fluffFile).getImage();
+            fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
         }
 
         if (fluff == null) {
             fluffFile = path + unit.getModel() + ".jpg";
             if (new File(fluffFile.toLowerCase()).exists()) {
-                fluff = new ImageIcon(fluffFile).getImage();
+                fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
             }
         }
 
         if (fluff == null) {
             fluffFile = path + unit.getChassis() + ".jpg";
             if (new File(fluffFile.toLowerCase()).exists()) {
-                fluff = new ImageIcon(fluffFile).getImage();
+                fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
             }
         }
 
@@ -353,20 +345,20 @@ public class ImageHelper {
         String fluffFile = path + unit.getChassis() + " " + unit.getModel()
                 + ".gif";
         if (new File(fluffFile.toLowerCase()).exists()) {
-            fluff = new ImageIcon(fluffFile).getImage();
+            fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
         }
 
         if (fluff == null) {
             fluffFile = path + unit.getModel() + ".gif";
             if (new File(fluffFile.toLowerCase()).exists()) {
-                fluff = new ImageIcon(fluffFile).getImage();
+                fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
             }
         }
 
         if (fluff == null) {
             fluffFile = path + unit.getChassis() + ".gif";
             if (new File(fluffFile.toLowerCase()).exists()) {
-                fluff = new ImageIcon(fluffFile).getImage();
+                fluff = ImageCache.getImage(new File(fluffFile), FLUFF_MIN_SIZE, FLUFF_MIN_SIZE);
             }
         }
 
@@ -1218,7 +1210,7 @@ public class ImageHelper {
         if (armorPip == null) {
             String path = new File(recordSheetPath).getAbsolutePath()
                     + File.separatorChar;
-            armorPip = new ImageIcon(path + "armordot.png").getImage();
+            armorPip = ImageCache.getImage(new File(path + "armordot.png"));
         }
         // armorPip.setAccelerationPriority(1);
         g2d.drawImage(armorPip, (int) width, (int) height, 6, 6, null);
@@ -1261,7 +1253,7 @@ public class ImageHelper {
     public static void drawDiamond(Graphics2D g2d, int xPos, int yPos) {
         String path = new File(recordSheetPath).getAbsolutePath()
                 + File.separatorChar;
-        Image img = new ImageIcon(path + "shielddiamond.png").getImage();
+        Image img = ImageCache.getImage(new File(path + "shielddiamond.png"));
         g2d.drawImage(img, xPos, yPos, 5, 5, null);
 
     }
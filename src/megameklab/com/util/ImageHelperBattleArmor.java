@@ -25,7 +25,6 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 
-import javax.swing.ImageIcon;
 
 import megamek.common.AmmoType;
 import megamek.common.BattleArmor;
@@ -60,12 +59,12 @@ public class ImageHelperBattleArmor {
 
     public static Image getBATrooper(int position) {
         String path = new File(ImageHelper.recordSheetPath).getAbsolutePath() + File.separatorChar;
-        return new ImageIcon(path + "twba-trooper" + position + ".png").getImage();
+        return ImageCache.getImage(new File(path + "twba-trooper" + position + ".png"));
     }
 
     public static Image getBACheckBox() {
         String path = new File(ImageHelper.recordSheetPath).getAbsolutePath() + File.separatorChar;
-        return new ImageIcon(path + "checkbox.png").getImage();
+        return ImageCache.getImage(new File(path + "checkbox.png"));
     }
 
     public static void printBAArmor(BattleArmor ba, Graphics2D g2d, float lineFeed, float offset) {
@@ -428,7 +427,7 @@ public class ImageHelperBattleArmor {
 
     public static Image getBASquad() {
         String path = new File(ImageHelper.recordSheetPath).getAbsolutePath() + File.separatorChar;
-        return new ImageIcon(path + "twba-squad.png").getImage();
+        return ImageCache.getImage(new File(path + "twba-squad.png"));
     }
 
     public static Font getBattleArmorWeaponsNEquipmentFont(Graphics2D g2d, boolean bold, float stringHeight, ArrayList<ArrayList<EquipmentInfo>> equipmentLocations, float pointSize) {
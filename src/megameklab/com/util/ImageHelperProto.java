@@ -26,7 +26,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Vector;
 
-import javax.swing.ImageIcon;
 
 import megamek.common.AmmoType;
 import megamek.common.Entity;
@@ -46,17 +45,17 @@ public class ImageHelperProto {
         String path = new File(ImageHelper.recordSheetPath).getAbsolutePath() + File.separatorChar;
 
         if (number == 2) {
-            return new ImageIcon(path + "twproto-singlemiddle.png").getImage();
+            return ImageCache.getImage(new File(path + "twproto-singlemiddle.png"));
         }
 
-        return new ImageIcon(path + "twproto-singletop.png").getImage();
+        return ImageCache.getImage(new File(path + "twproto-singletop.png"));
     }
 
     public static Image getProtoLogo() {
 
         String path = new File(ImageHelper.recordSheetPath).getAbsolutePath() + File.separatorChar;
 
-        return new ImageIcon(path + "twproto-logo.png").getImage();
+        return ImageCache.getImage(new File(path + "twproto-logo.png"));
 
     }
 
@@ -27,7 +27,6 @@ import java.util.Collections;
 import java.util.Hashtable;
 import java.util.Vector;
 
-import javax.swing.ImageIcon;
 
 import megamek.common.AmmoType;
 import megamek.common.Bay;
@@ -47,9 +46,9 @@ public class ImageHelperVehicle {
         String path = new File(ImageHelper.recordSheetPath).getAbsolutePath() + File.separatorChar;
 
         if (unit instanceof VTOL) {
-            table = new ImageIcon(path + "twvee-vtoltables.png").getImage();
+            table = ImageCache.getImage(new File(path + "twvee-vtoltables.png"));
         } else if (unit instanceof Tank) {
-            table = new ImageIcon(path + "twvee-groundtables.png").getImage();
+            table = ImageCache.getImage(new File(path + "twvee-groundtables.png"));
         }
         return table;
     }
@@ -59,9 +58,9 @@ public class ImageHelperVehicle {
         String path = new File(ImageHelper.recordSheetPath).getAbsolutePath() + File.separatorChar;
 
         if ((unit instanceof Tank) && (unit.getMovementMode() == EntityMovementMode.WIGE)) {
-            table = new ImageIcon(path + "twvee-wige-turret.png").getImage();
+            table = ImageCache.getImage(new File(path + "twvee-wige-turret.png"));
         } else {
-            table = new ImageIcon(path + "twvee-turret.png").getImage();
+            table = ImageCache.getImage(new File(path + "twvee-turret.png"));
         }
         return table;
     }
@@ -70,7 +69,7 @@ public class ImageHelperVehicle {
         Image table = null;
         String path = new File(ImageHelper.recordSheetPath).getAbsolutePath() + File.separatorChar;
 
-        table = new ImageIcon(path + "twvee-turretlabel.png").getImage();
+        table = ImageCache.getImage(new File(path + "twvee-turretlabel.png"));
         return table;
     }
 
@@ -0,0 +1,257 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the unit service protocol and the diagnostics report: objects, arrays,
+ * strings, numbers, booleans and null. Objects are read as {@link Map}s, arrays as {@link List}s
+ * and numbers as {@link Double}s, and the same types are written back.
+ */
+final class Json {
+    private final String text;
+    private int pos = 0;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @param text A JSON object
+     * @return     The object's members in the order they appear
+     * @throws IllegalArgumentException if the text is not a well-formed JSON object
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(String text) {
+        Json parser = new Json(text);
+        Object value = parser.value();
+        parser.skipSpace();
+        if (!(value instanceof Map) || (parser.pos < text.length())) {
+            throw new IllegalArgumentException("The text is not a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private Object value() {
+        skipSpace();
+        if (pos >= text.length()) {
+            throw error();
+        }
+        final char c = text.charAt(pos);
+        if (c == '{') {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipSpace();
+            if (peek('}')) {
+                return map;
+            }
+            do {
+                skipSpace();
+                String key = string();
+                skipSpace();
+                expect(':');
+                map.put(key, value());
+                skipSpace();
+            } while (peek(','));
+            expect('}');
+            return map;
+        } else if (c == '[') {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipSpace();
+            if (peek(']')) {
+                return list;
+            }
+            do {
+                list.add(value());
+                skipSpace();
+            } while (peek(','));
+            expect(']');
+            return list;
+        } else if (c == '"') {
+            return string();
+        } else if (text.startsWith("true", pos)) {
+            pos += 4;
+            return Boolean.TRUE;
+        } else if (text.startsWith("false", pos)) {
+            pos += 5;
+            return Boolean.FALSE;
+        } else if (text.startsWith("null", pos)) {
+            pos += 4;
+            return null;
+        }
+        final int start = pos;
+        while ((pos < text.length()) && ("+-.eE".indexOf(text.charAt(pos)) >= 0
+                || Character.isDigit(text.charAt(pos)))) {
+            pos++;
+        }
+        try {
+            return Double.valueOf(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error();
+        }
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            } else if (c == '\\') {
+                if (pos >= text.length()) {
+                    break;
+                }
+                c = text.charAt(pos++);
+                switch (c) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error();
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(c);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        throw error();
+    }
+
+    private void skipSpace() {
+        while ((pos < text.length()) && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean peek(char c) {
+        if ((pos < text.length()) && (text.charAt(pos) == c)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!peek(c)) {
+            throw error();
+        }
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("Malformed JSON at position " + pos);
+    }
+
+    /**
+     * @param value A map, list, string, number, boolean or null
+     * @return      The value as JSON; other objects are written as their string form
+     */
+    static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, value);
+        return sb.toString();
+    }
+
+    private static void write(StringBuilder sb, Object value) {
+        if (null == value) {
+            sb.append("null");
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                write(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                write(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof List) {
+            sb.append('[');
+            boolean first = true;
+            for (Object o : (List<?>) value) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                write(sb, o);
+            }
+            sb.append(']');
+        } else if ((value instanceof Number) || (value instanceof Boolean)) {
+            if ((value instanceof Double) && (((Double) value).isNaN() || ((Double) value).isInfinite())) {
+                sb.append("null");
+            } else if ((value instanceof Double) && (((Double) value) == Math.rint((Double) value))
+                    && (Math.abs((Double) value) < 1e15)) {
+                sb.append(((Double) value).longValue());
+            } else {
+                sb.append(value);
+            }
+        } else {
+            final String s = value.toString();
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                final char c = s.charAt(i);
+                switch (c) {
+                    case '"':
+                        sb.append("\\\"");
+                        break;
+                    case '\\':
+                        sb.append("\\\\");
+                        break;
+                    case '\n':
+                        sb.append("\\n");
+                        break;
+                    case '\r':
+                        sb.append("\\r");
+                        break;
+                    case '\t':
+                        sb.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            sb.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            sb.append(c);
+                        }
+                }
+            }
+            sb.append('"');
+        }
+    }
+}
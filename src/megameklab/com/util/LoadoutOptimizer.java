@@ -0,0 +1,761 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import megamek.common.Aero;
+import megamek.common.AmmoType;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.ITechManager;
+import megamek.common.LocationFullException;
+import megamek.common.Mech;
+import megamek.common.Mounted;
+import megamek.common.Tank;
+import megamek.common.WeaponType;
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+
+/**
+ * Finds the weapon loadouts that make the best use of the tonnage, critical slots and heat left
+ * on a Mek, vehicle or fighter. Every legal weapon the unit can mount is a candidate, with one
+ * ton of standard ammo if it uses ammo. Copies of a weapon are allowed.
+ *
+ * The search is a branch and bound over the number of each weapon, run on all processors. The
+ * bound for a branch is the value of the weapons chosen so far plus the best value per ton, per
+ * slot or per point of heat among the weapons still to be decided, times what is left of that
+ * resource. Weapons that are no better than another weapon in value and cost no less in every
+ * resource are dropped before the search starts. The best loadouts found are then added to copies
+ * of the unit and checked with the unit verifier, and their BV is calculated on the copy.
+ *
+ * The catalog and the free resources are read when the optimizer is created, which should be on
+ * the event dispatch thread. {@link #optimize(Objective, int, int, long)} can then be called
+ * from any thread.
+ */
+public class LoadoutOptimizer {
+
+    public enum Objective {
+        BATTLE_VALUE("Battle Value"),
+        DAMAGE("Damage at Range"),
+        DAMAGE_PER_HEAT("Damage per Heat");
+
+        private final String displayName;
+
+        Objective(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    // The number of loadouts kept by the search for each one returned, to allow for loadouts
+    // that fail the check on the unit
+    private static final int CANDIDATES_PER_RESULT = 4;
+    // Branches for the first few weapons are searched in parallel
+    private static final int SPLIT_DEPTH = 3;
+    private static final double EPSILON = 0.0001;
+
+    private final Entity base;
+    private final UnitSnapshot snapshot;
+    private final List<Item> catalog = new ArrayList<>();
+    private final double freeTonnage;
+    private final int freeSlots;
+    private final double freeHeat;
+
+    /**
+     * @param unit        The unit to fill. The unit itself is only changed by
+     *                    {@link #apply(Entity, Loadout)}.
+     * @param techManager Decides which weapons and ammo are legal
+     */
+    public LoadoutOptimizer(Entity unit, ITechManager techManager) {
+        base = unit;
+        snapshot = UnitSnapshot.of(unit);
+
+        freeTonnage = unit.getWeight() - (UnitUtil.getEntityVerifier(unit).calculateWeight()
+                + UnitUtil.getUnallocatedAmmoTonnage(unit));
+        if (unit instanceof Mech) {
+            freeSlots = countCriticals(unit) - UnitUtil.countUsedCriticals((Mech) unit);
+        } else if (unit instanceof Tank) {
+            freeSlots = ((Tank) unit).getFreeSlots();
+        } else {
+            freeSlots = Integer.MAX_VALUE;
+        }
+        if (tracksHeat(unit)) {
+            freeHeat = Math.max(0, unit.getHeatCapacity() - UnitUtil.calculateTotalHeat(unit));
+        } else {
+            freeHeat = Double.POSITIVE_INFINITY;
+        }
+
+        if (!unit.usesWeaponBays()) {
+            for (Enumeration<EquipmentType> e = EquipmentType.getAllTypes(); e.hasMoreElements();) {
+                EquipmentType eq = e.nextElement();
+                if ((eq instanceof WeaponType) && canMount(unit, (WeaponType) eq) && techManager.isLegal(eq)) {
+                    final WeaponType weapon = (WeaponType) eq;
+                    AmmoType ammo = null;
+                    if (usesAmmo(weapon)) {
+                        ammo = findAmmo(unit, weapon, techManager);
+                        if (null == ammo) {
+                            continue;
+                        }
+                    }
+                    catalog.add(new Item(unit, weapon, ammo));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The tonnage left on the unit
+     */
+    public double getFreeTonnage() {
+        return freeTonnage;
+    }
+
+    /**
+     * @return The critical slots (Meks) or slots (vehicles) left on the unit, or
+     *         {@link Integer#MAX_VALUE} if the unit has no slot limit
+     */
+    public int getFreeSlots() {
+        return freeSlots;
+    }
+
+    /**
+     * @return The heat dissipation not used by the unit, or infinity for units that do not
+     *         track heat
+     */
+    public double getFreeHeat() {
+        return freeHeat;
+    }
+
+    /**
+     * @return The number of weapons that may be chosen
+     */
+    public int getCatalogSize() {
+        return catalog.size();
+    }
+
+    /**
+     * A set of weapons and their ammo that fits on the unit.
+     */
+    public static class Loadout {
+        private final Map<WeaponType, Integer> weapons = new LinkedHashMap<>();
+        private final Map<AmmoType, Integer> ammo = new LinkedHashMap<>();
+        private final double score;
+        private final double tonnage;
+        private final int slots;
+        private final double heat;
+        private final double damage;
+        private final int battleValue;
+
+        private Loadout(double score, double tonnage, int slots, double heat, double damage, int battleValue) {
+            this.score = score;
+            this.tonnage = tonnage;
+            this.slots = slots;
+            this.heat = heat;
+            this.damage = damage;
+            this.battleValue = battleValue;
+        }
+
+        public Map<WeaponType, Integer> getWeapons() {
+            return Collections.unmodifiableMap(weapons);
+        }
+
+        public Map<AmmoType, Integer> getAmmo() {
+            return Collections.unmodifiableMap(ammo);
+        }
+
+        /**
+         * @return The value of the objective the loadout was chosen for
+         */
+        public double getScore() {
+            return score;
+        }
+
+        public double getTonnage() {
+            return tonnage;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public double getHeat() {
+            return heat;
+        }
+
+        /**
+         * @return The damage of the weapons if every shot hits, at the range used by the search
+         */
+        public double getDamage() {
+            return damage;
+        }
+
+        /**
+         * @return The BV of the unit with the loadout added
+         */
+        public int getBattleValue() {
+            return battleValue;
+        }
+
+        public String getDescription() {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<WeaponType, Integer> e : weapons.entrySet()) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(e.getValue()).append(" x ").append(e.getKey().getName());
+            }
+            for (Map.Entry<AmmoType, Integer> e : ammo.entrySet()) {
+                sb.append(", ").append(e.getValue()).append(" x ").append(e.getKey().getName());
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Searches for the best loadouts.
+     *
+     * @param objective    What to maximize
+     * @param range        For the damage objectives, the range in hexes. Only weapons that reach
+     *                     this far count toward the damage.
+     * @param count        The number of loadouts to return
+     * @param budgetMillis The time allowed for the search. When the time runs out the best
+     *                     loadouts found so far are returned.
+     * @return             The best loadouts, best first
+     */
+    public List<Loadout> optimize(Objective objective, int range, int count, long budgetMillis) {
+        final String METHOD_NAME = "optimize(Objective, int, int, long)";
+
+        final long start = System.currentTimeMillis();
+        Search search = new Search(objective, range, count * CANDIDATES_PER_RESULT,
+                System.nanoTime() + budgetMillis * 1000000L);
+        if (search.items.length > 0) {
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            try {
+                pool.invoke(search.new Branch(0, new int[search.items.length], 0, 0, 0, 0));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        List<Candidate> candidates = search.getCandidates();
+        List<Loadout> retVal = new ArrayList<>();
+        for (Candidate c : candidates) {
+            Loadout loadout = check(search, c, objective);
+            if (null != loadout) {
+                retVal.add(loadout);
+            }
+        }
+        Collections.sort(retVal, Comparator.comparingDouble(Loadout::getScore).reversed()
+                .thenComparing(Comparator.comparingInt(Loadout::getBattleValue).reversed()));
+        if (retVal.size() > count) {
+            retVal = new ArrayList<>(retVal.subList(0, count));
+        }
+        MegaMekLab.getLogger().log(LoadoutOptimizer.class, METHOD_NAME, LogLevel.INFO,
+                String.format("Searched %d loadouts of %d weapons (%d after pruning) for %s in %d ms%s",
+                        search.nodes.get(), catalog.size(), search.items.length, base.getShortName(),
+                        System.currentTimeMillis() - start, search.timedOut ? "; stopped at the time limit" : ""));
+        return retVal;
+    }
+
+    /**
+     * Adds a loadout to a unit. Equipment is added unallocated, the same as adding it from the
+     * equipment tab.
+     *
+     * @param unit    The unit
+     * @param loadout The loadout
+     * @return        The mounts that were added
+     */
+    public static List<Mounted> apply(Entity unit, Loadout loadout) {
+        final String METHOD_NAME = "apply(Entity, Loadout)";
+
+        List<Mounted> retVal = new ArrayList<>();
+        try {
+            for (Map.Entry<WeaponType, Integer> e : loadout.weapons.entrySet()) {
+                for (int i = 0; i < e.getValue(); i++) {
+                    Mounted mount = new Mounted(unit, e.getKey());
+                    unit.addEquipment(mount, Entity.LOC_NONE, false);
+                    retVal.add(mount);
+                }
+            }
+            for (Map.Entry<AmmoType, Integer> e : loadout.ammo.entrySet()) {
+                for (int i = 0; i < e.getValue(); i++) {
+                    Mounted mount = new Mounted(unit, e.getKey());
+                    unit.addEquipment(mount, Entity.LOC_NONE, false);
+                    retVal.add(mount);
+                }
+            }
+        } catch (LocationFullException ex) {
+            // this can't happen, we add to Entity.LOC_NONE
+            MegaMekLab.getLogger().log(LoadoutOptimizer.class, METHOD_NAME, ex);
+        }
+        return retVal;
+    }
+
+    /**
+     * A weapon with its ammo, and what it costs and is worth.
+     */
+    private static class Item {
+        final WeaponType weapon;
+        final AmmoType ammo;
+        final double tonnage;
+        final int slots;
+        final double heat;
+        final double damage;
+        final double battleValue;
+
+        Item(Entity unit, WeaponType weapon, AmmoType ammo) {
+            this.weapon = weapon;
+            this.ammo = ammo;
+            double tons = weapon.getTonnage(unit);
+            int s = getSlots(unit, weapon);
+            double bv = weapon.getBV(unit);
+            if (null != ammo) {
+                tons += ammo.getTonnage(unit);
+                s += getSlots(unit, ammo);
+                bv += ammo.getBV(unit);
+            }
+            tonnage = tons;
+            slots = s;
+            heat = tracksHeat(unit) ? UnitUtil.getWeaponHeat(weapon) : 0;
+            damage = getDamage(weapon);
+            battleValue = bv;
+        }
+
+        double getValue(Objective objective, int range) {
+            if (objective == Objective.BATTLE_VALUE) {
+                return battleValue;
+            }
+            return (weapon.getLongRange() >= range) ? damage : 0;
+        }
+    }
+
+    /**
+     * The counts of each item in a loadout found by the search.
+     */
+    private static class Candidate {
+        final int[] counts;
+        final double score;
+        final double value;
+
+        Candidate(int[] counts, double score, double value) {
+            this.counts = counts;
+            this.score = score;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The state of one search: the items that survived pruning in the order they are decided,
+     * the bounds for each position and the best loadouts found so far.
+     */
+    private class Search {
+        final Item[] items;
+        final double[] value;
+        // The best value per ton, slot and heat among the items from each position on
+        final double[] perTon;
+        final double[] perSlot;
+        final double[] perHeat;
+        // For damage per heat: the best damage per heat from each position on, and whether all
+        // those items generate heat
+        final double[] bestRatio;
+        final boolean[] allHeated;
+        final boolean ratio;
+        final int keep;
+        final long deadline;
+        final AtomicLong nodes = new AtomicLong();
+        final PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble((Candidate c) -> c.score));
+        volatile double threshold = Double.NEGATIVE_INFINITY;
+        volatile boolean timedOut = false;
+
+        Search(Objective objective, int range, int keep, long deadline) {
+            this.ratio = objective == Objective.DAMAGE_PER_HEAT;
+            this.keep = Math.max(1, keep);
+            this.deadline = deadline;
+
+            List<Item> usable = new ArrayList<>();
+            for (Item item : catalog) {
+                if ((item.getValue(objective, range) > 0) && (item.tonnage <= freeTonnage + EPSILON)
+                        && (item.slots <= freeSlots) && (item.heat <= freeHeat + EPSILON)) {
+                    usable.add(item);
+                }
+            }
+            usable = removeDominated(usable, objective, range);
+            // Deciding the items with the most value per ton first finds good loadouts early,
+            // which lets the bound prune more.
+            usable.sort(Comparator.comparingDouble((Item i) -> i.getValue(objective, range) / i.tonnage)
+                    .reversed());
+            items = usable.toArray(new Item[0]);
+
+            final int n = items.length;
+            value = new double[n];
+            perTon = new double[n + 1];
+            perSlot = new double[n + 1];
+            perHeat = new double[n + 1];
+            bestRatio = new double[n + 1];
+            allHeated = new boolean[n + 1];
+            allHeated[n] = true;
+            for (int i = n - 1; i >= 0; i--) {
+                value[i] = items[i].getValue(objective, range);
+                perTon[i] = Math.max(perTon[i + 1], value[i] / items[i].tonnage);
+                perSlot[i] = Math.max(perSlot[i + 1], (items[i].slots > 0) ? value[i] / items[i].slots
+                        : Double.POSITIVE_INFINITY);
+                perHeat[i] = Math.max(perHeat[i + 1], (items[i].heat > 0) ? value[i] / items[i].heat
+                        : Double.POSITIVE_INFINITY);
+                bestRatio[i] = Math.max(bestRatio[i + 1], (items[i].heat > 0) ? value[i] / items[i].heat : 0);
+                allHeated[i] = allHeated[i + 1] && (items[i].heat > 0);
+            }
+        }
+
+        /**
+         * Drops any item for which another item has at least the value and needs no more
+         * tonnage, slots or heat. Any loadout using the dropped item is matched or beaten by the
+         * same loadout with the other item in its place.
+         */
+        private List<Item> removeDominated(List<Item> usable, Objective objective, int range) {
+            List<Item> retVal = new ArrayList<>();
+            for (int a = 0; a < usable.size(); a++) {
+                final Item ia = usable.get(a);
+                final double va = ia.getValue(objective, range);
+                boolean dominated = false;
+                for (int b = 0; (b < usable.size()) && !dominated; b++) {
+                    final Item ib = usable.get(b);
+                    final double vb = ib.getValue(objective, range);
+                    if ((a == b) || (ib.tonnage > ia.tonnage) || (ib.slots > ia.slots) || (ib.heat > ia.heat)
+                            || (vb < va)) {
+                        continue;
+                    }
+                    // Of two equal items, keep the first
+                    dominated = (ib.tonnage < ia.tonnage) || (ib.slots < ia.slots) || (ib.heat < ia.heat)
+                            || (vb > va) || (b < a);
+                }
+                if (!dominated) {
+                    retVal.add(ia);
+                }
+            }
+            return retVal;
+        }
+
+        double score(double value, double heat) {
+            return ratio ? value / Math.max(1, heat) : value;
+        }
+
+        /**
+         * @return The most the score can reach by adding items from position i on
+         */
+        double bound(int i, double tons, int slots, double heat, double value) {
+            double add = Double.POSITIVE_INFINITY;
+            if (perTon[i] < Double.POSITIVE_INFINITY) {
+                add = Math.min(add, (freeTonnage - tons) * perTon[i]);
+            }
+            if ((freeSlots < Integer.MAX_VALUE) && (perSlot[i] < Double.POSITIVE_INFINITY)) {
+                add = Math.min(add, (freeSlots - slots) * perSlot[i]);
+            }
+            if ((freeHeat < Double.POSITIVE_INFINITY) && (perHeat[i] < Double.POSITIVE_INFINITY)) {
+                add = Math.min(add, (freeHeat - heat) * perHeat[i]);
+            }
+            add = Math.max(0, add);
+            if (!ratio) {
+                return value + add;
+            }
+            double retVal = (value + add) / Math.max(1, heat);
+            if ((heat >= 1) && allHeated[i]) {
+                // Adding items can't raise the ratio above the best ratio of the items added
+                retVal = Math.min(retVal, Math.max(value / heat, bestRatio[i]));
+            }
+            return retVal;
+        }
+
+        void offer(int[] counts, double heat, double value) {
+            if (value <= 0) {
+                return;
+            }
+            final double score = score(value, heat);
+            if (score <= threshold) {
+                return;
+            }
+            synchronized (best) {
+                best.add(new Candidate(counts.clone(), score, value));
+                if (best.size() > keep) {
+                    best.poll();
+                }
+                if (best.size() >= keep) {
+                    threshold = best.peek().score;
+                }
+            }
+        }
+
+        List<Candidate> getCandidates() {
+            synchronized (best) {
+                List<Candidate> retVal = new ArrayList<>(best);
+                retVal.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed());
+                return retVal;
+            }
+        }
+
+        boolean timeUp() {
+            if (timedOut) {
+                return true;
+            }
+            if (System.nanoTime() > deadline) {
+                timedOut = true;
+            }
+            return timedOut;
+        }
+
+        /**
+         * Decides the count of item i, then the rest. The first few levels hand each count to a
+         * separate task.
+         */
+        void search(int i, int[] counts, double tons, int slots, double heat, double value) {
+            nodes.incrementAndGet();
+            if (i == items.length) {
+                offer(counts, heat, value);
+                return;
+            }
+            if (timeUp() || (bound(i, tons, slots, heat, value) <= threshold)) {
+                return;
+            }
+            final Item item = items[i];
+            int max = (int) Math.floor((freeTonnage - tons + EPSILON) / item.tonnage);
+            if (item.slots > 0) {
+                max = Math.min(max, (freeSlots - slots) / item.slots);
+            }
+            if ((item.heat > 0) && (freeHeat < Double.POSITIVE_INFINITY)) {
+                max = Math.min(max, (int) Math.floor((freeHeat - heat + EPSILON) / item.heat));
+            }
+            if (i < SPLIT_DEPTH) {
+                List<Branch> branches = new ArrayList<>();
+                for (int c = max; c >= 0; c--) {
+                    int[] branchCounts = counts.clone();
+                    branchCounts[i] = c;
+                    branches.add(new Branch(i + 1, branchCounts, tons + c * item.tonnage, slots + c * item.slots,
+                            heat + c * item.heat, value + c * this.value[i]));
+                }
+                RecursiveAction.invokeAll(branches);
+            } else {
+                for (int c = max; c >= 0; c--) {
+                    counts[i] = c;
+                    search(i + 1, counts, tons + c * item.tonnage, slots + c * item.slots,
+                            heat + c * item.heat, value + c * this.value[i]);
+                }
+                counts[i] = 0;
+            }
+        }
+
+        private class Branch extends RecursiveAction {
+            private static final long serialVersionUID = -6034617322408263917L;
+
+            private final int index;
+            private final int[] counts;
+            private final double tons;
+            private final int slots;
+            private final double heat;
+            private final double value;
+
+            Branch(int index, int[] counts, double tons, int slots, double heat, double value) {
+                this.index = index;
+                this.counts = counts;
+                this.tons = tons;
+                this.slots = slots;
+                this.heat = heat;
+                this.value = value;
+            }
+
+            @Override
+            protected void compute() {
+                search(index, counts, tons, slots, heat, value);
+            }
+        }
+    }
+
+    /**
+     * Adds a candidate to a copy of the unit and checks that it fits.
+     *
+     * @return The loadout, or null if it does not fit
+     */
+    private Loadout check(Search search, Candidate candidate, Objective objective) {
+        Entity unit = copy();
+        if (null == unit) {
+            return null;
+        }
+        double tons = 0;
+        int slots = 0;
+        double heat = 0;
+        double damage = 0;
+        Map<WeaponType, Integer> weapons = new LinkedHashMap<>();
+        Map<AmmoType, Integer> ammo = new LinkedHashMap<>();
+        for (int i = 0; i < search.items.length; i++) {
+            final int n = candidate.counts[i];
+            if (n == 0) {
+                continue;
+            }
+            final Item item = search.items[i];
+            tons += n * item.tonnage;
+            slots += n * item.slots;
+            heat += n * item.heat;
+            damage += n * item.damage;
+            weapons.merge(item.weapon, n, Integer::sum);
+            if (null != item.ammo) {
+                ammo.merge(item.ammo, n, Integer::sum);
+            }
+        }
+        Loadout loadout = new Loadout(0, tons, slots, heat, 0, 0);
+        loadout.weapons.putAll(weapons);
+        loadout.ammo.putAll(ammo);
+        apply(unit, loadout);
+
+        final double remaining = unit.getWeight() - (UnitUtil.getEntityVerifier(unit).calculateWeight()
+                + UnitUtil.getUnallocatedAmmoTonnage(unit));
+        if (remaining < -EPSILON) {
+            return null;
+        }
+        if ((unit instanceof Mech) && (UnitUtil.countUsedCriticals((Mech) unit) > countCriticals(unit))) {
+            return null;
+        }
+        if ((unit instanceof Tank) && (((Tank) unit).getFreeSlots() < 0)) {
+            return null;
+        }
+        final int bv = unit.calculateBattleValue();
+        final double score = (objective == Objective.BATTLE_VALUE) ? bv : candidate.score;
+        Loadout retVal = new Loadout(score, tons, slots, heat,
+                (objective == Objective.BATTLE_VALUE) ? damage : candidate.value, bv);
+        retVal.weapons.putAll(weapons);
+        retVal.ammo.putAll(ammo);
+        return retVal;
+    }
+
+    private static boolean canMount(Entity unit, WeaponType weapon) {
+        final boolean type;
+        if (unit instanceof Mech) {
+            type = UnitUtil.isMechWeapon(weapon, unit);
+        } else if (unit instanceof Tank) {
+            type = UnitUtil.isTankWeapon(weapon, unit);
+        } else if (unit instanceof Aero) {
+            type = UnitUtil.isAeroWeapon(weapon, (Aero) unit);
+        } else {
+            type = false;
+        }
+        if (!type) {
+            return false;
+        }
+        for (int loc = 0; loc < unit.locations(); loc++) {
+            if (UnitUtil.isValidLocation(unit, weapon, loc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean usesAmmo(WeaponType weapon) {
+        return (weapon.getAmmoType() != AmmoType.T_NA) && (weapon.getAmmoType() != AmmoType.T_ROCKET_LAUNCHER)
+                && !weapon.hasFlag(WeaponType.F_ONESHOT);
+    }
+
+    /**
+     * Finds the standard ammo for a weapon, preferring full-ton bins of the weapon's tech base.
+     */
+    private static AmmoType findAmmo(Entity unit, WeaponType weapon, ITechManager techManager) {
+        List<AmmoType> munitions = AmmoType.getMunitionsFor(weapon.getAmmoType());
+        if (null == munitions) {
+            return null;
+        }
+        AmmoType retVal = null;
+        int bestRank = -1;
+        for (AmmoType ammo : munitions) {
+            if ((ammo.getRackSize() != weapon.getRackSize()) || (ammo.getMunitionType() != AmmoType.M_STANDARD)
+                    || ammo.hasFlag(AmmoType.F_BATTLEARMOR) || !techManager.isLegal(ammo)
+                    || (unit.hasETypeFlag(Entity.ETYPE_AERO) && !ammo.canAeroUse())) {
+                continue;
+            }
+            int rank = ((ammo.isClan() == weapon.isClan()) ? 2 : 0) + ((ammo.getTonnage(unit) >= 1) ? 1 : 0);
+            if (rank > bestRank) {
+                bestRank = rank;
+                retVal = ammo;
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * The damage of a weapon if every shot hits, at the same rate of fire used for its heat.
+     * Missile launchers count every missile. Weapons with variable or special damage count none.
+     */
+    private static double getDamage(WeaponType weapon) {
+        double damage = weapon.getDamage();
+        if (damage == WeaponType.DAMAGE_BY_CLUSTERTABLE) {
+            switch (weapon.getAmmoType()) {
+                case AmmoType.T_SRM:
+                case AmmoType.T_SRM_STREAK:
+                case AmmoType.T_SRM_ADVANCED:
+                case AmmoType.T_SRM_TORPEDO:
+                case AmmoType.T_ATM:
+                    damage = weapon.getRackSize() * 2;
+                    break;
+                default:
+                    damage = weapon.getRackSize();
+            }
+        } else if (damage < 0) {
+            return 0;
+        }
+        if ((weapon.getAmmoType() == AmmoType.T_AC_ULTRA) || (weapon.getAmmoType() == AmmoType.T_AC_ULTRA_THB)) {
+            damage *= 2;
+        } else if (weapon.getAmmoType() == AmmoType.T_AC_ROTARY) {
+            damage *= 6;
+        }
+        return damage;
+    }
+
+    private static int getSlots(Entity unit, EquipmentType eq) {
+        if (unit instanceof Mech) {
+            return UnitUtil.getCritsUsed(unit, eq);
+        } else if (unit instanceof Tank) {
+            return eq.getTankslots(unit);
+        }
+        return 0;
+    }
+
+    /**
+     * Only Meks and aerospace fighters show heat on the status bar.
+     */
+    private static boolean tracksHeat(Entity unit) {
+        return (unit instanceof Mech) || (unit.getEntityType() == Entity.ETYPE_AERO);
+    }
+
+    private static int countCriticals(Entity unit) {
+        int retVal = 0;
+        for (int loc = 0; loc < unit.locations(); loc++) {
+            retVal += unit.getNumberOfCriticals(loc);
+        }
+        return retVal;
+    }
+
+    private Entity copy() {
+        return (null == snapshot) ? null : snapshot.toEntity();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The print stream that standard output and standard error are redirected to when logging to a
+ * file. It limits how often the same stack trace is printed: code that calls
+ * {@code printStackTrace()} inside a loop prints the trace once, and later copies within the
+ * interval are counted and reported with the next copy that is printed.
+ */
+public class LogPrintStream extends PrintStream {
+
+    // How long to suppress copies of a stack trace after printing it
+    private static final long INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // The number of distinct stack traces to remember
+    private static final int MAX_TRACES = 256;
+
+    private static class TraceRecord {
+        long printed;
+        int suppressed;
+    }
+
+    private final Map<String, TraceRecord> traces = Collections.synchronizedMap(
+            new LinkedHashMap<String, TraceRecord>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TraceRecord> eldest) {
+                    return size() > MAX_TRACES;
+                }
+            });
+
+    // The remaining lines of a suppressed stack trace that is being printed
+    private final Deque<String> skipping = new ArrayDeque<>();
+
+    public LogPrintStream(OutputStream out) {
+        super(out, false);
+    }
+
+    /**
+     * {@link Throwable#printStackTrace(PrintStream)} prints the throwable and then each line of
+     * the trace with this method while holding the lock on this stream, so the lines that follow
+     * a suppressed throwable can be recognized and skipped.
+     */
+    @Override
+    public void println(Object x) {
+        synchronized (this) {
+            if (x instanceof Throwable) {
+                skipping.clear();
+                startTrace((Throwable) x);
+            } else if (!skipping.isEmpty() && String.valueOf(x).equals(skipping.peekFirst())) {
+                skipping.removeFirst();
+            } else {
+                skipping.clear();
+                super.println(x);
+            }
+        }
+    }
+
+    private void startTrace(Throwable t) {
+        final String key = t.getClass().getName() + Arrays.toString(t.getStackTrace());
+        final long now = System.nanoTime();
+        TraceRecord record = traces.get(key);
+        if (null == record) {
+            record = new TraceRecord();
+            record.printed = now;
+            traces.put(key, record);
+        } else if (now - record.printed < INTERVAL_NANOS) {
+            record.suppressed++;
+            StringWriter trace = new StringWriter();
+            t.printStackTrace(new PrintWriter(trace));
+            String[] lines = trace.toString().split("\\r?\\n");
+            skipping.addAll(Arrays.asList(lines).subList(1, lines.length));
+            return;
+        } else {
+            if (record.suppressed > 0) {
+                super.println("[The following stack trace was repeated " + record.suppressed
+                        + " more times since it was last printed]");
+            }
+            record.printed = now;
+            record.suppressed = 0;
+        }
+        super.println(t);
+    }
+}
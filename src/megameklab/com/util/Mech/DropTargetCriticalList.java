@@ -26,6 +26,7 @@ import java.util.Vector;
 import javax.swing.JList;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
+import javax.swing.ListModel;
 
 import megamek.common.AmmoType;
 import megamek.common.BattleArmor;
@@ -72,6 +73,18 @@ public class DropTargetCriticalList<E> extends JList<E> implements MouseListener
         setTransferHandler(new CriticalTransferHandler(eSource, refresh));
     }
 
+    public DropTargetCriticalList(ListModel<E> model, EntitySource eSource,
+            RefreshListener refresh, boolean buildView) {
+        super(model);
+        setDragEnabled(true);
+        this.eSource = eSource;
+        this.refresh = refresh;
+        this.buildView = buildView;
+        setCellRenderer(new CritListCellRenderer(eSource.getEntity(), buildView));
+        addMouseListener(this);
+        setTransferHandler(new CriticalTransferHandler(eSource, refresh));
+    }
+
     private void changeMountStatus(Mounted eq, int location, boolean rear) {
         changeMountStatus(eq, location, -1, rear);
     }
@@ -0,0 +1,142 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+
+/**
+ * Sizes the caches to the heap the JVM was started with. The heap is set by the launcher: the
+ * Windows executable and lab.sh both read the JVM options from the launcher config. When
+ * MegaMekLab is started some other way with a small heap, the caches that trade memory for speed
+ * are made smaller instead of starting a second JVM with a larger heap.
+ */
+public final class MemoryPolicy {
+
+    /** The launcher config that holds the JVM options, one per line */
+    public static final String LAUNCHER_CONFIG = "megameklab.l4j.ini";
+
+    // Below this the caches are made smaller. MegaMekLab needs about 200 MB to run at all.
+    private static final long LOW_MEMORY_BYTES = 400L * 1024 * 1024;
+
+    private static final long MAX_MEMORY = Runtime.getRuntime().maxMemory();
+    private static final boolean LOW_MEMORY = MAX_MEMORY < LOW_MEMORY_BYTES;
+
+    private MemoryPolicy() {
+    }
+
+    /**
+     * @return Whether the heap is small enough that caches should be reduced
+     */
+    public static boolean isLowMemory() {
+        return LOW_MEMORY;
+    }
+
+    /**
+     * Chooses a cache size for the heap.
+     *
+     * @param normal The size to use normally
+     * @param low    The size to use when memory is low
+     * @return       The size for this heap
+     */
+    public static int choose(int normal, int low) {
+        return LOW_MEMORY ? low : normal;
+    }
+
+    /**
+     * Chooses a cache size for the heap.
+     *
+     * @param normal The size to use normally
+     * @param low    The size to use when memory is low
+     * @return       The size for this heap
+     */
+    public static long choose(long normal, long low) {
+        return LOW_MEMORY ? low : normal;
+    }
+
+    /**
+     * Logs the heap size, the heap asked for by the launcher config, and whether the caches are
+     * reduced. Called once at startup.
+     */
+    public static void logMemory() {
+        final String METHOD_NAME = "logMemory()";
+
+        MegaMekLab.getLogger().log(MemoryPolicy.class, METHOD_NAME, LogLevel.INFO,
+                "Memory Allocated [" + (MAX_MEMORY / 1000) + "]");
+        final long configured = getConfiguredHeap(new File(LAUNCHER_CONFIG));
+        // The JVM reports a little less than -Xmx
+        if ((configured > 0) && (MAX_MEMORY < configured * 0.9)) {
+            MegaMekLab.getLogger().log(MemoryPolicy.class, METHOD_NAME, LogLevel.WARNING,
+                    String.format("%s asks for a %d MB heap but the JVM has %d MB. Use the launcher or"
+                            + " lab.sh, or start Java with -Xmx%dm.", LAUNCHER_CONFIG, configured >> 20,
+                            MAX_MEMORY >> 20, configured >> 20));
+        }
+        if (LOW_MEMORY) {
+            MegaMekLab.getLogger().log(MemoryPolicy.class, METHOD_NAME, LogLevel.WARNING,
+                    String.format("The heap is below %d MB; record sheet and unit data caches are reduced"
+                            + " and fewer populated record sheets are kept while printing.",
+                            LOW_MEMORY_BYTES >> 20));
+        }
+    }
+
+    /**
+     * Reads the maximum heap from a launcher config.
+     *
+     * @param config The launcher config
+     * @return       The heap in bytes given by the -Xmx option, or 0 if there is none or the file
+     *               cannot be read
+     */
+    static long getConfiguredHeap(File config) {
+        if (!config.isFile()) {
+            return 0;
+        }
+        try {
+            long retVal = 0;
+            for (String line : Files.readAllLines(config.toPath(), StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.startsWith("-Xmx")) {
+                    retVal = parseSize(line.substring(4));
+                }
+            }
+            return retVal;
+        } catch (IOException | NumberFormatException | StringIndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    private static long parseSize(String size) {
+        final String s = size.toLowerCase(Locale.ROOT);
+        final long multiplier;
+        switch (s.charAt(s.length() - 1)) {
+            case 'k':
+                multiplier = 1024;
+                break;
+            case 'm':
+                multiplier = 1024 * 1024;
+                break;
+            case 'g':
+                multiplier = 1024 * 1024 * 1024;
+                break;
+            default:
+                return Long.parseLong(s);
+        }
+        return Long.parseLong(s.substring(0, s.length() - 1)) * multiplier;
+    }
+}
@@ -18,6 +18,7 @@ package megameklab.com.util;
 
 import java.awt.Component;
 import java.awt.FileDialog;
+import java.awt.Frame;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.ClipboardOwner;
@@ -25,12 +26,14 @@ import java.awt.datatransfer.StringSelection;
 import java.awt.datatransfer.Transferable;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
 
 import javax.swing.BoxLayout;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JDialog;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
@@ -39,8 +42,12 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import megamek.MegaMek;
@@ -49,19 +56,18 @@ import megamek.client.ui.swing.UnitSelectorDialog;
 import megamek.common.Aero;
 import megamek.common.BattleArmor;
 import megamek.common.Entity;
-import megamek.common.FixedWingSupport;
-import megamek.common.GunEmplacement;
 import megamek.common.Infantry;
-import megamek.common.Jumpship;
 import megamek.common.Mech;
 import megamek.common.MechFileParser;
-import megamek.common.MechTextView;
-import megamek.common.MechView;
 import megamek.common.SmallCraft;
 import megamek.common.Tank;
 import megamek.common.loaders.BLKFile;
 import megameklab.com.MegaMekLab;
 import megameklab.com.ui.MegaMekLabMainUI;
+import megameklab.com.ui.UnitWindows;
+import megameklab.com.ui.dialog.DiagnosticsDialog;
+import megameklab.com.ui.dialog.UnitLibraryDialog;
+import megameklab.com.ui.dialog.VariantExplorerDialog;
 
 public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
 
@@ -70,8 +76,10 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
      */
     private static final long serialVersionUID = -3998342610654551481L;
     private JMenu file = new JMenu("File");
+    private JMenu edit = new JMenu("Edit");
     private JMenu help = new JMenu("Help");
     private JMenu validate = new JMenu("Validate");
+    private JMenu window = new JMenu("Window");
     private MegaMekLabMainUI parentFrame = null;
 
     public MenuBarCreator(MegaMekLabMainUI parent) {
@@ -79,6 +87,7 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         parentFrame = parent;
 
         loadFileMenuOptions();
+        loadEditMenuOptions();
 
         JMenuItem item = new JMenuItem();
         item.setText("About");
@@ -110,6 +119,12 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         });
         help.add(item);
 
+        item = new JMenuItem();
+        item.setText("Diagnostics...");
+        item.setMnemonic(KeyEvent.VK_D);
+        item.addActionListener(e -> new DiagnosticsDialog(parentFrame).setVisible(true));
+        help.add(item);
+
         validate.add(loadBVMenuOptions());
 
         validate.add(loadValidateMenuOptions());
@@ -120,8 +135,31 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         
         validate.add(loadUnitWeightBreakdownMenuOptions());
 
+        item = new JMenuItem("Explore Variants...");
+        item.setMnemonic(KeyEvent.VK_E);
+        item.addActionListener(e -> jMenuExploreVariants_actionPerformed());
+        validate.add(item);
+
+        window.setMnemonic(KeyEvent.VK_W);
+        window.addMenuListener(new MenuListener() {
+            @Override
+            public void menuSelected(MenuEvent e) {
+                loadWindowMenuOptions();
+            }
+
+            @Override
+            public void menuDeselected(MenuEvent e) {
+            }
+
+            @Override
+            public void menuCanceled(MenuEvent e) {
+            }
+        });
+
         this.add(file);
+        this.add(edit);
         this.add(validate);
+        this.add(window);
         this.add(help);
 
     }
@@ -293,6 +331,41 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         return unitSpecs;
     }
 
+    /**
+     * Lists the open unit windows. The list is rebuilt each time the menu opens, since windows are
+     * opened and closed from other windows' menus.
+     */
+    private void loadWindowMenuOptions() {
+        window.removeAll();
+        for (MegaMekLabMainUI frame : UnitWindows.getWindows()) {
+            JCheckBoxMenuItem item = new JCheckBoxMenuItem(frame.getEntity().getShortName(), frame == parentFrame);
+            item.addActionListener(e -> {
+                if (frame.getExtendedState() == Frame.ICONIFIED) {
+                    frame.setExtendedState(Frame.NORMAL);
+                }
+                frame.toFront();
+                frame.requestFocus();
+            });
+            window.add(item);
+        }
+    }
+
+    private void loadEditMenuOptions() {
+        edit.setMnemonic(KeyEvent.VK_E);
+
+        JMenuItem item = new JMenuItem("Undo");
+        item.setMnemonic(KeyEvent.VK_U);
+        item.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, Toolkit.getDefaultToolkit().getMenuShortcutKeyMask()));
+        item.addActionListener(e -> parentFrame.undo());
+        edit.add(item);
+
+        item = new JMenuItem("Redo");
+        item.setMnemonic(KeyEvent.VK_R);
+        item.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, Toolkit.getDefaultToolkit().getMenuShortcutKeyMask()));
+        item.addActionListener(e -> parentFrame.redo());
+        edit.add(item);
+    }
+
     private void loadFileMenuOptions() {
 
         file.removeAll();
@@ -453,6 +526,28 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         });
         loadMenu.add(item);
 
+        item = new JMenuItem();
+        item.setText("From Library...");
+        item.setMnemonic(KeyEvent.VK_L);
+        item.addActionListener(e -> loadUnitFromLibrary());
+        loadMenu.add(item);
+
+        loadMenu.addSeparator();
+
+        item = new JMenuItem();
+        item.setText("From Cache in New Window");
+        item.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_U,
+                Toolkit.getDefaultToolkit().getMenuShortcutKeyMask() | InputEvent.SHIFT_DOWN_MASK));
+        item.addActionListener(e -> loadUnit(true));
+        loadMenu.add(item);
+
+        item = new JMenuItem();
+        item.setText("From File in New Window");
+        item.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F,
+                Toolkit.getDefaultToolkit().getMenuShortcutKeyMask() | InputEvent.SHIFT_DOWN_MASK));
+        item.addActionListener(e -> loadUnitFromFile(-1, true));
+        loadMenu.add(item);
+
         file.add(loadMenu);
 
         item = new JMenuItem(String.format("Current Unit"));
@@ -517,6 +612,24 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         });
         exportMenu.add(item);
 
+        item = new JMenuItem("to PDF (Record Sheet)");
+        item.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                UnitPrintManager.exportEntityToPdf(parentFrame, parentFrame.getEntity());
+            }
+        });
+        exportMenu.add(item);
+
+        exportMenu.addSeparator();
+
+        item = new JMenuItem("Batch Export...");
+        item.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                jMenuBatchExport_actionPerformed(e);
+            }
+        });
+        exportMenu.add(item);
+
         file.add(exportMenu);
 
         item = new JMenuItem("Configuration");
@@ -875,7 +988,7 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         try {
             Entity tempEntity = new MechFileParser(unitFile).getEntity();
 
-            if (UnitUtil.validateUnit(parentFrame.getEntity()).trim().length() > 0) {
+            if (DerivedDataCache.lookupWindow(parentFrame).getValidation().trim().length() > 0) {
                 JOptionPane.showMessageDialog(parentFrame, "Warning:Invalid unit, it might load incorrectly!");
             }
 
@@ -1085,12 +1198,11 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
     }
 
     public void jMenuLoadEntityFromFile_actionPerformed(int fileNumber) {
-        loadUnitFromFile(fileNumber);
+        loadUnitFromFile(fileNumber, false);
     }
 
     public void jMenuResetEntity_actionPerformed(ActionEvent event) {
-        CConfig.updateSaveFiles("Reset Unit");
-        CConfig.setParam(CConfig.CONFIG_SAVE_FILE_1, "");
+        parentFrame.setUnitFile(null);
         Entity en = parentFrame.getEntity();
         if (en instanceof Tank) {
             parentFrame.createNewUnit(Entity.ETYPE_TANK);
@@ -1119,21 +1231,23 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
 
     public void jMenuSaveEntity_actionPerformed(ActionEvent event) {
 
-        if (UnitUtil.validateUnit(parentFrame.getEntity()).length() > 0) {
+        if (DerivedDataCache.lookupWindow(parentFrame).getValidation().length() > 0) {
             JOptionPane.showMessageDialog(parentFrame, "Warning: Saving an invalid unit, it might load incorrectly!");
         }
 
         String unitName = parentFrame.getEntity().getChassis() + " " + parentFrame.getEntity().getModel();
         UnitUtil.compactCriticals(parentFrame.getEntity());
 
-        String filePathName = CConfig.getParam(CConfig.CONFIG_SAVE_FILE_1);
+        final File unitFile = parentFrame.getUnitFile();
+        String filePathName = (null == unitFile) ? "" : unitFile.getAbsolutePath();
 
-        if ((filePathName.trim().length() < 1) || !filePathName.contains(unitName)) {
+        // Ask for a file if the unit has not been saved, or has been renamed or changed to a unit
+        // type with a different file format since
+        if ((null == unitFile) || !getBaseName(unitFile).equals(unitName)
+                || !unitFile.getName().toLowerCase().endsWith(parentFrame.getEntity() instanceof Mech ? ".mtf" : ".blk")) {
             FileDialog fDialog = new FileDialog(parentFrame, "Save As", FileDialog.SAVE);
 
-            filePathName = CConfig.getParam(CConfig.CONFIG_SAVE_LOC);
-
-            fDialog.setDirectory(filePathName);
+            fDialog.setDirectory(getSaveDirectory());
             fDialog.setFile(unitName + (parentFrame.getEntity() instanceof Mech?".mtf":".blk"));
             fDialog.setLocationRelativeTo(parentFrame);
 
@@ -1157,6 +1271,7 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
             } else {
                 BLKFile.encode(filePathName, parentFrame.getEntity());
             }
+            parentFrame.setUnitFile(new File(filePathName));
             CConfig.updateSaveFiles(filePathName);
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -1168,7 +1283,7 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
 
     public void jMenuSaveAsEntity_actionPerformed(ActionEvent event) {
 
-        if (UnitUtil.validateUnit(parentFrame.getEntity()).length() > 0) {
+        if (DerivedDataCache.lookupWindow(parentFrame).getValidation().length() > 0) {
             JOptionPane.showMessageDialog(parentFrame, "Warning: Saving an invalid unit, it might load incorrectly!");
         }
 
@@ -1176,9 +1291,9 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
 
         FileDialog fDialog = new FileDialog(parentFrame, "Save As", FileDialog.SAVE);
 
-        String filePathName = CConfig.getParam(CConfig.CONFIG_SAVE_LOC);
+        String filePathName;
 
-        fDialog.setDirectory(filePathName);
+        fDialog.setDirectory(getSaveDirectory());
         fDialog.setFile(parentFrame.getEntity().getChassis() + " " + parentFrame.getEntity().getModel() + (parentFrame.getEntity() instanceof Mech?".mtf":".blk"));
         fDialog.setLocationRelativeTo(parentFrame);
 
@@ -1202,6 +1317,7 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
             } else {
                 BLKFile.encode(filePathName, parentFrame.getEntity());
             }
+            parentFrame.setUnitFile(new File(filePathName));
             CConfig.updateSaveFiles(filePathName);
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -1213,12 +1329,16 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
 
     public void jMenuExportEntityHTML_actionPerformed(ActionEvent event) {
 
-        if (UnitUtil.validateUnit(parentFrame.getEntity()).length() > 0) {
+        if (DerivedDataCache.lookupWindow(parentFrame).getValidation().length() > 0) {
             JOptionPane.showMessageDialog(parentFrame, "Warning: exporting an invalid unit!");
         }
 
+        ReadoutCache.Readout unitReadout = getUnitReadout();
+        if (null == unitReadout) {
+            return;
+        }
         String unitName = parentFrame.getEntity().getChassis() + " " + parentFrame.getEntity().getModel();
-        MechView mview = new MechView(parentFrame.getEntity(), false);
+        String readout = unitReadout.getMechView().getMechReadout();
 
         FileDialog fDialog = new FileDialog(parentFrame, "Save As", FileDialog.SAVE);
 
@@ -1239,7 +1359,7 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         try {
             FileOutputStream out = new FileOutputStream(filePathName);
             PrintStream p = new PrintStream(out);
-            p.println(mview.getMechReadout());
+            p.println(readout);
             p.close();
             out.close();
         } catch (Exception ex) {
@@ -1249,12 +1369,16 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
 
     public void jMenuExportEntityText_actionPerformed(ActionEvent event) {
 
-        if (UnitUtil.validateUnit(parentFrame.getEntity()).length() > 0) {
+        if (DerivedDataCache.lookupWindow(parentFrame).getValidation().length() > 0) {
             JOptionPane.showMessageDialog(parentFrame, "Warning: exporting an invalid unit!");
         }
 
+        ReadoutCache.Readout unitReadout = getUnitReadout();
+        if (null == unitReadout) {
+            return;
+        }
         String unitName = parentFrame.getEntity().getChassis() + " " + parentFrame.getEntity().getModel();
-        MechTextView mview = new MechTextView(parentFrame.getEntity(), false);
+        String readout = unitReadout.getTextView().getMechReadout();
 
         FileDialog fDialog = new FileDialog(parentFrame, "Save As", FileDialog.SAVE);
 
@@ -1275,7 +1399,7 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         try {
             FileOutputStream out = new FileOutputStream(filePathName);
             PrintStream p = new PrintStream(out);
-            p.println(mview.getMechReadout());
+            p.println(readout);
             p.close();
             out.close();
         } catch (Exception ex) {
@@ -1284,13 +1408,109 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
     }
 
     public void jMenuExportEntityClipboard_actionPerformed(ActionEvent event) {
-        MechTextView mview = new MechTextView(parentFrame.getEntity(), false);
+        ReadoutCache.Readout unitReadout = getUnitReadout();
+        if (null == unitReadout) {
+            return;
+        }
+        String readout = unitReadout.getTextView().getMechReadout();
         Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-        StringSelection stringSelection = new StringSelection(mview.getMechReadout());
+        StringSelection stringSelection = new StringSelection(readout);
         clipboard.setContents(stringSelection, this);
     }
 
+    /**
+     * Gets the readout the preview shows for the unit being edited, so an export does not build
+     * it again.
+     *
+     * @return The readout, or null if it could not be built, in which case the user has been told
+     */
+    private ReadoutCache.Readout getUnitReadout() {
+        ReadoutCache.Readout readout = ReadoutCache.getInstance(parentFrame).get();
+        if (null == readout) {
+            JOptionPane.showMessageDialog(parentFrame, "The readout for this unit could not be created.",
+                    "Export Failed", JOptionPane.ERROR_MESSAGE);
+        }
+        return readout;
+    }
+
+    public void jMenuBatchExport_actionPerformed(ActionEvent event) {
+        String[] sources = { "Directory", "MUL File", "Unit Cache" };
+        int source = JOptionPane.showOptionDialog(parentFrame, "Export units from:", "Batch Export",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, sources, sources[0]);
+        if (source < 0) {
+            return;
+        }
+        BatchExporter.Format format = (BatchExporter.Format) JOptionPane.showInputDialog(parentFrame,
+                "Export format:", "Batch Export", JOptionPane.QUESTION_MESSAGE, null,
+                BatchExporter.Format.values(), BatchExporter.Format.HTML);
+        if (null == format) {
+            return;
+        }
+
+        File input = null;
+        if (source < 2) {
+            JFileChooser f = new JFileChooser(System.getProperty("user.dir") + "/data/mechfiles/");
+            f.setLocation(parentFrame.getLocation().x + 150, parentFrame.getLocation().y + 100);
+            if (source == 0) {
+                f.setDialogTitle("Choose Unit Directory");
+                f.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            } else {
+                f.setDialogTitle("Choose MUL File");
+                f.setFileFilter(new FileNameExtensionFilter("Mul Files", "mul"));
+            }
+            if ((f.showOpenDialog(parentFrame) != JFileChooser.APPROVE_OPTION) || (f.getSelectedFile() == null)) {
+                return;
+            }
+            input = f.getSelectedFile();
+        }
+
+        JFileChooser f = new JFileChooser(System.getProperty("user.dir"));
+        f.setLocation(parentFrame.getLocation().x + 150, parentFrame.getLocation().y + 100);
+        f.setDialogTitle("Choose Output Directory");
+        f.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if ((f.showSaveDialog(parentFrame) != JFileChooser.APPROVE_OPTION) || (f.getSelectedFile() == null)) {
+            return;
+        }
+        final BatchExporter exporter = new BatchExporter(format, f.getSelectedFile());
+        final File inputFile = input;
+        final int sourceType = source;
+
+        new Thread(() -> {
+            String summary;
+            try {
+                BatchExporter.Result result;
+                if (sourceType == 0) {
+                    result = exporter.exportDirectory(inputFile);
+                } else if (sourceType == 1) {
+                    result = exporter.exportMul(inputFile);
+                } else {
+                    result = exporter.exportUnitCache();
+                }
+                summary = result.getSummary();
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                summary = "Batch export failed: " + ex.getMessage();
+            }
+            final String text = summary;
+            SwingUtilities.invokeLater(() -> {
+                final JTextArea txtSummary = new JTextArea(text, 20, 60);
+                txtSummary.setEditable(false);
+                JOptionPane.showMessageDialog(parentFrame, new JScrollPane(txtSummary),
+                        "Batch Export", JOptionPane.INFORMATION_MESSAGE);
+            });
+        }, "Batch export").start();
+    }
+
     private void loadUnit() {
+        loadUnit(false);
+    }
+
+    /**
+     * Chooses a unit from the unit cache and loads it.
+     *
+     * @param newWindow Whether to open the unit in a new window instead of this one
+     */
+    private void loadUnit(boolean newWindow) {
         UnitLoadingDialog unitLoadingDialog = new UnitLoadingDialog(parentFrame);
         unitLoadingDialog.setVisible(true);
         UnitSelectorDialog viewer = new UnitSelectorDialog(parentFrame, unitLoadingDialog, true);
@@ -1303,30 +1523,34 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
             return;
         }
 
-        if (UnitUtil.validateUnit(newUnit).trim().length() > 0) {
+        final String validation = DerivedDataCache.calculate(newUnit).getValidation();
+        if (validation.trim().length() > 0) {
             JOptionPane.showMessageDialog(parentFrame, String.format(
-                    "Warning:Invalid unit, it might load incorrectly!\n%1$s",
-                            UnitUtil.validateUnit(newUnit)));
+                    "Warning:Invalid unit, it might load incorrectly!\n%1$s", validation));
         }
 
-        if (newUnit.getEntityType() != parentFrame.getEntity().getEntityType()) {
-            MegaMekLabMainUI newUI = null;
-            if (newUnit.hasETypeFlag(Entity.ETYPE_SMALL_CRAFT)) {
-                newUI = new megameklab.com.ui.Dropship.MainUI(((Aero)newUnit).isPrimitive());
-            } else if (newUnit.hasETypeFlag(Entity.ETYPE_AERO)
-                    && !(newUnit.hasETypeFlag(Entity.ETYPE_JUMPSHIP)
-                    || newUnit.hasETypeFlag(Entity.ETYPE_FIXED_WING_SUPPORT))) {
-                newUI = new megameklab.com.ui.Aero.MainUI(((Aero)newUnit).isPrimitive());
-            } else if (newUnit.hasETypeFlag(Entity.ETYPE_BATTLEARMOR)) {
-                newUI = new megameklab.com.ui.BattleArmor.MainUI();
-            } else if (newUnit.hasETypeFlag(Entity.ETYPE_INFANTRY)) {
-                newUI = new megameklab.com.ui.Infantry.MainUI();
-            } else if (newUnit.hasETypeFlag(Entity.ETYPE_MECH)) {
-                newUI = new megameklab.com.ui.Mek.MainUI();
-            } else if (newUnit.hasETypeFlag(Entity.ETYPE_TANK)
-                    && !newUnit.hasETypeFlag(Entity.ETYPE_GUN_EMPLACEMENT)) {
-                newUI = new megameklab.com.ui.Vehicle.MainUI();
+        final File unitFile;
+        if (viewer.getChosenMechSummary().getSourceFile().getName().endsWith(".zip")) {
+            String fileName = viewer.getChosenMechSummary().getSourceFile().getAbsolutePath();
+            fileName = fileName.substring(0, fileName.lastIndexOf(File.separatorChar) + 1);
+            fileName = fileName + viewer.getChosenMechSummary().getName() + ".mtf";
+            unitFile = new File(fileName);
+        } else {
+            unitFile = viewer.getChosenMechSummary().getSourceFile().getAbsoluteFile();
+        }
+
+        if (newWindow) {
+            if (null == UnitWindows.open(newUnit, unitFile, parentFrame)) {
+                JOptionPane.showMessageDialog(parentFrame,
+                        "Warning: Could not create new UI, aborting unit load!"
+                        +System.lineSeparator()
+                        +"Probable cause: Unsupported unit type.");
             }
+            return;
+        }
+
+        if (newUnit.getEntityType() != parentFrame.getEntity().getEntityType()) {
+            MegaMekLabMainUI newUI = UnitWindows.createUI(newUnit);
             if (null == newUI) {
                 JOptionPane.showMessageDialog(parentFrame,
                         "Warning: Could not create new UI, aborting unit load!"
@@ -1337,34 +1561,28 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
             parentFrame.dispose();
             UnitUtil.updateLoadedUnit(newUnit);
             newUI.setEntity(newUnit);
+            newUI.setUnitFile(unitFile);
             newUI.reloadTabs();
             newUI.repaint();
             newUI.refreshAll();
             return;
         }
 
-        CConfig.updateSaveFiles("");
         UnitUtil.updateLoadedUnit(newUnit);
 
-        if (viewer.getChosenMechSummary().getSourceFile().getName().endsWith(".zip")) {
-            String fileName = viewer.getChosenMechSummary().getSourceFile().getAbsolutePath();
-            fileName = fileName.substring(0, fileName.lastIndexOf(File.separatorChar) + 1);
-            fileName = fileName + viewer.getChosenMechSummary().getName() + ".mtf";
-            CConfig.updateSaveFiles(fileName);
-        } else {
-            CConfig.updateSaveFiles(viewer.getChosenMechSummary().getSourceFile().getAbsolutePath());
-        }
+        CConfig.updateSaveFiles(unitFile.getAbsolutePath());
         parentFrame.setEntity(newUnit);
+        parentFrame.setUnitFile(unitFile);
         reload();
         refresh();
         parentFrame.setVisible(true);
     }
 
     private void loadUnitFromFile() {
-        loadUnitFromFile(-1);
+        loadUnitFromFile(-1, false);
     }
 
-    private void loadUnitFromFile(int fileNumber) {
+    private void loadUnitFromFile(int fileNumber, boolean newWindow) {
 
         String filePathName = System.getProperty("user.dir").toString() + "/data/mechfiles/";
 
@@ -1406,10 +1624,30 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
             unitFile = f.getSelectedFile();
         }
 
-        loadUnitFromFile(unitFile);
+        loadUnitFromFile(unitFile, newWindow);
+    }
+
+    private void jMenuExploreVariants_actionPerformed() {
+        if (!(parentFrame.getEntity() instanceof Mech)) {
+            JOptionPane.showMessageDialog(parentFrame, "Variants can only be explored for Meks.");
+            return;
+        }
+        VariantExplorerDialog dialog = new VariantExplorerDialog(parentFrame);
+        dialog.setVisible(true);
+        dialog.dispose();
+    }
+
+    private void loadUnitFromLibrary() {
+        UnitLibraryDialog dialog = new UnitLibraryDialog(parentFrame);
+        dialog.setVisible(true);
+        File unitFile = dialog.getChosenFile();
+        dialog.dispose();
+        if (null != unitFile) {
+            loadUnitFromFile(unitFile, false);
+        }
     }
 
-    private void loadUnitFromFile(File unitFile) {
+    private void loadUnitFromFile(File unitFile, boolean newWindow) {
         try {
             Entity tempEntity = new MechFileParser(unitFile).getEntity();
 
@@ -1418,30 +1656,24 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
                 return;
             }
 
-            if (UnitUtil.validateUnit(tempEntity).trim().length() > 0) {
+            final String validation = DerivedDataCache.calculate(tempEntity).getValidation();
+            if (validation.trim().length() > 0) {
                 JOptionPane.showMessageDialog(parentFrame, String.format(
-                        "Warning:Invalid unit, it might load incorrectly!\n%1$s",
-                                UnitUtil.validateUnit(tempEntity)));
+                        "Warning:Invalid unit, it might load incorrectly!\n%1$s", validation));
             }
 
-            if (tempEntity.getEntityType() != parentFrame.getEntity().getEntityType()) {
-                MegaMekLabMainUI newUI = null;
-                if (tempEntity.hasETypeFlag(Entity.ETYPE_SMALL_CRAFT)) {
-                    newUI = new megameklab.com.ui.Dropship.MainUI(((Aero)tempEntity).isPrimitive());
-                } else if ((tempEntity instanceof Aero)
-                        && !((tempEntity instanceof Jumpship)
-                        || (tempEntity instanceof FixedWingSupport))) {
-                    newUI = new megameklab.com.ui.Aero.MainUI(((Aero)tempEntity).isPrimitive());
-                } else if (tempEntity instanceof BattleArmor) {
-                    newUI = new megameklab.com.ui.BattleArmor.MainUI();
-                } else if (tempEntity instanceof Infantry) {
-                    newUI = new megameklab.com.ui.Infantry.MainUI();
-                } else if (tempEntity instanceof Mech) {
-                    newUI = new megameklab.com.ui.Mek.MainUI();
-                } else if ((tempEntity instanceof Tank)
-                        && !(tempEntity instanceof GunEmplacement)) {
-                    newUI = new megameklab.com.ui.Vehicle.MainUI();
+            if (newWindow) {
+                if (null == UnitWindows.open(tempEntity, unitFile, parentFrame)) {
+                    JOptionPane.showMessageDialog(parentFrame,
+                            "Warning: Could not create new UI, aborting unit load!");
+                } else {
+                    CConfig.updateSaveFiles(unitFile.getAbsolutePath());
                 }
+                return;
+            }
+
+            if (tempEntity.getEntityType() != parentFrame.getEntity().getEntityType()) {
+                MegaMekLabMainUI newUI = UnitWindows.createUI(tempEntity);
                 if (null == newUI) {
                     JOptionPane.showMessageDialog(parentFrame,
                             "Warning: Could not create new UI, aborting unit load!");
@@ -1450,12 +1682,14 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
                 parentFrame.dispose();
                 UnitUtil.updateLoadedUnit(tempEntity);
                 newUI.setEntity(tempEntity);
+                newUI.setUnitFile(unitFile);
                 newUI.reloadTabs();
                 newUI.repaint();
                 newUI.refreshAll();
                 return;
             }
             parentFrame.setEntity(tempEntity);
+            parentFrame.setUnitFile(unitFile);
             UnitUtil.updateLoadedUnit(parentFrame.getEntity());
 
             CConfig.updateSaveFiles(unitFile.getAbsolutePath());
@@ -1473,6 +1707,28 @@ public class MenuBarCreator extends JMenuBar implements ClipboardOwner {
         parentFrame.refreshAll();
     }
 
+    /**
+     * @return The directory to offer when saving: the one the unit was loaded from or saved to,
+     *         or the last directory a unit was saved to from any window
+     */
+    private String getSaveDirectory() {
+        final File unitFile = parentFrame.getUnitFile();
+        if ((null != unitFile) && (null != unitFile.getParentFile())
+                && unitFile.getParentFile().isDirectory()) {
+            return unitFile.getParent();
+        }
+        return CConfig.getParam(CConfig.CONFIG_SAVE_LOC);
+    }
+
+    /**
+     * @return The file name without its extension
+     */
+    private static String getBaseName(File file) {
+        final String name = file.getName();
+        final int dot = name.lastIndexOf('.');
+        return (dot > 0) ? name.substring(0, dot) : name;
+    }
+
     private void reload() {
         parentFrame.reloadTabs();
     }
@@ -0,0 +1,221 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import megamek.common.Entity;
+import megamek.common.MechTextView;
+import megamek.common.MechView;
+import megameklab.com.MegaMekLab;
+import megameklab.com.ui.EntitySource;
+
+/**
+ * Builds the HTML and text readouts for the unit being edited. The readouts are generated on a
+ * background thread from a {@link UnitSnapshot} of the unit, so the live unit can continue to be
+ * edited while they are built. The most recent result is kept and reused until the unit changes,
+ * so the preview tabs and the export actions share one readout per revision of the unit.
+ */
+public class ReadoutCache {
+
+    /**
+     * The readouts for one revision of a unit.
+     */
+    public static class Readout {
+        private final long revision;
+        private final Entity entity;
+        private final MechView mechView;
+        private final MechTextView textView;
+
+        Readout(long revision, Entity entity, MechView mechView, MechTextView textView) {
+            this.revision = revision;
+            this.entity = entity;
+            this.mechView = mechView;
+            this.textView = textView;
+        }
+
+        /**
+         * @return The revision of the snapshot the readouts were built from
+         */
+        public long getRevision() {
+            return revision;
+        }
+
+        /**
+         * @return The copy of the unit the readouts were built from
+         */
+        public Entity getEntity() {
+            return entity;
+        }
+
+        public MechView getMechView() {
+            return mechView;
+        }
+
+        public MechTextView getTextView() {
+            return textView;
+        }
+    }
+
+    private static final Map<EntitySource, ReadoutCache> instances = new WeakHashMap<>();
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Readout builder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param eSource The source of the unit being edited
+     * @return        The readout cache for the unit source
+     */
+    public static synchronized ReadoutCache getInstance(EntitySource eSource) {
+        return instances.computeIfAbsent(eSource, ReadoutCache::new);
+    }
+
+    // Weak so the cache does not keep its key in the instance map alive
+    private final WeakReference<EntitySource> eSource;
+    private Readout readout = null;
+    private long pendingRevision = 0;
+    private Future<Readout> pending = null;
+    // The callbacks waiting for the pending readout
+    private final List<Consumer<Readout>> callbacks = new ArrayList<>();
+
+    private ReadoutCache(EntitySource eSource) {
+        this.eSource = new WeakReference<>(eSource);
+    }
+
+    /**
+     * Requests the readout for the current state of the unit. If it has already been built it is
+     * passed to the callback immediately. Otherwise it is built in the background and passed to
+     * the callback on the event dispatch thread, unless a request for a later revision has
+     * replaced it by then. Every callback requesting the same revision while it is being built
+     * receives the readout. Must be called from the event dispatch thread.
+     *
+     * @param callback Receives the readout, or null if it could not be built
+     */
+    public synchronized void request(Consumer<Readout> callback) {
+        final EntitySource source = eSource.get();
+        final UnitSnapshot snapshot = (null == source) ? null : UnitSnapshot.take(source);
+        if (null == snapshot) {
+            callback.accept(null);
+            return;
+        }
+        final long revision = snapshot.getRevision();
+        if ((null != readout) && (readout.getRevision() == revision)) {
+            callback.accept(readout);
+            return;
+        }
+        if ((null != pending) && (pendingRevision == revision)) {
+            callbacks.add(callback);
+            return;
+        }
+        if (null != pending) {
+            pending.cancel(true);
+        }
+        callbacks.clear();
+        callbacks.add(callback);
+        pendingRevision = revision;
+        pending = executor.submit(() -> {
+            final Readout result = build(snapshot);
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            SwingUtilities.invokeLater(() -> {
+                final List<Consumer<Readout>> waiting;
+                synchronized (ReadoutCache.this) {
+                    if (revision != pendingRevision) {
+                        // superseded by a request for a later revision, which takes the callbacks
+                        return;
+                    }
+                    pending = null;
+                    pendingRevision = 0;
+                    if (null != result) {
+                        readout = result;
+                    }
+                    waiting = new ArrayList<>(callbacks);
+                    callbacks.clear();
+                }
+                for (Consumer<Readout> c : waiting) {
+                    c.accept(result);
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * Gets the readout for the current state of the unit, waiting for it if it is being built for
+     * a preview and building it on the calling thread otherwise. The result is kept, so a preview
+     * of the same revision reuses it. Must be called from the event dispatch thread.
+     *
+     * @return The readout, or null if it could not be built
+     */
+    public synchronized Readout get() {
+        final String METHOD_NAME = "get()";
+
+        final EntitySource source = eSource.get();
+        final UnitSnapshot snapshot = (null == source) ? null : UnitSnapshot.take(source);
+        if (null == snapshot) {
+            return null;
+        }
+        final long revision = snapshot.getRevision();
+        if ((null != readout) && (readout.getRevision() == revision)) {
+            return readout;
+        }
+        Readout result = null;
+        if ((null != pending) && (pendingRevision == revision)) {
+            try {
+                result = pending.get();
+            } catch (InterruptedException | ExecutionException e) {
+                MegaMekLab.getLogger().log(ReadoutCache.class, METHOD_NAME, e);
+            }
+        }
+        if (null == result) {
+            result = build(snapshot);
+        }
+        if (null != result) {
+            readout = result;
+        }
+        return result;
+    }
+
+    private static Readout build(UnitSnapshot snapshot) {
+        final String METHOD_NAME = "build(UnitSnapshot)";
+
+        final Entity copy = snapshot.toEntity();
+        if (null == copy) {
+            return null;
+        }
+        try {
+            return new Readout(snapshot.getRevision(), copy, new MechView(copy, false),
+                    new MechTextView(copy, false));
+        } catch (Exception e) {
+            // error unit didn't load right. this is bad news.
+            MegaMekLab.getLogger().log(ReadoutCache.class, METHOD_NAME, e);
+            return null;
+        }
+    }
+}
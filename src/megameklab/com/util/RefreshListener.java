@@ -32,4 +32,25 @@ public interface RefreshListener extends EventListener{
     // Refreshers for just one thing on a tab
     public void refreshSummary();
     public void refreshEquipmentTable();
+
+    /**
+     * Tells the window that the unit has been changed. The structure, equipment, build and
+     * summary refreshes imply this; a tab that changes the unit and then only refreshes the
+     * preview, status bar or header calls this first.
+     */
+    default void unitChanged() {
+    }
+
+    /**
+     * Refreshes the views that show where equipment is mounted, after equipment has been added
+     * to, moved between or removed from locations. Calling this instead of the individual
+     * refreshes lets the window treat them as one change.
+     */
+    default void refreshAllocation() {
+        refreshEquipment();
+        refreshBuild();
+        refreshPreview();
+        refreshStatus();
+        refreshSummary();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,334 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import megamek.common.Entity;
+import megameklab.com.MegaMekLab;
+import megameklab.com.ui.EntitySource;
+
+/**
+ * The undo history of the unit in one editor window. After each user action that changes the
+ * unit, a {@link UnitSnapshot} is taken and compared with the previous state. Only the changed
+ * range of bytes is kept, compressed, with a compressed copy of the whole unit every few steps so
+ * that any state can be rebuilt from a nearby checkpoint. The oldest steps are dropped when the
+ * history grows past its size limit.
+ *
+ * The window calls {@link #scheduleRecord()} whenever the unit is marked as changed, which
+ * happens for each refresh that follows an edit, so edits are recorded without the tabs having
+ * to report them separately. The state is only taken once the editor has been idle for a moment,
+ * so a burst of edits is recorded as one step and the snapshot is shared with the other
+ * consumers of {@link UnitSnapshot#take}.
+ */
+public class UndoHistory {
+
+    // A full copy of the unit is kept at every nth step
+    private static final int CHECKPOINT_INTERVAL = 16;
+    // The most memory the compressed history of one unit may use
+    private static final long MAX_BYTES = MemoryPolicy.choose(4L, 1L) * 1024 * 1024;
+    private static final int MAX_STEPS = 500;
+    // How long the editor has to be idle before a change is recorded
+    private static final int IDLE_DELAY_MS = 300;
+
+    /**
+     * One state of the unit: either a compressed copy of the whole unit, or the bytes that
+     * replace the middle of the previous state.
+     */
+    private static class Step {
+        final boolean checkpoint;
+        final int prefix;
+        final int suffix;
+        final byte[] data;
+
+        Step(boolean checkpoint, int prefix, int suffix, byte[] data) {
+            this.checkpoint = checkpoint;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.data = data;
+        }
+    }
+
+    private final List<Step> steps = new ArrayList<>();
+    // The index of the current state in steps
+    private int cursor = -1;
+    private long totalBytes = 0;
+    // The current state as rebuilt from the steps
+    private byte[] base = null;
+    // The revision of the last snapshot of the live unit, used to tell whether it has changed.
+    // After an undo this is the revision of the restored unit, which does not always serialize
+    // to the same bytes it was read from.
+    private long revision = 0;
+    private boolean restoring = false;
+
+    private final EntitySource source;
+    private final Timer idleTimer;
+
+    /**
+     * @param source The window whose unit to track
+     */
+    public UndoHistory(EntitySource source) {
+        this.source = source;
+        idleTimer = new Timer(IDLE_DELAY_MS, e -> recordNow());
+        idleTimer.setRepeats(false);
+    }
+
+    /**
+     * Forgets the history and takes the unit's state once the editor is idle, so changes made
+     * while setting up a new unit are not recorded as steps.
+     */
+    public void reset() {
+        steps.clear();
+        cursor = -1;
+        totalBytes = 0;
+        base = null;
+        revision = 0;
+        scheduleRecord();
+    }
+
+    /**
+     * Checks the unit for changes once the editor has been idle for a moment. Each call restarts
+     * the wait.
+     */
+    public void scheduleRecord() {
+        if (!restoring) {
+            idleTimer.restart();
+        }
+    }
+
+    /**
+     * Records a change that is still waiting for the editor to become idle.
+     */
+    private void flush() {
+        if (idleTimer.isRunning()) {
+            idleTimer.stop();
+            recordNow();
+        }
+    }
+
+    private void recordNow() {
+        if (!restoring && (null != source.getEntity())) {
+            record(UnitSnapshot.take(source));
+        }
+    }
+
+    /**
+     * Adds a state of the unit as a new step if it differs from the current one. Any steps that
+     * were undone are discarded.
+     *
+     * @param snapshot The state of the unit
+     * @return         Whether a step was added
+     */
+    private boolean record(UnitSnapshot snapshot) {
+        if ((null == snapshot) || (snapshot.getRevision() == revision)) {
+            return false;
+        }
+        final long start = System.nanoTime();
+        final byte[] state = snapshot.bytes();
+        if ((null != base) && Arrays.equals(state, base)) {
+            // Changed and changed back since the last step
+            revision = snapshot.getRevision();
+            return false;
+        }
+        while (steps.size() > cursor + 1) {
+            totalBytes -= steps.remove(steps.size() - 1).data.length;
+        }
+        final Step step;
+        if ((null == base) || (steps.size() % CHECKPOINT_INTERVAL == 0)) {
+            step = new Step(true, 0, 0, compress(state, 0, state.length));
+        } else {
+            final int max = Math.min(base.length, state.length);
+            int prefix = 0;
+            while ((prefix < max) && (base[prefix] == state[prefix])) {
+                prefix++;
+            }
+            int suffix = 0;
+            while ((suffix < max - prefix)
+                    && (base[base.length - 1 - suffix] == state[state.length - 1 - suffix])) {
+                suffix++;
+            }
+            step = new Step(false, prefix, suffix, compress(state, prefix, state.length - suffix));
+        }
+        steps.add(step);
+        totalBytes += step.data.length;
+        cursor = steps.size() - 1;
+        base = state;
+        revision = snapshot.getRevision();
+        trim();
+        Diagnostics.record("UndoHistory.record", start);
+        return true;
+    }
+
+    /**
+     * Drops the oldest steps, a checkpoint group at a time, while the history is over its limits.
+     */
+    private void trim() {
+        while ((totalBytes > MAX_BYTES) || (steps.size() > MAX_STEPS)) {
+            int next = 1;
+            while ((next < steps.size()) && !steps.get(next).checkpoint) {
+                next++;
+            }
+            if (next >= cursor) {
+                // Keep the checkpoint the current state is built from
+                return;
+            }
+            for (int i = 0; i < next; i++) {
+                totalBytes -= steps.get(i).data.length;
+            }
+            steps.subList(0, next).clear();
+            cursor -= next;
+        }
+    }
+
+    public boolean canUndo() {
+        flush();
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        flush();
+        return cursor < steps.size() - 1;
+    }
+
+    /**
+     * @return The memory used by the compressed history, in bytes
+     */
+    public long getMemoryBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Moves back one step.
+     *
+     * @return A new copy of the unit as it was before the last change, or null if there is
+     *         nothing to undo or the state could not be restored
+     */
+    public Entity undo() {
+        return canUndo() ? moveTo(cursor - 1) : null;
+    }
+
+    /**
+     * Moves forward one step.
+     *
+     * @return A new copy of the unit as it was after the change that was undone, or null if
+     *         there is nothing to redo or the state could not be restored
+     */
+    public Entity redo() {
+        return canRedo() ? moveTo(cursor + 1) : null;
+    }
+
+    /**
+     * Marks the start and end of replacing the window's unit with a restored copy. Refreshes
+     * while the tabs are being rebuilt are not recorded, and the restored unit's state is taken
+     * as the one to compare later edits with.
+     *
+     * @param restoring Whether the unit is being replaced
+     */
+    public void setRestoring(boolean restoring) {
+        this.restoring = restoring;
+        if (restoring) {
+            idleTimer.stop();
+        } else {
+            SwingUtilities.invokeLater(() -> {
+                final UnitSnapshot snapshot = UnitSnapshot.take(source);
+                if (null != snapshot) {
+                    revision = snapshot.getRevision();
+                }
+            });
+        }
+    }
+
+    private Entity moveTo(int index) {
+        final String METHOD_NAME = "moveTo(int)";
+
+        final long start = System.nanoTime();
+        int first = index;
+        while (!steps.get(first).checkpoint) {
+            first--;
+        }
+        byte[] state = null;
+        try {
+            for (int i = first; i <= index; i++) {
+                final Step step = steps.get(i);
+                if (step.checkpoint) {
+                    state = decompress(step.data, 0, 0, null);
+                } else {
+                    state = decompress(step.data, step.prefix, step.suffix, state);
+                }
+            }
+        } catch (DataFormatException e) {
+            MegaMekLab.getLogger().log(UndoHistory.class, METHOD_NAME, e);
+            return null;
+        }
+        final Entity unit = new UnitSnapshot(state, 0).toEntity();
+        if (null != unit) {
+            cursor = index;
+            base = state;
+        }
+        Diagnostics.record("UndoHistory.restore", start);
+        return unit;
+    }
+
+    private static byte[] compress(byte[] data, int from, int to) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(data, from, to - from);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, (to - from) / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /**
+     * Inflates a step and, for a delta, places it between the unchanged ends of the previous
+     * state.
+     */
+    private static byte[] decompress(byte[] data, int prefix, int suffix, byte[] previous)
+            throws DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4 + prefix + suffix);
+        if (null != previous) {
+            out.write(previous, 0, prefix);
+        }
+        byte[] buffer = new byte[8192];
+        try {
+            while (!inflater.finished()) {
+                final int n = inflater.inflate(buffer);
+                if ((n == 0) && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated undo step");
+                }
+                out.write(buffer, 0, n);
+            }
+        } finally {
+            inflater.end();
+        }
+        if (null != previous) {
+            out.write(previous, previous.length - suffix, suffix);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,1070 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import megamek.MegaMek;
+import megamek.common.Entity;
+import megamek.common.MechFileParser;
+import megamek.common.Mounted;
+import megamek.common.UnitRoleHandler;
+import megamek.common.UnitType;
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+
+/**
+ * An index of the unit files in the library directories that can be searched by the summary
+ * values of the units and the equipment they mount, without loading the units.
+ *
+ * The index is kept in a file under the configuration directory that is mapped into memory. It
+ * holds a fixed size record for each unit file, so the values used for filtering are read
+ * straight from the mapped file, and a list of the units mounting each type of equipment, so a
+ * search for equipment only visits the units that have it. The index is brought up to date by
+ * {@link #refresh()}, which only loads the files that are new or have changed since they were
+ * indexed, and {@link #startWatching()} refreshes it whenever a file in the library changes.
+ */
+public class UnitLibraryIndex {
+
+    private static final File INDEX_DIR = new File(CConfig.CONFIG_DIR, "library");
+    private static final String INDEX_PREFIX = "index-";
+    private static final String INDEX_EXTENSION = ".idx";
+
+    // "MMLI"
+    private static final int MAGIC = 0x4D4D4C49;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 48;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_RECORD_COUNT = 8;
+    private static final int H_EQUIPMENT_COUNT = 12;
+    private static final int H_RECORDS = 16;
+    private static final int H_EQUIPMENT = 20;
+    private static final int H_RECORD_EQUIPMENT = 24;
+    private static final int H_POSTINGS = 28;
+    private static final int H_STRINGS = 32;
+    private static final int H_MEGAMEK_VERSION = 36;
+
+    private static final int RECORD_BYTES = 64;
+    private static final int R_PATH = 0;
+    private static final int R_NAME = 4;
+    private static final int R_TYPE = 8;
+    private static final int R_ROLE = 12;
+    private static final int R_MODIFIED = 16;
+    private static final int R_LENGTH = 24;
+    private static final int R_TONNAGE = 32;
+    private static final int R_BV = 36;
+    private static final int R_COST = 40;
+    private static final int R_YEAR = 48;
+    private static final int R_TECH_BASE = 52;
+    private static final int R_EQUIPMENT_START = 56;
+    private static final int R_EQUIPMENT_COUNT = 60;
+
+    private static final int EQUIPMENT_BYTES = 16;
+    private static final int E_INTERNAL_NAME = 0;
+    private static final int E_NAME = 4;
+    private static final int E_POSTINGS_START = 8;
+    private static final int E_POSTINGS_COUNT = 12;
+
+    // Files that could not be loaded are indexed so they are not loaded again until they change
+    private static final byte UNREADABLE = -1;
+
+    // How long the library has to be quiet after a change before the index is refreshed
+    private static final long WATCH_QUIET_MILLIS = 500;
+
+    public enum TechBase {
+        INNER_SPHERE ("Inner Sphere"),
+        CLAN ("Clan"),
+        MIXED ("Mixed");
+
+        private final String name;
+
+        TechBase(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * The indexed values for one unit file.
+     */
+    public static class Summary {
+        private final File file;
+        private final long modified;
+        private final long length;
+        private final String name;
+        private final String unitType;
+        private final String role;
+        private final double tonnage;
+        private final int bv;
+        private final long cost;
+        private final int year;
+        private final TechBase techBase;
+        private final List<String> equipment;
+        private final List<String> equipmentNames;
+
+        Summary(File file, long modified, long length, String name, String unitType, String role,
+                double tonnage, int bv, long cost, int year, TechBase techBase, List<String> equipment,
+                List<String> equipmentNames) {
+            this.file = file;
+            this.modified = modified;
+            this.length = length;
+            this.name = name;
+            this.unitType = unitType;
+            this.role = role;
+            this.tonnage = tonnage;
+            this.bv = bv;
+            this.cost = cost;
+            this.year = year;
+            this.techBase = techBase;
+            this.equipment = equipment;
+            this.equipmentNames = equipmentNames;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getUnitType() {
+            return unitType;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public double getTonnage() {
+            return tonnage;
+        }
+
+        public int getBattleValue() {
+            return bv;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        /**
+         * @return The tech base, or null if the file could not be loaded
+         */
+        public TechBase getTechBase() {
+            return techBase;
+        }
+
+        /**
+         * @return The internal names of the equipment types mounted on the unit
+         */
+        public List<String> getEquipment() {
+            return equipment;
+        }
+
+        /**
+         * @return The names of the equipment types mounted on the unit, in the same order as
+         *         {@link #getEquipment()}
+         */
+        public List<String> getEquipmentNames() {
+            return equipmentNames;
+        }
+    }
+
+    /**
+     * The conditions for a search. Conditions that are not set do not restrict the results.
+     * Equipment is matched by internal name or by name, ignoring case, and a unit matches if it
+     * mounts at least one type matching each equipment condition, so "ER PPC" finds both Inner
+     * Sphere and Clan ER PPCs.
+     */
+    public static class Query {
+        private double minTonnage = 0;
+        private double maxTonnage = Double.MAX_VALUE;
+        private int minBV = 0;
+        private int maxBV = Integer.MAX_VALUE;
+        private int minYear = Integer.MIN_VALUE;
+        private int maxYear = Integer.MAX_VALUE;
+        private TechBase techBase = null;
+        private String unitType = null;
+        private String role = null;
+        private String nameContains = null;
+        private final List<String> equipment = new ArrayList<>();
+
+        public Query setTonnage(double min, double max) {
+            minTonnage = min;
+            maxTonnage = max;
+            return this;
+        }
+
+        public Query setBattleValue(int min, int max) {
+            minBV = min;
+            maxBV = max;
+            return this;
+        }
+
+        public Query setYear(int min, int max) {
+            minYear = min;
+            maxYear = max;
+            return this;
+        }
+
+        public Query setTechBase(TechBase techBase) {
+            this.techBase = techBase;
+            return this;
+        }
+
+        public Query setUnitType(String unitType) {
+            this.unitType = unitType;
+            return this;
+        }
+
+        public Query setRole(String role) {
+            this.role = role;
+            return this;
+        }
+
+        public Query setNameContains(String text) {
+            nameContains = ((null == text) || text.trim().isEmpty()) ? null : text.trim().toLowerCase(Locale.ROOT);
+            return this;
+        }
+
+        public Query addEquipment(String name) {
+            if ((null != name) && !name.trim().isEmpty()) {
+                equipment.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * The outcome of a refresh of the index.
+     */
+    public static class RefreshResult {
+        private final int indexed;
+        private final int loaded;
+        private final int removed;
+        private final long elapsedMillis;
+
+        RefreshResult(int indexed, int loaded, int removed, long elapsedMillis) {
+            this.indexed = indexed;
+            this.loaded = loaded;
+            this.removed = removed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * @return The number of unit files in the index
+         */
+        public int getIndexed() {
+            return indexed;
+        }
+
+        /**
+         * @return The number of files that were new or changed and had to be loaded
+         */
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /**
+         * @return The number of files that were removed from the index
+         */
+        public int getRemoved() {
+            return removed;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    private static UnitLibraryIndex instance = null;
+
+    private volatile Snapshot snapshot;
+    private final Object refreshLock = new Object();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private Thread watcher = null;
+
+    /**
+     * @return The index, mapped from the index file written in an earlier session if there is one
+     */
+    public static synchronized UnitLibraryIndex getInstance() {
+        if (null == instance) {
+            instance = new UnitLibraryIndex();
+        }
+        return instance;
+    }
+
+    private UnitLibraryIndex() {
+        snapshot = Snapshot.load(newestIndexFile());
+    }
+
+    /**
+     * @return The directories searched for unit files
+     */
+    public static List<File> getLibraryDirectories() {
+        List<File> dirs = new ArrayList<>();
+        for (String dir : CConfig.getParam(CConfig.LIBRARY_DIRECTORIES).split(File.pathSeparator)) {
+            if (!dir.trim().isEmpty()) {
+                dirs.add(new File(dir.trim()));
+            }
+        }
+        return dirs;
+    }
+
+    /**
+     * Adds a directory to the library. The index includes it from the next refresh.
+     *
+     * @param dir The directory
+     */
+    public static void addLibraryDirectory(File dir) {
+        List<File> dirs = getLibraryDirectories();
+        if (!dirs.contains(dir.getAbsoluteFile())) {
+            dirs.add(dir.getAbsoluteFile());
+            CConfig.setParam(CConfig.LIBRARY_DIRECTORIES, dirs.stream().map(File::getPath)
+                    .collect(Collectors.joining(File.pathSeparator)));
+            CConfig.saveConfig();
+        }
+    }
+
+    /**
+     * @param listener Called on the refreshing thread after the index has changed
+     */
+    public void addChangeListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return The number of unit files in the index
+     */
+    public int size() {
+        return snapshot.recordCount;
+    }
+
+    /**
+     * Finds the units that satisfy all conditions of a query.
+     *
+     * @param query The conditions
+     * @return      The matching units, in the order of their files
+     */
+    public List<Summary> search(Query query) {
+        final Snapshot s = snapshot;
+        List<Summary> results = new ArrayList<>();
+        int[] candidates = null;
+        for (String term : query.equipment) {
+            int[] units = s.unitsWithEquipment(term);
+            candidates = (null == candidates) ? units : intersect(candidates, units);
+            if (candidates.length == 0) {
+                return results;
+            }
+        }
+        final int count = (null == candidates) ? s.recordCount : candidates.length;
+        for (int i = 0; i < count; i++) {
+            final int index = (null == candidates) ? i : candidates[i];
+            if (s.matches(index, query)) {
+                results.add(s.summary(index));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return The names of the equipment types mounted on at least one unit in the index
+     */
+    public Set<String> getEquipmentNames() {
+        return snapshot.equipmentNames();
+    }
+
+    /**
+     * @return The unit types of the units in the index
+     */
+    public Set<String> getUnitTypes() {
+        return snapshot.distinct(R_TYPE);
+    }
+
+    /**
+     * @return The roles of the units in the index
+     */
+    public Set<String> getRoles() {
+        return snapshot.distinct(R_ROLE);
+    }
+
+    /**
+     * Brings the index up to date with the library directories. Files whose modification time and
+     * size match the index are not loaded again; the others are loaded in parallel.
+     *
+     * @return The outcome of the refresh
+     * @throws IOException if the index file cannot be written
+     */
+    public RefreshResult refresh() throws IOException {
+        final String METHOD_NAME = "refresh()";
+
+        synchronized (refreshLock) {
+            final long start = System.currentTimeMillis();
+            final Snapshot current = snapshot;
+            final Map<String, Integer> existing = current.recordsByPath();
+            final Map<Path, BasicFileAttributes> files = findUnitFiles(getLibraryDirectories());
+
+            List<Summary> summaries = new ArrayList<>(files.size());
+            List<Path> changed = new ArrayList<>();
+            for (Map.Entry<Path, BasicFileAttributes> entry : files.entrySet()) {
+                final Integer index = existing.remove(entry.getKey().toString());
+                if ((null != index) && (current.modified(index) == entry.getValue().lastModifiedTime().toMillis())
+                        && (current.length(index) == entry.getValue().size())) {
+                    summaries.add(current.summary(index));
+                } else {
+                    changed.add(entry.getKey());
+                }
+            }
+            final int removed = existing.size();
+            if (changed.isEmpty() && (removed == 0)) {
+                return new RefreshResult(summaries.size(), 0, 0, System.currentTimeMillis() - start);
+            }
+            summaries.addAll(changed.parallelStream()
+                    .map(p -> summarize(p, files.get(p)))
+                    .collect(Collectors.toList()));
+            summaries.sort((a, b) -> a.getFile().getPath().compareTo(b.getFile().getPath()));
+
+            final Snapshot updated = write(summaries);
+            snapshot = updated;
+            removeOldIndexFiles(updated.file);
+            final RefreshResult result = new RefreshResult(summaries.size(), changed.size(), removed,
+                    System.currentTimeMillis() - start);
+            MegaMekLab.getLogger().log(UnitLibraryIndex.class, METHOD_NAME, LogLevel.INFO,
+                    String.format("Indexed %d unit files; loaded %d, removed %d in %d ms",
+                            result.getIndexed(), result.getLoaded(), result.getRemoved(),
+                            result.getElapsedMillis()));
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Starts a background thread that refreshes the index when files in the library directories
+     * are added, changed or removed. Does nothing if the thread is already running.
+     */
+    public synchronized void startWatching() {
+        if ((null != watcher) && watcher.isAlive()) {
+            return;
+        }
+        watcher = new Thread(this::watch, "Unit library watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stops refreshing the index when the library changes.
+     */
+    public synchronized void stopWatching() {
+        if (null != watcher) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    private void watch() {
+        final String METHOD_NAME = "watch()";
+
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            for (File dir : getLibraryDirectories()) {
+                if (dir.isDirectory()) {
+                    register(service, dir.toPath());
+                }
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                // Saving a unit produces several events, so wait until the library is quiet.
+                while (null != key) {
+                    changed |= process(service, key);
+                    key = service.poll(WATCH_QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (changed) {
+                    try {
+                        refresh();
+                    } catch (IOException ex) {
+                        MegaMekLab.getLogger().log(UnitLibraryIndex.class, METHOD_NAME, ex);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            // stopped
+        } catch (IOException ex) {
+            MegaMekLab.getLogger().log(UnitLibraryIndex.class, METHOD_NAME, ex);
+        }
+    }
+
+    /**
+     * Handles the events for one directory, watching any directory that was added.
+     *
+     * @return Whether any event could affect the index
+     */
+    private boolean process(WatchService service, WatchKey key) throws IOException {
+        final Path dir = (Path) key.watchable();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true;
+                continue;
+            }
+            final Path path = dir.resolve((Path) event.context());
+            if ((event.kind() == StandardWatchEventKinds.ENTRY_CREATE)
+                    && Files.isDirectory(path)) {
+                register(service, path);
+                changed = true;
+            } else if (isUnitFile(path.toString()) || !Files.exists(path)) {
+                // A deleted entry may have been a directory of unit files
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private static void register(WatchService service, Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static Map<Path, BasicFileAttributes> findUnitFiles(List<File> roots) throws IOException {
+        final Map<Path, BasicFileAttributes> files = new LinkedHashMap<>();
+        for (File root : roots) {
+            if (!root.isDirectory()) {
+                continue;
+            }
+            Files.walkFileTree(root.toPath().toAbsolutePath().normalize(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && isUnitFile(file.toString())) {
+                        files.put(file, attrs);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return files;
+    }
+
+    private static boolean isUnitFile(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".mtf") || lower.endsWith(".blk") || lower.endsWith(".hmp");
+    }
+
+    /**
+     * Loads a unit file and extracts the indexed values.
+     */
+    private static Summary summarize(Path path, BasicFileAttributes attrs) {
+        final String METHOD_NAME = "summarize(Path,BasicFileAttributes)";
+
+        final File file = path.toFile();
+        final long modified = attrs.lastModifiedTime().toMillis();
+        try {
+            Entity entity = new MechFileParser(file).getEntity();
+            final TechBase techBase;
+            if (entity.isMixedTech()) {
+                techBase = TechBase.MIXED;
+            } else if (entity.isClan()) {
+                techBase = TechBase.CLAN;
+            } else {
+                techBase = TechBase.INNER_SPHERE;
+            }
+            Map<String, String> equipment = new LinkedHashMap<>();
+            for (Mounted m : entity.getEquipment()) {
+                equipment.putIfAbsent(m.getType().getInternalName(), m.getType().getName());
+            }
+            return new Summary(file, modified, attrs.size(), entity.getShortNameRaw(),
+                    UnitType.determineUnitType(entity), UnitRoleHandler.getRoleFor(entity).toString(),
+                    entity.getWeight(), entity.calculateBattleValue(), Math.round(entity.getCost(false)),
+                    entity.getYear(), techBase, new ArrayList<>(equipment.keySet()),
+                    new ArrayList<>(equipment.values()));
+        } catch (Exception ex) {
+            MegaMekLab.getLogger().log(UnitLibraryIndex.class, METHOD_NAME, LogLevel.DEBUG,
+                    "Could not index " + file + ": " + ex);
+            return new Summary(file, modified, attrs.size(), file.getName(), "", "", 0, 0, 0, 0,
+                    null, Collections.emptyList(), Collections.emptyList());
+        }
+    }
+
+    private static File newestIndexFile() {
+        File[] files = INDEX_DIR.listFiles((dir, name) -> name.startsWith(INDEX_PREFIX)
+                && name.endsWith(INDEX_EXTENSION));
+        if ((null == files) || (files.length == 0)) {
+            return null;
+        }
+        return Collections.max(Arrays.asList(files), (a, b) -> a.getName().compareTo(b.getName()));
+    }
+
+    /**
+     * Deletes index files other than the current one. A file that is still mapped may not be
+     * deletable on some platforms, in which case it is removed after a later refresh.
+     */
+    private static void removeOldIndexFiles(File current) {
+        File[] files = INDEX_DIR.listFiles((dir, name) -> name.startsWith(INDEX_PREFIX)
+                && name.endsWith(INDEX_EXTENSION));
+        if (null != files) {
+            for (File file : files) {
+                if (!file.equals(current)) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a new index file. Each refresh writes a new file rather than replacing the mapped
+     * one, since a mapped file cannot be replaced on all platforms.
+     */
+    private static Snapshot write(List<Summary> summaries) throws IOException {
+        final StringTable strings = new StringTable();
+        final Map<String, Integer> equipmentIds = new LinkedHashMap<>();
+        final List<String> equipmentNames = new ArrayList<>();
+        final List<List<Integer>> postings = new ArrayList<>();
+        final int[][] recordEquipment = new int[summaries.size()][];
+        int recordEquipmentCount = 0;
+        int postingsCount = 0;
+        for (int r = 0; r < summaries.size(); r++) {
+            List<String> equipment = summaries.get(r).getEquipment();
+            List<String> names = summaries.get(r).getEquipmentNames();
+            recordEquipment[r] = new int[equipment.size()];
+            for (int i = 0; i < equipment.size(); i++) {
+                Integer id = equipmentIds.get(equipment.get(i));
+                if (null == id) {
+                    id = equipmentIds.size();
+                    equipmentIds.put(equipment.get(i), id);
+                    equipmentNames.add(names.get(i));
+                    postings.add(new ArrayList<>());
+                }
+                recordEquipment[r][i] = id;
+                postings.get(id).add(r);
+            }
+            recordEquipmentCount += equipment.size();
+            postingsCount += equipment.size();
+        }
+        final int megamekVersion = strings.add(MegaMek.VERSION);
+        final int[] names = new int[equipmentIds.size() * 2];
+        int e = 0;
+        for (String internalName : equipmentIds.keySet()) {
+            names[e] = strings.add(internalName);
+            names[e + 1] = strings.add(equipmentNames.get(e / 2));
+            e += 2;
+        }
+        final int[][] recordStrings = new int[summaries.size()][4];
+        for (int r = 0; r < summaries.size(); r++) {
+            Summary s = summaries.get(r);
+            recordStrings[r][0] = strings.add(s.getFile().getPath());
+            recordStrings[r][1] = strings.add(s.getName());
+            recordStrings[r][2] = strings.add(s.getUnitType());
+            recordStrings[r][3] = strings.add(s.getRole());
+        }
+        final byte[] stringBytes = strings.toByteArray();
+
+        final int recordsOffset = HEADER_BYTES;
+        final int equipmentOffset = recordsOffset + summaries.size() * RECORD_BYTES;
+        final int recordEquipmentOffset = equipmentOffset + equipmentIds.size() * EQUIPMENT_BYTES;
+        final int postingsOffset = recordEquipmentOffset + recordEquipmentCount * 4;
+        final int stringsOffset = postingsOffset + postingsCount * 4;
+        ByteBuffer buf = ByteBuffer.allocate(stringsOffset + stringBytes.length);
+
+        buf.putInt(H_MAGIC, MAGIC);
+        buf.putInt(H_VERSION, FORMAT_VERSION);
+        buf.putInt(H_RECORD_COUNT, summaries.size());
+        buf.putInt(H_EQUIPMENT_COUNT, equipmentIds.size());
+        buf.putInt(H_RECORDS, recordsOffset);
+        buf.putInt(H_EQUIPMENT, equipmentOffset);
+        buf.putInt(H_RECORD_EQUIPMENT, recordEquipmentOffset);
+        buf.putInt(H_POSTINGS, postingsOffset);
+        buf.putInt(H_STRINGS, stringsOffset);
+        buf.putInt(H_MEGAMEK_VERSION, megamekVersion);
+
+        int equipmentPos = 0;
+        for (int r = 0; r < summaries.size(); r++) {
+            final Summary s = summaries.get(r);
+            final int base = recordsOffset + r * RECORD_BYTES;
+            buf.putInt(base + R_PATH, recordStrings[r][0]);
+            buf.putInt(base + R_NAME, recordStrings[r][1]);
+            buf.putInt(base + R_TYPE, recordStrings[r][2]);
+            buf.putInt(base + R_ROLE, recordStrings[r][3]);
+            buf.putLong(base + R_MODIFIED, s.modified);
+            buf.putLong(base + R_LENGTH, s.length);
+            buf.putFloat(base + R_TONNAGE, (float) s.getTonnage());
+            buf.putInt(base + R_BV, s.getBattleValue());
+            buf.putLong(base + R_COST, s.getCost());
+            buf.putInt(base + R_YEAR, s.getYear());
+            buf.put(base + R_TECH_BASE, (null == s.getTechBase()) ? UNREADABLE : (byte) s.getTechBase().ordinal());
+            buf.putInt(base + R_EQUIPMENT_START, equipmentPos);
+            buf.putInt(base + R_EQUIPMENT_COUNT, recordEquipment[r].length);
+            for (int id : recordEquipment[r]) {
+                buf.putInt(recordEquipmentOffset + equipmentPos * 4, id);
+                equipmentPos++;
+            }
+        }
+        int postingsPos = 0;
+        for (int id = 0; id < postings.size(); id++) {
+            final int base = equipmentOffset + id * EQUIPMENT_BYTES;
+            buf.putInt(base + E_INTERNAL_NAME, names[id * 2]);
+            buf.putInt(base + E_NAME, names[id * 2 + 1]);
+            buf.putInt(base + E_POSTINGS_START, postingsPos);
+            buf.putInt(base + E_POSTINGS_COUNT, postings.get(id).size());
+            // Records are added in order, so each list is already sorted.
+            for (int record : postings.get(id)) {
+                buf.putInt(postingsOffset + postingsPos * 4, record);
+                postingsPos++;
+            }
+        }
+        buf.position(stringsOffset);
+        buf.put(stringBytes);
+        buf.flip();
+
+        if (!INDEX_DIR.exists() && !INDEX_DIR.mkdirs()) {
+            throw new IOException("Could not create " + INDEX_DIR);
+        }
+        File temp = File.createTempFile(INDEX_PREFIX, ".tmp", INDEX_DIR);
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+        }
+        File file = new File(INDEX_DIR, INDEX_PREFIX + System.currentTimeMillis() + INDEX_EXTENSION);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return Snapshot.load(file);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; (i < a.length) && (j < b.length); ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while ((i < a.length) || (j < b.length)) {
+            if ((j >= b.length) || ((i < a.length) && (a[i] < b[j]))) {
+                result[n++] = a[i++];
+            } else if ((i >= a.length) || (b[j] < a[i])) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Collects the strings for an index file, storing each distinct string once as a two byte
+     * length followed by the UTF-8 bytes.
+     */
+    private static class StringTable {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int add(String s) {
+            Integer offset = offsets.get(s);
+            if (null == offset) {
+                byte[] encoded = s.getBytes(StandardCharsets.UTF_8);
+                if (encoded.length > 0xFFFF) {
+                    encoded = Arrays.copyOf(encoded, 0xFFFF);
+                }
+                offset = bytes.size();
+                bytes.write(encoded.length >> 8);
+                bytes.write(encoded.length);
+                bytes.write(encoded, 0, encoded.length);
+                offsets.put(s, offset);
+            }
+            return offset;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * One version of the mapped index file. Only absolute reads are made on the buffer, so one
+     * snapshot can be searched by several threads at once.
+     */
+    private static class Snapshot {
+        private final File file;
+        private final ByteBuffer buf;
+        private final int recordCount;
+        private final int equipmentCount;
+        private final int records;
+        private final int equipment;
+        private final int recordEquipment;
+        private final int postings;
+        private final int strings;
+        // Equipment ids by lower case internal name and name
+        private final Map<String, int[]> equipmentIds = new HashMap<>();
+        // Decoded type and role strings, which are shared by many records
+        private final Map<Integer, String> sharedStrings = new ConcurrentHashMap<>();
+
+        private Snapshot(File file, ByteBuffer buf) {
+            this.file = file;
+            this.buf = buf;
+            if (null == buf) {
+                recordCount = 0;
+                equipmentCount = 0;
+                records = equipment = recordEquipment = postings = strings = 0;
+                return;
+            }
+            recordCount = buf.getInt(H_RECORD_COUNT);
+            equipmentCount = buf.getInt(H_EQUIPMENT_COUNT);
+            records = buf.getInt(H_RECORDS);
+            equipment = buf.getInt(H_EQUIPMENT);
+            recordEquipment = buf.getInt(H_RECORD_EQUIPMENT);
+            postings = buf.getInt(H_POSTINGS);
+            strings = buf.getInt(H_STRINGS);
+            for (int id = 0; id < equipmentCount; id++) {
+                addEquipmentName(string(buf.getInt(equipment + id * EQUIPMENT_BYTES + E_INTERNAL_NAME)), id);
+                addEquipmentName(string(buf.getInt(equipment + id * EQUIPMENT_BYTES + E_NAME)), id);
+            }
+        }
+
+        /**
+         * Maps an index file, returning an empty snapshot if there is no usable file. An index
+         * written by a different version of MegaMek is not used since the BV and cost of the
+         * units may have changed.
+         */
+        static Snapshot load(File file) {
+            final String METHOD_NAME = "load(File)";
+
+            if (null == file) {
+                return new Snapshot(null, null);
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if ((buf.capacity() < HEADER_BYTES) || (buf.getInt(H_MAGIC) != MAGIC)
+                        || (buf.getInt(H_VERSION) != FORMAT_VERSION)) {
+                    return new Snapshot(null, null);
+                }
+                Snapshot s = new Snapshot(file, buf);
+                if (!MegaMek.VERSION.equals(s.string(buf.getInt(H_MEGAMEK_VERSION)))) {
+                    return new Snapshot(null, null);
+                }
+                return s;
+            } catch (IOException | RuntimeException ex) {
+                MegaMekLab.getLogger().log(UnitLibraryIndex.class, METHOD_NAME, LogLevel.WARNING,
+                        "Discarding unreadable library index " + file + ": " + ex);
+                return new Snapshot(null, null);
+            }
+        }
+
+        private void addEquipmentName(String name, int id) {
+            final String key = name.toLowerCase(Locale.ROOT);
+            int[] ids = equipmentIds.get(key);
+            equipmentIds.put(key, (null == ids) ? new int[] { id } : union(ids, new int[] { id }));
+        }
+
+        String string(int offset) {
+            final int pos = strings + offset;
+            final int length = ((buf.get(pos) & 0xFF) << 8) | (buf.get(pos + 1) & 0xFF);
+            byte[] bytes = new byte[length];
+            ByteBuffer dup = buf.duplicate();
+            dup.position(pos + 2);
+            dup.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private String sharedString(int offset) {
+            return sharedStrings.computeIfAbsent(offset, this::string);
+        }
+
+        private int record(int index) {
+            return records + index * RECORD_BYTES;
+        }
+
+        long modified(int index) {
+            return buf.getLong(record(index) + R_MODIFIED);
+        }
+
+        long length(int index) {
+            return buf.getLong(record(index) + R_LENGTH);
+        }
+
+        Map<String, Integer> recordsByPath() {
+            Map<String, Integer> paths = new HashMap<>(recordCount * 2);
+            for (int i = 0; i < recordCount; i++) {
+                paths.put(string(buf.getInt(record(i) + R_PATH)), i);
+            }
+            return paths;
+        }
+
+        Set<String> distinct(int field) {
+            Set<String> values = new TreeSet<>();
+            for (int i = 0; i < recordCount; i++) {
+                if (buf.get(record(i) + R_TECH_BASE) != UNREADABLE) {
+                    values.add(sharedString(buf.getInt(record(i) + field)));
+                }
+            }
+            return values;
+        }
+
+        Set<String> equipmentNames() {
+            Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (int id = 0; id < equipmentCount; id++) {
+                names.add(string(buf.getInt(equipment + id * EQUIPMENT_BYTES + E_NAME)));
+            }
+            return names;
+        }
+
+        /**
+         * @return The sorted indices of the units mounting equipment matching the term
+         */
+        int[] unitsWithEquipment(String term) {
+            int[] ids = equipmentIds.get(term);
+            if (null == ids) {
+                return new int[0];
+            }
+            int[] units = new int[0];
+            for (int id : ids) {
+                final int base = equipment + id * EQUIPMENT_BYTES;
+                final int start = buf.getInt(base + E_POSTINGS_START);
+                final int count = buf.getInt(base + E_POSTINGS_COUNT);
+                int[] list = new int[count];
+                for (int i = 0; i < count; i++) {
+                    list[i] = buf.getInt(postings + (start + i) * 4);
+                }
+                units = union(units, list);
+            }
+            return units;
+        }
+
+        boolean matches(int index, Query q) {
+            final int base = record(index);
+            final byte techBase = buf.get(base + R_TECH_BASE);
+            if (techBase == UNREADABLE) {
+                return false;
+            }
+            if ((null != q.techBase) && (techBase != q.techBase.ordinal())) {
+                return false;
+            }
+            final float tonnage = buf.getFloat(base + R_TONNAGE);
+            if ((tonnage < q.minTonnage) || (tonnage > q.maxTonnage)) {
+                return false;
+            }
+            final int bv = buf.getInt(base + R_BV);
+            if ((bv < q.minBV) || (bv > q.maxBV)) {
+                return false;
+            }
+            final int year = buf.getInt(base + R_YEAR);
+            if ((year < q.minYear) || (year > q.maxYear)) {
+                return false;
+            }
+            if ((null != q.unitType) && !q.unitType.equals(sharedString(buf.getInt(base + R_TYPE)))) {
+                return false;
+            }
+            if ((null != q.role) && !q.role.equals(sharedString(buf.getInt(base + R_ROLE)))) {
+                return false;
+            }
+            return (null == q.nameContains)
+                    || string(buf.getInt(base + R_NAME)).toLowerCase(Locale.ROOT).contains(q.nameContains);
+        }
+
+        Summary summary(int index) {
+            final int base = record(index);
+            final byte techBase = buf.get(base + R_TECH_BASE);
+            final int start = buf.getInt(base + R_EQUIPMENT_START);
+            final int count = buf.getInt(base + R_EQUIPMENT_COUNT);
+            List<String> internalNames = new ArrayList<>(count);
+            List<String> names = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final int id = buf.getInt(recordEquipment + (start + i) * 4);
+                final int e = equipment + id * EQUIPMENT_BYTES;
+                internalNames.add(string(buf.getInt(e + E_INTERNAL_NAME)));
+                names.add(string(buf.getInt(e + E_NAME)));
+            }
+            return new Summary(new File(string(buf.getInt(base + R_PATH))),
+                    buf.getLong(base + R_MODIFIED), buf.getLong(base + R_LENGTH),
+                    string(buf.getInt(base + R_NAME)), sharedString(buf.getInt(base + R_TYPE)),
+                    sharedString(buf.getInt(base + R_ROLE)), buf.getFloat(base + R_TONNAGE),
+                    buf.getInt(base + R_BV), buf.getLong(base + R_COST), buf.getInt(base + R_YEAR),
+                    (techBase == UNREADABLE) ? null : TechBase.values()[techBase],
+                    internalNames, names);
+        }
+    }
+}
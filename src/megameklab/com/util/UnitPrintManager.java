@@ -20,15 +20,21 @@ import java.awt.Frame;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
-import java.awt.print.Book;
 import java.awt.print.PageFormat;
 import java.awt.print.Paper;
 import java.awt.print.PrinterException;
 import java.awt.print.PrinterJob;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 
 import javax.print.attribute.HashPrintRequestAttributeSet;
 import javax.print.attribute.standard.MediaPrintableArea;
@@ -39,6 +45,8 @@ import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import megamek.client.ui.swing.UnitLoadingDialog;
@@ -60,7 +68,13 @@ import megamek.common.Protomech;
 import megamek.common.SmallCraft;
 import megamek.common.Tank;
 import megamek.common.VTOL;
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+import megameklab.com.printing.PdfDocument;
+import megameklab.com.printing.PdfGraphics2D;
 import megameklab.com.printing.PrintMech;
+import megameklab.com.printing.RecordSheetBook;
+import megameklab.com.printing.SheetFingerprint;
 import megameklab.com.ui.Aero.Printing.PrintAero;
 import megameklab.com.ui.Aero.Printing.PrintConventionalFighter;
 import megameklab.com.ui.Aero.Printing.PrintFixedWingSupport;
@@ -133,12 +147,7 @@ public class UnitPrintManager {
     }
 
     public static boolean printAllUnits(Vector<Entity> loadedUnits, boolean singlePrint) {
-        Book book = new Book();
-        
-        List<Infantry> infList = new ArrayList<>();
-        List<BattleArmor> baList = new ArrayList<>();
-        List<Protomech> protoList = new ArrayList<>();
-        List<Entity> unprintable = new ArrayList<>();
+        final String METHOD_NAME = "printAllUnits(Vector<Entity>,boolean)";
 
         HashPrintRequestAttributeSet aset = new HashPrintRequestAttributeSet();
         aset.add(MediaSizeName.NA_LETTER);
@@ -156,44 +165,272 @@ public class UnitPrintManager {
 
         pageFormat.setPaper(p);
 
+        RecordSheetBook book = createBook(loadedUnits, singlePrint, pageFormat);
+
+        masterPrintJob.setPageable(book);
+        if (loadedUnits.size() > 1) {
+            masterPrintJob.setJobName(loadedUnits.get(0).getShortNameRaw() + " etc");
+        } else if (loadedUnits.size() > 0) {
+            masterPrintJob.setJobName(loadedUnits.get(0).getShortNameRaw());
+        }
+        try {
+            masterPrintJob.print(aset);
+        } catch (PrinterException e) {
+            // printing cancelled
+            return false;
+        } finally {
+            book.release();
+        }
+        MegaMekLab.getLogger().log(UnitPrintManager.class, METHOD_NAME, LogLevel.INFO,
+                String.format("Printed %d pages; %d sheets reused from identical units",
+                        book.getNumberOfPages(), book.getRendersSaved()));
+
+        return true;
+    }
+
+    /**
+     * Writes the pages of a print job to a PDF file without going through a printer driver.
+     *
+     * @param book The pages to write
+     * @param file The file to write
+     * @return     The finished document, which reports the page count and file size
+     * @throws IOException if the file cannot be written
+     * @throws PrinterException if a record sheet cannot be drawn
+     */
+    public static PdfDocument exportToPdf(RecordSheetBook book, File file)
+            throws IOException, PrinterException {
+        return exportToPdf(book, file, page -> {}, () -> false);
+    }
+
+    /**
+     * Writes the pages of a print job to a PDF file, reporting each page as it is started.
+     *
+     * @param book      The pages to write
+     * @param file      The file to write
+     * @param progress  Receives the number of pages written so far
+     * @param cancelled Checked before each page; the export stops if it returns true
+     * @return          The finished document, which reports the page count and file size
+     * @throws IOException if the file cannot be written, or an {@link InterruptedIOException} if
+     *                     the export is cancelled
+     * @throws PrinterException if a record sheet cannot be drawn
+     */
+    public static PdfDocument exportToPdf(RecordSheetBook book, File file, IntConsumer progress,
+            BooleanSupplier cancelled) throws IOException, PrinterException {
+        PdfDocument doc = new PdfDocument(new FileOutputStream(file));
+        try {
+            for (int page = 0; page < book.getNumberOfPages(); page++) {
+                if (cancelled.getAsBoolean()) {
+                    throw new InterruptedIOException("PDF export cancelled");
+                }
+                progress.accept(page);
+                PageFormat pageFormat = book.getPageFormat(page);
+                PdfGraphics2D g2d = doc.beginPage(pageFormat.getWidth(), pageFormat.getHeight());
+                book.getPrintable(page).print(g2d, pageFormat, page);
+                doc.endPage();
+            }
+        } finally {
+            book.release();
+            doc.close();
+        }
+        return doc;
+    }
+
+    public static void exportEntityToPdf(JFrame parent, Entity entity) {
+        // The sheets are drawn in the background and printing changes the unit, so use a copy
+        final UnitSnapshot snapshot = UnitSnapshot.of(entity);
+        final Entity copy = (null == snapshot) ? null : snapshot.toEntity();
+        Vector<Entity> unitList = new Vector<Entity>();
+        unitList.add((null == copy) ? entity : copy);
+        exportToPdf(parent, unitList, false, entity.getShortNameRaw());
+    }
+
+    public static void exportMulToPdf(JFrame parent, boolean singlePrint) {
+        JFileChooser f = new JFileChooser(System.getProperty("user.dir"));
+        f.setLocation(parent.getLocation().x + 150, parent.getLocation().y + 100);
+        f.setDialogTitle("Export MUL to PDF");
+        f.setMultiSelectionEnabled(false);
+        f.setFileFilter(new FileNameExtensionFilter("Mul Files", "mul"));
+
+        int returnVal = f.showOpenDialog(parent);
+        if ((returnVal != JFileChooser.APPROVE_OPTION) || (f.getSelectedFile() == null)) {
+            return;
+        }
+        Vector<Entity> loadedUnits;
+        try {
+            loadedUnits = EntityListFile.loadFrom(f.getSelectedFile());
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return;
+        }
+        exportToPdf(parent, loadedUnits, singlePrint, f.getSelectedFile().getName().replaceAll("\\.mul$", ""));
+    }
+
+    /**
+     * Asks for a file name and writes the record sheets for the units to it. The sheets are drawn
+     * and written on a background thread with a progress dialog that can cancel the export.
+     */
+    private static void exportToPdf(JFrame parent, List<Entity> loadedUnits, boolean singlePrint,
+            String defaultName) {
+        JFileChooser f = new JFileChooser(System.getProperty("user.dir"));
+        f.setLocation(parent.getLocation().x + 150, parent.getLocation().y + 100);
+        f.setDialogTitle("Save PDF");
+        f.setFileFilter(new FileNameExtensionFilter("PDF Files", "pdf"));
+        f.setSelectedFile(new File(defaultName.replaceAll("[\\\\/:*?\"<>|]", "_") + ".pdf"));
+
+        int returnVal = f.showSaveDialog(parent);
+        if ((returnVal != JFileChooser.APPROVE_OPTION) || (f.getSelectedFile() == null)) {
+            return;
+        }
+        final File file = f.getSelectedFile().getName().toLowerCase().endsWith(".pdf")
+                ? f.getSelectedFile()
+                : new File(f.getSelectedFile().getParentFile(), f.getSelectedFile().getName() + ".pdf");
+        final PageFormat pageFormat = new PageFormat();
+        Paper p = pageFormat.getPaper();
+        p.setImageableArea(0, 0, p.getWidth(), p.getHeight());
+        pageFormat.setPaper(p);
+        final long start = System.currentTimeMillis();
+        final RecordSheetBook book = createBook(loadedUnits, singlePrint, pageFormat);
+        final ProgressMonitor monitor = new ProgressMonitor(parent, "Exporting " + file.getName(),
+                null, 0, book.getNumberOfPages());
+        new SwingWorker<PdfDocument, Integer>() {
+            @Override
+            protected PdfDocument doInBackground() throws Exception {
+                try {
+                    return exportToPdf(book, file, this::publish, this::isCancelled);
+                } catch (InterruptedIOException ex) {
+                    // Cancelled; the file has been closed, so remove the partial export
+                    file.delete();
+                    throw ex;
+                }
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                if (monitor.isCanceled()) {
+                    cancel(false);
+                    return;
+                }
+                final int page = chunks.get(chunks.size() - 1);
+                monitor.setProgress(page);
+                monitor.setNote(String.format("Page %d of %d", page + 1, book.getNumberOfPages()));
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    PdfDocument doc = get();
+                    JOptionPane.showMessageDialog(parent, String.format(
+                            "Wrote %d pages (%d KB) in %.1f seconds.%nSheets reused from identical units: %d"
+                            + "%nShared content blocks: %d, reused %d times.",
+                            doc.getPageCount(), doc.getBytesWritten() / 1024,
+                            (System.currentTimeMillis() - start) / 1000.0, book.getRendersSaved(),
+                            doc.getFormCount(), doc.getFormUses()),
+                            "Export to PDF", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    final Throwable cause = (null == ex.getCause()) ? ex : ex.getCause();
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(parent, "Unable to write " + file.getName() + ": "
+                            + cause.getMessage(), "Export to PDF", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Plans the pages of a print job. Units that share a sheet are grouped here, but the sheets
+     * themselves are not created until the print system requests the page. Meks that appear more
+     * than once in the job with the same design share one populated sheet.
+     *
+     * @param loadedUnits The units to print
+     * @param singlePrint Whether to print each unit on its own sheet instead of grouping
+     * @param pageFormat  The format to use for every page
+     * @return            The page plan
+     */
+    public static RecordSheetBook createBook(List<Entity> loadedUnits, boolean singlePrint,
+            PageFormat pageFormat) {
+        RecordSheetBook book = new RecordSheetBook(pageFormat);
+
+        List<Infantry> infList = new ArrayList<>();
+        List<BattleArmor> baList = new ArrayList<>();
+        List<Protomech> protoList = new ArrayList<>();
+        List<Entity> unprintable = new ArrayList<>();
+
+        Map<Entity, String> layoutKeys = new HashMap<>();
+        Map<String, Integer> layoutCounts = new HashMap<>();
+        for (Entity unit : loadedUnits) {
+            String key = SheetFingerprint.layoutKey(unit);
+            if (null != key) {
+                layoutKeys.put(unit, key);
+                layoutCounts.merge(key, 1, Integer::sum);
+            }
+        }
+
         Tank tank1 = null;
         Tank wige1 = null;
         Tank dualTurret1 = null;
         for (Entity unit : loadedUnits) {
             if (unit instanceof Mech) {
-                UnitUtil.removeOneShotAmmo(unit);
-                UnitUtil.expandUnitMounts((Mech) unit);
-                book.append(new PrintMech((Mech) unit, book.getNumberOfPages()), pageFormat);
+                final Mech mech = (Mech) unit;
+                final String layoutKey = layoutKeys.get(unit);
+                if ((null != layoutKey) && (layoutCounts.get(layoutKey) > 1)) {
+                    book.appendShared(mech, layoutKey, page -> {
+                        UnitUtil.removeOneShotAmmo(mech);
+                        UnitUtil.expandUnitMounts(mech);
+                        return new PrintMech(mech, page);
+                    });
+                } else {
+                    book.append(page -> {
+                        UnitUtil.removeOneShotAmmo(mech);
+                        UnitUtil.expandUnitMounts(mech);
+                        return new PrintMech(mech, page);
+                    });
+                }
             } else if ((unit instanceof LargeSupportTank) || ((unit instanceof Tank) && (unit.getMovementMode() != EntityMovementMode.VTOL) && ((Tank)unit).isSuperHeavy())) {
-                book.append(new PrintLargeSupportVehicle((Tank) unit), pageFormat);
+                final Tank tank = (Tank) unit;
+                book.append(page -> new PrintLargeSupportVehicle(tank));
             } else if (unit instanceof VTOL) {
-                book.append(new PrintVTOL((VTOL) unit), pageFormat);
+                final VTOL vtol = (VTOL) unit;
+                book.append(page -> new PrintVTOL(vtol));
             } else if (unit.getMovementMode() == EntityMovementMode.WIGE) {
                 if (singlePrint) {
-                    book.append(new PrintVehicle((Tank) unit,  null), pageFormat);
+                    final Tank tank = (Tank) unit;
+                    book.append(page -> new PrintVehicle(tank, null));
                 } else if (null != wige1) {
-                    book.append(new PrintVehicle(wige1, (Tank) unit), pageFormat);
+                    final Tank first = wige1;
+                    final Tank second = (Tank) unit;
+                    book.append(page -> new PrintVehicle(first, second));
                     wige1 = null;
                 } else {
                     wige1 = (Tank) unit;
                 }
             } else if ((unit instanceof Tank) && ((unit.getMovementMode() == EntityMovementMode.NAVAL) || (unit.getMovementMode() == EntityMovementMode.SUBMARINE) || (unit.getMovementMode() == EntityMovementMode.HYDROFOIL))) {
-                book.append(new PrintNavalVehicle((Tank) unit), pageFormat);
+                final Tank tank = (Tank) unit;
+                book.append(page -> new PrintNavalVehicle(tank));
             } else if (unit instanceof Tank) {
                 if (!((Tank) unit).hasNoDualTurret()) {
                     if (singlePrint) {
-                        book.append(new PrintDualTurretVehicle((Tank) unit,  null), pageFormat);
+                        final Tank tank = (Tank) unit;
+                        book.append(page -> new PrintDualTurretVehicle(tank, null));
                     } else if (null != dualTurret1) {
-                        book.append(new PrintDualTurretVehicle(dualTurret1, (Tank) unit), pageFormat);
+                        final Tank first = dualTurret1;
+                        final Tank second = (Tank) unit;
+                        book.append(page -> new PrintDualTurretVehicle(first, second));
                         dualTurret1 = null;
                     } else {
                         dualTurret1 = (Tank) unit;
                     }
                 } else {
                     if (singlePrint) {
-                        book.append(new PrintVehicle((Tank) unit,  null), pageFormat);
+                        final Tank tank = (Tank) unit;
+                        book.append(page -> new PrintVehicle(tank, null));
                     } else if (null != tank1) {
-                        book.append(new PrintVehicle(tank1, (Tank) unit), pageFormat);
+                        final Tank first = tank1;
+                        final Tank second = (Tank) unit;
+                        book.append(page -> new PrintVehicle(first, second));
                         tank1 = null;
                     } else {
                         tank1 = (Tank) unit;
@@ -201,40 +438,48 @@ public class UnitPrintManager {
                 }
             } else if (unit instanceof Aero) {
                 if (unit instanceof Dropship) {
+                    final Dropship ds = (Dropship) unit;
                     if (unit.getMovementMode() == EntityMovementMode.AERODYNE) {
-                        book.append(new PrintAerodyne((Dropship) unit), pageFormat);
+                        book.append(page -> new PrintAerodyne(ds));
                     } else {
-                        book.append(new PrintSpheroid((Dropship) unit), pageFormat);
+                        book.append(page -> new PrintSpheroid(ds));
                     }
                 } else if (unit instanceof FixedWingSupport) {
-                    book.append(new PrintFixedWingSupport((FixedWingSupport) unit), pageFormat);
+                    final FixedWingSupport fws = (FixedWingSupport) unit;
+                    book.append(page -> new PrintFixedWingSupport(fws));
                 } else if (unit instanceof ConvFighter) {
-                    book.append(new PrintConventionalFighter((ConvFighter) unit), pageFormat);
+                    final ConvFighter cf = (ConvFighter) unit;
+                    book.append(page -> new PrintConventionalFighter(cf));
                 } else if (unit instanceof SmallCraft) {
+                    final SmallCraft sc = (SmallCraft) unit;
                     if (unit.getMovementMode() == EntityMovementMode.AERODYNE) {
-                        book.append(new PrintSmallCraftAerodyne((SmallCraft) unit), pageFormat);
+                        book.append(page -> new PrintSmallCraftAerodyne(sc));
                     } else {
-                        book.append(new PrintSmallCraftSpheroid((SmallCraft) unit), pageFormat);
+                        book.append(page -> new PrintSmallCraftSpheroid(sc));
                     }
                 } else if (!(unit instanceof Jumpship)) {
-                    book.append(new PrintAero((Aero) unit), pageFormat);
+                    final Aero aero = (Aero) unit;
+                    book.append(page -> new PrintAero(aero));
                 }
             } else if (unit instanceof BattleArmor) {
                 baList.add((BattleArmor) unit);
                 if (singlePrint || baList.size() > 4) {
-                    book.append(new PrintBattleArmor(baList),  pageFormat);
+                    final List<BattleArmor> group = baList;
+                    book.append(page -> new PrintBattleArmor(group));
                     baList = new ArrayList<>();
                 }
             } else if (unit instanceof Infantry) {
                 infList.add((Infantry) unit);
                 if (singlePrint || infList.size() > 3) {
-                    book.append(new PrintInfantry(infList),  pageFormat);
+                    final List<Infantry> group = infList;
+                    book.append(page -> new PrintInfantry(group));
                     infList = new ArrayList<>();
                 }
             } else if (unit instanceof Protomech) {
                 protoList.add((Protomech) unit);
                 if (singlePrint || protoList.size() > 4) {
-                    book.append(new PrintProtomech(protoList),  pageFormat);
+                    final List<Protomech> group = protoList;
+                    book.append(page -> new PrintProtomech(group));
                     protoList = new ArrayList<>();
                 }
             } else {
@@ -243,38 +488,30 @@ public class UnitPrintManager {
             }
         }
         if (null != wige1) {
-            book.append(new PrintVehicle(wige1, null), pageFormat);
+            final Tank tank = wige1;
+            book.append(page -> new PrintVehicle(tank, null));
         }
         if (null != tank1) {
-            book.append(new PrintVehicle(tank1, null), pageFormat);
+            final Tank tank = tank1;
+            book.append(page -> new PrintVehicle(tank, null));
         }
         if (null != dualTurret1) {
-            book.append(new PrintDualTurretVehicle(dualTurret1, null), pageFormat);
+            final Tank tank = dualTurret1;
+            book.append(page -> new PrintDualTurretVehicle(tank, null));
         }
         if (baList.size() > 0) {
-            book.append(new PrintBattleArmor(baList), pageFormat);
+            final List<BattleArmor> group = baList;
+            book.append(page -> new PrintBattleArmor(group));
         }
         if (infList.size() > 0) {
-            book.append(new PrintInfantry(infList), pageFormat);
+            final List<Infantry> group = infList;
+            book.append(page -> new PrintInfantry(group));
         }
         if (protoList.size() > 0) {
-            book.append(new PrintProtomech(protoList), pageFormat);
+            final List<Protomech> group = protoList;
+            book.append(page -> new PrintProtomech(group));
         }
-        
-        masterPrintJob.setPageable(book);
-        if (loadedUnits.size() > 1) {
-            masterPrintJob.setJobName(loadedUnits.get(0).getShortNameRaw() + " etc");
-        } else if (loadedUnits.size() > 0) {
-            masterPrintJob.setJobName(loadedUnits.get(0).getShortNameRaw());
-        }
-        try {
-            masterPrintJob.print(aset);
-        } catch (PrinterException e) {
-            // printing cancelled
-            return false;
-        }
-
-        return true;
+        return book;
     }
 
     public static JMenu printMenu(final JFrame parent, JMenuItem item) {
@@ -345,6 +582,15 @@ public class UnitPrintManager {
         });
         printMenu.add(item);
 
+        printMenu.addSeparator();
+        item = new JMenuItem("From MUL to PDF...");
+        item.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                UnitPrintManager.exportMulToPdf(parent, false);
+            }
+        });
+        printMenu.add(item);
+
         return printMenu;
     }
 
@@ -402,4 +648,4 @@ public class UnitPrintManager {
             ex.printStackTrace();
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,403 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.print.PageFormat;
+import java.awt.print.Paper;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.MechFileParser;
+import megamek.common.MechSummary;
+import megamek.common.MechSummaryCache;
+import megamek.common.QuirksHandler;
+import megamek.common.logging.LogLevel;
+import megameklab.com.MegaMekLab;
+import megameklab.com.printing.PdfDocument;
+import megameklab.com.printing.RecordSheetBook;
+
+/**
+ * A headless service that keeps the equipment, unit cache and quirks loaded and answers requests
+ * for validation, BV and cost, and record sheets. Requests and responses are JSON objects, one
+ * per line, read from standard input or from connections to a port on the loopback address.
+ *
+ * Each request names a unit with one of "file" (the path of a unit file), "name" (the full name of
+ * a unit in the unit cache) or "data" (the contents of a unit file, with "filename" giving the
+ * file name so the format can be recognized), and an "op":
+ * <ul>
+ * <li>"validate": the unit verifier report, and whether the unit is valid</li>
+ * <li>"info": the name, tonnage, BV and cost</li>
+ * <li>"render": writes the record sheet to "output", as PDF or PNG according to "format" or the
+ *     file extension. PNG sheets with more than one page are written one file per page, and
+ *     "dpi" sets the resolution.</li>
+ * <li>"ping": answers without doing any work</li>
+ * <li>"shutdown": stops the service once the requests already received are answered</li>
+ * </ul>
+ * An optional "id" is copied to the response. Requests are handled concurrently, so responses
+ * on one connection may come back in a different order than the requests. Each response has
+ * "ok", the time the request waited in "queuedMillis" and the time it took in "millis"; a failed
+ * request has "error" instead of the results.
+ */
+public class UnitService {
+
+    // The number of requests waiting per worker before the reader waits
+    private static final int QUEUE_PER_WORKER = 4;
+    private static final int DEFAULT_DPI = 150;
+    // How often the listener checks whether the service has been shut down
+    private static final int ACCEPT_TIMEOUT_MILLIS = 1000;
+
+    private final ThreadPoolExecutor workers;
+    private final long started = System.currentTimeMillis();
+    private final AtomicInteger handled = new AtomicInteger();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean running = true;
+
+    /**
+     * Creates the service and starts loading the data it needs.
+     *
+     * @param threads The number of requests to handle at once
+     */
+    public UnitService(int threads) {
+        final String METHOD_NAME = "UnitService(int)";
+
+        final AtomicInteger count = new AtomicInteger();
+        // When the queue is full the reading thread handles the request itself, which stops it
+        // reading more. This also answers requests received during shutdown.
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_WORKER), r -> {
+                    Thread t = new Thread(r, "Unit service worker " + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, (r, executor) -> r.run());
+
+        EquipmentType.initializeTypes();
+        // Loads in the background; requests by name wait for it.
+        MechSummaryCache.getInstance();
+        try {
+            QuirksHandler.initQuirksList();
+        } catch (IOException e) {
+            MegaMekLab.getLogger().log(UnitService.class, METHOD_NAME, LogLevel.INFO,
+                    "Could not load quirks file.");
+        }
+    }
+
+    /**
+     * Answers requests read from a stream, such as standard input, until the end of the stream
+     * or a shutdown request.
+     *
+     * @param in  The requests
+     * @param out Where to write the responses
+     */
+    public void run(InputStream in, OutputStream out) {
+        final String METHOD_NAME = "run(InputStream,OutputStream)";
+
+        // A shutdown request can arrive while the reader is waiting for the next line, so the
+        // reading is done on another thread.
+        Thread t = new Thread(() -> {
+            try {
+                serve(in, out);
+            } catch (IOException e) {
+                MegaMekLab.getLogger().log(UnitService.class, METHOD_NAME, e);
+            }
+            stop();
+        }, "Unit service input");
+        t.setDaemon(true);
+        t.start();
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Answers requests read from a stream until the end of the stream or a shutdown request.
+     * Returns once every request read has been answered.
+     */
+    private void serve(InputStream in, OutputStream out) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        final Phaser pending = new Phaser(1);
+        try {
+            String line;
+            while (running && (null != (line = reader.readLine()))) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                final String request = line;
+                final long received = System.nanoTime();
+                pending.register();
+                workers.execute(() -> {
+                    try {
+                        respond(writer, handle(request, received));
+                    } finally {
+                        pending.arriveAndDeregister();
+                    }
+                });
+            }
+        } finally {
+            pending.arriveAndAwaitAdvance();
+        }
+    }
+
+    /**
+     * Accepts connections on the loopback address and answers the requests on each until a
+     * shutdown request is received.
+     *
+     * @param port The port to listen on, or 0 to use any free port
+     * @throws IOException if the port cannot be opened
+     */
+    public void listen(int port) throws IOException {
+        final String METHOD_NAME = "listen(int)";
+
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+            MegaMekLab.getLogger().log(UnitService.class, METHOD_NAME, LogLevel.INFO,
+                    "Unit service listening on " + server.getInetAddress().getHostAddress() + ":"
+                            + server.getLocalPort());
+            while (running) {
+                final Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+                Thread t = new Thread(() -> {
+                    try (Socket s = socket) {
+                        serve(s.getInputStream(), s.getOutputStream());
+                    } catch (IOException e) {
+                        MegaMekLab.getLogger().log(UnitService.class, METHOD_NAME, e);
+                    }
+                }, "Unit service connection " + socket.getPort());
+                t.setDaemon(true);
+                t.start();
+            }
+        }
+    }
+
+    private void stop() {
+        running = false;
+        stopped.countDown();
+    }
+
+    /**
+     * Stops the workers after the requests already received are answered.
+     */
+    public void shutdown() {
+        final String METHOD_NAME = "shutdown()";
+
+        stop();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        MegaMekLab.getLogger().log(UnitService.class, METHOD_NAME, LogLevel.INFO,
+                String.format("Unit service stopped after %d requests in %.1f s", handled.get(),
+                        (System.currentTimeMillis() - started) / 1000.0));
+    }
+
+    private static void respond(Writer writer, Map<String, Object> response) {
+        final String METHOD_NAME = "respond(Writer,Map)";
+
+        synchronized (writer) {
+            try {
+                writer.write(Json.write(response));
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                // The client has gone; there is no one to tell.
+                MegaMekLab.getLogger().log(UnitService.class, METHOD_NAME, LogLevel.DEBUG,
+                        "Could not send response: " + e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Object> handle(String line, long received) {
+        final long start = System.nanoTime();
+        Map<String, Object> response = new LinkedHashMap<>();
+        Map<String, Object> request = null;
+        try {
+            request = Json.parseObject(line);
+            if (request.containsKey("id")) {
+                response.put("id", request.get("id"));
+            }
+            final String op = getString(request, "op");
+            response.put("op", op);
+            response.put("ok", true);
+            switch (op) {
+                case "ping":
+                    response.put("uptimeMillis", System.currentTimeMillis() - started);
+                    response.put("handled", handled.get());
+                    break;
+                case "shutdown":
+                    stop();
+                    break;
+                case "validate":
+                    validate(loadUnit(request), response);
+                    break;
+                case "info":
+                    info(loadUnit(request), response);
+                    break;
+                case "render":
+                    render(loadUnit(request), request, response);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown op " + op);
+            }
+        } catch (Exception e) {
+            response.put("ok", false);
+            response.put("error", (null == e.getMessage()) ? e.toString() : e.getMessage());
+        }
+        handled.incrementAndGet();
+        response.put("queuedMillis", (start - received) / 1000000);
+        response.put("millis", (System.nanoTime() - start) / 1000000);
+        return response;
+    }
+
+    private static void validate(Entity unit, Map<String, Object> response) {
+        final String report = DerivedDataCache.lookup(unit).getValidation();
+        response.put("unit", unit.getShortNameRaw());
+        response.put("valid", report.trim().isEmpty());
+        response.put("report", report);
+    }
+
+    private static void info(Entity unit, Map<String, Object> response) {
+        DerivedDataCache.Entry values = DerivedDataCache.lookup(unit);
+        response.put("unit", unit.getShortNameRaw());
+        response.put("tonnage", unit.getWeight());
+        response.put("bv", values.getBattleValue());
+        response.put("cost", values.getCost(false));
+    }
+
+    private static void render(Entity unit, Map<String, Object> request, Map<String, Object> response)
+            throws Exception {
+        final File output = new File(getString(request, "output"));
+        String format = request.containsKey("format") ? getString(request, "format").toLowerCase()
+                : output.getName().replaceAll("^.*\\.", "").toLowerCase();
+        PageFormat pageFormat = new PageFormat();
+        Paper p = pageFormat.getPaper();
+        p.setImageableArea(0, 0, p.getWidth(), p.getHeight());
+        pageFormat.setPaper(p);
+        RecordSheetBook book = UnitPrintManager.createBook(Collections.singletonList(unit), true, pageFormat);
+        response.put("unit", unit.getShortNameRaw());
+        response.put("pages", book.getNumberOfPages());
+        if ("pdf".equals(format)) {
+            PdfDocument doc = UnitPrintManager.exportToPdf(book, output);
+            response.put("output", output.getPath());
+            response.put("bytes", doc.getBytesWritten());
+        } else if ("png".equals(format)) {
+            final double scale = (request.containsKey("dpi") ? getNumber(request, "dpi") : DEFAULT_DPI) / 72.0;
+            List<Object> files = new ArrayList<>();
+            try {
+                for (int page = 0; page < book.getNumberOfPages(); page++) {
+                    File file = (page == 0) ? output : new File(output.getParentFile(),
+                            output.getName().replaceAll("(?i)\\.png$", "") + "-" + (page + 1) + ".png");
+                    PageFormat pf = book.getPageFormat(page);
+                    BufferedImage image = new BufferedImage((int) Math.ceil(pf.getWidth() * scale),
+                            (int) Math.ceil(pf.getHeight() * scale), BufferedImage.TYPE_INT_RGB);
+                    Graphics2D g2d = image.createGraphics();
+                    try {
+                        g2d.setColor(Color.WHITE);
+                        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+                        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                        g2d.scale(scale, scale);
+                        book.getPrintable(page).print(g2d, pf, page);
+                    } finally {
+                        g2d.dispose();
+                    }
+                    ImageIO.write(image, "png", file);
+                    files.add(file.getPath());
+                }
+            } finally {
+                book.release();
+            }
+            response.put("output", files);
+        } else {
+            book.release();
+            throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+
+    private static Entity loadUnit(Map<String, Object> request) throws Exception {
+        if (request.containsKey("file")) {
+            return new MechFileParser(new File(getString(request, "file"))).getEntity();
+        } else if (request.containsKey("name")) {
+            final String name = getString(request, "name");
+            MechSummary ms = MechSummaryCache.getInstance().getMech(name);
+            if (null == ms) {
+                throw new IllegalArgumentException("No unit named " + name);
+            }
+            return new MechFileParser(ms.getSourceFile(), ms.getEntryName()).getEntity();
+        } else if (request.containsKey("data")) {
+            final String filename = request.containsKey("filename") ? getString(request, "filename") : "unit.mtf";
+            return new MechFileParser(new ByteArrayInputStream(
+                    getString(request, "data").getBytes(StandardCharsets.UTF_8)), filename).getEntity();
+        }
+        throw new IllegalArgumentException("The request needs a file, name or data");
+    }
+
+    private static String getString(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        if (null == value) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+        return value.toString();
+    }
+
+    private static double getNumber(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        try {
+            return Double.parseDouble(getString(request, field));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+}
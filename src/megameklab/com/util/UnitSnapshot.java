@@ -0,0 +1,216 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import megamek.common.Entity;
+import megameklab.com.MegaMekLab;
+import megameklab.com.ui.EntitySource;
+
+/**
+ * An unchangeable copy of the state of a unit, for work done away from the event dispatch
+ * thread. The snapshot holds the serialized unit, which covers the equipment, critical slots,
+ * armor, engine and tech settings, and each call to {@link #toEntity()} builds a separate unit
+ * from it, so background tasks never share a unit with the editor or with each other.
+ *
+ * Each window has a revision number that {@link #markChanged(EntitySource)} advances whenever
+ * its unit may have changed, which the window does for each refresh that follows an edit. The
+ * revision is cheap to read, so it can be used to reuse values calculated for the unit until the
+ * next edit. {@link #take(EntitySource)} serializes the unit at most once per revision, so the
+ * consumers that want a snapshot after an edit share one. A snapshot of an unchanged unit is the
+ * same snapshot with the same revision, and any change gives the next snapshot a higher
+ * revision, so a task can tell whether its result is still wanted with
+ * {@link #isCurrent(EntitySource)}.
+ */
+public final class UnitSnapshot {
+
+    /**
+     * The revision of a window's unit and the last snapshot taken of it.
+     */
+    private static class Tracker {
+        long revision = nextRevision++;
+        UnitSnapshot latest = null;
+        // The revision the latest snapshot was taken or confirmed at
+        long checked = 0;
+    }
+
+    private static final Map<EntitySource, Tracker> trackers = new WeakHashMap<>();
+    // Guarded by the lock on trackers
+    private static long nextRevision = 1;
+
+    private final byte[] data;
+    private final long revision;
+
+    UnitSnapshot(byte[] data, long revision) {
+        this.data = data;
+        this.revision = revision;
+    }
+
+    private static Tracker getTracker(EntitySource source) {
+        return trackers.computeIfAbsent(source, s -> new Tracker());
+    }
+
+    /**
+     * Notes that the unit in a window may have changed or been replaced, so the next snapshot
+     * has to look at it again.
+     *
+     * @param source The window
+     */
+    public static void markChanged(EntitySource source) {
+        synchronized (trackers) {
+            getTracker(source).revision = nextRevision++;
+        }
+    }
+
+    /**
+     * Takes a snapshot of the unit in a window. The unit is only serialized if it has been marked
+     * as changed since the last snapshot, and if it turns out to be unchanged the last snapshot
+     * is returned. Must be called from the event dispatch thread, or another thread that the
+     * window's unit is not changed on.
+     *
+     * @param source The window
+     * @return       The snapshot, or null if the unit could not be serialized
+     */
+    public static UnitSnapshot take(EntitySource source) {
+        final long revision;
+        synchronized (trackers) {
+            final Tracker tracker = getTracker(source);
+            if ((null != tracker.latest) && (tracker.checked == tracker.revision)) {
+                Diagnostics.count("UnitSnapshot reused");
+                return tracker.latest;
+            }
+            revision = tracker.revision;
+        }
+        final long start = System.nanoTime();
+        final byte[] data = serialize(source.getEntity());
+        if (null == data) {
+            return null;
+        }
+        synchronized (trackers) {
+            final Tracker tracker = getTracker(source);
+            if ((null == tracker.latest) || !Arrays.equals(tracker.latest.data, data)) {
+                tracker.latest = new UnitSnapshot(data, revision);
+            }
+            tracker.checked = revision;
+            Diagnostics.record("UnitSnapshot.take", start);
+            return tracker.latest;
+        }
+    }
+
+    /**
+     * Takes a snapshot of a unit that is not tracked by revision.
+     *
+     * @param unit The unit
+     * @return     The snapshot, with a revision of zero, or null if the unit could not be
+     *             serialized
+     */
+    public static UnitSnapshot of(Entity unit) {
+        final byte[] data = serialize(unit);
+        return (null == data) ? null : new UnitSnapshot(data, 0);
+    }
+
+    /**
+     * @param source The window
+     * @return       The revision of the window's unit, which advances each time the unit is
+     *               marked as changed. It can advance without the unit actually changing.
+     */
+    public static long getRevision(EntitySource source) {
+        synchronized (trackers) {
+            return getTracker(source).revision;
+        }
+    }
+
+    /**
+     * @return The revision at which the unit was first seen in this state, or zero if the
+     *         snapshot is not tracked
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * @param source The window the snapshot was taken from
+     * @return       Whether this is the last snapshot taken of the window's unit and the unit has
+     *               not been marked as changed since
+     */
+    public boolean isCurrent(EntitySource source) {
+        synchronized (trackers) {
+            final Tracker tracker = trackers.get(source);
+            return (null != tracker) && (tracker.latest == this) && (tracker.checked == tracker.revision);
+        }
+    }
+
+    /**
+     * @param other Another snapshot
+     * @return      Whether both snapshots hold the same state
+     */
+    public boolean isSameState(UnitSnapshot other) {
+        return (null != other) && ((this == other) || Arrays.equals(data, other.data));
+    }
+
+    /**
+     * @return The size of the serialized unit in bytes
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * The serialized unit, for classes that store the state themselves. The array must not be
+     * changed.
+     */
+    byte[] bytes() {
+        return data;
+    }
+
+    /**
+     * Builds a new unit from the snapshot. The unit belongs to the caller and can be changed
+     * without affecting the snapshot or other units built from it.
+     *
+     * @return The unit, or null if it could not be built
+     */
+    public Entity toEntity() {
+        final String METHOD_NAME = "toEntity()";
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            Entity copy = (Entity) in.readObject();
+            copy.restore();
+            return copy;
+        } catch (Exception e) {
+            MegaMekLab.getLogger().log(UnitSnapshot.class, METHOD_NAME, e);
+            return null;
+        }
+    }
+
+    private static byte[] serialize(Entity unit) {
+        final String METHOD_NAME = "serialize(Entity)";
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(unit);
+        } catch (IOException e) {
+            MegaMekLab.getLogger().log(UnitSnapshot.class, METHOD_NAME, e);
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+}
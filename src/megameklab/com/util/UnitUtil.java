@@ -52,6 +52,7 @@ import megamek.common.Bay;
 import megamek.common.BipedMech;
 import megamek.common.CriticalSlot;
 import megamek.common.Dropship;
+import megamek.common.Engine;
 import megamek.common.Entity;
 import megamek.common.EntityWeightClass;
 import megamek.common.EquipmentType;
@@ -2460,14 +2461,27 @@ public class UnitUtil {
         return UnitUtil.isMechEquipment(eq, (Mech) unit);
     }
 
+    /**
+     * @param eq   The equipment type
+     * @param unit The unit, which must be a Mech
+     * @return     Whether the equipment is shown as a weapon for the Mech
+     */
     public static boolean isMechWeapon(EquipmentType eq, Entity unit) {
+        return EquipmentLocationRules.hasCategory(unit, eq, EquipmentLocationRules.MECH_WEAPON);
+    }
+
+    /**
+     * Evaluates the rules for {@link #isMechWeapon(EquipmentType, Entity)}. This is used to compile
+     * the {@link EquipmentLocationRules} tables and should not be called elsewhere.
+     */
+    static boolean computeMechWeapon(EquipmentType eq, Entity unit) {
         if (eq instanceof InfantryWeapon) {
             return false;
         }
 
         if (UnitUtil.isHeatSink(eq) || UnitUtil.isArmorOrStructure(eq)
                 || UnitUtil.isJumpJet(eq)
-                || UnitUtil.isMechEquipment(eq, (Mech) unit)) {
+                || UnitUtil.computeMechEquipment(eq, (Mech) unit)) {
             return false;
         }
 
@@ -2534,7 +2548,20 @@ public class UnitUtil {
         return false;
     }
 
+    /**
+     * @param eq   The equipment type
+     * @param unit The unit
+     * @return     Whether the equipment is shown as a weapon for the aerospace unit
+     */
     public static boolean isAeroWeapon(EquipmentType eq, Aero unit) {
+        return EquipmentLocationRules.hasCategory(unit, eq, EquipmentLocationRules.AERO_WEAPON);
+    }
+
+    /**
+     * Evaluates the rules for {@link #isAeroWeapon(EquipmentType, Aero)}. This is used to compile
+     * the {@link EquipmentLocationRules} tables and should not be called elsewhere.
+     */
+    static boolean computeAeroWeapon(EquipmentType eq, Aero unit) {
         if (!(eq instanceof WeaponType)) {
             return false;
             
@@ -2640,7 +2667,20 @@ public class UnitUtil {
         return false;
     }
 
+    /**
+     * @param eq   The equipment type
+     * @param unit The unit
+     * @return     Whether the equipment is shown as non-weapon equipment for the Mech
+     */
     public static boolean isMechEquipment(EquipmentType eq, Mech unit) {
+        return EquipmentLocationRules.hasCategory(unit, eq, EquipmentLocationRules.MECH_EQUIPMENT);
+    }
+
+    /**
+     * Evaluates the rules for {@link #isMechEquipment(EquipmentType, Mech)}. This is used to compile
+     * the {@link EquipmentLocationRules} tables and should not be called elsewhere.
+     */
+    static boolean computeMechEquipment(EquipmentType eq, Mech unit) {
 
         if (UnitUtil.isArmorOrStructure(eq)) {
             return false;
@@ -2718,7 +2758,20 @@ public class UnitUtil {
         return false;
     }
 
+    /**
+     * @param eq   The equipment type
+     * @param unit The unit
+     * @return     Whether the equipment is shown as a weapon for the vehicle
+     */
     public static boolean isTankWeapon(EquipmentType eq, Entity unit) {
+        return EquipmentLocationRules.hasCategory(unit, eq, EquipmentLocationRules.TANK_WEAPON);
+    }
+
+    /**
+     * Evaluates the rules for {@link #isTankWeapon(EquipmentType, Entity)}. This is used to compile
+     * the {@link EquipmentLocationRules} tables and should not be called elsewhere.
+     */
+    static boolean computeTankWeapon(EquipmentType eq, Entity unit) {
         if (eq instanceof InfantryWeapon) {
             return false;
         }
@@ -2787,7 +2840,20 @@ public class UnitUtil {
                 && (infWeap.getCrew() < 2);
     }
 
+    /**
+     * @param eq   The equipment type
+     * @param unit The unit
+     * @return     Whether the equipment is shown as a weapon for the battle armor
+     */
     public static boolean isBattleArmorWeapon(EquipmentType eq, Entity unit) {
+        return EquipmentLocationRules.hasCategory(unit, eq, EquipmentLocationRules.BA_WEAPON);
+    }
+
+    /**
+     * Evaluates the rules for {@link #isBattleArmorWeapon(EquipmentType, Entity)}. This is used to
+     * compile the {@link EquipmentLocationRules} tables and should not be called elsewhere.
+     */
+    static boolean computeBattleArmorWeapon(EquipmentType eq, Entity unit) {
 
         if (eq instanceof WeaponType) {
 
@@ -3266,6 +3332,7 @@ public class UnitUtil {
      * @return
      */
     public static String validateUnit(Entity unit) {
+        final long start = System.nanoTime();
         StringBuffer sb = new StringBuffer();
         TestEntity testEntity =  getEntityVerifier(unit);
 
@@ -3273,6 +3340,7 @@ public class UnitUtil {
             testEntity.correctEntity(sb, unit.getTechLevel());
         }
 
+        Diagnostics.record("validateUnit", start);
         return sb.toString();
     }
 
@@ -3306,8 +3374,26 @@ public class UnitUtil {
         }
     }
 
+    /**
+     * Determines whether equipment may be mounted in a location. The rules are compiled into a
+     * table for each unit configuration, so this is a table lookup.
+     *
+     * @param unit     The unit
+     * @param eq       The equipment type
+     * @param location The location index
+     * @return         Whether the equipment may be mounted in the location
+     */
     public static boolean isValidLocation(Entity unit, EquipmentType eq,
             int location) {
+        return EquipmentLocationRules.isValidLocation(unit, eq, location);
+    }
+
+    /**
+     * Evaluates the rules for {@link #isValidLocation(Entity, EquipmentType, int)}. This is used to
+     * compile the {@link EquipmentLocationRules} tables and should not be called elsewhere.
+     */
+    static boolean computeValidLocation(Entity unit, EquipmentType eq,
+            int location) {
         if (unit instanceof BattleArmor) {
             // Infantry weapons can only be mounted in armored gloves/APMs
             if (eq.hasFlag(WeaponType.F_INFANTRY)) {
@@ -3834,6 +3920,82 @@ public class UnitUtil {
         return sinks;
     }
 
+    /**
+     * The total heat shown on the status bar: movement heat and stealth systems for Meks, and the
+     * heat of every undamaged weapon as given by {@link #getWeaponHeat(WeaponType)}.
+     *
+     * @param unit The unit
+     * @return     The total heat generated by the unit
+     */
+    public static double calculateTotalHeat(Entity unit) {
+        double heat = 0;
+
+        if (unit instanceof Mech) {
+            final Mech mech = (Mech) unit;
+            if (mech.getOriginalJumpMP() > 0) {
+                if (mech.getJumpType() == Mech.JUMP_IMPROVED) {
+                    heat += Math.max(3, Math.ceil(mech.getOriginalJumpMP() / 2.0f));
+                } else if (mech.getJumpType() != Mech.JUMP_BOOSTER) {
+                    heat += Math.max(3, mech.getOriginalJumpMP());
+                }
+                if (mech.getEngine().getEngineType() == Engine.XXL_ENGINE) {
+                    heat *= 2;
+                }
+            } else if (mech.getEngine().getEngineType() == Engine.XXL_ENGINE) {
+                heat += 6;
+            } else {
+                heat += 2;
+            }
+
+            if (mech.hasNullSig()) {
+                heat += 10;
+            }
+
+            if (mech.hasChameleonShield()) {
+                heat += 6;
+            }
+        }
+
+        for (Mounted mounted : unit.getWeaponList()) {
+            // only count non-damaged equipment
+            if (mounted.isMissing() || mounted.isHit() || mounted.isDestroyed() || mounted.isBreached()) {
+                continue;
+            }
+            heat += getWeaponHeat((WeaponType) mounted.getType());
+        }
+        return heat;
+    }
+
+    /**
+     * @param wtype The weapon
+     * @return      The heat the weapon adds to the unit's total, adjusted for the rate of fire
+     */
+    public static double getWeaponHeat(WeaponType wtype) {
+        double weaponHeat = wtype.getHeat();
+
+        // one shot weapons count 1/4
+        if ((wtype.getAmmoType() == AmmoType.T_ROCKET_LAUNCHER) || wtype.hasFlag(WeaponType.F_ONESHOT)) {
+            weaponHeat *= 0.25;
+        }
+
+        // double heat for ultras
+        if ((wtype.getAmmoType() == AmmoType.T_AC_ULTRA) || (wtype.getAmmoType() == AmmoType.T_AC_ULTRA_THB)) {
+            weaponHeat *= 2;
+        }
+
+        // Six times heat for RAC
+        if (wtype.getAmmoType() == AmmoType.T_AC_ROTARY) {
+            weaponHeat *= 6;
+        }
+
+        // half heat for streaks
+        if ((wtype.getAmmoType() == AmmoType.T_SRM_STREAK) || (wtype.getAmmoType() == AmmoType.T_MRM_STREAK)
+                || (wtype.getAmmoType() == AmmoType.T_LRM_STREAK)) {
+            weaponHeat *= 0.5;
+        }
+        return weaponHeat;
+    }
+
     /**
      * @deprecated Use {@link checkEquipmentByTechLevel(Entity,ITechManager)} instead
      */
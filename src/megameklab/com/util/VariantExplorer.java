@@ -0,0 +1,771 @@
+/*
+ * MegaMekLab - Copyright (C) 2018 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+package megameklab.com.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+import megamek.common.CriticalSlot;
+import megamek.common.Engine;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.ITechManager;
+import megamek.common.LandAirMech;
+import megamek.common.Mech;
+import megamek.common.MechFileParser;
+import megamek.common.Mounted;
+import megamek.common.SimpleTechLevel;
+import megamek.common.TechConstants;
+import megamek.common.logging.LogLevel;
+import megamek.common.verifier.TestEntity;
+import megameklab.com.MegaMekLab;
+
+/**
+ * Builds every combination of tonnage, walk MP, engine, structure, armor and heat sinks for a
+ * Mek and measures the free tonnage, free critical slots, BV and cost of each one. Each variant is
+ * made from a copy of the base unit by the same steps the structure tab takes when the user
+ * changes one of these values, so a variant that is applied looks the same as one set up by hand.
+ *
+ * Anything that depends on the tech manager is worked out by {@link #plan(Options)}, which should
+ * be called on the event dispatch thread. The variants are then built by {@link #run(Plan,
+ * IntConsumer, BooleanSupplier)} in parallel on copies of the unit.
+ */
+public class VariantExplorer {
+
+    // Engines that can be used by mechs; the same as the chassis view
+    private static final int[] ENGINE_TYPES = {
+            Engine.NORMAL_ENGINE, Engine.XL_ENGINE, Engine.XXL_ENGINE, Engine.FUEL_CELL, Engine.LIGHT_ENGINE,
+            Engine.COMPACT_ENGINE, Engine.FISSION, Engine.COMBUSTION_ENGINE
+    };
+    private static final int[] INDUSTRIAL_ENGINE_TYPES = {
+            Engine.NORMAL_ENGINE, Engine.FUEL_CELL, Engine.FISSION, Engine.COMBUSTION_ENGINE
+    };
+    private static final int[] LAM_ENGINE_TYPES = {
+            Engine.NORMAL_ENGINE, Engine.COMPACT_ENGINE
+    };
+    private static final int[] STRUCTURE_TYPES = {
+            EquipmentType.T_STRUCTURE_STANDARD, EquipmentType.T_STRUCTURE_ENDO_STEEL,
+            EquipmentType.T_STRUCTURE_ENDO_PROTOTYPE, EquipmentType.T_STRUCTURE_REINFORCED,
+            EquipmentType.T_STRUCTURE_COMPOSITE, EquipmentType.T_STRUCTURE_ENDO_COMPOSITE
+    };
+    private static final int[] SUPERHEAVY_STRUCTURE_TYPES = {
+            EquipmentType.T_STRUCTURE_STANDARD, EquipmentType.T_STRUCTURE_ENDO_STEEL,
+            EquipmentType.T_STRUCTURE_ENDO_COMPOSITE
+    };
+    private static final String[] HEAT_SINKS = {
+            "Heat Sink", "ISDoubleHeatSink", "CLDoubleHeatSink", "IS1 Compact Heat Sink",
+            "CLLaser Heat Sink", "ISDoubleHeatSinkPrototype", "ISDoubleHeatSinkFreezer"
+    };
+
+    // Exploring stops once this many variants have been found
+    public static final int MAX_VARIANTS = 100000;
+
+    private final Mech base;
+    private final ITechManager techManager;
+    private final UnitSnapshot snapshot;
+    // Read from the base unit up front, since the variants are built on other threads while the
+    // base unit can still be edited
+    private final double armorTonnage;
+    private final String shortName;
+
+    /**
+     * @param base        The unit the variants are based on. The unit itself is not changed.
+     * @param techManager Decides which engines and components are legal for the variants
+     */
+    public VariantExplorer(Mech base, ITechManager techManager) {
+        this.base = base;
+        this.techManager = techManager;
+        snapshot = UnitSnapshot.of(base);
+        armorTonnage = base.getLabArmorTonnage();
+        shortName = base.getShortName();
+    }
+
+    /**
+     * The choices to explore. Every combination of the chosen values is tried.
+     */
+    public static class Options {
+        private final List<Double> tonnages = new ArrayList<>();
+        private final List<Integer> walkMPs = new ArrayList<>();
+        private final List<Engine> engines = new ArrayList<>();
+        private final List<EquipmentType> structures = new ArrayList<>();
+        private final List<EquipmentType> armors = new ArrayList<>();
+        private final List<EquipmentType> heatSinks = new ArrayList<>();
+        private int minHeatSinks = 10;
+        private int maxHeatSinks = 10;
+
+        public Options addTonnage(double tonnage) {
+            tonnages.add(tonnage);
+            return this;
+        }
+
+        public Options addWalkMP(int walkMP) {
+            walkMPs.add(walkMP);
+            return this;
+        }
+
+        /**
+         * @param engine An engine from {@link VariantExplorer#getAvailableEngines()}. Only the
+         *               type and tech base are used; the rating comes from the tonnage and walk MP.
+         */
+        public Options addEngine(Engine engine) {
+            engines.add(engine);
+            return this;
+        }
+
+        public Options addStructure(EquipmentType structure) {
+            structures.add(structure);
+            return this;
+        }
+
+        public Options addArmor(EquipmentType armor) {
+            armors.add(armor);
+            return this;
+        }
+
+        public Options addHeatSink(EquipmentType heatSink) {
+            heatSinks.add(heatSink);
+            return this;
+        }
+
+        public Options setHeatSinkCount(int min, int max) {
+            minHeatSinks = Math.max(0, min);
+            maxHeatSinks = Math.max(minHeatSinks, max);
+            return this;
+        }
+    }
+
+    /**
+     * The tonnage, walk MP and engine combinations that passed the engine checks, with the other
+     * options and tech values needed to build the variants.
+     */
+    public static class Plan {
+        private final Options options;
+        private final List<Chassis> chassis = new ArrayList<>();
+        private final Map<EquipmentType, Integer> armorTechLevels = new HashMap<>();
+        private int pruned;
+
+        private Plan(Options options) {
+            this.options = options;
+        }
+
+        /**
+         * @return The number of chassis combinations to build
+         */
+        public int size() {
+            return chassis.size();
+        }
+
+        /**
+         * @return The number of tonnage, walk MP and engine combinations dropped because the
+         *         engine is not valid, not legal or does not fit
+         */
+        public int getPruned() {
+            return pruned;
+        }
+
+        /**
+         * @return The number of combinations the plan can produce, before heat sinks are cut
+         *         short by running out of tonnage or slots
+         */
+        public long getCombinations() {
+            return (long) chassis.size() * options.structures.size() * options.armors.size()
+                    * options.heatSinks.size() * (options.maxHeatSinks - options.minHeatSinks + 1);
+        }
+    }
+
+    private static class Chassis {
+        final double tonnage;
+        final int walkMP;
+        final Engine engine;
+
+        Chassis(double tonnage, int walkMP, Engine engine) {
+            this.tonnage = tonnage;
+            this.walkMP = walkMP;
+            this.engine = engine;
+        }
+    }
+
+    /**
+     * One combination of options with the values measured on the variant.
+     */
+    public static class Variant {
+        private final Chassis chassis;
+        private final EquipmentType structure;
+        private final EquipmentType armor;
+        private final int armorTechLevel;
+        private final EquipmentType heatSink;
+        private final int heatSinks;
+        private final double armorTonnage;
+        private final double freeTonnage;
+        private final int freeCrits;
+        private final int battleValue;
+        private final long cost;
+        private boolean pareto;
+
+        private Variant(Chassis chassis, EquipmentType structure, EquipmentType armor, int armorTechLevel,
+                EquipmentType heatSink, int heatSinks, Mech unit, double freeTonnage, int freeCrits) {
+            this.chassis = chassis;
+            this.structure = structure;
+            this.armor = armor;
+            this.armorTechLevel = armorTechLevel;
+            this.heatSink = heatSink;
+            this.heatSinks = heatSinks;
+            this.armorTonnage = unit.getLabArmorTonnage();
+            this.freeTonnage = freeTonnage;
+            this.freeCrits = freeCrits;
+            this.battleValue = unit.calculateBattleValue();
+            this.cost = Math.round(unit.getCost(false));
+        }
+
+        public double getTonnage() {
+            return chassis.tonnage;
+        }
+
+        public int getWalkMP() {
+            return chassis.walkMP;
+        }
+
+        public Engine getEngine() {
+            return chassis.engine;
+        }
+
+        public EquipmentType getStructure() {
+            return structure;
+        }
+
+        public EquipmentType getArmor() {
+            return armor;
+        }
+
+        public EquipmentType getHeatSink() {
+            return heatSink;
+        }
+
+        public int getHeatSinks() {
+            return heatSinks;
+        }
+
+        public double getArmorTonnage() {
+            return armorTonnage;
+        }
+
+        public double getFreeTonnage() {
+            return freeTonnage;
+        }
+
+        public int getFreeCrits() {
+            return freeCrits;
+        }
+
+        public int getBattleValue() {
+            return battleValue;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+
+        /**
+         * @return Whether no other variant has at least as much free tonnage, free slots and BV
+         *         for no more cost, and more of at least one of them
+         */
+        public boolean isPareto() {
+            return pareto;
+        }
+
+        private boolean dominates(Variant other) {
+            return (freeTonnage >= other.freeTonnage) && (freeCrits >= other.freeCrits)
+                    && (battleValue >= other.battleValue) && (cost <= other.cost)
+                    && ((freeTonnage > other.freeTonnage) || (freeCrits > other.freeCrits)
+                            || (battleValue > other.battleValue) || (cost < other.cost));
+        }
+    }
+
+    /**
+     * @return The engine types and tech bases the base unit can use, at its current rating
+     */
+    public List<Engine> getAvailableEngines() {
+        List<Engine> retVal = new ArrayList<>();
+        final int rating = base.getEngine().getRating();
+        int flags = 0;
+        if (techManager.useClanTechBase()) {
+            flags |= Engine.CLAN_ENGINE;
+        }
+        if (rating > 400) {
+            flags |= Engine.LARGE_ENGINE;
+        }
+        int altFlags = flags ^ Engine.CLAN_ENGINE;
+        int[] engineTypes = ENGINE_TYPES;
+        if (base.isPrimitive() || base.isIndustrial()) {
+            engineTypes = INDUSTRIAL_ENGINE_TYPES;
+        } else if (base instanceof LandAirMech) {
+            engineTypes = LAM_ENGINE_TYPES;
+        }
+        for (int i : engineTypes) {
+            Engine e = new Engine(rating, i, flags);
+            if (e.engineValid && isLegal(e)) {
+                retVal.add(e);
+            }
+            // Only add the opposite tech base if the engine is different.
+            if (techManager.useMixedTech() && (e.getSideTorsoCriticalSlots().length > 0)) {
+                e = new Engine(rating, i, altFlags);
+                if (e.engineValid && isLegal(e)) {
+                    retVal.add(e);
+                }
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * @return The internal structure types the base unit can use
+     */
+    public List<EquipmentType> getAvailableStructures() {
+        List<EquipmentType> retVal = new ArrayList<>();
+        if (base.isIndustrial()) {
+            retVal.add(EquipmentType.get(EquipmentType.getStructureTypeName(EquipmentType.T_STRUCTURE_INDUSTRIAL,
+                    false)));
+        } else if (base.isPrimitive()) {
+            retVal.add(EquipmentType.get(EquipmentType.getStructureTypeName(EquipmentType.T_STRUCTURE_STANDARD,
+                    base.isClan())));
+        } else {
+            for (int i : base.isSuperHeavy() ? SUPERHEAVY_STRUCTURE_TYPES : STRUCTURE_TYPES) {
+                EquipmentType structure = EquipmentType.get(EquipmentType.getStructureTypeName(i, base.isClan()));
+                // LAMs cannot use bulky structure
+                if ((null != structure) && techManager.isLegal(structure)
+                        && !((base instanceof LandAirMech) && (structure.getCriticals(null) != 0))) {
+                    retVal.add(structure);
+                }
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * @return The armor types the base unit can use. Patchwork armor is not included.
+     */
+    public List<EquipmentType> getAvailableArmors() {
+        return TestEntity.legalArmorsFor(base.getEntityType(), base.isIndustrial(), base.getMovementMode(),
+                techManager);
+    }
+
+    /**
+     * @return The heat sink types the base unit can use
+     */
+    public List<EquipmentType> getAvailableHeatSinks() {
+        List<EquipmentType> retVal = new ArrayList<>();
+        for (String name : HEAT_SINKS) {
+            EquipmentType eq = EquipmentType.get(name);
+            if ((null != eq) && techManager.isLegal(eq)) {
+                retVal.add(eq);
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * Works out the engine for each tonnage and walk MP and drops the combinations where the engine
+     * is not valid, is not legal or does not leave room in the center torso, before any variant is
+     * built. Like the structure tab, tonnages that would change whether the unit is superheavy are
+     * not allowed.
+     *
+     * @param options The choices to explore
+     * @return        The plan for {@link #run(Plan, IntConsumer, BooleanSupplier)}
+     */
+    public Plan plan(Options options) {
+        Plan plan = new Plan(options);
+        final boolean allowNonFusion = base.isPrimitive() || (!base.isSuperHeavy()
+                && (techManager.getTechLevel().compareTo(SimpleTechLevel.EXPERIMENTAL) >= 0));
+        for (double tonnage : options.tonnages) {
+            if ((tonnage > 100) != base.isSuperHeavy()) {
+                plan.pruned += options.walkMPs.size() * options.engines.size();
+                continue;
+            }
+            for (int walkMP : options.walkMPs) {
+                int rating = walkMP * (int) tonnage;
+                if (base.isPrimitive()) {
+                    rating = (int) Math.ceil((rating * 1.2) / 5.0) * 5;
+                }
+                for (Engine type : options.engines) {
+                    int flags = type.getFlags() & Engine.CLAN_ENGINE;
+                    if (rating > 400) {
+                        flags |= Engine.LARGE_ENGINE;
+                    }
+                    if (base.isSuperHeavy()) {
+                        flags |= Engine.SUPERHEAVY_ENGINE;
+                    }
+                    Engine engine = new Engine(rating, type.getEngineType(), flags);
+                    if (engine.engineValid && (engine.isFusion() || allowNonFusion) && isLegal(engine)
+                            && hasCTSpace(engine)) {
+                        plan.chassis.add(new Chassis(tonnage, walkMP, engine));
+                    } else {
+                        plan.pruned++;
+                    }
+                }
+            }
+        }
+        for (EquipmentType armor : options.armors) {
+            plan.armorTechLevels.put(armor, armor.getTechLevel(techManager.getGameYear(), armor.isClan()));
+        }
+        return plan;
+    }
+
+    /**
+     * Builds and measures the variants in the plan, using all available processors. Heat sink
+     * counts are tried from fewest to most, and stop at the first count that leaves the unit over
+     * its tonnage or out of critical slots, since more heat sinks can only make that worse.
+     *
+     * @param plan      The plan from {@link #plan(Options)}
+     * @param progress  Told the number of chassis combinations finished so far. This is called
+     *                  from the worker threads.
+     * @param cancelled Checked between variants; when it returns true the search stops early
+     * @return          The variants that fit, with the Pareto front marked
+     */
+    public List<Variant> run(Plan plan, IntConsumer progress, BooleanSupplier cancelled) {
+        final String METHOD_NAME = "run(Plan, IntConsumer, BooleanSupplier)";
+
+        final long start = System.currentTimeMillis();
+        final AtomicInteger done = new AtomicInteger();
+        final AtomicInteger found = new AtomicInteger();
+        final BooleanSupplier stop = () -> cancelled.getAsBoolean() || (found.get() >= MAX_VARIANTS);
+        final int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), plan.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "Variant explorer");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        List<Future<List<Variant>>> futures = new ArrayList<>();
+        for (Chassis chassis : plan.chassis) {
+            futures.add(executor.submit(() -> {
+                List<Variant> variants = explore(plan, chassis, found, stop);
+                progress.accept(done.incrementAndGet());
+                return variants;
+            }));
+        }
+        executor.shutdown();
+        List<Variant> retVal = new ArrayList<>();
+        for (Future<List<Variant>> future : futures) {
+            try {
+                retVal.addAll(future.get());
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                MegaMekLab.getLogger().log(VariantExplorer.class, METHOD_NAME, e.getCause());
+            }
+        }
+        markParetoFront(retVal);
+        MegaMekLab.getLogger().log(VariantExplorer.class, METHOD_NAME, LogLevel.INFO,
+                String.format("Explored %d variants of %s on %d threads in %d ms",
+                        retVal.size(), shortName, threads, System.currentTimeMillis() - start));
+        return retVal;
+    }
+
+    /**
+     * Builds the unit for a variant found by {@link #run(Plan, IntConsumer, BooleanSupplier)}.
+     *
+     * @param variant The variant
+     * @return        A new unit with the variant's configuration, or null if it could not be built
+     */
+    public Mech build(Variant variant) {
+        return configure(variant.chassis, variant.structure, variant.armor, variant.armorTechLevel,
+                variant.heatSink, variant.heatSinks);
+    }
+
+    private List<Variant> explore(Plan plan, Chassis chassis, AtomicInteger found, BooleanSupplier stop) {
+        final Options options = plan.options;
+        List<Variant> retVal = new ArrayList<>();
+        for (EquipmentType structure : options.structures) {
+            for (EquipmentType armor : options.armors) {
+                final int armorTechLevel = plan.armorTechLevels.get(armor);
+                for (EquipmentType heatSink : options.heatSinks) {
+                    if (stop.getAsBoolean()) {
+                        return retVal;
+                    }
+                    Mech unit = configure(chassis, structure, armor, armorTechLevel, heatSink,
+                            options.minHeatSinks);
+                    if (null == unit) {
+                        continue;
+                    }
+                    int current = options.minHeatSinks;
+                    for (int count = options.minHeatSinks; count <= options.maxHeatSinks; count++) {
+                        if (count > current) {
+                            UnitUtil.addHeatSinkMounts(unit, count - current, heatSink);
+                            unit.resetSinks();
+                            current = count;
+                        }
+                        double freeTonnage = unit.getWeight()
+                                - (UnitUtil.getEntityVerifier(unit).calculateWeight()
+                                        + UnitUtil.getUnallocatedAmmoTonnage(unit));
+                        int freeCrits = countCriticals(unit) - UnitUtil.countUsedCriticals(unit);
+                        if ((freeTonnage < 0) || (freeCrits < 0) || stop.getAsBoolean()) {
+                            break;
+                        }
+                        retVal.add(new Variant(chassis, structure, armor, armorTechLevel, heatSink, count, unit,
+                                freeTonnage, freeCrits));
+                        found.incrementAndGet();
+                    }
+                }
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * Makes a copy of the base unit and changes it to the given configuration the way the
+     * structure tab does. The armor tonnage of the base unit is kept as far as the new armor type
+     * and structure allow.
+     *
+     * @return The unit, or null if the configuration cannot be built
+     */
+    private Mech configure(Chassis chassis, EquipmentType structure, EquipmentType armor, int armorTechLevel,
+            EquipmentType heatSink, int heatSinks) {
+        Mech unit = copy();
+        if (null == unit) {
+            return null;
+        }
+        // Tonnage, engine and walk MP
+        Engine engine = new Engine(chassis.engine.getRating(), chassis.engine.getEngineType(),
+                chassis.engine.getFlags());
+        engine.setBaseChassisHeatSinks(unit.getEngine().getBaseChassisHeatSinks(unit.hasCompactHeatSinks()));
+        unit.setWeight(chassis.tonnage);
+        unit.setEngine(engine);
+        if (!placeEngineCriticals(unit)) {
+            return null;
+        }
+        unit.autoSetInternal();
+        unit.setOriginalWalkMP(chassis.walkMP);
+
+        // Internal structure
+        UnitUtil.removeISorArmorMounts(unit, true);
+        unit.setStructureType(EquipmentType.getStructureType(structure));
+        unit.setStructureTechLevel(structure.getStaticTechLevel().getCompoundTechLevel(structure.isClan()));
+        if (!addMounts(unit, structure, structure.getCriticals(unit))) {
+            return null;
+        }
+
+        // Armor
+        UnitUtil.removeISorArmorMounts(unit, false);
+        final int at = EquipmentType.getArmorType(armor);
+        unit.setArmorTechLevel(armorTechLevel);
+        unit.setArmorType(at);
+        if (at == EquipmentType.T_ARMOR_STEALTH) {
+            if (null == UnitUtil.createSpreadMounts(unit,
+                    EquipmentType.get(EquipmentType.getArmorTypeName(at, false)))) {
+                return null;
+            }
+        } else {
+            EquipmentType armorMount = EquipmentType.get(EquipmentType.getArmorTypeName(at,
+                    TechConstants.isClan(armorTechLevel)));
+            if (!addMounts(unit, armorMount, armorMount.getCriticals(unit))) {
+                return null;
+            }
+        }
+
+        // Heat sinks
+        final int currentSinks = UnitUtil.countActualHeatSinks(unit);
+        if (unit.hasWorkingMisc(heatSink.getInternalName())) {
+            if (heatSinks < currentSinks) {
+                UnitUtil.removeHeatSinks(unit, currentSinks - heatSinks);
+            } else if (heatSinks > currentSinks) {
+                UnitUtil.addHeatSinkMounts(unit, heatSinks - currentSinks, heatSink);
+            }
+        } else {
+            UnitUtil.removeHeatSinks(unit, currentSinks);
+            UnitUtil.addHeatSinkMounts(unit, heatSinks, heatSink);
+        }
+        unit.resetSinks();
+        UnitUtil.updateAutoSinks(unit, unit.hasCompactHeatSinks());
+
+        allocateArmor(unit, armorTonnage);
+        return unit;
+    }
+
+    /**
+     * Clears the slots needed by the unit's engine and adds the engine criticals. Equipment in
+     * the way is moved to the unallocated list, as the structure tab does when the engine changes.
+     *
+     * @return false if a system critical is in the way
+     */
+    private static boolean placeEngineCriticals(Mech unit) {
+        unit.clearEngineCrits();
+        boolean moved = false;
+        for (int slot : unit.getEngine().getCenterTorsoCriticalSlots(unit.getGyroType())) {
+            if (!canClear(unit, Mech.LOC_CT, slot)) {
+                return false;
+            }
+            moved |= clearCritical(unit, Mech.LOC_CT, slot);
+        }
+        for (int slot : unit.getEngine().getSideTorsoCriticalSlots()) {
+            if (!canClear(unit, Mech.LOC_RT, slot) || !canClear(unit, Mech.LOC_LT, slot)) {
+                return false;
+            }
+            moved |= clearCritical(unit, Mech.LOC_RT, slot);
+            moved |= clearCritical(unit, Mech.LOC_LT, slot);
+        }
+        if (moved) {
+            // Check linkings after everything is removed
+            try {
+                MechFileParser.postLoadInit(unit);
+            } catch (Exception ex) {
+                // do nothing; the links are only used for BV
+            }
+        }
+        unit.addEngineCrits();
+        return true;
+    }
+
+    private static boolean canClear(Mech unit, int loc, int slot) {
+        if (slot >= unit.getNumberOfCriticals(loc)) {
+            return false;
+        }
+        final CriticalSlot crit = unit.getCritical(loc, slot);
+        return (null == crit) || (crit.getType() == CriticalSlot.TYPE_EQUIPMENT);
+    }
+
+    private static boolean clearCritical(Mech unit, int loc, int slot) {
+        final CriticalSlot crit = unit.getCritical(loc, slot);
+        if ((null == crit) || (null == crit.getMount())) {
+            return false;
+        }
+        UnitUtil.removeCriticals(unit, crit.getMount());
+        UnitUtil.changeMountStatus(unit, crit.getMount(), Entity.LOC_NONE, Entity.LOC_NONE, false);
+        if (null != crit.getMount2()) {
+            UnitUtil.removeCriticals(unit, crit.getMount2());
+            UnitUtil.changeMountStatus(unit, crit.getMount2(), Entity.LOC_NONE, Entity.LOC_NONE, false);
+        }
+        return true;
+    }
+
+    private static boolean addMounts(Mech unit, EquipmentType type, int count) {
+        final String METHOD_NAME = "addMounts(Mech, EquipmentType, int)";
+
+        for (; count > 0; count--) {
+            try {
+                unit.addEquipment(new Mounted(unit, type), Entity.LOC_NONE, false);
+            } catch (Exception ex) {
+                MegaMekLab.getLogger().log(VariantExplorer.class, METHOD_NAME, ex);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the armor tonnage, limited to the most the unit can mount, and spreads the points over
+     * the locations in proportion to the most each location can take. Three quarters of each
+     * torso location's points go on the front.
+     */
+    private static void allocateArmor(Mech unit, double tonnage) {
+        tonnage = Math.min(tonnage, UnitUtil.getMaximumArmorTonnage(unit));
+        tonnage = TestEntity.floor(tonnage, TestEntity.Ceil.HALFTON);
+        unit.setArmorTonnage(tonnage);
+        final int maxPoints = UnitUtil.getMaximumArmorPoints(unit);
+        if (maxPoints <= 0) {
+            return;
+        }
+        final double fraction = Math.min(1.0, UnitUtil.getArmorPoints(unit, tonnage) / (double) maxPoints);
+        for (int loc = 0; loc < unit.locations(); loc++) {
+            int points = (int) Math.floor(UnitUtil.getMaximumArmorPoints(unit, loc) * fraction);
+            if (unit.hasRearArmor(loc)) {
+                int rear = points / 4;
+                unit.initializeArmor(points - rear, loc);
+                unit.initializeRearArmor(rear, loc);
+            } else {
+                unit.initializeArmor(points, loc);
+            }
+        }
+    }
+
+    private static int countCriticals(Mech unit) {
+        int retVal = 0;
+        for (int loc = 0; loc < unit.locations(); loc++) {
+            retVal += unit.getNumberOfCriticals(loc);
+        }
+        return retVal;
+    }
+
+    private boolean isLegal(Engine engine) {
+        return techManager.isLegal(engine);
+    }
+
+    /**
+     * The same test the structure tab uses for the number of center torso slots taken by the
+     * engine, gyro and cockpit
+     */
+    private boolean hasCTSpace(Engine engine) {
+        if (base.isSuperHeavy()) {
+            return true;
+        }
+        int crits = 10;
+        if (engine.getEngineType() == Engine.COMPACT_ENGINE) {
+            crits -= 3;
+        } else if (engine.hasFlag(Engine.LARGE_ENGINE)) {
+            crits += 2;
+        }
+        if (base.getGyroType() == Mech.GYRO_COMPACT) {
+            crits -= 2;
+        } else if (base.getGyroType() == Mech.GYRO_XL) {
+            crits += 2;
+        }
+        if ((base.getCockpitType() == Mech.COCKPIT_TORSO_MOUNTED)
+                || (base.getCockpitType() == Mech.COCKPIT_VRRP)) {
+            crits += 2;
+        }
+        return crits <= 12;
+    }
+
+    /**
+     * Marks the variants that are not dominated by any other. The variants are sorted by BV so
+     * each one only needs to be compared with the front found so far.
+     */
+    private static void markParetoFront(List<Variant> variants) {
+        List<Variant> sorted = new ArrayList<>(variants);
+        Collections.sort(sorted, Comparator.comparingInt(Variant::getBattleValue).reversed()
+                .thenComparing(Comparator.comparingDouble(Variant::getFreeTonnage).reversed())
+                .thenComparing(Comparator.comparingInt(Variant::getFreeCrits).reversed())
+                .thenComparingLong(Variant::getCost));
+        List<Variant> front = new ArrayList<>();
+        for (Variant v : sorted) {
+            boolean dominated = false;
+            for (Variant f : front) {
+                if (f.dominates(v)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                v.pareto = true;
+                front.add(v);
+            }
+        }
+    }
+
+    private Mech copy() {
+        return (null == snapshot) ? null : (Mech) snapshot.toEntity();
+    }
+}